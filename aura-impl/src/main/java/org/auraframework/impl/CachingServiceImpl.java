@@ -16,15 +16,21 @@
 package org.auraframework.impl;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Sets;
 import org.apache.log4j.Logger;
 import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
+import org.auraframework.http.EncodedContent;
+import org.auraframework.http.PublicActionCache;
 import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.impl.cache.DependencyIndexingCache;
+import org.auraframework.impl.cache.DependencyIndexingCache.IndexedEntry;
 import org.auraframework.impl.cache.HardCacheImpl;
 import org.auraframework.service.CachingService;
+import org.auraframework.system.LoggingContext;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.system.RegistrySet.RegistrySetKey;
@@ -36,10 +42,14 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.io.File;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -54,6 +64,12 @@ public class CachingServiceImpl implements CachingService {
     /** Default size of dependency caches, in number of entries */
     private final static int DEPENDENCY_CACHE_SIZE = 8 * 1024;
 
+    /**
+     * Number of dependency cache keys the dependency index may hold, relative to the size of the cache. The index
+     * keeps keys whose entries were evicted, since what was built from them may still be cached.
+     */
+    private final static int DEPENDENCY_INDEX_FACTOR = 4;
+
     /** Default size of descriptor filter caches, in number of entries */
     private final static int FILTER_CACHE_SIZE = 4608;
 
@@ -61,6 +77,7 @@ public class CachingServiceImpl implements CachingService {
     private final static int STRING_CACHE_SIZE = 100;
     private final static int ALT_STRINGS_CACHE_SIZE = 100;
     private final static int CSS_STRINGS_CACHE_SIZE = 50;
+    private final static int ENCODED_CONTENT_CACHE_SIZE = 100;
 
     /** Default size of client lib caches, in number of entries */
     private final static int CLIENT_LIB_CACHE_SIZE = 30;
@@ -83,6 +100,8 @@ public class CachingServiceImpl implements CachingService {
     private Cache<String, String> stringsCache;
     private Cache<String, String> altStringsCache;
     private Cache<String, String> cssStringsCache;
+    private Cache<String, EncodedContent> encodedContentCache;
+    private PublicActionCache publicActionCache;
     private Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
     /**
      * depsCache contains multiple entries for dependencies.
@@ -90,10 +109,17 @@ public class CachingServiceImpl implements CachingService {
      * plus with and without uid for faster lookups
      * However, most values will point to the same DependencyEntry where modules are not used.
      */
-    private Cache<String, DependencyEntry> depsCache;
+    private DependencyIndexingCache depsCache;
     private Cache<String, String> clientLibraryOutputCache;
     private Cache<RegistrySet.RegistrySetKey, RegistrySet> registrySetCache;
 
+    /** Number of parent directories to walk looking for the bundle that owns a changed file */
+    private final static int MAX_BUNDLE_DEPTH = 3;
+
+    /** Count of entries evicted by the most recent source change, and in total */
+    private final AtomicLong lastSourceChangeEvictions = new AtomicLong();
+    private final AtomicLong totalSourceChangeEvictions = new AtomicLong();
+
     private static final Logger logger = Logger.getLogger(CachingServiceImpl.class);
 
     @PostConstruct
@@ -117,6 +143,9 @@ public class CachingServiceImpl implements CachingService {
                 .setName("defsCache")
                 .setSoftValues(true).build();
 
+        // large strings can be held off heap, rather than rebuilt whenever their soft references are collected
+        boolean useSecondaryStorage = Boolean.getBoolean("aura.cache.useSecondaryStorage");
+
         size = getCacheSize("aura.cache.stringsCacheSize", STRING_CACHE_SIZE);
         stringsCache = this.<String, String> getCacheBuilder()
                 .setInitialSize(size)
@@ -124,6 +153,7 @@ public class CachingServiceImpl implements CachingService {
                 .setMaximumSize(size)
                 .setRecordStats(true)
                 .setName("stringsCache")
+                .setUseSecondaryStorage(useSecondaryStorage)
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.altStringsCacheSize", ALT_STRINGS_CACHE_SIZE);
@@ -142,8 +172,20 @@ public class CachingServiceImpl implements CachingService {
                 .setMaximumSize(size)
                 .setRecordStats(true)
                 .setName("cssStringsCache")
+                .setUseSecondaryStorage(useSecondaryStorage)
                 .setSoftValues(true).build();      
 
+        size = getCacheSize("aura.cache.encodedContentCacheSize", ENCODED_CONTENT_CACHE_SIZE);
+        encodedContentCache = this.<String, EncodedContent>getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("encodedContentCache")
+                .setSoftValues(true).build();
+
+        publicActionCache = new PublicActionCache();
+
         size = getCacheSize("aura.cache.filterCacheSize", FILTER_CACHE_SIZE);
         descriptorFilterCache = this
                 .<String, Set<DefDescriptor<?>>> getCacheBuilder()
@@ -155,13 +197,13 @@ public class CachingServiceImpl implements CachingService {
                 .setSoftValues(true).build();
 
         size = getCacheSize("aura.cache.depsCacheSize", DEPENDENCY_CACHE_SIZE);
-        depsCache = this.<String, DependencyEntry> getCacheBuilder()
+        depsCache = new DependencyIndexingCache(new CacheImpl.Builder<String, DependencyEntry>()
                 .setInitialSize(size)
                 .setLoggingAdapter(loggingAdapter)
                 .setMaximumSize(size)
                 .setRecordStats(true)
                 .setName("depsCache")
-                .setSoftValues(true).build();
+                .setSoftValues(true), size * DEPENDENCY_INDEX_FACTOR);
 
         size = getCacheSize("aura.cache.clientLibraryOutputCacheSize", CLIENT_LIB_CACHE_SIZE);
         clientLibraryOutputCache = this.<String, String> getCacheBuilder()
@@ -210,6 +252,16 @@ public class CachingServiceImpl implements CachingService {
         return cssStringsCache;
     }
 
+    @Override
+    public Cache<String, EncodedContent> getEncodedContentCache() {
+        return encodedContentCache;
+    }
+
+    @Override
+    public PublicActionCache getPublicActionCache() {
+        return publicActionCache;
+    }
+
     @Override
     public final Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache() {
         return descriptorFilterCache;
@@ -245,10 +297,13 @@ public class CachingServiceImpl implements CachingService {
      * all registered listeners while write blocking, then invalidate it's own caches. If this routine can't acquire the
      * lock , it will log it as an non-fatal error, as it only results in staleness.
      *
+     * When the changed file can be mapped to the descriptors of a bundle, only those descriptors, the dependency
+     * entries that contain them, and the strings built for those dependency entries are evicted. Otherwise every
+     * source related cache is cleared.
+     *
      * @param listeners - collections of listeners to notify of source changes
-     * @param source - DefDescriptor that changed - for granular cache clear (currently not considered here, but other
-     *            listeners may make use of it)
      * @param event - what type of event triggered the change
+     * @param filePath - the file that changed, null if everything should be considered changed
      */
     @Override
     public void notifyDependentSourceChange(
@@ -270,7 +325,8 @@ public class CachingServiceImpl implements CachingService {
             }
 
             // successfully acquired the lock, start clearing caches
-            invalidateSourceRelatedCaches();
+            long evicted = invalidateSourceRelatedCaches(event, filePath);
+            recordEvictions(evicted, filePath);
 
             // notify provided listeners, presumably to clear caches
             if (listeners != null) {
@@ -294,17 +350,153 @@ public class CachingServiceImpl implements CachingService {
         }
     }
 
+    /**
+     * Invalidate the caches affected by a change to a file.
+     *
+     * @return the number of entries evicted, or -1 if all caches were cleared.
+     */
+    private long invalidateSourceRelatedCaches(SourceListener.SourceMonitorEvent event, String filePath) {
+        Set<DefDescriptor<?>> changed = findChangedDescriptors(filePath);
+        if (changed.isEmpty() || !depsCache.isIndexComplete()) {
+            // without a complete index, dependents of the change cannot all be found.
+            invalidateSourceRelatedCaches();
+            return -1;
+        }
+
+        long evicted = 0;
+        Set<DefDescriptor<?>> dependents = Sets.newHashSet();
+        for (DefDescriptor<?> descriptor : changed) {
+            // this includes entries that were evicted, whose definitions and strings may still be cached.
+            List<IndexedEntry> entries = new ArrayList<>();
+            evicted += depsCache.invalidateDependents(descriptor, entries);
+            for (IndexedEntry entry : entries) {
+                if (entry.getUid() != null) {
+                    // string cache keys are of the form uid@descriptor@key
+                    String prefix = entry.getUid() + "@";
+                    evicted += invalidatePartial(stringsCache, prefix);
+                    evicted += invalidatePartial(altStringsCache, prefix);
+                    evicted += invalidatePartial(encodedContentCache, prefix);
+                }
+                entry.addDependents(dependents, changed);
+            }
+            if (existsCache.getKeySet().contains(descriptor)) {
+                evicted++;
+            }
+            existsCache.invalidate(descriptor);
+        }
+
+        // definitions that extend, implement or include a changed one were linked and validated against it.
+        dependents.addAll(changed);
+        Set<DefDescriptor<?>> cachedDefs = defsCache.getKeySet();
+        for (DefDescriptor<?> descriptor : dependents) {
+            if (cachedDefs.contains(descriptor)) {
+                evicted++;
+            }
+        }
+        defsCache.invalidate(dependents);
+
+        if (event != SourceListener.SourceMonitorEvent.CHANGED) {
+            // creation and deletion change the results of finds, so filters and registry sets cannot be trusted.
+            descriptorFilterCache.invalidateAll();
+            registrySetCache.invalidateAll();
+        }
+        clientLibraryOutputCache.invalidateAll();
+        publicActionCache.invalidateAll();
+        return evicted;
+    }
+
     private void invalidateSourceRelatedCaches() {
         depsCache.invalidateAll();
         descriptorFilterCache.invalidateAll();
         stringsCache.invalidateAll();
         altStringsCache.invalidateAll();
+        encodedContentCache.invalidateAll();
         clientLibraryOutputCache.invalidateAll();
+        publicActionCache.invalidateAll();
         registrySetCache.invalidateAll();
         defsCache.invalidateAll();
         existsCache.invalidateAll();
     }
 
+    private int invalidatePartial(Cache<String, ?> cache, String prefix) {
+        int count = 0;
+        for (String key : cache.getKeySet()) {
+            if (key.startsWith(prefix)) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            cache.invalidatePartial(prefix);
+        }
+        return count;
+    }
+
+    /**
+     * Find the cached descriptors belonging to the bundle that contains a file.
+     *
+     * Bundles live in a namespace/name directory pair, possibly with the file nested a few directories down (e.g.
+     * module resources). We walk up from the file looking for the first directory pair that matches cached
+     * descriptors.
+     *
+     * @param filePath the file that changed.
+     * @return the set of descriptors, empty if the file could not be mapped.
+     */
+    private Set<DefDescriptor<?>> findChangedDescriptors(String filePath) {
+        Set<DefDescriptor<?>> changed = Sets.newHashSet();
+        if (filePath == null) {
+            return changed;
+        }
+        File dir = new File(filePath).getParentFile();
+        for (int depth = 0; depth < MAX_BUNDLE_DEPTH && dir != null && dir.getParentFile() != null; depth++) {
+            String name = dir.getName();
+            String namespace = dir.getParentFile().getName();
+
+            addMatching(changed, defsCache.getKeySet(), namespace, name);
+            addMatching(changed, existsCache.getKeySet(), namespace, name);
+            if (!changed.isEmpty()) {
+                break;
+            }
+            dir = dir.getParentFile();
+        }
+        return changed;
+    }
+
+    private void addMatching(Set<DefDescriptor<?>> changed, Set<DefDescriptor<?>> keys, String namespace, String name) {
+        for (DefDescriptor<?> descriptor : keys) {
+            if (name.equalsIgnoreCase(descriptor.getName()) && namespace.equalsIgnoreCase(descriptor.getNamespace())) {
+                changed.add(descriptor);
+            }
+        }
+    }
+
+    private void recordEvictions(long evicted, String filePath) {
+        if (evicted < 0) {
+            logger.info("Source change to " + filePath + " cleared all source related caches");
+            return;
+        }
+        lastSourceChangeEvictions.set(evicted);
+        totalSourceChangeEvictions.addAndGet(evicted);
+        if (loggingAdapter != null && loggingAdapter.isEstablished()) {
+            LoggingContext loggingCtx = loggingAdapter.getLoggingContext();
+            loggingCtx.setNum("sourceChangeEvictions", evicted);
+        }
+        logger.info("Source change to " + filePath + " evicted " + evicted + " cache entries");
+    }
+
+    /**
+     * @return the number of cache entries evicted by the last granular source change.
+     */
+    public long getLastSourceChangeEvictions() {
+        return lastSourceChangeEvictions.get();
+    }
+
+    /**
+     * @return the number of cache entries evicted by granular source changes since startup.
+     */
+    public long getTotalSourceChangeEvictions() {
+        return totalSourceChangeEvictions.get();
+    }
+
     @Inject
     void setLoggingAdapter(LoggingAdapter loggingAdapter) {
         this.loggingAdapter = loggingAdapter;
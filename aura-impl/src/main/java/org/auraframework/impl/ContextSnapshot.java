@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.GlobalValueProvider;
+import org.auraframework.service.ContextService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.Client;
+import org.auraframework.system.RegistrySet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+/**
+ * The state of a context that work forked onto another thread reads.
+ *
+ * The snapshot is taken on the thread that owns the context, so that pool threads never read a context while it
+ * changes, and {@link #fork(ContextService)} starts an equivalent context on the pool thread.
+ */
+class ContextSnapshot {
+    private final Mode mode;
+    private final Format format;
+    private final Authentication access;
+    /**
+     * Shared with the forks rather than copied, so that values loaded by forked work, such as labels, are sent with
+     * the response. Providers that change while running must be thread safe, see LabelValueProvider.
+     */
+    private final Map<String, GlobalValueProvider> globalProviders;
+    private final DefDescriptor<? extends BaseComponentDef> applicationDescriptor;
+    private final RegistrySet registries;
+    private final DefDescriptor<? extends BaseComponentDef> loadingApplicationDescriptor;
+    private final String frameworkUID;
+    private final String contextPath;
+    private final Client client;
+    private final List<Locale> requestedLocales;
+    private final Map<DefDescriptor<?>, String> clientLoaded;
+    private final Map<DefDescriptor<?>, String> loaded;
+    private final Set<DefDescriptor<?>> preloadedDefinitions;
+    private final String actionPublicCacheKey;
+    private final boolean useCompatSource;
+    private final boolean forceCompat;
+    private final Map<String, Object> globals = new HashMap<>();
+
+    ContextSnapshot(AuraContext parent) {
+        mode = parent.getMode();
+        format = parent.getFormat();
+        access = parent.getAccess();
+        globalProviders = parent.getGlobalProviders();
+        applicationDescriptor = parent.getApplicationDescriptor();
+        registries = parent.getRegistries();
+        loadingApplicationDescriptor = parent.getLoadingApplicationDescriptor();
+        frameworkUID = parent.getFrameworkUID();
+        contextPath = parent.getContextPath();
+        client = parent.getClient();
+        requestedLocales = parent.getRequestedLocales() != null
+                ? ImmutableList.copyOf(parent.getRequestedLocales()) : null;
+        clientLoaded = new HashMap<>(parent.getClientLoaded());
+        loaded = new HashMap<>(parent.getLoaded());
+        preloadedDefinitions = new HashSet<>(parent.getPreloadedDefinitions());
+        actionPublicCacheKey = parent.getActionPublicCacheKey();
+        useCompatSource = parent.useCompatSource();
+        forceCompat = parent.forceCompat();
+        for (String name : parent.getGlobals().keySet()) {
+            globals.put(name, parent.getGlobal(name));
+        }
+    }
+
+    /**
+     * Start a context on the current thread from the snapshot.
+     *
+     * This also starts a new logging context for the thread, and must be paired with
+     * {@link ContextService#endContext()}.
+     */
+    AuraContext fork(ContextService contextService) {
+        AuraContext fork = contextService.startContext(mode, format, access, globalProviders, applicationDescriptor);
+        fork.setRegistries(registries);
+        fork.setLoadingApplicationDescriptor(loadingApplicationDescriptor);
+        fork.setFrameworkUID(frameworkUID);
+        fork.setContextPath(contextPath);
+        fork.setClient(client);
+        fork.setRequestedLocales(requestedLocales);
+        fork.setClientLoaded(clientLoaded);
+        for (Map.Entry<DefDescriptor<?>, String> entry : loaded.entrySet()) {
+            fork.addLoaded(entry.getKey(), entry.getValue());
+        }
+        fork.setPreloadedDefinitions(Sets.newHashSet(preloadedDefinitions));
+        fork.setActionPublicCacheKey(actionPublicCacheKey);
+        fork.setUseCompatSource(useCompatSource);
+        fork.setForceCompat(forceCompat);
+        for (Map.Entry<String, Object> entry : globals.entrySet()) {
+            fork.setGlobalValue(entry.getKey(), entry.getValue());
+        }
+        return fork;
+    }
+}
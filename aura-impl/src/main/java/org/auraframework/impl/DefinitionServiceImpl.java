@@ -15,6 +15,7 @@
  */
 package org.auraframework.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -22,7 +23,13 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
@@ -51,6 +58,7 @@ import org.auraframework.def.TypeDef;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.context.AuraLocalStoreImpl;
 import org.auraframework.impl.controller.AuraGlobalControllerDefRegistry;
+import org.auraframework.impl.javascript.BaseJavascriptClass;
 import org.auraframework.impl.linker.AccessChecker;
 import org.auraframework.impl.linker.AuraLinker;
 import org.auraframework.impl.linker.LinkingDefinition;
@@ -83,6 +91,7 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.quickfix.CompositeValidationException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
+import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.text.GlobMatcher;
@@ -386,7 +395,6 @@ public class DefinitionServiceImpl implements DefinitionService {
         final String filterKey = matcher.toString();
         Set<DefDescriptor<?>> matched = Sets.newHashSet();
         GlobMatcher namespaceMatcher = matcher.getNamespaceMatch();
-        String namespace = namespaceMatcher.isConstant()?namespaceMatcher.toString():null;
         AuraContext context = contextService.getCurrentContext();
         Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache = cachingService.getDescriptorFilterCache();
         Lock rLock = cachingService.getReadLock();
@@ -427,67 +435,39 @@ public class DefinitionServiceImpl implements DefinitionService {
                 boolean cacheable = configAdapter.isCacheable(matcher) && namespaceMatcher.isConstant();
                 Collection<DefRegistry> matchedRegistries = context.getRegistries().getRegistries(matcher);
                 for (DefRegistry reg : matchedRegistries) {
+                    //
+                    // The registry set has already matched our namespace against the registry, case
+                    // insensitively, so there is no need to walk the namespaces again here.
+                    //
                     if (reg.hasFind()) {
-                        //
-                        // Now we walk then entire set of registries, and check to see if our namespace
-                        // matches them. In the case of a constant namespace, this is easy, otherwise
-                        // we have to do a double walk.
-                        //
-                        // We could theoretically do the cache lookup first, but that seems overly complicated
-                        //
-                        Set<String> namespaces = reg.getNamespaces();
-                        boolean nsm = namespaces.contains("*");
-                        if (!nsm) {
-                            //
-                            // Careful here. namespaces is case sensitive. If we fail to find the
-                            // namespace by lookup, go ahead and walk the entire namespace set
-                            // matching with our insensitive matcher. Not pretty, and not great for
-                            // perf. The only way to fix this is to be case sensitive. Note that the
-                            // perf penalty is paid by everyone. not just the bad case matching.
-                            //
-                            nsm = namespaces.contains(namespace);
-                            if (!nsm) {
-                                for (String ns : namespaces) {
-                                    if (namespaceMatcher.match(ns)) {
-                                        nsm = true;
-                                    }
-                                }
-                            }
-                        }
-                        //
-                        // Only look up results if we have a match.
-                        //
-                        if (nsm) {
-                            Set<DefDescriptor<?>> registryResults = null;
-
-                            if (cacheable && reg.isCacheable()) {
-                                // cache results per registry
-                                String cacheKey = filterKey + "|" + reg.toString();
-                                registryResults = descriptorFilterCache.getIfPresent(cacheKey);
-                                if (registryResults == null) {
-                                    registryResults = reg.find(matcher);
-                                    descriptorFilterCache.put(cacheKey, registryResults);
-                                }
-                            } else {
+                        Set<DefDescriptor<?>> registryResults = null;
+
+                        if (cacheable && reg.isCacheable()) {
+                            // cache results per registry
+                            String cacheKey = filterKey + "|" + reg.toString();
+                            registryResults = descriptorFilterCache.getIfPresent(cacheKey);
+                            if (registryResults == null) {
                                 registryResults = reg.find(matcher);
+                                descriptorFilterCache.put(cacheKey, registryResults);
                             }
+                        } else {
+                            registryResults = reg.find(matcher);
+                        }
 
-                            if (referenceDescriptor != null) {
-                                matched.addAll(registryResults.stream()
-                                        .filter(regRes -> {
-                                            try {
-                                                return accessChecker.checkAccess(
-                                                    referenceDescriptor,
-                                                    getUnlinkedDefinition(regRes),
-                                                    context.getAccessCheckCache());
-                                            } catch (QuickFixException e) {
-                                                return false;
-                                            }
-                                        })
-                                        .collect(Collectors.toSet()));
-                            } else {
-                                matched.addAll(registryResults);
-                            }
+                        if (referenceDescriptor != null) {
+                            matched.addAll(registryResults.stream()
+                                    .filter(regRes -> {
+                                        try {
+                                            return accessChecker.checkAccess(
+                                                referenceDescriptor,
+                                                getUnlinkedDefinition(regRes));
+                                        } catch (QuickFixException e) {
+                                            return false;
+                                        }
+                                    })
+                                    .collect(Collectors.toSet()));
+                        } else {
+                            matched.addAll(registryResults);
                         }
                     }
                 }
@@ -917,8 +897,7 @@ public class DefinitionServiceImpl implements DefinitionService {
     @Override
     public <D extends Definition> void assertAccess(DefDescriptor<?> referencingDescriptor, D def)
             throws QuickFixException {
-        accessChecker.assertAccess(referencingDescriptor, def, 
-                contextService.getCurrentContext().getAccessCheckCache());
+        accessChecker.assertAccess(referencingDescriptor, def);
     }
 
     /**
@@ -927,8 +906,7 @@ public class DefinitionServiceImpl implements DefinitionService {
     @Override
     public <D extends Definition> void assertAccess(DefDescriptor<?> referencingDescriptor, DefDescriptor<?> accessDescriptor)
             throws QuickFixException {
-        accessChecker.assertAccess(referencingDescriptor, getDefinition(accessDescriptor),
-                contextService.getCurrentContext().getAccessCheckCache());
+        accessChecker.assertAccess(referencingDescriptor, getDefinition(accessDescriptor));
     }
 
     /**
@@ -937,8 +915,7 @@ public class DefinitionServiceImpl implements DefinitionService {
     @Override
     public boolean hasAccess(DefDescriptor<?> referencingDescriptor, DefDescriptor<?> accessDescriptor)
             throws QuickFixException {
-        return accessChecker.checkAccess(referencingDescriptor, getDefinition(accessDescriptor),
-                contextService.getCurrentContext().getAccessCheckCache());
+        return accessChecker.checkAccess(referencingDescriptor, getDefinition(accessDescriptor));
     }
 
     /**
@@ -948,8 +925,7 @@ public class DefinitionServiceImpl implements DefinitionService {
     public <D extends Definition> boolean hasAccess(DefDescriptor<?> referencingDescriptor, D def)
             throws QuickFixException {
 
-        return accessChecker.checkAccess(referencingDescriptor, def,
-                contextService.getCurrentContext().getAccessCheckCache());
+        return accessChecker.checkAccess(referencingDescriptor, def);
         
     }
 
@@ -1022,7 +998,7 @@ public class DefinitionServiceImpl implements DefinitionService {
         Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache = cachingService.getDefsCache();
 
         linker = new AuraLinker(descriptor, defsCache,
-                loggingService, configAdapter, accessChecker, context.getAuraLocalStore(), context.getAccessCheckCache(),
+                loggingService, configAdapter, accessChecker, context.getAuraLocalStore(),
                 context.getRegistries(), context.getJsonSerializationContext(), exceptionAdapter);
 
         threadLinker.set(linker);
@@ -1184,44 +1160,175 @@ public class DefinitionServiceImpl implements DefinitionService {
 
     private final ThreadLocal<AuraLinker> threadLinker = new ThreadLocal<>();
 
+    /** The root definition types that are linked when warming caches */
+    private static final DefType [] WARM_TYPES = new DefType [] {
+        DefType.LIBRARY, DefType.COMPONENT, DefType.MODULE, DefType.APPLICATION };
+
+    /** System property to set the number of threads used by {@link #warmCaches()} */
+    private static final String WARM_CACHES_THREADS_PROPERTY = "aura.warmCaches.threadCount";
+
     @Override
     public void warmCaches() {
+        warmCaches(Integer.getInteger(WARM_CACHES_THREADS_PROPERTY, 1));
+    }
+
+    @Override
+    public void warmCaches(int threadCount) {
+        if (threadCount <= 1) {
+            warmCachesSerially();
+        } else {
+            warmCachesInParallel(threadCount);
+        }
+    }
+
+    private void warmCachesSerially() {
         AuraContext context = contextService.getCurrentContext();
-        Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache = cachingService.getDefsCache();
-        AuraLinker linker = new AuraLinker(null, defsCache,
-                loggingService, configAdapter, accessChecker, context.getAuraLocalStore(),
-                context.getAccessCheckCache(), context.getRegistries(),
-                context.getJsonSerializationContext(), exceptionAdapter);
-        linker.addMap(globalControllerDefRegistry.getAll());
+        AuraLinker linker = createWarmingLinker(context, context.getRegistries());
         long startTime = System.currentTimeMillis();
         long incremental;
 
-        DefType [] types = new DefType [] { DefType.LIBRARY, DefType.COMPONENT, DefType.MODULE, DefType.APPLICATION };
-
         for (DefRegistry registry : context.getRegistries().getAllRegistries()) {
-            if (registry instanceof CompilingDefRegistry
-                    || (registry instanceof BundleAwareDefRegistry && registry.isCacheable())) {
+            if (isWarmable(registry)) {
                 incremental = System.currentTimeMillis();
                 for (String namespace : registry.getNamespaces()) {
-                    for (DefType type : types) {
-                        DescriptorFilter filter = new DescriptorFilter(namespace+":*", type);
-                        linker.warmDefinitions(registry.find(filter));
-                    }
+                    warmNamespace(linker, registry, namespace);
                 }
                 incremental = System.currentTimeMillis() - incremental;
                 loggingService.info("warmCaches: PROCESSED CompilingDefRegistry with namespaces = "+registry.getNamespaces()
                         +", time = "+incremental);
             } else {
-                loggingService.warn("warmCaches: SKIP "+registry.getClass().getSimpleName()
-                            +" with prefixes="+registry.getPrefixes()
-                            +" with namespace="+registry.getNamespaces()
-                            +" with defTypes="+registry.getDefTypes());
+                logSkippedRegistry(registry);
             }
         }
         long elapsedTime = System.currentTimeMillis() - startTime;
         loggingService.info("warmCaches(END): Total time ="+elapsedTime);
     }
 
+    /**
+     * Warm the caches with a fixed pool of threads.
+     *
+     * Each worker forks its own context from a snapshot of the current one, so that it uses the same registries,
+     * and pulls namespaces from a shared queue until it is empty. The linked definitions are shared through the
+     * defs cache, which is safe for concurrent use. Every worker is waited for before any failure is reported.
+     */
+    private void warmCachesInParallel(int threadCount) {
+        AuraContext context = contextService.getCurrentContext();
+        RegistrySet registries = context.getRegistries();
+        ContextSnapshot snapshot = new ContextSnapshot(context);
+        long startTime = System.currentTimeMillis();
+        Queue<WarmingTask> tasks = new ConcurrentLinkedQueue<>();
+
+        for (DefRegistry registry : registries.getAllRegistries()) {
+            if (isWarmable(registry)) {
+                for (String namespace : registry.getNamespaces()) {
+                    tasks.add(new WarmingTask(registry, namespace));
+                }
+            } else {
+                logSkippedRegistry(registry);
+            }
+        }
+
+        int workerCount = Math.min(threadCount, tasks.size());
+        if (workerCount == 0) {
+            loggingService.info("warmCaches(END): nothing to warm");
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        List<Future<?>> workers = new ArrayList<>(workerCount);
+        AuraRuntimeException failure = null;
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(executor.submit(() -> warmNamespaces(tasks, snapshot)));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException ee) {
+                    if (failure == null) {
+                        failure = new AuraRuntimeException("warmCaches: worker failed", ee.getCause());
+                    } else {
+                        failure.addSuppressed(ee.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedTime = System.currentTimeMillis() - startTime;
+        loggingService.info("warmCaches(END): Total time ="+elapsedTime+", threads = "+workerCount);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void warmNamespaces(Queue<WarmingTask> tasks, ContextSnapshot parent) {
+        AuraContext context = parent.fork(contextService);
+        try {
+            AuraLinker linker = createWarmingLinker(context, context.getRegistries());
+            WarmingTask task;
+            while ((task = tasks.poll()) != null) {
+                long incremental = System.currentTimeMillis();
+                warmNamespace(linker, task.registry, task.namespace);
+                incremental = System.currentTimeMillis() - incremental;
+                loggingService.info("warmCaches: PROCESSED namespace = "+task.namespace
+                        +" in "+task.registry.getClass().getSimpleName()+", time = "+incremental);
+            }
+        } finally {
+            contextService.endContext();
+        }
+    }
+
+    private AuraLinker createWarmingLinker(AuraContext context, RegistrySet registries) {
+        Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache = cachingService.getDefsCache();
+        AuraLinker linker = new AuraLinker(null, defsCache,
+                loggingService, configAdapter, accessChecker, context.getAuraLocalStore(), registries,
+                context.getJsonSerializationContext(), exceptionAdapter);
+        linker.addMap(globalControllerDefRegistry.getAll());
+        return linker;
+    }
+
+    private void warmNamespace(AuraLinker linker, DefRegistry registry, String namespace) {
+        // Minify the javascript classes built for the namespace together, rather than one by one on first use.
+        BaseJavascriptClass.startBatch();
+        try {
+            for (DefType type : WARM_TYPES) {
+                DescriptorFilter filter = new DescriptorFilter(namespace+":*", type);
+                linker.warmDefinitions(registry.find(filter));
+            }
+        } finally {
+            try {
+                BaseJavascriptClass.finishBatch();
+            } catch (InvalidDefinitionException ide) {
+                // remembered by the class, and reported when its minified code is asked for
+                loggingService.warn("warmCaches: minification failed in "+namespace, ide);
+            }
+        }
+    }
+
+    private boolean isWarmable(DefRegistry registry) {
+        return registry instanceof CompilingDefRegistry
+                || (registry instanceof BundleAwareDefRegistry && registry.isCacheable());
+    }
+
+    private void logSkippedRegistry(DefRegistry registry) {
+        loggingService.warn("warmCaches: SKIP "+registry.getClass().getSimpleName()
+                    +" with prefixes="+registry.getPrefixes()
+                    +" with namespace="+registry.getNamespaces()
+                    +" with defTypes="+registry.getDefTypes());
+    }
+
+    private static class WarmingTask {
+        private final DefRegistry registry;
+        private final String namespace;
+
+        private WarmingTask(DefRegistry registry, String namespace) {
+            this.registry = registry;
+            this.namespace = namespace;
+        }
+    }
+
     private UsageMap<PropertyReference> getReferenceUsageMap(String root,
             Map<DefDescriptor<? extends Definition>, Definition> defs) {
         return defs.entrySet().stream().collect(
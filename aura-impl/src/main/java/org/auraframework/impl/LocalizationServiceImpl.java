@@ -23,6 +23,7 @@ import java.util.Currency;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.function.Function;
 
 import org.auraframework.adapter.LocalizationAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
@@ -33,6 +34,8 @@ import org.auraframework.util.date.DateServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.DecimalFormat;
 import com.ibm.icu.text.DecimalFormatSymbols;
@@ -52,6 +55,19 @@ public class LocalizationServiceImpl implements LocalizationService {
     // make pluggable in the future?
     private final DateService dateService = DateServiceImpl.get();
 
+    private static final int FORMAT_CACHE_SIZE = Integer.getInteger("aura.localization.formatCacheSize", 500);
+
+    /**
+     * Number formats by locale. ICU formats are mutable and not thread safe, so these are only ever cloned, which is
+     * much cheaper than looking the locale data up again.
+     */
+    private final Cache<Locale, NumberFormat> numberFormats = CacheBuilder.newBuilder()
+            .maximumSize(FORMAT_CACHE_SIZE).build();
+    private final Cache<Locale, NumberFormat> percentFormats = CacheBuilder.newBuilder()
+            .maximumSize(FORMAT_CACHE_SIZE).build();
+    private final Cache<Locale, NumberFormat> currencyFormats = CacheBuilder.newBuilder()
+            .maximumSize(FORMAT_CACHE_SIZE).build();
+
     @Override
     public String formatDate(Date date) {
         return formatDate(date, null, DateFormat.DEFAULT, null);
@@ -148,7 +164,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = getNumberFormat(locale);
         return nf.format(number);
     }
 
@@ -162,7 +178,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        NumberFormat numberFormat = getNumberFormat(locale);
         return numberFormat.format(number);
     }
 
@@ -176,7 +192,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = getNumberFormat(locale);
         return nf.format(number);
     }
 
@@ -185,7 +201,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        NumberFormat numberFormat = getNumberFormat(locale);
         numberFormat.setMinimumFractionDigits(minFractionDigits);
         numberFormat.setMaximumFractionDigits(maxFractionDigits);
         return numberFormat.format(number);
@@ -204,7 +220,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        NumberFormat numberFormat = getNumberFormat(locale);
         return numberFormat.format(number);
     }
 
@@ -216,7 +232,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat nf = NumberFormat.getNumberInstance(locale);
+        NumberFormat nf = getNumberFormat(locale);
         nf.setMinimumFractionDigits(minFractionDigits);
         nf.setMaximumFractionDigits(maxFractionDigits);
         return nf.format(number);
@@ -235,7 +251,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        NumberFormat numberFormat = getNumberFormat(locale);
         return numberFormat.format(number);
     }
 
@@ -248,7 +264,7 @@ public class LocalizationServiceImpl implements LocalizationService {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
 
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        NumberFormat numberFormat = getNumberFormat(locale);
         numberFormat.setMinimumFractionDigits(minFractionDigits);
         numberFormat.setMaximumFractionDigits(maxFractionDigits);
         return numberFormat.format(number);
@@ -264,7 +280,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat percentFormat = NumberFormat.getPercentInstance(locale);
+        NumberFormat percentFormat = getPercentFormat(locale);
         return percentFormat.format(percent);
     }
 
@@ -273,7 +289,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat percentFormat = NumberFormat.getPercentInstance(locale);
+        NumberFormat percentFormat = getPercentFormat(locale);
         percentFormat.setMinimumFractionDigits(minFractionDigits);
         percentFormat.setMaximumFractionDigits(maxFractionDigits);
         return percentFormat.format(percent);
@@ -290,7 +306,7 @@ public class LocalizationServiceImpl implements LocalizationService {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
 
-        DecimalFormat currencyFormat = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat currencyFormat = (DecimalFormat) getCurrencyFormat(locale);
         return currencyFormat.format(currency);
     }
 
@@ -308,7 +324,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (currency == null) {
             currency = Currency.getInstance(locale);
         }
-        DecimalFormat currencyFormat = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat currencyFormat = (DecimalFormat) getCurrencyFormat(locale);
         // setCurrency will set fraction digits based on locale so that statement needs to happen before if we
         // want to set fraction digits ourselves
         currencyFormat.setCurrency(com.ibm.icu.util.Currency.fromJavaCurrency(currency));
@@ -328,7 +344,7 @@ public class LocalizationServiceImpl implements LocalizationService {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
 
-        DecimalFormat currencyFormat = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat currencyFormat = (DecimalFormat) getCurrencyFormat(locale);
         currencyFormat.setParseBigDecimal(true);
         return currencyFormat.format(currency);
     }
@@ -347,7 +363,7 @@ public class LocalizationServiceImpl implements LocalizationService {
             currency = Currency.getInstance(locale);
         }
 
-        DecimalFormat currencyFormat = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat currencyFormat = (DecimalFormat) getCurrencyFormat(locale);
         currencyFormat.setParseBigDecimal(true);
         currencyFormat.setCurrency(com.ibm.icu.util.Currency.fromJavaCurrency(currency));
         currencyFormat.setMinimumFractionDigits(minFractionDigits);
@@ -615,7 +631,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+        NumberFormat numberFormat = getNumberFormat(locale);
         numberFormat.setParseStrict(true);
         return numberFormat.parse(number);
     }
@@ -633,7 +649,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        NumberFormat numberFormat = NumberFormat.getPercentInstance(locale);
+        NumberFormat numberFormat = getPercentFormat(locale);
         numberFormat.setParseStrict(true);
         return numberFormat.parse(percent).doubleValue();
     }
@@ -651,7 +667,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getCurrencyLocale();
         }
-        DecimalFormat decimalFormat = (DecimalFormat) NumberFormat.getCurrencyInstance(locale);
+        DecimalFormat decimalFormat = (DecimalFormat) getCurrencyFormat(locale);
         decimalFormat.setParseBigDecimal(true);
         decimalFormat.setParseStrict(true);
         return ((com.ibm.icu.math.BigDecimal) decimalFormat.parse(currency)).toBigDecimal();
@@ -675,7 +691,7 @@ public class LocalizationServiceImpl implements LocalizationService {
         if (locale == null) {
             locale = this.localizationAdapter.getAuraLocale().getNumberLocale();
         }
-        DecimalFormat decimalFormat = (DecimalFormat)NumberFormat.getNumberInstance(locale);
+        DecimalFormat decimalFormat = (DecimalFormat)getNumberFormat(locale);
         decimalFormat.setParseBigDecimal(true);
         // icu BigDecimal to java BigDecimal
         if (strict) {
@@ -745,7 +761,7 @@ public class LocalizationServiceImpl implements LocalizationService {
     @Override
     public String getPercentFormatPattern() {
         AuraLocale auraLocale = this.localizationAdapter.getAuraLocale();
-        DecimalFormat pdf = (DecimalFormat) NumberFormat.getPercentInstance(auraLocale.getNumberLocale());
+        DecimalFormat pdf = (DecimalFormat) getPercentFormat(auraLocale.getNumberLocale());
         return pdf.toPattern();
     }
 
@@ -768,10 +784,35 @@ public class LocalizationServiceImpl implements LocalizationService {
         return cdfs.getCurrencySymbol();
     }
 
+    private NumberFormat getNumberFormat(Locale locale) {
+        return copy(numberFormats, locale, NumberFormat::getNumberInstance);
+    }
+
+    private NumberFormat getPercentFormat(Locale locale) {
+        return copy(percentFormats, locale, NumberFormat::getPercentInstance);
+    }
+
+    private NumberFormat getCurrencyFormat(Locale locale) {
+        return copy(currencyFormats, locale, NumberFormat::getCurrencyInstance);
+    }
+
+    /**
+     * Get a new copy of the format for a locale, that the caller is free to change.
+     */
+    private static NumberFormat copy(Cache<Locale, NumberFormat> formats, Locale locale,
+            Function<Locale, NumberFormat> factory) {
+        NumberFormat prototype = formats.getIfPresent(locale);
+        if (prototype == null) {
+            prototype = factory.apply(locale);
+            formats.put(locale, prototype);
+        }
+        return (NumberFormat) prototype.clone();
+    }
+
     private DecimalFormat getDecimalFormatForNumber() {
         AuraLocale auraLocale = this.localizationAdapter.getAuraLocale();
         // Why do we use ICU for numbers and java for Dates ?
-        return (DecimalFormat) NumberFormat.getNumberInstance(auraLocale.getNumberLocale());
+        return (DecimalFormat) getNumberFormat(auraLocale.getNumberLocale());
     }
 
     private DecimalFormatSymbols getDecimalFormatSymbolsForNumber() {
@@ -781,7 +822,7 @@ public class LocalizationServiceImpl implements LocalizationService {
 
     private DecimalFormat getDecimalFormatForCurrency() {
         AuraLocale auraLocale = this.localizationAdapter.getAuraLocale();
-        return (DecimalFormat) NumberFormat.getCurrencyInstance(auraLocale.getCurrencyLocale());
+        return (DecimalFormat) getCurrencyFormat(auraLocale.getCurrencyLocale());
     }
 
     private DecimalFormatSymbols getDecimalFormatSymbolsForCurrency() {
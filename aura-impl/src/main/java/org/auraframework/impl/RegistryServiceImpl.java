@@ -19,6 +19,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -48,6 +49,7 @@ import org.auraframework.impl.source.file.FileBundleSourceLoader;
 import org.auraframework.impl.source.file.FileSourceLocationImpl;
 import org.auraframework.impl.system.BundleAwareDefRegistry;
 import org.auraframework.impl.system.CompilingDefRegistry;
+import org.auraframework.impl.system.IndexedRegistryFile;
 import org.auraframework.impl.system.PassThroughDefRegistry;
 import org.auraframework.impl.system.RegistryTrie;
 import org.auraframework.impl.system.StaticDefRegistryImpl;
@@ -219,10 +221,18 @@ public class RegistryServiceImpl implements RegistryService, SourceListener, App
     }
 
     private List<DefRegistry> getStaticRegistries(ClassLoader classLoader, String pkg) {
-        try (InputStream ris = classLoader.getResourceAsStream(pkg + "/.registries")) {
-            if (ris == null) {
-                return null;
+        URL url = classLoader.getResource(pkg + "/.registries");
+        if (url == null) {
+            return null;
+        }
+        try {
+            if (IndexedRegistryFile.isIndexed(url)) {
+                return IndexedRegistryFile.read(url);
             }
+        } catch (Exception e) {
+            throw new AuraRuntimeException(String.format("Unable to read registries file for '%s'", pkg), e);
+        }
+        try (InputStream ris = url.openStream()) {
             try (ObjectInputStream ois = new ObjectInputStream(ris)) {
                 Object o = ois.readObject();
                 @SuppressWarnings("unchecked")
@@ -565,12 +575,22 @@ public class RegistryServiceImpl implements RegistryService, SourceListener, App
                         if (sli.sourceDirectories.stream().anyMatch(d -> d != null && canonical.startsWith(d))) {
                             sli.setChanged(true);
                             for (DefRegistry registry : sli.markupRegistries) {
-                                registry.reset();
+                                registry.reset(filePath);
                             }
                         }
                     }
                 } catch (IOException ioe) {
                 }
+            } else {
+                // Changes were missed, so anything may be out of date.
+                for (SourceLocationInfo sli : locationMap.values()) {
+                    if (!sli.sourceDirectories.isEmpty()) {
+                        sli.setChanged(true);
+                        for (DefRegistry registry : sli.markupRegistries) {
+                            registry.reset();
+                        }
+                    }
+                }
             }
         }
     }
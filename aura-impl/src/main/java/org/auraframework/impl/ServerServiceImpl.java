@@ -18,15 +18,27 @@ package org.auraframework.impl;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.auraframework.adapter.ConfigAdapter;
@@ -35,6 +47,7 @@ import org.auraframework.adapter.ServletUtilAdapter;
 import org.auraframework.adapter.StyleAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.cache.Cache;
+import org.auraframework.cache.StreamingCache;
 import org.auraframework.css.StyleContext;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
@@ -51,6 +64,7 @@ import org.auraframework.def.SVGDef;
 import org.auraframework.def.StyleDef;
 import org.auraframework.def.module.ModuleDef;
 import org.auraframework.http.BootstrapUtil;
+import org.auraframework.http.EncodedContent;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.impl.cache.ApplicationInitializerCache;
 import org.auraframework.impl.css.CssVariableWriter;
@@ -78,6 +92,7 @@ import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraExecutionException;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil.JSONEscapedFunctionStringBuilder;
 import org.auraframework.util.javascript.Literal;
@@ -90,6 +105,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -146,11 +162,94 @@ public class ServerServiceImpl implements ServerService {
 
     private ManifestUtil manifestUtil;
 
+    /**
+     * The pool for running independent actions in a request concurrently, null if disabled.
+     */
+    private ExecutorService actionExecutor;
+
+    /**
+     * The pool for rendering the component definitions of an app.js concurrently, null if disabled.
+     */
+    private ExecutorService definitionExecutor;
+
+    private int definitionThreadCount;
+
+    /**
+     * The rendered app.js fragments of component definitions, by definition and then by the request state that the
+     * fragment depends on. Definitions are rebuilt when their source or dependencies change, so a fragment is shared
+     * by every app and dependency set that includes the same definition.
+     */
+    private static final ConcurrentMap<BaseComponentDef, ConcurrentMap<String, String>> componentFragments =
+            new MapMaker().weakKeys().makeMap();
+
     @PostConstruct
     public void createManifestUtil() {
         manifestUtil = new ManifestUtil(definitionService, contextService, configAdapter);
     }
 
+    @PostConstruct
+    private void createActionExecutor() {
+        int threadCount = Integer.getInteger("aura.actions.parallelThreads", 0).intValue();
+        if (threadCount > 0) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            actionExecutor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(threadCount * 16), runnable -> {
+                        Thread thread = new Thread(runnable, "aura-action-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, ServerServiceImpl::waitForQueue);
+        }
+    }
+
+    @PreDestroy
+    private void shutdownActionExecutor() {
+        if (actionExecutor != null) {
+            actionExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Wait for room in the queue of a saturated pool.
+     *
+     * A task is never run on the request thread instead, where it would share the request context with the tasks
+     * already running.
+     */
+    private static void waitForQueue(Runnable task, ThreadPoolExecutor executor) {
+        if (!executor.isShutdown()) {
+            try {
+                executor.getQueue().put(task);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException(ie);
+            }
+            if (!executor.isShutdown() || !executor.remove(task)) {
+                return;
+            }
+        }
+        throw new RejectedExecutionException("The pool has been shut down");
+    }
+
+    @PostConstruct
+    private void createDefinitionExecutor() {
+        definitionThreadCount = Integer.getInteger("aura.definitions.parallelThreads", 0).intValue();
+        if (definitionThreadCount > 0) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            definitionExecutor = new ThreadPoolExecutor(definitionThreadCount, definitionThreadCount, 0L,
+                    TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(definitionThreadCount * 16), runnable -> {
+                        Thread thread = new Thread(runnable, "aura-definitions-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, ServerServiceImpl::waitForQueue);
+        }
+    }
+
+    @PreDestroy
+    private void shutdownDefinitionExecutor() {
+        if (definitionExecutor != null) {
+            definitionExecutor.shutdown();
+        }
+    }
+
     public static final int AURA_SERIALIZATION_VERSION = 1;
 
     private Cache<String, String> stringsCache;
@@ -159,11 +258,14 @@ public class ServerServiceImpl implements ServerService {
 
     private Cache<String, String> cssStringsCache;
 
+    private Cache<String, EncodedContent> encodedContentCache;
+
     @PostConstruct
     private void setCaches() {
         this.stringsCache = cachingService.getStringsCache();
         this.altStringsCache = cachingService.getAltStringsCache();
         this.cssStringsCache = cachingService.getCssStringsCache();
+        this.encodedContentCache = cachingService.getEncodedContentCache();
     }
 
     @Override
@@ -282,59 +384,211 @@ public class ServerServiceImpl implements ServerService {
     private int run(List<Action> actions, JsonEncoder json, int idx) throws IOException {
         AuraContext context = contextService.getCurrentContext();
         int counter = idx;
-        for (Action action : actions) {
-            StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
-            KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
-            if (logger != null) {
-                action.logParams(logger);
+        int i = 0;
+        while (i < actions.size()) {
+            if (actionExecutor != null) {
+                int end = i;
+                while (end < actions.size() && actions.get(end).isParallelizable()) {
+                    end++;
+                }
+                if (end - i > 1) {
+                    counter = runParallel(actions.subList(i, end), json, counter, context);
+                    i = end;
+                    continue;
+                }
             }
-            String aap = String.valueOf(++counter)+"$"+actionAndParams.toString();
-            loggingService.startAction(aap, action);
+            Action action = actions.get(i++);
+            String aap = startAction(action, ++counter);
             setupCallingDefinition(action, context);
-            Action oldAction = context.setCurrentAction(action);
-            boolean earlyCleanup = false;
+            boolean earlyCleanup;
             try {
-                action.setup();
-                action.run();
-            } catch (AuraExecutionException x) {
-                earlyCleanup = true;
-                exceptionAdapter.handleException(x, action);
+                earlyCleanup = runAction(action, context);
             } finally {
-                if (earlyCleanup){
-                    action.cleanup();
-                }
-                context.setCurrentAction(oldAction);
                 loggingService.stopAction(aap);
             }
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            counter = writeAction(action, json, earlyCleanup, counter);
+        }
+        return counter;
+    }
+
+    /**
+     * Run a sequence of parallelizable actions concurrently, writing their results in order.
+     *
+     * Actions are numbered in the order they are submitted, so any additional actions they create are numbered
+     * after the whole sequence. The request context is only read and changed on the request thread: each action
+     * is forked from a snapshot of it taken as the action is submitted.
+     */
+    private int runParallel(List<Action> actions, JsonEncoder json, int idx, AuraContext context) throws IOException {
+        int counter = idx;
+        List<String> names = new ArrayList<>(actions.size());
+        List<Future<ForkedAction>> futures = new ArrayList<>(actions.size());
+
+        for (Action action : actions) {
+            names.add(startAction(action, ++counter));
+            setupCallingDefinition(action, context);
+            ContextSnapshot snapshot = new ContextSnapshot(context);
+            futures.add(actionExecutor.submit(() -> runForked(action, snapshot)));
+        }
+        for (int i = 0; i < actions.size(); i++) {
+            Action action = actions.get(i);
+            ForkedAction forked;
             try {
-                json.writeArrayEntry(action);
+                forked = futures.get(i).get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new AuraRuntimeException(ie);
+            } catch (ExecutionException ee) {
+                Throwables.throwIfUnchecked(ee.getCause());
+                throw new AuraRuntimeException(ee.getCause());
             } finally {
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
-                if (!earlyCleanup){
-                    action.cleanup();
-                }
+                loggingService.stopAction(names.get(i));
             }
+            mergeContext(forked.context, context);
+            counter = writeAction(action, json, forked.earlyCleanup, counter);
+        }
+        return counter;
+    }
 
-            List<Action> additionalActions = action.getActions();
+    /**
+     * Start logging an action.
+     *
+     * @return the name the action is logged under.
+     */
+    private String startAction(Action action, int counter) {
+        StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
+        KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
+        if (logger != null) {
+            action.logParams(logger);
+        }
+        String aap = String.valueOf(counter)+"$"+actionAndParams.toString();
+        loggingService.startAction(aap, action);
+        return aap;
+    }
 
-            // Recursively process any additional actions created by the
-            // action
-            if (additionalActions != null && !additionalActions.isEmpty()) {
-                counter = run(additionalActions, json, counter);
+    /**
+     * Set up and run an action.
+     *
+     * @return true if the action failed and was cleaned up early.
+     */
+    private boolean runAction(Action action, AuraContext context) {
+        Action oldAction = context.setCurrentAction(action);
+        boolean earlyCleanup = false;
+        try {
+            action.setup();
+            action.run();
+        } catch (AuraExecutionException x) {
+            earlyCleanup = true;
+            exceptionAdapter.handleException(x, action);
+        } finally {
+            if (earlyCleanup){
+                action.cleanup();
             }
+            context.setCurrentAction(oldAction);
+        }
+        return earlyCleanup;
+    }
+
+    /**
+     * Serialize an action, clean it up, and then run any additional actions it created.
+     */
+    private int writeAction(Action action, JsonEncoder json, boolean earlyCleanup, int counter) throws IOException {
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+        try {
+            json.writeArrayEntry(action);
+        } finally {
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+            if (!earlyCleanup){
+                action.cleanup();
+            }
+        }
+
+        List<Action> additionalActions = action.getActions();
+
+        // Recursively process any additional actions created by the
+        // action
+        if (additionalActions != null && !additionalActions.isEmpty()) {
+            return run(additionalActions, json, counter);
         }
         return counter;
     }
 
+    /**
+     * The result of an action run on a forked context.
+     */
+    private static class ForkedAction {
+        private final AuraContext context;
+        private final boolean earlyCleanup;
+
+        private ForkedAction(AuraContext context, boolean earlyCleanup) {
+            this.context = context;
+            this.earlyCleanup = earlyCleanup;
+        }
+    }
+
+    /**
+     * Run an action on a pool thread, with its own context forked from the request context.
+     */
+    private ForkedAction runForked(Action action, ContextSnapshot parent) {
+        AuraContext fork = parent.fork(contextService);
+        try {
+            return new ForkedAction(fork, runAction(action, fork));
+        } finally {
+            contextService.endContext();
+        }
+    }
+
+    /**
+     * Carry the client events and loaded definitions from a forked context back to the request.
+     */
+    private void mergeContext(AuraContext fork, AuraContext parent) {
+        for (Map.Entry<DefDescriptor<?>, String> entry : fork.getLoaded().entrySet()) {
+            if (!parent.getLoaded().containsKey(entry.getKey())) {
+                parent.addLoaded(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Event event : fork.getClientEvents()) {
+            try {
+                parent.addClientApplicationEvent(event);
+            } catch (Exception e) {
+                exceptionAdapter.handleException(e);
+            }
+        }
+    }
+
     @Override
     public void writeAppCss(final Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException {
         AuraContext context = contextService.getCurrentContext();
-        boolean minify = context.getMode().minify();
         boolean enableCssVarOutput = configAdapter.isCssVarTransformEnabled() && configAdapter.doesUserAgentSupportCssVars();
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(appDesc);
+        final String key = getAppCssKey(context, uid, enableCssVarOutput);
+        context.setPreloading(true);
+
+        writeCachedString(cssStringsCache, uid, appDesc, key,
+                new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return getAppCssString(dependencies, enableCssVarOutput);
+                    }
+                }, out);
+    }
+
+    @Override
+    public EncodedContent getEncodedAppCss(final Set<DefDescriptor<?>> dependencies) throws IOException, QuickFixException {
+        AuraContext context = contextService.getCurrentContext();
+        boolean enableCssVarOutput = configAdapter.isCssVarTransformEnabled() && configAdapter.doesUserAgentSupportCssVars();
+        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
+        final String uid = context.getUid(appDesc);
+        final String key = getAppCssKey(context, uid, enableCssVarOutput);
+        context.setPreloading(true);
 
+        return getEncodedContent(uid, appDesc, key, () -> getAppCssString(dependencies, enableCssVarOutput));
+    }
+
+    private String getAppCssKey(AuraContext context, String uid, boolean enableCssVarOutput) throws QuickFixException {
+        boolean minify = context.getMode().minify();
         StyleContext styleContext = context.getStyleContext();
 
         // build cache key
@@ -365,25 +619,33 @@ public class ServerServiceImpl implements ServerService {
         keyBuilder.append(mKey);
 
         // app uid
-        DefDescriptor<?> appDesc = context.getLoadingApplicationDescriptor();
-        final String uid = context.getUid(appDesc);
         keyBuilder.append(uid);
         keyBuilder.append(enableCssVarOutput);
 
-        final String key = keyBuilder.toString();
-        context.setPreloading(true);
-
-        String cached = getCachedString(cssStringsCache, uid, appDesc, key,
-                new Callable<String>() {
-                    @Override
-                    public String call() throws Exception {
-                        return getAppCssString(dependencies, enableCssVarOutput);
-                    }
-                });
+        return keyBuilder.toString();
+    }
 
-        if (out != null) {
-            out.append(cached);
+    /**
+     * Key for the runtime CSS of a single style def, everything that goes into it except the def itself.
+     *
+     * @return the key, or null in dev mode or when sources are monitored, as the tokens a def uses can change under
+     *         it without changing the def.
+     */
+    private String getStyleKey(AuraContext context, boolean enableCssVarOutput) throws QuickFixException {
+        if (context.isDevMode() || configAdapter.isFileMonitorEnabled()) {
+            return null;
         }
+        StyleContext styleContext = context.getStyleContext();
+        final StringBuilder keyBuilder = new StringBuilder(64);
+        keyBuilder.append(context.getMode()).append(':');
+        keyBuilder.append(styleContext.getClientType()).append(':');
+        Joiner.on("-").skipNulls().appendTo(keyBuilder, styleContext.getExtraTrueConditionsOnly());
+        Optional<String> tokensUid = styleContext.getTokens().getTokensUid();
+        if (tokensUid.isPresent()) {
+            keyBuilder.append(':').append(tokensUid.get());
+        }
+        keyBuilder.append(':').append(enableCssVarOutput);
+        return keyBuilder.toString();
     }
 
     @Inject
@@ -393,7 +655,8 @@ public class ServerServiceImpl implements ServerService {
         Collection<BaseStyleDef> orderedStyleDefs = filterAndLoad(BaseStyleDef.class, dependencies, null);
         StringBuffer sb = new StringBuffer();
         styleAdapter.setSkipCssTransform(!enableCssVarOutput);
-        new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext())
+        AuraContext context = contextService.getCurrentContext();
+        new StyleDefWriter(definitionService, styleAdapter, context, getStyleKey(context, enableCssVarOutput))
             .writeStyleDefs(orderedStyleDefs, sb);
         styleAdapter.setSkipCssTransform(false);
         return sb.toString();
@@ -462,19 +725,12 @@ public class ServerServiceImpl implements ServerService {
     public void writeDefinitions(final Set<DefDescriptor<?>> dependencies, Writer out, boolean hasParts, int partIndex, HYDRATION_TYPE hydrationType, boolean preloading, String dependencySetUid)
             throws IOException, QuickFixException {
         AuraContext context = contextService.getCurrentContext();
-        final Mode mode = context.getMode();
-        final boolean minify = mode.minify();
-        final JavascriptGeneratorMode jsMode = mode.getJavascriptMode();
 
         context.setPreloading(preloading);
         DefDescriptor<? extends BaseComponentDef> appDesc = context.getLoadingApplicationDescriptor();
 
-        final String mKey = minify ? "MIN:" : "DEV:";
         final String uid = context.getUid(appDesc);
-        final String lockerService = configAdapter.isLockerServiceEnabled() ? ":ls" : "";
-        final String compat = context.useCompatSource() ? ":c" : "";
-        final String debug = jsMode == JavascriptGeneratorMode.PRODUCTIONDEBUG || jsMode == JavascriptGeneratorMode.PERFORMANCEDEBUG ? ":DEBUG" : "";
-        final String key = "JS:" + mKey + uid + (hasParts ? ":" + partIndex : "") + ":" + lockerService + compat + debug + dependencySetUid;
+        final String key = getDefinitionsKey(context, uid, hasParts, partIndex, dependencySetUid);
 
         final Callable<String> buildFunction = () -> {
             String res = getDefinitionsString(dependencies, hydrationType);
@@ -482,20 +738,51 @@ public class ServerServiceImpl implements ServerService {
             cachingService.getAltStringsCache().logCacheStatus("cache miss for key: "+key+";");
             return res;
         };
-        String cached;
         //
         // Careful here. We want to be sure that it is safe to 'permanently' cache the app.js
         // string here. In the case of cacheable components, this is the case, otherwise, no.
         //
         if (definitionService.isDependencySetCacheable(uid)) {
-            cached = getAltCachedString(uid, appDesc, key, buildFunction);
+            writeCachedString(altStringsCache, uid, appDesc, key, buildFunction, out);
         } else {
-            cached = getCachedString(uid, appDesc, key, buildFunction);
+            writeCachedString(stringsCache, uid, appDesc, key, buildFunction, out);
         }
+    }
 
-        if (out != null) {
-           out.append(cached);
+    @Override
+    public EncodedContent getEncodedDefinitions(final Set<DefDescriptor<?>> dependencies, boolean hasParts, int partIndex,
+            HYDRATION_TYPE hydrationType, String prefix, String suffix) throws IOException, QuickFixException {
+        AuraContext context = contextService.getCurrentContext();
+
+        context.setPreloading(true);
+        DefDescriptor<? extends BaseComponentDef> appDesc = context.getLoadingApplicationDescriptor();
+
+        final String uid = context.getUid(appDesc);
+        // Like the strings caches, only 'permanently' cache the encoded app.js for cacheable components.
+        if (!definitionService.isDependencySetCacheable(uid)) {
+            return null;
         }
+        final String key = "ENC:" + getDefinitionsKey(context, uid, hasParts, partIndex,
+                Integer.toString(dependencies.size()));
+
+        return getEncodedContent(uid, appDesc, key, () -> {
+            String definitions = getDefinitionsString(dependencies, hydrationType);
+            StringBuilder sb = new StringBuilder(prefix.length() + definitions.length() + suffix.length());
+            return sb.append(prefix).append(definitions).append(suffix).toString();
+        });
+    }
+
+    private String getDefinitionsKey(AuraContext context, String uid, boolean hasParts, int partIndex,
+            String dependencySetUid) {
+        final Mode mode = context.getMode();
+        final boolean minify = mode.minify();
+        final JavascriptGeneratorMode jsMode = mode.getJavascriptMode();
+
+        final String mKey = minify ? "MIN:" : "DEV:";
+        final String lockerService = configAdapter.isLockerServiceEnabled() ? ":ls" : "";
+        final String compat = context.useCompatSource() ? ":c" : "";
+        final String debug = jsMode == JavascriptGeneratorMode.PRODUCTIONDEBUG || jsMode == JavascriptGeneratorMode.PERFORMANCEDEBUG ? ":DEBUG" : "";
+        return "JS:" + mKey + uid + (hasParts ? ":" + partIndex : "") + ":" + lockerService + compat + debug + dependencySetUid;
     }
 
     private String getDefinitionsString (Set<DefDescriptor<?>> dependencies, HYDRATION_TYPE hydrationType)
@@ -529,6 +816,9 @@ public class ServerServiceImpl implements ServerService {
 
         // Append component classes.
         Collection<BaseComponentDef> componentDefs = filterAndLoad(BaseComponentDef.class, dependencies, null);
+        List<ComponentFragment> fragments = new ArrayList<>(componentDefs.size());
+        String variant = (minify ? "MIN" : "DEV") + (serializationContext.format() ? ":f" : "")
+                + (configAdapter.isLockerServiceEnabled() ? ":ls" : "");
         for (BaseComponentDef def : componentDefs) {
             // templates are not needed in app.js as they are rendered server side and html sent to client
             if (def.isTemplate()) {
@@ -537,36 +827,18 @@ public class ServerServiceImpl implements ServerService {
             serverSideDescriptor.add(def.getDescriptor().toString());
 
             // force hydration if this is a restricted namespace (requires an authenticated users)
-            Boolean hydrationEnabled = hydrationType == HYDRATION_TYPE.all ||
+            boolean hydrationEnabled = hydrationType == HYDRATION_TYPE.all ||
                     context.getRestrictedNamespaces().contains(def.getDescriptor().getNamespace());
 
             if (hydrationEnabled) {
-                sb.append("$A.componentService.addComponent(\"")
-                    .append(def.getDescriptor())
-                    .append("\", ")
-                    .append("(function (){/*");
-
                 // Mark class as loaded in the client
                 context.setClientClassLoaded(def.getDescriptor(), true);
-
-                // Component Class
-                escapedHydrationFunctionStringBuilder.append(def.getCode(minify));
-
-                // Component definition
-                sb.append("return ");
-                JsonEncoder.serialize(def, escapedHydrationFunctionStringBuilder, context.getJsonSerializationContext());
-                sb.append(";");
-
-                sb.append("*/}));\n");
-            } else {
-                sb.append(def.getCode(minify));
-
-                sb.append("$A.componentService.addComponent(\"")
-                        .append(def.getDescriptor())
-                        .append("\", ");
-                JsonEncoder.serialize(def, sb, context.getJsonSerializationContext());
-                sb.append(");\n");
             }
+            fragments.add(new ComponentFragment(def, hydrationEnabled, context, variant));
+        }
+        renderComponents(fragments, context);
+        for (ComponentFragment fragment : fragments) {
+            sb.append(fragment.code);
         }
 
         // Append event definitions
@@ -583,15 +855,19 @@ public class ServerServiceImpl implements ServerService {
 
         writeDefinitionStringToBuilder(ModuleDef.class, dependencies, null, context, sb, "$A.componentService.initModuleDefs(", serverSideDescriptor);
 
+        Map<String, String> serverSideDescriptorIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String descriptor : serverSideDescriptor) {
+            serverSideDescriptorIndex.putIfAbsent(descriptor, descriptor);
+        }
         for (DefDescriptor<? extends Definition> dependency : dependencies) {
             String name = dependency.getQualifiedName();
             if (!serverSideDescriptor.contains(name)) {
-                java.util.Optional<String> match = serverSideDescriptor.stream().filter((d)->name.equalsIgnoreCase(d)).findFirst();
-                if (match.isPresent()) {
+                String match = serverSideDescriptorIndex.get(name);
+                if (match != null) {
                     sb.append("$A.componentService.addDescriptorCaseMapping(\"")
                             .append(name)
                             .append("\",\"")
-                            .append(match.get())
+                            .append(match)
                             .append("\");\n");
                 }
             }
@@ -600,6 +876,131 @@ public class ServerServiceImpl implements ServerService {
         return sb.toString();
     }
 
+    /**
+     * A component definition to be written to an app.js, along with the request state its output depends on.
+     */
+    private static class ComponentFragment {
+        private final BaseComponentDef def;
+        private final boolean hydrationEnabled;
+        private final boolean classLoaded;
+        private final String variant;
+        private String code;
+
+        /**
+         * @param variant the mode and settings of the request that the output depends on.
+         */
+        private ComponentFragment(BaseComponentDef def, boolean hydrationEnabled, AuraContext context, String variant) {
+            this.def = def;
+            this.hydrationEnabled = hydrationEnabled;
+            this.classLoaded = context.getClientClassLoaded(def.getDescriptor());
+            this.variant = variant + (hydrationEnabled ? ":h" : "") + (classLoaded ? ":c" : "");
+        }
+    }
+
+    /**
+     * Fill in the code for a list of component definitions.
+     *
+     * While preloading, the output of a definition only depends on the definition and the state captured in its
+     * fragment, so fragments are taken from, and added to, the shared cache. Missing fragments are rendered on the
+     * definition pool when it is enabled, each thread with its own context forked from the request context.
+     */
+    private void renderComponents(List<ComponentFragment> fragments, AuraContext context) throws IOException {
+        if (!context.isPreloading()) {
+            renderComponents(fragments, context, false);
+            return;
+        }
+        List<ComponentFragment> misses = new ArrayList<>();
+        for (ComponentFragment fragment : fragments) {
+            Map<String, String> rendered = componentFragments.get(fragment.def);
+            if (rendered != null) {
+                fragment.code = rendered.get(fragment.variant);
+            }
+            if (fragment.code == null) {
+                misses.add(fragment);
+            }
+        }
+        if (definitionExecutor == null || misses.size() < 2) {
+            renderComponents(misses, context, false);
+        } else {
+            List<List<ComponentFragment>> batches = Lists.partition(misses,
+                    (misses.size() + definitionThreadCount - 1) / definitionThreadCount);
+            List<Future<?>> futures = new ArrayList<>(batches.size());
+            ContextSnapshot snapshot = new ContextSnapshot(context);
+            for (List<ComponentFragment> batch : batches) {
+                futures.add(definitionExecutor.submit(() -> {
+                    AuraContext fork = snapshot.fork(contextService);
+                    try {
+                        fork.setPreloading(true);
+                        fork.getJsonSerializationContext().pushFormatRootItems();
+                        renderComponents(batch, fork, true);
+                    } finally {
+                        contextService.endContext();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new AuraRuntimeException(ie);
+                } catch (ExecutionException ee) {
+                    Throwables.throwIfInstanceOf(ee.getCause(), IOException.class);
+                    Throwables.throwIfUnchecked(ee.getCause());
+                    throw new AuraRuntimeException(ee.getCause());
+                }
+            }
+        }
+        for (ComponentFragment fragment : misses) {
+            componentFragments.computeIfAbsent(fragment.def, def -> new ConcurrentHashMap<>())
+                    .putIfAbsent(fragment.variant, fragment.code);
+        }
+    }
+
+    /**
+     * Render component definitions with the given context.
+     *
+     * @param forked true if the context is a fork, which does not yet know the classes loaded in the client.
+     */
+    private static void renderComponents(List<ComponentFragment> fragments, AuraContext context, boolean forked)
+            throws IOException {
+        boolean minify = context.getMode().minify();
+        for (ComponentFragment fragment : fragments) {
+            BaseComponentDef def = fragment.def;
+            if (forked && fragment.classLoaded) {
+                context.setClientClassLoaded(def.getDescriptor(), true);
+            }
+            StringBuilder sb = new StringBuilder();
+            if (fragment.hydrationEnabled) {
+                JSONEscapedFunctionStringBuilder escapedHydrationFunctionStringBuilder = new JSONEscapedFunctionStringBuilder(sb);
+                sb.append("$A.componentService.addComponent(\"")
+                    .append(def.getDescriptor())
+                    .append("\", ")
+                    .append("(function (){/*");
+
+                // Component Class
+                escapedHydrationFunctionStringBuilder.append(def.getCode(minify));
+
+                // Component definition
+                sb.append("return ");
+                JsonEncoder.serialize(def, escapedHydrationFunctionStringBuilder, context.getJsonSerializationContext());
+                sb.append(";");
+
+                sb.append("*/}));\n");
+            } else {
+                sb.append(def.getCode(minify));
+
+                sb.append("$A.componentService.addComponent(\"")
+                        .append(def.getDescriptor())
+                        .append("\", ");
+                JsonEncoder.serialize(def, sb, context.getJsonSerializationContext());
+                sb.append(");\n");
+            }
+            fragment.code = sb.toString();
+        }
+    }
+
     @SuppressWarnings("rawtypes")
     private void writeDefinitionStringToBuilder(Class defType, Set<DefDescriptor<?>> dependencies,
                                                 TempFilter extraFilter, AuraContext context, StringBuilder sb,
@@ -691,18 +1092,61 @@ public class ServerServiceImpl implements ServerService {
     }
 
     /**
-     * Get a named string from the alternate cache for a cacheable definition.
+     * Get pre-encoded content from the encoded content cache for a cacheable definition.
      *
      * @param uid the UID for the definition (must have called {@link DefinitionService#getUid(String, DefDescriptor)}).
      * @param descriptor the descriptor.
      * @param key the key.
-     * @param loader the loader for the string
-     * @throws QuickFixException
-     * @throws IOException
+     * @param loader the loader for the unencoded string
+     * @return the content, or null if the content cannot be cached.
      */
-    private String getAltCachedString(String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader)
+    private EncodedContent getEncodedContent(String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader)
             throws QuickFixException, IOException {
-        return getCachedString(altStringsCache, uid, descriptor, key, loader);
+        if (encodedContentCache == null || uid == null) {
+            return null;
+        }
+        DependencyEntry de = contextService.getCurrentContext().getLocalDependencyEntry(uid);
+        if (de == null) {
+            return null;
+        }
+        final String fullKey = getKey(de, descriptor, key);
+        try {
+            return encodedContentCache.get(fullKey, () -> EncodedContent.encode(loader.call(), fullKey));
+        } catch (ExecutionException e) {
+            // Don't interfere if the callable caused these exceptions.
+            Throwables.propagateIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.propagateIfInstanceOf(e.getCause(), QuickFixException.class);
+            // Wraps with a RuntimeException for others exceptions.
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Write a named string from a cache to the output.
+     *
+     * If the cache can stream values, a cached value is written directly from the cache, which avoids bringing
+     * values held in secondary storage back onto the heap. Otherwise this falls back to fetching the string.
+     *
+     * @param cache the cache to use.
+     * @param uid the UID for the definition (must have called {@link DefinitionService#getUid(String, DefDescriptor)}).
+     * @param descriptor the descriptor.
+     * @param key the key.
+     * @param loader the loader for the string
+     * @param out the output, may be null to only populate the cache.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeCachedString(Cache<String, String> cache, String uid, DefDescriptor<?> descriptor, String key,
+            Callable<String> loader, Writer out) throws QuickFixException, IOException {
+        if (uid != null && out != null && cache instanceof StreamingCache) {
+            DependencyEntry de = contextService.getCurrentContext().getLocalDependencyEntry(uid);
+            if (de != null && ((StreamingCache<String>)cache).writeTo(getKey(de, descriptor, key), out)) {
+                return;
+            }
+        }
+        String cached = getCachedString(cache, uid, descriptor, key, loader);
+        if (out != null) {
+            out.append(cached);
+        }
     }
 
     private String getCachedString(Cache<String, String> cache, String uid, DefDescriptor<?> descriptor, String key, Callable<String> loader) throws QuickFixException, IOException {
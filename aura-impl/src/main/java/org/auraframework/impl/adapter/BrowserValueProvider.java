@@ -57,7 +57,7 @@ public class BrowserValueProvider implements GlobalValueProvider {
     public static final String IS_IE10 = "isIE10";
     public static final String IS_IE11 = "isIE11";
 
-    private Map<String, Object> browserDetails;
+    private volatile Map<String, Object> browserDetails;
 
     private final ContextService contextService;
 
@@ -70,7 +70,7 @@ public class BrowserValueProvider implements GlobalValueProvider {
         AuraContext context = contextService.getCurrentContext();
         Map<String, Object> m = Maps.newHashMapWithExpectedSize(32);
         String ua = context != null ? context.getClient().getUserAgent() : null;
-        BrowserInfo b = new BrowserInfo(ua);
+        BrowserInfo b = BrowserInfo.get(ua);
         m.put(IS_TABLET, b.isTablet());
         m.put(IS_PHONE, b.isPhone());
         m.put(IS_ANDROID, b.isAndroid());
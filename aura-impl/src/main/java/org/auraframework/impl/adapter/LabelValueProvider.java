@@ -34,6 +34,10 @@ import org.auraframework.util.AuraTextUtil;
 
 /**
  * Value provider for $Label
+ *
+ * The provider is shared by the contexts forked from a request to run actions in parallel, so that the labels they
+ * load are sent with the response. Access to the label maps is synchronized on the provider, but labels are fetched
+ * from the localization adapter without holding the lock.
  */
 public class LabelValueProvider implements GlobalValueProvider {
 
@@ -54,18 +58,19 @@ public class LabelValueProvider implements GlobalValueProvider {
         List<String> parts = expr.getList();
         String section = parts.get(0);
         String param = parts.get(1);
-        Map<String, String> m = this.labels.get(section);
-        if (m == null) {
-            m = new HashMap<>();
-            this.labels.put(section, m);
+        synchronized (this) {
+            Map<String, String> m = this.labels.get(section);
+            String ret = m != null ? m.get(param) : null;
+            if (ret != null) {
+                return ret;
+            }
         }
 
-        String ret = m.get(param);
-        if (ret == null) {
-            String label = localizationAdapter.getLabel(section, param);
-            // people escape stuff like &copy; in the labels, aura doesn't need that.
-            ret = AuraTextUtil.unescapeOutput(label, false);
-            m.put(param, ret);
+        String label = localizationAdapter.getLabel(section, param);
+        // people escape stuff like &copy; in the labels, aura doesn't need that.
+        String ret = AuraTextUtil.unescapeOutput(label, false);
+        synchronized (this) {
+            addLabelToMap(this.labels, section, param, ret);
         }
         return ret;
     }
@@ -94,13 +99,18 @@ public class LabelValueProvider implements GlobalValueProvider {
     }
 
     @Override
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return labels.isEmpty();
     }
 
     @Override
-    public Map<String, ?> getData() {
-        return labels;
+    public synchronized Map<String, ?> getData() {
+        // a copy, so that callers can read it while forked contexts load more labels
+        Map<String, Map<String, String>> data = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> entry : labels.entrySet()) {
+            data.put(entry.getKey(), new HashMap<>(entry.getValue()));
+        }
+        return data;
     }
 
     @Override
@@ -110,6 +120,35 @@ public class LabelValueProvider implements GlobalValueProvider {
         }
 
         Map<String, Set<String>> uncachedLabels = new HashMap<>();
+        synchronized (this) {
+            findUncachedLabels(keys, uncachedLabels);
+        }
+
+        if (uncachedLabels.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, String>> labels = this.localizationAdapter.getLabels(uncachedLabels);
+
+        synchronized (this) {
+            for (Map.Entry<String, Map<String, String>> entry : labels.entrySet()) {
+                String section = entry.getKey();
+                for (Map.Entry<String, String> nameToValue : entry.getValue().entrySet()) {
+                    String name = nameToValue.getKey();
+                    String label = nameToValue.getValue();
+                    // people escape stuff like &copy; in the labels, aura doesn't need that.
+                    label = AuraTextUtil.unescapeOutput(label, false);
+
+                    this.addLabelToMap(this.labels, section, name, label);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the keys of the labels that are not loaded yet. Must be called while holding the lock.
+     */
+    private void findUncachedLabels(Set<PropertyReference> keys, Map<String, Set<String>> uncachedLabels) {
         for (PropertyReference key : keys) {
             if (key.size() != 2) {
                 continue;
@@ -131,25 +170,6 @@ public class LabelValueProvider implements GlobalValueProvider {
                 this.addLabelKeyToMap(uncachedLabels, section, name);
             }
         }
-
-        if (uncachedLabels.isEmpty()) {
-            return;
-        }
-
-        Map<String, Map<String, String>> labels = this.localizationAdapter.getLabels(uncachedLabels);
-
-        for (Map.Entry<String, Map<String, String>> entry : labels.entrySet()) {
-            String section = entry.getKey();
-            for (Map.Entry<String, String> nameToValue : entry.getValue().entrySet()) {
-                String name = nameToValue.getKey();
-                String label = nameToValue.getValue();
-                // people escape stuff like &copy; in the labels, aura doesn't need that.
-                label = AuraTextUtil.unescapeOutput(label, false);
-
-                this.addLabelToMap(this.labels, section, name, label);
-            }
-        }
-
     }
 
     private void addLabelKeyToMap(Map<String, Set<String>> map, String section, String name) {
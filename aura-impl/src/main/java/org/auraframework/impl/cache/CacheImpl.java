@@ -16,17 +16,43 @@
 package org.auraframework.impl.cache;
 
 import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.Sets;
+import org.apache.log4j.Logger;
 import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.cache.Cache;
+import org.auraframework.cache.StreamingCache;
 import org.auraframework.system.LoggingContext;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
-public class CacheImpl<K, T> implements Cache<K, T> {
+/**
+ * A guava backed cache.
+ *
+ * When built with secondary storage, values are also written through to a {@link SecondaryStorage} tier, so that
+ * values dropped from the heap (e.g. soft values collected under GC pressure) can be recovered without rebuilding
+ * them. Only strings and serializable values are written to the secondary tier.
+ */
+public class CacheImpl<K, T> implements Cache<K, T>, StreamingCache<K> {
+    private static final Logger logger = Logger.getLogger(CacheImpl.class);
+
     private LoggingAdapter loggingAdapter;
 
     /** A default name string */
@@ -38,7 +64,18 @@ public class CacheImpl<K, T> implements Cache<K, T> {
     /** Shortest interval at which to log cache stats in "normal" operation */
     private static final long ONE_MINUTE = 1000 * 60;
 
+    /** Default maximum number of bytes held in secondary storage, per cache */
+    private static final long DEFAULT_SECONDARY_STORAGE_SIZE = 256L * 1024 * 1024;
+
+    /** Tags for the encoding of values in secondary storage */
+    private static final byte STRING_VALUE = 'S';
+    private static final byte SERIALIZED_VALUE = 'J';
+
+    /** Size of the character buffer used when streaming strings from secondary storage */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     private com.google.common.cache.Cache<K, T> cache;
+    private SecondaryStorage<K> secondaryStorage;
     private String name;
 
     CacheImpl(com.google.common.cache.Cache<K, T> cache) {
@@ -50,16 +87,14 @@ public class CacheImpl<K, T> implements Cache<K, T> {
     public void logCacheStatus(String extraMessage) {
         LoggingContext loggingCtx = this.loggingAdapter.getLoggingContext();
         CacheStats stats = cache.stats();
+        String secondaryMessage = secondaryStorage != null ? secondaryStorage.getStatusMessage() : "";
         loggingCtx.logCacheInfo(name,
-                String.format(extraMessage+"hit rate=%.3f", stats.hitRate()),
+                String.format(extraMessage+secondaryMessage+"hit rate=%.3f", stats.hitRate()),
                 cache.size(), stats);
     }
 
     public CacheImpl(Builder<K, T> builder) {
         this.loggingAdapter = builder.loggingAdapter;
-        
-        // if builder.useSecondaryStorage is true, we should try to use a
-        // non-quava secondary-storage cache with streaming ability
 
         com.google.common.cache.CacheBuilder<Object, Object> cb = com.google.common.cache.CacheBuilder
                 .newBuilder().initialCapacity(builder.initialCapacity)
@@ -82,44 +117,122 @@ public class CacheImpl<K, T> implements Cache<K, T> {
         CacheEvictionListenerImpl<K, T> listener;
        
         listener = new CacheEvictionListenerImpl<>(name, this.loggingAdapter, ONE_MINUTE, ONE_HOUR, 1000);
-        cb.removalListener(listener);
+        RemovalListener<K, T> removalListener = builder.removalListener;
+        if (removalListener == null) {
+            cb.removalListener(listener);
+        } else {
+            cb.removalListener((RemovalNotification<K, T> notification) -> {
+                listener.onRemoval(notification);
+                removalListener.onRemoval(notification);
+            });
+        }
         cache = cb.build();
         listener.setCache(cache);
+
+        if (builder.useSecondaryStorage) {
+            try {
+                secondaryStorage = new SecondaryStorage<>(name, builder.secondaryStorageDirectory,
+                        builder.secondaryStorageSize);
+            } catch (IOException ioe) {
+                logger.warn("Unable to create secondary storage for " + name + ", using heap only", ioe);
+            }
+        }
     }
 
     @Override
     public T getIfPresent(K key) {
-        return cache.getIfPresent(key);
+        T value = cache.getIfPresent(key);
+        if (value == null && secondaryStorage != null) {
+            value = readSecondary(key);
+            if (value != null) {
+                cache.put(key, value);
+            }
+        }
+        return value;
     }
 
     @Override
     public T get(K key, Callable<T> loader) throws ExecutionException {
-        return cache.get(key, loader);
+        if (secondaryStorage == null) {
+            return cache.get(key, loader);
+        }
+        return cache.get(key, () -> {
+            T value = readSecondary(key);
+            if (value == null) {
+                value = loader.call();
+                writeSecondary(key, value);
+            }
+            return value;
+        });
     }
 
     @Override
     public void put(K key, T data) {
         cache.put(key, data);
+        if (secondaryStorage != null) {
+            writeSecondary(key, data);
+        }
+    }
+
+    /**
+     * Write a string value to the output.
+     *
+     * Values only present in secondary storage are decoded directly from the mapped bytes to the output, and are
+     * not brought back onto the heap.
+     */
+    @Override
+    public boolean writeTo(K key, Appendable out) throws IOException {
+        T value = cache.getIfPresent(key);
+        if (value == null && secondaryStorage != null) {
+            Boolean written = secondaryStorage.read(key, buffer -> {
+                if (buffer.get() != STRING_VALUE) {
+                    return false;
+                }
+                decodeTo(buffer, out);
+                return true;
+            });
+            if (written == Boolean.TRUE) {
+                return true;
+            }
+        }
+        if (value instanceof CharSequence) {
+            out.append((CharSequence)value);
+            return true;
+        }
+        return false;
     }
 
     @Override
     public void invalidate(K key) {
         cache.invalidate(key);
-
+        if (secondaryStorage != null) {
+            secondaryStorage.invalidate(key);
+        }
     }
 
     @Override
     public void invalidate(Iterable<K> keys) {
         cache.invalidateAll(keys);
+        if (secondaryStorage != null) {
+            for (K key : keys) {
+                secondaryStorage.invalidate(key);
+            }
+        }
     }
 
     @Override
     public void invalidateAll() {
         cache.invalidateAll();
+        if (secondaryStorage != null) {
+            secondaryStorage.invalidateAll();
+        }
     }
 
     @Override
     public Set<K> getKeySet() {
+        if (secondaryStorage != null) {
+            return Sets.union(cache.asMap().keySet(), secondaryStorage.getKeySet());
+        }
         return cache.asMap().keySet();
     }
 
@@ -142,7 +255,94 @@ public class CacheImpl<K, T> implements Cache<K, T> {
 
         // invalidate collected items
         if (!invalidItems.isEmpty()) {
-            cache.invalidate(invalidItems);
+            cache.invalidateAll(invalidItems);
+        }
+        if (secondaryStorage != null) {
+            secondaryStorage.invalidatePartial(keyBeginsWith);
+        }
+    }
+
+    /**
+     * @return the secondary storage tier, or null if this cache is heap only.
+     */
+    public SecondaryStorage<K> getSecondaryStorage() {
+        return secondaryStorage;
+    }
+
+    private void writeSecondary(K key, T value) {
+        byte[] bytes = encode(value);
+        if (bytes != null) {
+            secondaryStorage.put(key, bytes);
+        } else {
+            secondaryStorage.invalidate(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T readSecondary(K key) {
+        ByteBuffer buffer = secondaryStorage.get(key);
+        if (buffer == null) {
+            return null;
+        }
+        byte tag = buffer.get();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        if (tag == STRING_VALUE) {
+            return (T)new String(bytes, StandardCharsets.UTF_8);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T)ois.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warn("Unable to read " + name + " secondary storage for " + key, e);
+            secondaryStorage.invalidate(key);
+            return null;
+        }
+    }
+
+    /**
+     * Encode a value for secondary storage, with a leading tag byte.
+     *
+     * @return the bytes, or null if the value cannot be stored.
+     */
+    private byte[] encode(T value) {
+        if (value instanceof String) {
+            byte[] string = ((String)value).getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[string.length + 1];
+            bytes[0] = STRING_VALUE;
+            System.arraycopy(string, 0, bytes, 1, string.length);
+            return bytes;
+        }
+        if (value instanceof Serializable) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            baos.write(SERIALIZED_VALUE);
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                oos.writeObject(value);
+            } catch (IOException ioe) {
+                return null;
+            }
+            return baos.toByteArray();
+        }
+        return null;
+    }
+
+    private static void decodeTo(ByteBuffer buffer, Appendable out) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        CharBuffer chars = CharBuffer.allocate(STREAM_BUFFER_SIZE);
+        boolean endOfInput = false;
+        while (true) {
+            CoderResult result = endOfInput ? decoder.flush(chars) : decoder.decode(buffer, chars, true);
+            if (result.isError()) {
+                result.throwException();
+            }
+            chars.flip();
+            out.append(chars);
+            chars.clear();
+            if (result.isUnderflow()) {
+                if (endOfInput) {
+                    break;
+                }
+                endOfInput = true;
+            }
         }
     }
 
@@ -165,7 +365,10 @@ public class CacheImpl<K, T> implements Cache<K, T> {
         boolean recordStats = false;
         boolean softValues = true;
         boolean useSecondaryStorage = false;
+        long secondaryStorageSize = getSecondaryStorageSize();
+        File secondaryStorageDirectory = getSecondaryStorageDirectory();
         String name;
+        RemovalListener<K, T> removalListener;
 
         public Builder() {
         }
@@ -220,9 +423,53 @@ public class CacheImpl<K, T> implements Cache<K, T> {
             return this;
         }
 
+        /**
+         * Set the maximum number of bytes to hold in secondary storage.
+         */
+        public Builder<K, T> setSecondaryStorageSize(long secondaryStorageSize) {
+            this.secondaryStorageSize = secondaryStorageSize;
+            return this;
+        }
+
+        /**
+         * Set the directory under which secondary storage files are created.
+         */
+        public Builder<K, T> setSecondaryStorageDirectory(File secondaryStorageDirectory) {
+            this.secondaryStorageDirectory = secondaryStorageDirectory;
+            return this;
+        }
+
+        /**
+         * Set a listener to be told of every entry removed from the cache, in addition to the eviction logging.
+         */
+        public Builder<K, T> setRemovalListener(RemovalListener<K, T> removalListener) {
+            this.removalListener = removalListener;
+            return this;
+        }
+
         @Override
         public CacheImpl<K, T> build() {
             return new CacheImpl<>(this);
         }
+
+        private static long getSecondaryStorageSize() {
+            String prop = System.getProperty("aura.cache.secondaryStorageSize");
+            if (prop != null && !prop.isEmpty()) {
+                try {
+                    return Long.parseLong(prop);
+                } catch (NumberFormatException e) {
+                    // ne'ermind, use the default
+                }
+            }
+            return DEFAULT_SECONDARY_STORAGE_SIZE;
+        }
+
+        private static File getSecondaryStorageDirectory() {
+            String prop = System.getProperty("aura.cache.secondaryStorageDir");
+            if (prop != null && !prop.isEmpty()) {
+                return new File(prop);
+            }
+            return null;
+        }
     }
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.auraframework.cache.Cache;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.system.DependencyEntry;
+
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+
+/**
+ * A dependency cache that keeps a reverse index from each descriptor to the cache keys of the dependency entries
+ * that contain it.
+ *
+ * This allows a source change to evict only the dependency sets that are actually affected, rather than the whole
+ * cache. The index does not follow the eviction policy of the underlying cache: definitions and strings built from
+ * an entry can outlive it in other caches, so what the index knows about an entry is kept after the entry is
+ * evicted or collected, until the entry is invalidated or replaced. It only holds the keys, the uid, and the
+ * descriptors with the references between them, never the definitions.
+ *
+ * To bound its size, the index is dropped once it holds more than a given number of keys. It is then incomplete
+ * until the next {@link #invalidateAll()}, and callers must check {@link #isIndexComplete()} before relying on it.
+ */
+public class DependencyIndexingCache implements Cache<String, DependencyEntry> {
+    private final CacheImpl<String, DependencyEntry> cache;
+
+    private final ConcurrentMap<String, DependencyEntry> entries;
+
+    private final int maximumIndexed;
+
+    private final ConcurrentMap<DefDescriptor<?>, Set<String>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * The indexed entry for each key.
+     */
+    private final ConcurrentMap<String, IndexedEntry> indexed = new ConcurrentHashMap<>();
+
+    private volatile boolean complete = true;
+
+    /**
+     * What the index knows about a dependency entry.
+     */
+    public static final class IndexedEntry {
+        /** the entry, weakly held so that the index does not keep soft values from being collected. */
+        private final WeakReference<DependencyEntry> entry;
+        private final String uid;
+        private final List<DefDescriptor<?>> descriptors;
+        /** the descriptors in the entry whose definitions reference each descriptor. */
+        private final ImmutableSetMultimap<DefDescriptor<?>, DefDescriptor<?>> referrers;
+
+        private IndexedEntry(DependencyEntry entry) {
+            this.entry = new WeakReference<>(entry);
+            this.uid = entry.uid;
+            this.descriptors = ImmutableList.copyOf(entry.dependencyMap.keySet());
+            ImmutableSetMultimap.Builder<DefDescriptor<?>, DefDescriptor<?>> builder = ImmutableSetMultimap.builder();
+            for (Map.Entry<DefDescriptor<? extends Definition>, Definition> dependency : entry.dependencyMap.entrySet()) {
+                Set<DefDescriptor<?>> references = dependency.getValue() != null
+                        ? dependency.getValue().getDependencySet() : null;
+                if (references != null) {
+                    for (DefDescriptor<?> reference : references) {
+                        builder.put(reference, dependency.getKey());
+                    }
+                }
+            }
+            this.referrers = builder.build();
+        }
+
+        /**
+         * @return the uid of the entry, which prefixes the keys of the strings built for it.
+         */
+        public String getUid() {
+            return uid;
+        }
+
+        /**
+         * Add the descriptors in the entry that depend on any of the changed descriptors, either directly or through
+         * other definitions in the entry.
+         */
+        public void addDependents(Set<DefDescriptor<?>> dependents, Set<DefDescriptor<?>> changed) {
+            Deque<DefDescriptor<?>> pending = new ArrayDeque<>(changed);
+            Set<DefDescriptor<?>> seen = new HashSet<>(changed);
+            while (!pending.isEmpty()) {
+                for (DefDescriptor<?> referrer : referrers.get(pending.pop())) {
+                    if (seen.add(referrer)) {
+                        dependents.add(referrer);
+                        pending.push(referrer);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param builder the builder for the underlying cache.
+     * @param maximumIndexed the number of keys beyond which the index is dropped.
+     */
+    @SuppressWarnings("unchecked")
+    public DependencyIndexingCache(CacheImpl.Builder<String, DependencyEntry> builder, int maximumIndexed) {
+        this.cache = builder.setRemovalListener(this::onRemoval).build();
+        this.entries = ((com.google.common.cache.Cache<String, DependencyEntry>)cache.getPrivateUnderlyingCache())
+                .asMap();
+        this.maximumIndexed = maximumIndexed;
+    }
+
+    @Override
+    public DependencyEntry getIfPresent(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public DependencyEntry get(String key, Callable<DependencyEntry> loader) throws ExecutionException {
+        DependencyEntry entry = cache.get(key, loader);
+        index(key, entry);
+        return entry;
+    }
+
+    @Override
+    public void put(String key, DependencyEntry data) {
+        cache.put(key, data);
+        index(key, data);
+    }
+
+    @Override
+    public Set<String> getKeySet() {
+        return cache.getKeySet();
+    }
+
+    @Override
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidate(Iterable<String> keys) {
+        cache.invalidate(keys);
+    }
+
+    /**
+     * Invalidate all entries, and start a new, complete, index.
+     */
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+        indexed.clear();
+        dependents.clear();
+        complete = true;
+    }
+
+    @Override
+    public void invalidatePartial(String partial) {
+        cache.invalidatePartial(partial);
+    }
+
+    @Override
+    public Object getPrivateUnderlyingCache() {
+        return cache.getPrivateUnderlyingCache();
+    }
+
+    @Override
+    public void logCacheStatus(String extraMessage) {
+        cache.logCacheStatus(extraMessage);
+    }
+
+    /**
+     * @return false if the index was dropped, so that dependents cannot be found until all entries are invalidated.
+     */
+    public boolean isIndexComplete() {
+        return complete;
+    }
+
+    /**
+     * Evict every dependency entry that includes the given descriptor, including entries that the cache no longer
+     * holds.
+     *
+     * @param descriptor the descriptor that changed.
+     * @param invalidated the list to add what the index knew about each invalidated entry to.
+     * @return the number of invalidated entries that were still present in the cache.
+     */
+    public int invalidateDependents(DefDescriptor<?> descriptor, List<IndexedEntry> invalidated) {
+        Set<String> keys = dependents.remove(descriptor);
+        if (keys == null) {
+            return 0;
+        }
+        int present = 0;
+        for (String key : keys) {
+            IndexedEntry current = indexed.remove(key);
+            if (current != null) {
+                unindex(key, current);
+                invalidated.add(current);
+                DependencyEntry entry = current.entry.get();
+                if (entry != null && entry == entries.get(key)) {
+                    present++;
+                }
+            }
+        }
+        cache.invalidate(keys);
+        return present;
+    }
+
+    /**
+     * @return the number of descriptors that currently have at least one dependent entry.
+     */
+    public int getIndexSize() {
+        return dependents.size();
+    }
+
+    private void index(String key, DependencyEntry entry) {
+        if (entry == null || entry.dependencyMap == null || !complete) {
+            return;
+        }
+        IndexedEntry current = indexed.get(key);
+        if (current != null && current.entry.get() == entry) {
+            return;
+        }
+        indexed.compute(key, (k, previous) -> {
+            if (previous != null) {
+                if (previous.entry.get() == entry) {
+                    return previous;
+                }
+                unindex(k, previous);
+            }
+            IndexedEntry added = new IndexedEntry(entry);
+            for (DefDescriptor<?> descriptor : added.descriptors) {
+                dependents.compute(descriptor, (d, keys) -> {
+                    Set<String> updated = keys != null ? keys : ConcurrentHashMap.newKeySet();
+                    updated.add(k);
+                    return updated;
+                });
+            }
+            return added;
+        });
+        if (indexed.size() > maximumIndexed) {
+            complete = false;
+            indexed.clear();
+            dependents.clear();
+        }
+    }
+
+    /**
+     * Drop a key from the index once it has been invalidated.
+     *
+     * Entries that were evicted or collected stay indexed, since what was built from them may still be cached
+     * elsewhere. Notifications can arrive after the key has been loaded again, so the entry in the cache is checked
+     * rather than the one in the notification.
+     */
+    private void onRemoval(RemovalNotification<String, DependencyEntry> notification) {
+        String key = notification.getKey();
+        if (key == null || notification.wasEvicted()) {
+            return;
+        }
+        indexed.computeIfPresent(key, (k, current) -> {
+            DependencyEntry entry = current.entry.get();
+            if (entry != null && entry == entries.get(k)) {
+                return current;
+            }
+            unindex(k, current);
+            return null;
+        });
+    }
+
+    /**
+     * Remove a key from the dependents of each descriptor it was indexed under, dropping descriptors left without
+     * dependents.
+     */
+    private void unindex(String key, IndexedEntry current) {
+        for (DefDescriptor<?> descriptor : current.descriptors) {
+            dependents.computeIfPresent(descriptor, (d, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
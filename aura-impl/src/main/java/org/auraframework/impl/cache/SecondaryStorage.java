@@ -0,0 +1,416 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A byte tier for caches, backed by memory mapped local files.
+ *
+ * Each entry is written to its own file and mapped read-only, so the bytes live outside of the java heap and are
+ * paged in by the OS on demand. The tier is bounded by the total number of bytes stored, evicting the least
+ * recently used entries first.
+ *
+ * Mappings are released and their files deleted as soon as an entry is removed and no reader is using it. Any
+ * storage that is still open when the JVM exits has its directory removed by a shutdown hook.
+ *
+ * This class is thread safe.
+ */
+public class SecondaryStorage<K> implements Closeable {
+    private static final Logger logger = Logger.getLogger(SecondaryStorage.class);
+
+    private static final Set<SecondaryStorage<?>> open = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (SecondaryStorage<?> storage : open) {
+                storage.close();
+            }
+        }, "aura-secondary-storage-cleanup"));
+    }
+
+    /**
+     * Read the bytes of an entry while the mapping is guaranteed to be valid.
+     */
+    @FunctionalInterface
+    public interface BufferReader<R> {
+        R read(ByteBuffer buffer) throws IOException;
+    }
+
+    private static final class Entry {
+        private final File file;
+        private final MappedByteBuffer buffer;
+
+        /** Guarded by the owning storage. */
+        private int readers = 0;
+        private boolean removed = false;
+
+        private Entry(File file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        private int size() {
+            return buffer.capacity();
+        }
+    }
+
+    private final String name;
+    private final File directory;
+    private final long maximumBytes;
+
+    /** Access ordered, so that iteration starts at the least recently used entry. */
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes = 0;
+
+    private final AtomicLong fileCounter = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong spillCount = new AtomicLong();
+    private final AtomicLong spillBytes = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Create a new storage tier.
+     *
+     * @param name the name of the owning cache, used for file names and logging.
+     * @param baseDirectory the directory in which to create the storage directory, null for the temp dir.
+     * @param maximumBytes the maximum number of bytes to store before evicting.
+     * @throws IOException if the storage directory cannot be created.
+     */
+    public SecondaryStorage(String name, File baseDirectory, long maximumBytes) throws IOException {
+        this.name = name;
+        this.maximumBytes = maximumBytes;
+        String prefix = "aura-" + name.replaceAll("[^A-Za-z0-9]", "_") + "-";
+        if (baseDirectory != null) {
+            baseDirectory.mkdirs();
+            this.directory = Files.createTempDirectory(baseDirectory.toPath(), prefix).toFile();
+        } else {
+            this.directory = Files.createTempDirectory(prefix).toFile();
+        }
+        open.add(this);
+    }
+
+    /**
+     * Store bytes for a key, replacing any previous value.
+     *
+     * @param key the key.
+     * @param bytes the bytes to store.
+     * @return true if the bytes were stored, false if they were too large or could not be written.
+     */
+    public boolean put(K key, byte[] bytes) {
+        if (bytes.length > maximumBytes) {
+            invalidate(key);
+            return false;
+        }
+        File file = new File(directory, fileCounter.incrementAndGet() + ".bin");
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write(bytes);
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, bytes.length);
+        } catch (IOException ioe) {
+            logger.warn("Unable to write " + name + " secondary storage to " + file, ioe);
+            file.delete();
+            invalidate(key);
+            return false;
+        }
+
+        List<Entry> removed = new ArrayList<>();
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(file, buffer));
+            if (previous != null) {
+                currentBytes -= previous.size();
+                removed.add(previous);
+            }
+            currentBytes += bytes.length;
+            Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+            while (currentBytes > maximumBytes && iterator.hasNext()) {
+                Map.Entry<K, Entry> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                iterator.remove();
+                currentBytes -= eldest.getValue().size();
+                removed.add(eldest.getValue());
+                evictionCount.incrementAndGet();
+            }
+        }
+        spillCount.incrementAndGet();
+        spillBytes.addAndGet(bytes.length);
+        release(removed);
+        return true;
+    }
+
+    /**
+     * Read the bytes for a key from the mapped file.
+     *
+     * The buffer is only valid for the duration of the call, and must not be retained by the reader.
+     *
+     * @param key the key.
+     * @param reader the reader, called with a read-only buffer positioned at the start of the bytes.
+     * @return the result of the reader, or null if not present.
+     * @throws IOException if the reader throws.
+     */
+    public <R> R read(K key, BufferReader<R> reader) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null) {
+                entry.readers++;
+            }
+        }
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        try {
+            return reader.read(entry.buffer.asReadOnlyBuffer());
+        } finally {
+            boolean release;
+            synchronized (this) {
+                entry.readers--;
+                release = entry.removed && entry.readers == 0;
+            }
+            if (release) {
+                unmap(entry);
+            }
+        }
+    }
+
+    /**
+     * Get a copy of the bytes for a key.
+     *
+     * @param key the key.
+     * @return a heap buffer holding the bytes, or null if not present.
+     */
+    public ByteBuffer get(K key) {
+        try {
+            return read(key, buffer -> {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                return ByteBuffer.wrap(bytes);
+            });
+        } catch (IOException ioe) {
+            // not thrown by the copy.
+            throw new IllegalStateException(ioe);
+        }
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized Set<K> getKeySet() {
+        return ImmutableSet.copyOf(entries.keySet());
+    }
+
+    public void invalidate(K key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+            if (entry != null) {
+                currentBytes -= entry.size();
+            }
+        }
+        if (entry != null) {
+            release(Collections.singletonList(entry));
+        }
+    }
+
+    public void invalidateAll() {
+        List<Entry> removed;
+        synchronized (this) {
+            removed = new ArrayList<>(entries.values());
+            entries.clear();
+            currentBytes = 0;
+        }
+        release(removed);
+    }
+
+    /**
+     * Invalidate all entries and remove the storage directory.
+     */
+    @Override
+    public void close() {
+        open.remove(this);
+        invalidateAll();
+        File[] files = directory.listFiles();
+        if (files != null && files.length > 0) {
+            // only entries still being read remain, their files are deleted when the last reader finishes.
+            logger.info("Leaving " + files.length + " " + name + " secondary storage files in use in " + directory);
+            return;
+        }
+        directory.delete();
+    }
+
+    /**
+     * Invalidate the keys whose toString begins with the given prefix.
+     */
+    public void invalidatePartial(String keyBeginsWith) {
+        List<Entry> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry> entry = iterator.next();
+                if (entry.getKey().toString().startsWith(keyBeginsWith)) {
+                    iterator.remove();
+                    currentBytes -= entry.getValue().size();
+                    removed.add(entry.getValue());
+                }
+            }
+        }
+        release(removed);
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    File getDirectory() {
+        return directory;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getSpillCount() {
+        return spillCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * A summary of the tier's statistics, suitable for appending to a cache log line.
+     */
+    public String getStatusMessage() {
+        return String.format("secondary entries=%d, bytes=%d, hits=%d, misses=%d, spills=%d, spilled bytes=%d, evictions=%d, ",
+                size(), getCurrentBytes(), hitCount.get(), missCount.get(), spillCount.get(), spillBytes.get(),
+                evictionCount.get());
+    }
+
+    /**
+     * Release removed entries, unmapping them now if no reader is using them, or when the last reader finishes.
+     */
+    private void release(List<Entry> removed) {
+        List<Entry> unused = new ArrayList<>(removed.size());
+        synchronized (this) {
+            for (Entry entry : removed) {
+                entry.removed = true;
+                if (entry.readers == 0) {
+                    unused.add(entry);
+                }
+            }
+        }
+        for (Entry entry : unused) {
+            unmap(entry);
+        }
+    }
+
+    private static void unmap(Entry entry) {
+        Unmapper.unmap(entry.buffer);
+        entry.file.delete();
+    }
+
+    /**
+     * Releases a mapping without waiting for the buffer to be garbage collected.
+     *
+     * There is no public API for this, so it uses the buffer cleaner on java 8 and Unsafe.invokeCleaner on later
+     * releases. If neither is available the mapping is left to the garbage collector.
+     */
+    private static final class Unmapper {
+        private static final Method cleaner;
+        private static final Method clean;
+        private static final Object unsafe;
+        private static final Method invokeCleaner;
+
+        static {
+            Method cleanerMethod = null;
+            Method cleanMethod = null;
+            Object theUnsafe = null;
+            Method invokeCleanerMethod = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleanerMethod = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                theUnsafe = field.get(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                invokeCleanerMethod = null;
+                try {
+                    cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                    cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                } catch (ReflectiveOperationException | RuntimeException e2) {
+                    logger.info("Unable to unmap secondary storage buffers, leaving them to the garbage collector");
+                    cleanerMethod = null;
+                    cleanMethod = null;
+                }
+            }
+            cleaner = cleanerMethod;
+            clean = cleanMethod;
+            unsafe = theUnsafe;
+            invokeCleaner = invokeCleanerMethod;
+        }
+
+        private static void unmap(MappedByteBuffer buffer) {
+            try {
+                if (invokeCleaner != null) {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } else if (cleaner != null) {
+                    Object bufferCleaner = cleaner.invoke(buffer);
+                    if (bufferCleaner != null) {
+                        clean.invoke(bufferCleaner);
+                    }
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.debug("Unable to unmap secondary storage buffer", e);
+            }
+        }
+    }
+}
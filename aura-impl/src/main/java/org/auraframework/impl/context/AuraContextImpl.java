@@ -1013,6 +1013,7 @@ public class AuraContextImpl implements AuraContext {
     }
 
     @Override
+    @Deprecated
     public Map<String, String> getAccessCheckCache() {
         return localStore.getAccessCheckCache();
     }
@@ -191,6 +191,7 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
     }
 
     @Override
+    @Deprecated
     public Map<String, String> getAccessCheckCache() {
         return accessCheckCache;
     }
@@ -47,6 +47,7 @@ import org.auraframework.system.Annotations.ActionGroup;
 import org.auraframework.system.Annotations.AuraEnabled;
 import org.auraframework.system.Annotations.CabooseAction;
 import org.auraframework.system.Annotations.Key;
+import org.auraframework.system.Annotations.SerialAction;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.Location;
 import org.auraframework.throwable.AuraRuntimeException;
@@ -71,6 +72,7 @@ public class ComponentController implements GlobalController {
         return NAME;
     }
 
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public Boolean loadLabels() throws QuickFixException {
@@ -107,6 +109,7 @@ public class ComponentController implements GlobalController {
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public Instance getComponent(@Key(value = "name", loggable = true) String name,
@@ -120,6 +123,7 @@ public class ComponentController implements GlobalController {
         return getBaseComponent(Component.class, ComponentDef.class, name, attributes, loadLabels);
     }
 
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public Application getApplication(@Key(value = "name", loggable = true) String name,
@@ -143,6 +147,7 @@ public class ComponentController implements GlobalController {
      * @param stacktraceIdGen - Stack trace generation string
      * @param level - Error reporting level
      */
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public void reportFailedAction(
@@ -234,6 +239,7 @@ public class ComponentController implements GlobalController {
     }
 
     @SuppressWarnings("rawtypes")
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public List<Instance> getComponents(@Key("components") List<Map<String, Object>> components)
@@ -250,6 +256,7 @@ public class ComponentController implements GlobalController {
     }
 
     @CabooseAction
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public void reportDeprecationUsages(@Key("usages") Map<String, Map<String, BigDecimal>> usages) {
@@ -265,6 +272,7 @@ public class ComponentController implements GlobalController {
      * @see #reportDeprecationUsages(Map)
      */
     @CabooseAction
+    @SerialAction
     @AuraEnabled
     @ActionGroup(value = "aura")
     public void reportUsages(@Key("usages") final Map<String, Map<String, BigDecimal>> usages) {
@@ -15,6 +15,8 @@
  */
 package org.auraframework.impl.css;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.salesforce.omakase.plugin.Plugin;
 
@@ -27,25 +29,49 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.FlavoredStyleDef;
 import org.auraframework.def.FlavorsDef;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
 import org.auraframework.impl.css.parser.plugin.FlavorOverridePlugin;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 
 
 public class StyleDefWriter {
+    /**
+     * The runtime CSS of each style def, by style key. Entries go away with the def, so a changed def starts over.
+     */
+    private static final Cache<BaseStyleDef, RuntimeCode> runtimeCode = CacheBuilder.newBuilder().weakKeys().build();
+
     private final DefinitionService definitionService;
     private final StyleAdapter styleAdapter;
     private final AuraContext context;
+    private final String styleKey;
 
     public StyleDefWriter(DefinitionService definitionService, StyleAdapter styleAdapter, AuraContext context) {
+        this(definitionService, styleAdapter, context, null);
+    }
+
+    /**
+     * Create a writer that reuses the runtime CSS of each style def across calls with the same style key.
+     *
+     * @param styleKey identifies everything outside the def that the runtime CSS depends on: the mode, the style
+     *            context, and whether tokens are written as CSS variables. Null to always process the CSS.
+     */
+    public StyleDefWriter(DefinitionService definitionService, StyleAdapter styleAdapter, AuraContext context,
+            String styleKey) {
         this.definitionService = definitionService;
         this.styleAdapter = styleAdapter;
         this.context = context;
+        this.styleKey = styleKey;
     }
 
     public void writeStyleDefs(Collection<? extends BaseStyleDef> values, Appendable out)
@@ -58,6 +84,12 @@ public class StyleDefWriter {
         // the flavor mapping contains information on flavor CSS app overrides
         FlavorOverrideLocator overrides = getFlavorOverrides();
 
+        // the only contextual plugin we know is safe to skip is the font-face check, and only for defs without any
+        boolean cacheable = styleKey != null;
+        for (Plugin plugin : contextualPlugins) {
+            cacheable &= plugin instanceof DuplicateFontFacePlugin;
+        }
+
         for (BaseStyleDef def : values) {
             if (def != null) {
                 if (overrides != null && def instanceof FlavoredStyleDef) {
@@ -70,6 +102,8 @@ public class StyleDefWriter {
                     FlavorOverridePlugin overrideEnforcer = new FlavorOverridePlugin(desc, overrides);
                     List<Plugin> copy = ImmutableList.<Plugin>builder().addAll(contextualPlugins).add(overrideEnforcer).build();
                     out.append(def.getCode(copy));
+                } else if (cacheable) {
+                    out.append(getCode(def, contextualPlugins));
                 } else {
                     out.append(def.getCode(contextualPlugins));
                 }
@@ -77,6 +111,34 @@ public class StyleDefWriter {
         }
     }
 
+    private String getCode(BaseStyleDef def, List<Plugin> contextualPlugins) {
+        RuntimeCode cached;
+        try {
+            cached = runtimeCode.get(def, () -> new RuntimeCode(def));
+        } catch (ExecutionException e) {
+            throw new AuraRuntimeException(e.getCause());
+        }
+        if (cached.hasFontFace) {
+            return def.getCode(contextualPlugins);
+        }
+        String code = cached.code.get(styleKey);
+        if (code == null) {
+            code = def.getCode(contextualPlugins);
+            cached.code.putIfAbsent(styleKey, code);
+        }
+        return code;
+    }
+
+    private static final class RuntimeCode {
+        private final boolean hasFontFace;
+        private final ConcurrentMap<String, String> code = new ConcurrentHashMap<>();
+
+        private RuntimeCode(BaseStyleDef def) {
+            String raw = def.getRawCode();
+            this.hasFontFace = raw != null && raw.toLowerCase(Locale.ROOT).contains("@font-face");
+        }
+    }
+
     private FlavorOverrideLocator getFlavorOverrides() throws QuickFixException {
         DefDescriptor<? extends BaseComponentDef> top = context.getLoadingApplicationDescriptor();
         if (top != null && top.getDefType() == DefType.APPLICATION) {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.auraframework.util.AuraTextUtil;
+
+/**
+ * A java method compiled to a method handle, to avoid reflection on every call.
+ *
+ * Calls behave as {@link Method#invoke}: exceptions from the method are wrapped in an InvocationTargetException,
+ * and calls that reflection would reject (wrong target, argument types needing conversion, inaccessible methods)
+ * are passed on to reflection so that they fail, or convert, in exactly the same way.
+ *
+ * Bean getters are looked up once per class and property, including properties that do not exist.
+ */
+public final class MethodAccessor {
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /** Marks a property with no getter. */
+    private static final MethodAccessor NONE = new MethodAccessor();
+
+    private static final ClassValue<ConcurrentMap<String, MethodAccessor>> getters =
+            new ClassValue<ConcurrentMap<String, MethodAccessor>>() {
+                @Override
+                protected ConcurrentMap<String, MethodAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    /** The parameter types, with primitives boxed. */
+    private final Class<?>[] argumentTypes;
+    private final boolean isStatic;
+
+    /** (Object target, Object[] args)Object, or null if the method can only be called reflectively. */
+    private final MethodHandle handle;
+
+    private MethodAccessor() {
+        this.method = null;
+        this.parameterTypes = null;
+        this.argumentTypes = null;
+        this.isStatic = false;
+        this.handle = null;
+    }
+
+    public MethodAccessor(Method method) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        this.argumentTypes = MethodType.methodType(void.class, parameterTypes).wrap().parameterArray();
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+        this.handle = compile(method, parameterTypes.length, isStatic);
+    }
+
+    /**
+     * Find the getter for a bean property, 'get' or 'is' followed by the capitalized name.
+     *
+     * @param type the class of the bean.
+     * @param property the property name.
+     * @return the getter, or null if there is no public getter.
+     */
+    public static MethodAccessor getGetter(Class<?> type, String property) {
+        ConcurrentMap<String, MethodAccessor> byName = getters.get(type);
+        MethodAccessor getter = byName.get(property);
+        if (getter == null) {
+            getter = findGetter(type, property);
+            byName.putIfAbsent(property, getter);
+        }
+        return getter == NONE ? null : getter;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Call a method with no arguments.
+     *
+     * @see #invoke(Object, Object[])
+     */
+    public Object invoke(Object target) throws IllegalAccessException, InvocationTargetException {
+        return invoke(target, NO_ARGS);
+    }
+
+    /**
+     * Call the method, as {@link Method#invoke}.
+     *
+     * @param target the object to call it on, ignored for static methods.
+     * @param args the arguments.
+     * @return the value returned by the method, or null for void methods.
+     * @throws IllegalAccessException if the method is not accessible.
+     * @throws InvocationTargetException wrapping anything thrown by the method.
+     */
+    public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+        if (handle == null || !canInvokeExactly(target, args)) {
+            return method.invoke(target, args);
+        }
+        try {
+            return (Object) handle.invokeExact(target, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    /**
+     * Check that the handle will not need to convert, or reject, the target or arguments.
+     */
+    private boolean canInvokeExactly(Object target, Object[] args) {
+        if (!isStatic && !method.getDeclaringClass().isInstance(target)) {
+            return false;
+        }
+        int count = args == null ? 0 : args.length;
+        if (count != parameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            Object arg = args[i];
+            if (parameterTypes[i].isPrimitive()) {
+                if (arg == null || arg.getClass() != argumentTypes[i]) {
+                    return false;
+                }
+            } else if (arg != null && !argumentTypes[i].isInstance(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodHandle compile(Method method, int parameterCount, boolean isStatic) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException iae) {
+            return null;
+        }
+        if (isStatic) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                .asSpreader(Object[].class, parameterCount);
+    }
+
+    private static MethodAccessor findGetter(Class<?> type, String property) {
+        String name = AuraTextUtil.initCap(property);
+        Method method;
+        try {
+            method = type.getMethod("get" + name);
+        } catch (NoSuchMethodException e) {
+            try {
+                method = type.getMethod("is" + name);
+            } catch (NoSuchMethodException nme) {
+                return NONE;
+            }
+        }
+        return new MethodAccessor(method);
+    }
+}
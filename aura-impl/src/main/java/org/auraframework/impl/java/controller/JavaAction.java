@@ -130,6 +130,11 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         }
     }
 
+    @Override
+    public boolean isParallelizable() {
+        return this.actionDef != null && !this.actionDef.isSerial();
+    }
+
     @Override
     public void run() {
         if (this.actionDef == null) {
@@ -148,7 +153,7 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         loggingService.startTimer("java");
         try {
             loggingService.incrementNum("JavaCallCount");
-            this.returnValue = this.actionDef.getMethod().invoke(instance, args);
+            this.returnValue = this.actionDef.getMethodAccessor().invoke(instance, args);
             this.state = State.SUCCESS;
         } catch (InvocationTargetException e) {
             // something bad happened in the body of the action itself
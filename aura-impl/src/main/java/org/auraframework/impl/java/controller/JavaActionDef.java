@@ -19,6 +19,7 @@ import org.auraframework.def.ActionDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
+import org.auraframework.impl.java.MethodAccessor;
 import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
@@ -39,8 +40,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     private final List<String> loggableParams;
     private final Class<?>[] javaParams;
     private final Method method;
+    private final MethodAccessor methodAccessor;
     private final boolean background;
     private final boolean caboose;
+    private final boolean serial;
     private final boolean cacheable;
     private String actionGroup;
     private final boolean publicCachingEnabled;
@@ -53,8 +56,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         this.loggableParams = builder.loggableParams;
         this.javaParams = builder.javaParams;
         this.method = builder.method;
+        this.methodAccessor = builder.method != null ? new MethodAccessor(builder.method) : null;
         this.background = builder.background;
         this.caboose = builder.caboose;
+        this.serial = builder.serial;
         this.cacheable = builder.cacheable;
         this.actionGroup = builder.actionGroup;
         this.publicCachingEnabled = builder.publicCachingEnabled;
@@ -89,6 +94,15 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         return this.method;
     }
 
+    /**
+     * Gets the compiled method for this instance, used to invoke it.
+     *
+     * @return The compiled method.
+     */
+    public MethodAccessor getMethodAccessor() {
+        return this.methodAccessor;
+    }
+
     @Override
     public DefDescriptor<TypeDef> getReturnType() {
         return returnTypeDescriptor;
@@ -101,6 +115,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     public boolean isCaboose() {
         return caboose;
     }
+
+    public boolean isSerial() {
+        return serial;
+    }
     
     @Override
     public boolean isCacheable() {
@@ -170,6 +188,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         private boolean cacheable = false;
         private boolean background = false;
         private boolean caboose = false;
+        private boolean serial = false;
         private String actionGroup;
         private boolean publicCachingEnabled = false;
         private int publicCachingExpiration = -1;
@@ -230,6 +249,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         public void setCaboose(boolean caboose) {
             this.caboose = caboose;
         }
+
+        public void setSerial(boolean serial) {
+            this.serial = serial;
+        }
         
         public void setActionGroup(String actionGroup) {
             this.actionGroup = actionGroup;
@@ -45,6 +45,7 @@ import org.auraframework.system.Annotations.CabooseAction;
 import org.auraframework.system.Annotations;
 import org.auraframework.system.Annotations.Key;
 import org.auraframework.system.Annotations.PublicCachingEnabled;
+import org.auraframework.system.Annotations.SerialAction;
 import org.auraframework.system.AuraContext.Access;
 import org.auraframework.system.DefFactory;
 import org.auraframework.system.DefinitionFactory;
@@ -148,6 +149,7 @@ public class JavaControllerDefFactory implements DefinitionFactory<JavaSourceImp
         
         actionBuilder.setBackground(method.isAnnotationPresent(BackgroundAction.class));
         actionBuilder.setCaboose(method.isAnnotationPresent(CabooseAction.class));
+        actionBuilder.setSerial(method.isAnnotationPresent(SerialAction.class));
 
         AuraEnabled auraEnabledAnnotation = method.getAnnotation(AuraEnabled.class);
         if (auraEnabledAnnotation != null) {
@@ -17,7 +17,6 @@ package org.auraframework.impl.java.model;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +25,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.ModelDef;
 import org.auraframework.def.TypeDef;
 import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.java.MethodAccessor;
 import org.auraframework.impl.java.type.JavaValueProvider;
 import org.auraframework.impl.javascript.testsuite.JavascriptMockHandler;
 import org.auraframework.instance.InstanceStack;
@@ -160,15 +160,11 @@ public class JavaModel implements Model {
                 }
             }
             else {
-                Method meth = null;
-                try {
-                    meth = root.getClass().getMethod("get" + AuraTextUtil.initCap(part));
-                } catch (NoSuchMethodException e) {
-                    try {
-                        meth = root.getClass().getMethod("is" + AuraTextUtil.initCap(part));
-                    } catch (NoSuchMethodException nme) {
-                        throw makeException("no such property: " + part, e, def);
-                    }
+                MethodAccessor meth = MethodAccessor.getGetter(root.getClass(), part);
+                if (meth == null) {
+                    throw makeException("no such property: " + part,
+                            new NoSuchMethodException(root.getClass().getName() + ".get" + AuraTextUtil.initCap(part) + "()"),
+                            def);
                 }
                 try {
                     ret = meth.invoke(root);
@@ -20,6 +20,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
 import org.auraframework.impl.DefinitionAccessImpl;
+import org.auraframework.impl.java.MethodAccessor;
 import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext.Access;
@@ -43,6 +44,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
     private final String name;
     private final DefDescriptor<TypeDef> typeDescriptor;
     private final Method getter;
+    private final MethodAccessor accessor;
     private final boolean loggable;
 
     public JavaValueDef(String name, DefDescriptor<TypeDef> typeDescriptor, Location location, boolean loggable) {
@@ -50,6 +52,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
         this.name = name;
         this.typeDescriptor = typeDescriptor;
         this.getter = null;
+        this.accessor = null;
         this.loggable = loggable;
     }
 
@@ -57,6 +60,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
         super(null, location, null);
         this.name = name;
         this.getter = getter;
+        this.accessor = new MethodAccessor(getter);
         this.typeDescriptor = typeDescriptor;
         this.loggable = false;
     }
@@ -86,7 +90,7 @@ public class JavaValueDef extends DefinitionImpl<ValueDef> implements ValueDef {
         try {
             LoggingService loggingService = Aura.getLoggingService();
             loggingService.incrementNum("JavaCallCount");
-            return getter.invoke(obj);
+            return accessor.invoke(obj);
         } catch (IllegalArgumentException | IllegalAccessException e) {
             throw new AuraRuntimeException(e);
         } catch (InvocationTargetException e) {
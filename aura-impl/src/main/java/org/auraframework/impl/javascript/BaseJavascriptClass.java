@@ -17,9 +17,15 @@
 package org.auraframework.impl.javascript;
 
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.io.StringWriter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.auraframework.system.Location;
 import org.auraframework.throwable.AuraRuntimeException;
@@ -27,31 +33,264 @@ import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.javascript.JavascriptProcessingError;
 import org.auraframework.util.javascript.JavascriptWriter;
+import org.auraframework.util.javascript.MinifiedCodeCache;
 
+/**
+ * A generated javascript class, with its minified form.
+ *
+ * Minification is backed by the persistent {@link MinifiedCodeCache}, and is not done when the class is built, where
+ * the code is only checked for syntax errors. The full compile is checked by {@link #validateMinifiedCode()} when the
+ * owning definition is validated, or, for classes built while a batch is open, when {@link #finishBatch()} minifies
+ * the batch. A compile failure is remembered, including on a serialized copy, so it is reported again by
+ * {@link #getMinifiedCode()} without compiling again.
+ */
 public abstract class BaseJavascriptClass implements Serializable {
     private static final long serialVersionUID = 7445974179103021929L;
 
+    private static final JavascriptWriter MINIFIER = JavascriptWriter.CLOSURE_SIMPLE;
+
+    /** The most classes minified in one compiler session. */
+    private static final int BATCH_SIZE = 100;
+
+    /** Classes built on this thread that need minifying, while a batch is open. */
+    private static final ThreadLocal<Set<BaseJavascriptClass>> batch = new ThreadLocal<>();
+
     private final String code;
-    private final String minifiedCode;
+    private final boolean minify;
+    private final String filename;
+    private final Location location;
+    private volatile String minifiedCode;
+    private volatile InvalidDefinitionException minifyError;
 
     public BaseJavascriptClass(Builder builder) {
         code = builder.code;
-        minifiedCode = builder.minifiedCode;
+        minify = builder.minify && builder.hasCode();
+        filename = minify ? builder.getFilename() : null;
+        location = minify ? builder.getLocation() : null;
+
+        Set<BaseJavascriptClass> pending = batch.get();
+        if (minify && pending != null) {
+            pending.add(this);
+        }
     }
 
     public String getCode() {
         return code;
     }
 
+    /**
+     * Get the minified code, minifying it if this is the first time it is asked for.
+     *
+     * @return the minified code, or null if the class is not minified.
+     * @throws AuraRuntimeException if the code could not be minified, with the errors and the class location.
+     */
     public String getMinifiedCode() {
-        return minifiedCode;
+        try {
+            return minifyOnce();
+        } catch (InvalidDefinitionException ide) {
+            throw new AuraRuntimeException(ide.getMessage(), location, ide);
+        }
+    }
+
+    /**
+     * Check that the code passes the full compile, minifying it if it is not already.
+     *
+     * While a batch is open on this thread, a class built in the batch is left to {@link #finishBatch()}, so that it
+     * is compiled with the rest of the batch.
+     *
+     * @throws InvalidDefinitionException if the code could not be minified, with the errors and the class location.
+     */
+    public void validateMinifiedCode() throws InvalidDefinitionException {
+        Set<BaseJavascriptClass> pending = batch.get();
+        if (pending != null && pending.contains(this)) {
+            return;
+        }
+        minifyOnce();
+    }
+
+    private String minifyOnce() throws InvalidDefinitionException {
+        if (!minify) {
+            return null;
+        }
+        String result = minifiedCode;
+        if (result == null) {
+            if (minifyError != null) {
+                throw minifyError;
+            }
+            try {
+                result = minify(code, filename, location);
+            } catch (InvalidDefinitionException ide) {
+                minifyError = ide;
+                throw ide;
+            }
+            minifiedCode = result;
+        }
+        return result;
+    }
+
+    /**
+     * Start collecting the classes built on this thread that need minifying, so that {@link #finishBatch()} can
+     * minify them together.
+     */
+    public static void startBatch() {
+        batch.set(new LinkedHashSet<>());
+    }
+
+    /**
+     * Minify the classes built on this thread since {@link #startBatch()}, and stop collecting them.
+     *
+     * Every class in the batch is checked, and the failures are remembered by each class.
+     *
+     * @throws InvalidDefinitionException for the first class in the batch that could not be minified.
+     */
+    public static void finishBatch() throws InvalidDefinitionException {
+        Set<BaseJavascriptClass> pending = batch.get();
+        batch.remove();
+        if (pending == null) {
+            return;
+        }
+        minifyAll(pending);
+        InvalidDefinitionException first = null;
+        for (BaseJavascriptClass javascriptClass : pending) {
+            try {
+                // compiles only the classes left over from a failed session
+                javascriptClass.minifyOnce();
+            } catch (InvalidDefinitionException ide) {
+                if (first == null) {
+                    first = ide;
+                }
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    /**
+     * Minify many classes, sharing compiler sessions between them.
+     *
+     * Classes that are already minified, cached or known to fail are skipped. If a session reports any errors, the
+     * classes in it are left to be minified individually, so that the errors are reported against the right class.
+     *
+     * @param classes the classes to minify.
+     */
+    public static void minifyAll(Collection<? extends BaseJavascriptClass> classes) {
+        MinifiedCodeCache cache = MinifiedCodeCache.getInstance();
+        Map<String, BaseJavascriptClass> sessionClasses = new LinkedHashMap<>();
+        for (BaseJavascriptClass javascriptClass : classes) {
+            if (!javascriptClass.minify || javascriptClass.minifiedCode != null
+                    || javascriptClass.minifyError != null) {
+                continue;
+            }
+            String cached = cache != null ? cache.get(MINIFIER, javascriptClass.code) : null;
+            if (cached != null) {
+                javascriptClass.minifiedCode = cached;
+                continue;
+            }
+            // the index keeps the source names unique within the session
+            sessionClasses.put(sessionClasses.size() + ":" + javascriptClass.filename, javascriptClass);
+            if (sessionClasses.size() == BATCH_SIZE) {
+                minifySession(sessionClasses, cache);
+                sessionClasses.clear();
+            }
+        }
+        if (!sessionClasses.isEmpty()) {
+            minifySession(sessionClasses, cache);
+        }
+    }
+
+    private static void minifySession(Map<String, BaseJavascriptClass> classes, MinifiedCodeCache cache) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (Map.Entry<String, BaseJavascriptClass> entry : classes.entrySet()) {
+            sources.put(entry.getKey(), entry.getValue().code);
+        }
+        Map<String, String> compressed;
+        try {
+            compressed = MINIFIER.compressAll(sources);
+        } catch (RuntimeException re) {
+            compressed = null;
+        }
+        if (compressed == null) {
+            return;
+        }
+        for (Map.Entry<String, BaseJavascriptClass> entry : classes.entrySet()) {
+            BaseJavascriptClass javascriptClass = entry.getValue();
+            String minified = writeSourceUrl(compressed.get(entry.getKey()));
+            javascriptClass.minifiedCode = minified;
+            if (cache != null) {
+                cache.put(MINIFIER, javascriptClass.code, minified);
+            }
+        }
+    }
+
+    private static String minify(String code, String filename, Location location)
+            throws InvalidDefinitionException {
+        MinifiedCodeCache cache = MinifiedCodeCache.getInstance();
+        String minified = cache != null ? cache.get(MINIFIER, code) : null;
+        if (minified == null) {
+            StringWriter sw = new StringWriter();
+            try {
+                checkCodeErrors(MINIFIER.compress(code, sw, filename), location);
+            } catch (IOException e) {
+                // There is no IO in this scenario. The JavascriptWriter API requires
+                // this catch, even if it's never called when reading from a string.
+                throw new AuraRuntimeException(e.getMessage());
+            }
+            // only do this for PROD as other modes would be taken care of in the client
+            minified = writeSourceUrl(sw.toString());
+            if (cache != null) {
+                cache.put(MINIFIER, code, minified);
+            }
+        }
+        return minified;
+    }
+
+    private static String writeSourceUrl(String codeToWrite) {
+        StringBuilder sb = new StringBuilder();
+        int lastCurlyPos = codeToWrite.lastIndexOf('}');
+        sb.append(codeToWrite.substring(0, lastCurlyPos));
+        sb.append(codeToWrite.substring(lastCurlyPos));
+        return sb.toString();
+    }
+
+    private static void checkCodeErrors(List<JavascriptProcessingError> codeErrors, Location location)
+            throws InvalidDefinitionException {
+        if (codeErrors != null && !codeErrors.isEmpty()) {
+            StringBuilder sb = new StringBuilder();
+            boolean first = true;
+            for (JavascriptProcessingError error : codeErrors) {
+                if (first) {
+                    first = false;
+                } else {
+                    sb.append("\n");
+                }
+                sb.append(error.toString());
+            }
+            if (sb.length() > 0) {
+                throw new InvalidDefinitionException(sb.toString(), location);
+            }
+        }
+    }
+
+    /**
+     * Minify before writing, so that serialized definitions carry the minified code.
+     *
+     * A class that fails to minify is written with its failure rather than failing the whole serialization, and the
+     * copy reports the failure from {@link #getMinifiedCode()} like the original does.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        try {
+            minifyOnce();
+        } catch (InvalidDefinitionException ide) {
+            // written as the remembered failure
+        }
+        out.defaultWriteObject();
     }
 
     public static abstract class Builder {
 
         private boolean minify = true;
         private String code;
-        private String minifiedCode;
 
         /**
          * Turn minfication on/off (on by default).
@@ -98,47 +337,18 @@ public abstract class BaseJavascriptClass implements Serializable {
         protected void finish() throws QuickFixException {
             code = generate();
             if (minify && hasCode()) {
-                try {
-                    StringWriter sw = new StringWriter();
-                    List<JavascriptProcessingError> codeErrors = JavascriptWriter.CLOSURE_SIMPLE.compress(code, sw,
-                            getFilename());
-                    validateCodeErrors(codeErrors);
-                    minifiedCode = sw.toString();
-                    // only do this for PROD as other modes would be taken care of in the client
-                    minifiedCode = writeSourceUrl(minifiedCode);
-                } catch (IOException e) {
-                    // There is no IO in this scenario. The JavascriptWriter API requires
-                    // this catch, even if it's never called when reading from a string.
-                    throw new AuraRuntimeException(e.getMessage());
-                }
+                // Minification is deferred until the minified code is asked for, so just check that it will parse.
+                validateCodeErrors(JavascriptWriter.checkSyntax(code, getFilename()));
             }
         }
 
         protected String writeSourceUrl(String codeToWrite) {
-            StringBuilder sb = new StringBuilder();
-            int lastCurlyPos = codeToWrite.lastIndexOf('}');
-            sb.append(codeToWrite.substring(0, lastCurlyPos));
-            sb.append(codeToWrite.substring(lastCurlyPos));
-            return sb.toString();
+            return BaseJavascriptClass.writeSourceUrl(codeToWrite);
         }
 
         protected void validateCodeErrors(List<JavascriptProcessingError> codeErrors)
                 throws InvalidDefinitionException {
-            if (codeErrors != null && !codeErrors.isEmpty()) {
-                StringBuilder sb = new StringBuilder();
-                boolean first = true;
-                for (JavascriptProcessingError error : codeErrors) {
-                    if (first) {
-                        first = false;
-                    } else {
-                        sb.append("\n");
-                    }
-                    sb.append(error.toString());
-                }
-                if (sb.length() > 0) {
-                    throw new InvalidDefinitionException(sb.toString(), getLocation());
-                }
-            }
+            checkCodeErrors(codeErrors, getLocation());
         }
     }
 }
@@ -15,8 +15,6 @@
  */
 package org.auraframework.impl.linker;
 
-import java.util.Map;
-
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -28,9 +26,49 @@ import org.auraframework.throwable.NoAccessException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Checks access from a referencing descriptor to a definition.
+ *
+ * The parts of an access decision that depend only on the definition are computed once per definition and kept
+ * process wide. They are keyed on the definition instance, which is immutable and is replaced whenever the defs
+ * cache is invalidated, so stale entries simply become unreachable. What remains per check is a comparison of the
+ * referencing namespace against the definition's, and the config checks, which are not cached because the config
+ * can change without the definition changing. Messages are only built when access is denied.
+ */
 public class AccessChecker {
     private final ConfigAdapter configAdapter;
 
+    /**
+     * The access class of a definition. weakKeys() compares keys by identity.
+     */
+    private final Cache<Definition, AccessClass> accessClasses = CacheBuilder.newBuilder().weakKeys().build();
+
+    /**
+     * Everything about a definition needed to decide access. Nothing here depends on config.
+     */
+    private static final class AccessClass {
+        /** Anyone can see the definition, no further checks needed. */
+        private static final AccessClass OPEN = new AccessClass(null, null, false, false);
+
+        /** Modules have their own rules, see computeModuleAccess. */
+        private static final AccessClass MODULE = new AccessClass(null, null, false, false);
+
+        private final String namespace;
+        private final String prefix;
+        private final boolean isPrivate;
+        private final boolean privileged;
+
+        private AccessClass(String namespace, String prefix, boolean isPrivate, boolean privileged) {
+            this.namespace = namespace;
+            this.prefix = prefix;
+            this.isPrivate = isPrivate;
+            this.privileged = privileged;
+        }
+    }
+
     public AccessChecker(ConfigAdapter configAdapter) {
         this.configAdapter = configAdapter;
     }
@@ -40,12 +78,11 @@ public class AccessChecker {
      *
      * @param referencingDescriptor the descriptor that has a reference to the definition
      * @param def the definition that is being referenced.
-     * @param accessCheckCache the cache for messages.
      * @throws NoAccessException if access is denied.
      */
-    public <D extends Definition> void assertAccess(DefDescriptor<?> referencingDescriptor, D def,
-            Map<String,String> accessCheckCache) throws QuickFixException {
-        String status = getAccessMessage(referencingDescriptor, def, accessCheckCache);
+    public <D extends Definition> void assertAccess(DefDescriptor<?> referencingDescriptor, D def)
+            throws QuickFixException {
+        String status = getAccessMessage(referencingDescriptor, def);
         if (status != null) {
             throw new NoAccessException(status);
         }
@@ -56,12 +93,17 @@ public class AccessChecker {
      *
      * @param referencingDescriptor the descriptor that has a reference to the definition
      * @param def the definition that is being referenced.
-     * @param accessCheckCache the cache for messages.
      * @return true if access is granted.
      */
-    public <D extends Definition> boolean checkAccess(DefDescriptor<?> referencingDescriptor, D def,
-            Map<String,String> accessCheckCache) {
-        return computeAccess(referencingDescriptor, def, accessCheckCache) == null;
+    public <D extends Definition> boolean checkAccess(DefDescriptor<?> referencingDescriptor, D def) {
+        if (def == null) {
+            return true;
+        }
+        AccessClass accessClass = getAccessClass(def);
+        if (accessClass == AccessClass.MODULE) {
+            return computeModuleAccess(referencingDescriptor, (ModuleDef) def) == null;
+        }
+        return isAllowed(referencingDescriptor, def, accessClass);
     }
 
     /**
@@ -69,12 +111,10 @@ public class AccessChecker {
      *
      * @param referencingDescriptor the descriptor that has a reference to the definition
      * @param def the definition that is being referenced.
-     * @param accessCheckCache the cache for messages.
      * @return the message that should be given back to the user, or null if access is granted.
      */
-    public <D extends Definition> String getAccessMessage(DefDescriptor<?> referencingDescriptor, D def,
-            Map<String,String> accessCheckCache) {
-        String status = computeAccess(referencingDescriptor, def, accessCheckCache);
+    public <D extends Definition> String getAccessMessage(DefDescriptor<?> referencingDescriptor, D def) {
+        String status = computeAccess(referencingDescriptor, def);
         if (status == null || !configAdapter.isProduction()) {
             return status;
         }
@@ -85,124 +125,138 @@ public class AccessChecker {
     /**
      * Internal routine to compute access messages.
      */
-    private <D extends Definition> String computeAccess(DefDescriptor<?> referencingDescriptor, D def, Map<String,String> accessCheckCache) {
+    private <D extends Definition> String computeAccess(DefDescriptor<?> referencingDescriptor, D def) {
         if (def == null) {
             return null;
         }
+        AccessClass accessClass = getAccessClass(def);
+        if (accessClass == AccessClass.MODULE) {
+            return computeModuleAccess(referencingDescriptor, (ModuleDef) def);
+        }
+        if (isAllowed(referencingDescriptor, def, accessClass)) {
+            return null;
+        }
+
+        if (!configAdapter.isProduction()) {
+            return getDeniedMessage(referencingDescriptor, def, accessClass);
+        }
 
+        return DefinitionNotFoundException.getMessage(def.getDescriptor().getDefType(), def.getDescriptor().getName());
+    }
+
+    /**
+     * Get the access class for a definition, computing it on first use.
+     */
+    private AccessClass getAccessClass(Definition def) {
+        AccessClass accessClass = accessClasses.getIfPresent(def);
+        if (accessClass == null) {
+            accessClass = computeAccessClass(def);
+            accessClasses.put(def, accessClass);
+        }
+        return accessClass;
+    }
+
+    private AccessClass computeAccessClass(Definition def) {
         // If the def is access="global" or does not require authentication then anyone can see it
         DefinitionAccess access = def.getAccess();
         if (access == null) {
             throw new RuntimeException("Missing access declaration for " + def.getDescriptor()
                     + " of type "+def.getClass().getSimpleName());
         }
-        
+
         DefDescriptor<?> desc = def.getDescriptor();
 
         // It's possible to have this return null. 
         // For Example LibraryDefRefs dont have a descriptor, so they return null.
         if (desc == null) {
-            return null;
+            return AccessClass.OPEN;
         }
-        
+
         if (desc.getDefType() == DefType.MODULE) {
-            return computeModuleAccess(referencingDescriptor, (ModuleDef) def);
+            return AccessClass.MODULE;
         }
 
         if (access.isGlobal() || !access.requiresAuthentication()) {
-            return null;
+            return AccessClass.OPEN;
+        }
+
+        String namespace;
+        if (def instanceof ParentedDef) {
+            namespace = ((ParentedDef) def).getParentDescriptor().getNamespace();
+        } else {
+            namespace = desc.getNamespace();
+        }
+        return new AccessClass(namespace, desc.getPrefix(), access.isPrivate(), access.isPrivileged());
+    }
+
+    /**
+     * Decide access given the access class of the definition.
+     */
+    private boolean isAllowed(DefDescriptor<?> referencingDescriptor, Definition def, AccessClass accessClass) {
+        if (accessClass == AccessClass.OPEN) {
+            return true;
         }
-        if (access.isPrivate()) {
+        if (accessClass.isPrivate) {
             // make sure private is really private.
-            if (desc.equals(referencingDescriptor)) {
-                return null;
+            if (def.getDescriptor().equals(referencingDescriptor)) {
+                return true;
             }
         }
         String referencingNamespace = null;
         if (referencingDescriptor != null) {
-            String prefix = referencingDescriptor.getPrefix();
-            if (configAdapter.isUnsecuredPrefix(prefix)) {
-                return null;
+            if (configAdapter.isUnsecuredPrefix(referencingDescriptor.getPrefix())) {
+                return true;
             }
 
             referencingNamespace = referencingDescriptor.getNamespace();
 
             // The caller is in an internal namespace let them through
             if (configAdapter.isInternalNamespace(referencingNamespace)) {
-                return null;
+                return true;
             }
 
             // Both access of def and referencingNamespace are privileged so we allow
-            if (access.isPrivileged() && configAdapter.isPrivilegedNamespace(referencingNamespace)) {
-                return null;
+            if (accessClass.privileged && configAdapter.isPrivilegedNamespace(referencingNamespace)) {
+                return true;
             }
         }
 
-        String namespace;
-        String target;
-
-        if (def instanceof ParentedDef) {
-            ParentedDef parentedDef = (ParentedDef) def;
-            DefDescriptor<?> parentDescriptor = parentedDef.getParentDescriptor();
-            namespace = parentDescriptor.getNamespace();
-            target = String.format("%s:%s.%s", namespace, parentDescriptor.getName(), desc.getName());
-        } else {
-            namespace = desc.getNamespace();
-            target = String.format("%s:%s", namespace, desc.getName());
+        if (configAdapter.isUnsecuredNamespace(accessClass.namespace)
+                || configAdapter.isUnsecuredPrefix(accessClass.prefix)) {
+            return true;
         }
+        // Only the same namespace is allowed, and then only for non-private definitions
+        return referencingNamespace != null && !referencingNamespace.isEmpty()
+                && referencingNamespace.equals(accessClass.namespace) && !accessClass.isPrivate;
+    }
 
-        // Cache key is of the form "referencingNamespace>defNamespace:defName[.subDefName].defTypeOrdinal"
+    /**
+     * Build the message for a denied access.
+     */
+    private String getDeniedMessage(DefDescriptor<?> referencingDescriptor, Definition def, AccessClass accessClass) {
+        DefDescriptor<?> desc = def.getDescriptor();
         DefType defType = desc.getDefType();
-        String key = String.format("%s>%s.%d", referencingNamespace == null ? "" : referencingNamespace, target,
-                defType.ordinal());
-
-        String status = null;
-        if (accessCheckCache != null) {
-            status = accessCheckCache.get(key);
-        }
-
-        if (status == null) {
-            // System.out.printf("** MDR.miss.assertAccess() cache miss for: %s\n", key);
-            // We may re-enter this code, but only in race conditions. We should generate the
-            // same string, and the only way to protect against this is to lock it.
-
-            if (!configAdapter.isUnsecuredNamespace(namespace)
-                    && !configAdapter.isUnsecuredPrefix(desc.getPrefix())) {
-                if (referencingNamespace == null || referencingNamespace.isEmpty()) {
-                    status = String
-                            .format("Access to %s '%s' is not allowed: referencing namespace was empty or null",
-                                    defType, target);
-                } else if (!referencingNamespace.equals(namespace)) {
-                    // The caller and the def are not in the same namespace
-                    status = String
-                            .format("Access to %s '%s' with access '%s' from namespace '%s' in '%s(%s)' is not allowed",
-                                    defType.toString().toLowerCase(), target, def.getAccess().toString(),
-                                    referencingNamespace, referencingDescriptor, referencingDescriptor.getDefType());
-                } else if (access.isPrivate()) {
-                    status = String
-                            .format("Access to %s '%s' with access PRIVATE from namespace '%s' in '%s(%s)' is not allowed",
-                                    defType.toString().toLowerCase(), target, referencingNamespace,
-                                    referencingDescriptor, referencingDescriptor.getDefType());
-                }
-            }
-            if (status == null) {
-                status = "";
-            }
-            if (accessCheckCache != null) {
-                accessCheckCache.put(key, status);
-            }
-
-        }
-
-        if (status.isEmpty()) {
-            return null;
+        String target;
+        if (def instanceof ParentedDef) {
+            DefDescriptor<?> parentDescriptor = ((ParentedDef) def).getParentDescriptor();
+            target = String.format("%s:%s.%s", accessClass.namespace, parentDescriptor.getName(), desc.getName());
+        } else {
+            target = String.format("%s:%s", accessClass.namespace, desc.getName());
         }
 
-        if (!configAdapter.isProduction()) {
-            return status;
+        String referencingNamespace = referencingDescriptor != null ? referencingDescriptor.getNamespace() : null;
+        if (referencingNamespace == null || referencingNamespace.isEmpty()) {
+            return String.format("Access to %s '%s' is not allowed: referencing namespace was empty or null",
+                    defType, target);
+        } else if (!referencingNamespace.equals(accessClass.namespace)) {
+            // The caller and the def are not in the same namespace
+            return String.format("Access to %s '%s' with access '%s' from namespace '%s' in '%s(%s)' is not allowed",
+                    defType.toString().toLowerCase(), target, def.getAccess().toString(),
+                    referencingNamespace, referencingDescriptor, referencingDescriptor.getDefType());
         }
-
-        return DefinitionNotFoundException.getMessage(def.getDescriptor().getDefType(), def.getDescriptor().getName());
+        return String.format("Access to %s '%s' with access PRIVATE from namespace '%s' in '%s(%s)' is not allowed",
+                defType.toString().toLowerCase(), target, referencingNamespace,
+                referencingDescriptor, referencingDescriptor.getDefType());
     }
 
     /**
@@ -69,7 +69,6 @@ public class AuraLinker {
     private final ConfigAdapter configAdapter;
     private final JsonSerializationContext jsonSerializationContext;
     private final Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache;
-    private final Map<String, String> accessCheckCache;
 
     private final Map<DefDescriptor<? extends Definition>, LinkingDefinition<?>> linked = Maps.newHashMap();
     private final Map<DefDescriptor<? extends Definition>, Definition> subDefinitions = Maps.newHashMap();
@@ -93,7 +92,6 @@ public class AuraLinker {
                       Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache,
                       LoggingService loggingService, ConfigAdapter configAdapter,
                       AccessChecker accessChecker, AuraLocalStore localStore,
-                      Map<String, String> accessCheckCache,
                       RegistrySet registrySet, JsonSerializationContext jsonSerializationContext,
                       ExceptionAdapter exceptionAdapter) {
 
@@ -107,7 +105,6 @@ public class AuraLinker {
         this.configAdapter = configAdapter;
         this.accessChecker = accessChecker;
         this.localStore = localStore;
-        this.accessCheckCache = accessCheckCache;
         this.registries = registrySet;
         this.jsonSerializationContext = jsonSerializationContext;
         this.exceptionAdapter = exceptionAdapter;
@@ -358,7 +355,7 @@ public class AuraLinker {
             throw qfe;
         } finally {
             if (parent != null && linkingDef.def != null) {
-                accessChecker.assertAccess(parent.getDescriptor(), linkingDef.def, accessCheckCache);
+                accessChecker.assertAccess(parent.getDescriptor(), linkingDef.def);
             }
         }
     }
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.auraframework.Aura;
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.EventDef;
+import org.auraframework.def.InterfaceDef;
+import org.auraframework.def.RootDefinition;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+
+/**
+ * The attributes of a root definition, including inherited ones, numbered so that an attribute set can keep its
+ * values in an array.
+ *
+ * Layouts are computed once per definition instance, so that instances do not rebuild the inherited attribute map
+ * each time they are created. Inherited attributes come from the super definition and interfaces as they are
+ * resolved at the time, which can change without the definition itself changing, so a layout also keeps the
+ * layouts of the definitions it inherits from. It is rebuilt if any of them is no longer the current one, which is
+ * checked once per context. The contexts it has been checked in are recorded per layout, as concurrent requests
+ * each check in their own context.
+ */
+final class AttributeLayout {
+    private static final Cache<RootDefinition, AttributeLayout> layouts = CacheBuilder.newBuilder().weakKeys().build();
+
+    private final DefDescriptor<AttributeDef>[] descriptors;
+    private final AttributeDef[] attributeDefs;
+    private final Map<DefDescriptor<AttributeDef>, Integer> slots;
+
+    /**
+     * Slots by name, ignoring case, for descriptors that are equal to the plain descriptor for their name.
+     */
+    private final Map<String, Integer> slotsByName;
+
+    /**
+     * The definitions that attributes are inherited from, and their layouts when this one was built.
+     */
+    private final List<DefDescriptor<? extends RootDefinition>> parents;
+    private final List<AttributeLayout> parentLayouts;
+
+    /**
+     * The contexts in which the parent layouts were found to be current, held weakly and compared by identity.
+     */
+    private final Set<AuraContext> checkedIn;
+
+    @SuppressWarnings("unchecked")
+    private AttributeLayout(Map<DefDescriptor<AttributeDef>, AttributeDef> attributes,
+            List<DefDescriptor<? extends RootDefinition>> parents, List<AttributeLayout> parentLayouts) {
+        int size = attributes.size();
+        this.descriptors = new DefDescriptor[size];
+        this.attributeDefs = new AttributeDef[size];
+        this.slots = new HashMap<>(size * 2);
+        this.slotsByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.parents = parents;
+        this.parentLayouts = parentLayouts;
+        this.checkedIn = parents.isEmpty() ? Collections.emptySet()
+                : Collections.newSetFromMap(new MapMaker().weakKeys().concurrencyLevel(1).makeMap());
+        int slot = 0;
+        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> entry : attributes.entrySet()) {
+            DefDescriptor<AttributeDef> descriptor = entry.getKey();
+            descriptors[slot] = descriptor;
+            attributeDefs[slot] = entry.getValue();
+            slots.put(descriptor, slot);
+            if (descriptor.getBundle() == null && descriptor.getQualifiedName().equals(descriptor.getName())) {
+                slotsByName.put(descriptor.getName(), slot);
+            }
+            slot++;
+        }
+    }
+
+    /**
+     * Get the layout for a definition.
+     */
+    static AttributeLayout get(RootDefinition def) throws QuickFixException {
+        return get(def, Aura.getDefinitionService(), Aura.getContextService());
+    }
+
+    /**
+     * Get the layout for a definition, resolving the definitions it inherits from with the given services.
+     */
+    static AttributeLayout get(RootDefinition def, DefinitionService definitionService,
+            ContextService contextService) throws QuickFixException {
+        AttributeLayout layout = layouts.getIfPresent(def);
+        if (layout == null || !layout.isCurrent(definitionService, contextService)) {
+            List<DefDescriptor<? extends RootDefinition>> parents = getParents(def);
+            List<AttributeLayout> parentLayouts = new ArrayList<>(parents.size());
+            for (DefDescriptor<? extends RootDefinition> parent : parents) {
+                parentLayouts.add(get(definitionService.getDefinition(parent), definitionService, contextService));
+            }
+            // the parent layouts are taken first, so that a parent that changes while this is built is noticed.
+            layout = new AttributeLayout(def.getAttributeDefs(), parents, parentLayouts);
+            layouts.put(def, layout);
+        }
+        return layout;
+    }
+
+    /**
+     * Check that the definitions this layout inherits from still have the layouts it was built from.
+     */
+    private boolean isCurrent(DefinitionService definitionService, ContextService contextService)
+            throws QuickFixException {
+        if (parents.isEmpty()) {
+            return true;
+        }
+        AuraContext context = contextService.getCurrentContext();
+        if (context != null && checkedIn.contains(context)) {
+            return true;
+        }
+        for (int i = 0; i < parents.size(); i++) {
+            RootDefinition parent = definitionService.getDefinition(parents.get(i));
+            if (get(parent, definitionService, contextService) != parentLayouts.get(i)) {
+                return false;
+            }
+        }
+        if (context != null) {
+            checkedIn.add(context);
+        }
+        return true;
+    }
+
+    /**
+     * Get the definitions that a definition inherits attributes from.
+     */
+    private static List<DefDescriptor<? extends RootDefinition>> getParents(RootDefinition def) {
+        List<DefDescriptor<? extends RootDefinition>> parents = new ArrayList<>();
+        if (def instanceof BaseComponentDef) {
+            BaseComponentDef componentDef = (BaseComponentDef) def;
+            if (componentDef.getExtendsDescriptor() != null) {
+                parents.add(componentDef.getExtendsDescriptor());
+            }
+            if (componentDef.getInterfaces() != null) {
+                parents.addAll(componentDef.getInterfaces());
+            }
+        } else if (def instanceof EventDef) {
+            if (((EventDef) def).getExtendsDescriptor() != null) {
+                parents.add(((EventDef) def).getExtendsDescriptor());
+            }
+        } else if (def instanceof InterfaceDef) {
+            if (((InterfaceDef) def).getExtendsDescriptors() != null) {
+                parents.addAll(((InterfaceDef) def).getExtendsDescriptors());
+            }
+        }
+        return parents.isEmpty() ? Collections.emptyList() : parents;
+    }
+    int size() {
+        return descriptors.length;
+    }
+
+    /**
+     * @return the slot for an attribute, or -1 if it is not part of the definition.
+     */
+    int indexOf(DefDescriptor<AttributeDef> descriptor) {
+        Integer slot = slots.get(descriptor);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * @return the slot for an attribute name, or -1 if it is not known by that name.
+     */
+    int indexOf(String name) {
+        Integer slot = slotsByName.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    DefDescriptor<AttributeDef> getDescriptor(int slot) {
+        return descriptors[slot];
+    }
+
+    AttributeDef getAttributeDef(int slot) {
+        return attributeDefs[slot];
+    }
+
+    /**
+     * @return the definition for an attribute, or null if it is not part of the definition.
+     */
+    AttributeDef getAttributeDef(DefDescriptor<AttributeDef> descriptor) {
+        int slot = indexOf(descriptor);
+        return slot >= 0 ? attributeDefs[slot] : null;
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.auraframework.impl.root;
 
+import com.google.common.base.Predicates;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
 import org.auraframework.Aura;
 import org.auraframework.def.AttributeDef;
@@ -61,17 +63,25 @@ import java.util.Map;
 import java.util.Set;
 
 /**
+ * The attributes of an instance.
+ *
+ * Values are kept in an array laid out by the {@link AttributeLayout} of the root definition. Attributes that are not
+ * part of the current definition, which can happen when a provider changes it, are kept in a map on the side.
  */
 @Serialization(referenceType = ReferenceType.IDENTITY)
 public class AttributeSetImpl implements AttributeSet {
     private static final Location SUPER_PASSTHROUGH = AuraUtil.getExternalLocation("super component attribute passthrough");
+    private static final Attribute[] NO_VALUES = new Attribute[0];
 
     // Immutable? I think not.
     private DefDescriptor<? extends RootDefinition> rootDefDescriptor;
     private boolean trackDirty = false;
     
-    private final Map<DefDescriptor<AttributeDef>, Attribute> attributes = Maps.newHashMap();
-    private final Map<DefDescriptor<EventHandlerDef>, EventHandler> events = Maps.newHashMap();
+    private AttributeLayout layout;
+    private Attribute[] values = NO_VALUES;
+    private Map<DefDescriptor<AttributeDef>, Attribute> otherValues;
+    private int size;
+    private Map<DefDescriptor<EventHandlerDef>, EventHandler> events;
     private final BaseComponent<?, ?> valueProvider;
     private final Instance<?> parent;
     private final boolean useUnlinkedDefinition;
@@ -104,16 +114,79 @@ public class AttributeSetImpl implements AttributeSet {
     }
 
     private void setDefaults() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = getRootDefinition().getAttributeDefs();
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            AttributeDefRef ref = attr.getValue().getDefaultValue();
-            if (ref != null && !attributes.containsKey(attr.getKey())) {
+        AttributeLayout attrs = getLayout(getRootDefinition());
+        for (int i = 0; i < attrs.size(); i++) {
+            AttributeDefRef ref = attrs.getAttributeDef(i).getDefaultValue();
+            if (ref != null && get(attrs.getDescriptor(i)) == null) {
                 set(ref);
             }
         }
     }
 
+    /**
+     * Get the layout for the definition, moving our values to it if it has changed.
+     */
+    private AttributeLayout getLayout(RootDefinition def) throws QuickFixException {
+        AttributeLayout current = AttributeLayout.get(def);
+        if (current != layout) {
+            Attribute[] oldValues = values;
+            Map<DefDescriptor<AttributeDef>, Attribute> oldOtherValues = otherValues;
+            layout = current;
+            values = current.size() > 0 ? new Attribute[current.size()] : NO_VALUES;
+            otherValues = null;
+            size = 0;
+            for (Attribute attribute : oldValues) {
+                if (attribute != null) {
+                    put(attribute);
+                }
+            }
+            if (oldOtherValues != null) {
+                for (Attribute attribute : oldOtherValues.values()) {
+                    put(attribute);
+                }
+            }
+        }
+        return current;
+    }
+
+    private Attribute get(DefDescriptor<AttributeDef> desc) {
+        int slot = layout != null ? layout.indexOf(desc) : -1;
+        if (slot >= 0) {
+            return values[slot];
+        }
+        return otherValues != null ? otherValues.get(desc) : null;
+    }
+
+    private void put(Attribute attribute) {
+        DefDescriptor<AttributeDef> desc = attribute.getDescriptor();
+        int slot = layout != null ? layout.indexOf(desc) : -1;
+        if (slot >= 0) {
+            if (values[slot] == null) {
+                size++;
+            }
+            values[slot] = attribute;
+        } else {
+            if (otherValues == null) {
+                otherValues = Maps.newHashMap();
+            }
+            if (otherValues.put(desc, attribute) == null) {
+                size++;
+            }
+        }
+    }
+
+    private static AttributeDef getAttributeDef(AttributeLayout attrs, String name) {
+        int slot = attrs.indexOf(name);
+        if (slot >= 0) {
+            return attrs.getAttributeDef(slot);
+        }
+        return attrs.getAttributeDef(Aura.getDefinitionService().getDefDescriptor(name, AttributeDef.class));
+    }
+
     private void set(EventHandler eventHandler) {
+        if (events == null) {
+            events = Maps.newHashMap();
+        }
         events.put(eventHandler.getDescriptor(), eventHandler);
     }
 
@@ -121,14 +194,13 @@ public class AttributeSetImpl implements AttributeSet {
         if (trackDirty) {
             attribute.markDirty();
         }
-        attributes.put(attribute.getDescriptor(), attribute);
+        put(attribute);
     }
 
     private void set(AttributeDefRef attributeDefRef) throws QuickFixException {
         RootDefinition def = getRootDefinition();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = def.getAttributeDefs();
 
-        AttributeDef attributeDef = attributeDefs.get(attributeDefRef.getDescriptor());
+        AttributeDef attributeDef = getLayout(def).getAttributeDef(attributeDefRef.getDescriptor());
         // setAndValidateAttribute should be merged with creating the
         // AttributeImpl here
         AttributeImpl attribute;
@@ -194,8 +266,7 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public void set(Collection<AttributeDefRef> facetDefRefs, AttributeSet attributeSet) throws QuickFixException {
-        RootDefinition rootDef = getRootDefinition();
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = rootDef.getAttributeDefs();
+        AttributeLayout attrs = getLayout(getRootDefinition());
         Map<DefDescriptor<?>, Object> lookup = Maps.newHashMap();
 
         for (Attribute attribute : attributeSet) {
@@ -206,8 +277,8 @@ public class AttributeSetImpl implements AttributeSet {
             lookup.put(attributeDefRef.getDescriptor(), attributeDefRef);
         }
 
-        for (DefDescriptor<AttributeDef> desc : attrs.keySet()) {
-            Object val = lookup.get(desc);
+        for (int i = 0; i < attrs.size(); i++) {
+            Object val = lookup.get(attrs.getDescriptor(i));
             if (val != null) {
                 if (val instanceof Attribute) {
                     Attribute attribute = (Attribute) val;
@@ -223,11 +294,11 @@ public class AttributeSetImpl implements AttributeSet {
     @Override
     public void set(Map<String, Object> attributeMap) throws QuickFixException {
         if (attributeMap != null) {
-            Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = getRootDefinition().getAttributeDefs();
+            AttributeLayout attrs = getLayout(getRootDefinition());
             for (Map.Entry<String, Object> entry : attributeMap.entrySet()) {
                 try {
                     DefDescriptor<AttributeDef> desc = Aura.getDefinitionService().getDefDescriptor(entry.getKey(), AttributeDef.class);
-                    if (attrs.containsKey(desc)) {
+                    if (attrs.indexOf(desc) >= 0) {
                         setExpression(desc, entry.getValue());
                     }
                 } catch (AuraRuntimeException arex) {
@@ -272,9 +343,13 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Object getExpression(String name) {
-        DefDescriptor<AttributeDef> desc = Aura.getDefinitionService().getDefDescriptor(name, AttributeDef.class);
-
-        Attribute at = attributes.get(desc);
+        int slot = layout != null ? layout.indexOf(name) : -1;
+        Attribute at;
+        if (slot >= 0) {
+            at = values[slot];
+        } else {
+            at = get(Aura.getDefinitionService().getDefDescriptor(name, AttributeDef.class));
+        }
         if (at != null) {
             return at.getValue();
         }
@@ -283,7 +358,7 @@ public class AttributeSetImpl implements AttributeSet {
 
     private void setExpression(DefDescriptor<AttributeDef> desc, Object value) throws QuickFixException {
         RootDefinition rd = getRootDefinition();
-        AttributeDef ad = rd.getAttributeDefs().get(desc);
+        AttributeDef ad = getLayout(rd).getAttributeDef(desc);
         if (ad == null) {
             // this location isn't even close to right...
             throw new InvalidDefinitionException(String.format("Attribute %s not defined on %s", desc.getName(),
@@ -301,7 +376,7 @@ public class AttributeSetImpl implements AttributeSet {
             if (valueProvider != null) {
                 iStack.pushAccess(valueProvider);
             }
-            att.setValue(getRootDefinition().getAttributeDef(att.getName()).getTypeDef().initialize(value, null));
+            att.setValue(ad.getTypeDef().initialize(value, null));
             if (valueProvider != null) {
                 iStack.popAccess(valueProvider);
             }
@@ -341,7 +416,7 @@ public class AttributeSetImpl implements AttributeSet {
         if (value instanceof ValueProvider && stem != null) {
             value = ((ValueProvider) value).getValue(stem);
         } else if (stem != null) {
-            AttributeDef attributeDef = getRootDefinition().getAttributeDef(expr.getRoot());
+            AttributeDef attributeDef = getAttributeDef(getLayout(getRootDefinition()), expr.getRoot());
             if (attributeDef == null) {
                 // no such attribute.
                 throw new NoAccessException("No attribute "+expr.getRoot()+" in "+rootDefDescriptor);
@@ -362,14 +437,15 @@ public class AttributeSetImpl implements AttributeSet {
         try {
             json.writeMapBegin();
             json.writeMapEntry("valueProvider", valueProvider);
-            if (!attributes.isEmpty()) {
+            if (size > 0) {
                 RootDefinition def = getRootDefinition();
+                AttributeLayout attrs = getLayout(def);
                 json.writeMapKey("values");
                 json.writeMapBegin();
 
-                for (Attribute attribute : attributes.values()) {
+                for (Attribute attribute : this) {
                     String name = attribute.getName();
-                    AttributeDef attributeDef = def.getAttributeDef(name);
+                    AttributeDef attributeDef = getAttributeDef(attrs, name);
                     if (attributeDef == null) {
                         throw new AttributeNotFoundException(rootDefDescriptor, name, def.getLocation());
                     }
@@ -386,7 +462,7 @@ public class AttributeSetImpl implements AttributeSet {
                 json.writeMapEnd();
             }
 
-            if (!events.isEmpty()) {
+            if (events != null && !events.isEmpty()) {
                 json.writeMapEntry("events", events);
             }
 
@@ -398,7 +474,7 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public int size() {
-        return attributes.size();
+        return size;
     }
 
     /**
@@ -411,12 +487,16 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Iterator<Attribute> iterator() {
-        return attributes.values().iterator();
+        Iterator<Attribute> slotted = Iterators.filter(Iterators.forArray(values), Predicates.notNull());
+        if (otherValues == null) {
+            return slotted;
+        }
+        return Iterators.concat(slotted, otherValues.values().iterator());
     }
 
     @Override
     public boolean isEmpty() {
-        return attributes.isEmpty() && events.isEmpty();
+        return size == 0 && (events == null || events.isEmpty());
     }
 
     @Override
@@ -435,15 +515,16 @@ public class AttributeSetImpl implements AttributeSet {
 
     @Override
     public Set<AttributeDef> getMissingAttributes() throws QuickFixException {
-        Map<DefDescriptor<AttributeDef>, AttributeDef> attrs = getRootDefinition().getAttributeDefs();
+        AttributeLayout attrs = getLayout(getRootDefinition());
         Set<AttributeDef> missingAttributes = null;
-        for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDef> attr : attrs.entrySet()) {
-            if (attr.getValue().isRequired() && !attributes.containsKey(attr.getKey())) {
+        for (int i = 0; i < attrs.size(); i++) {
+            AttributeDef attr = attrs.getAttributeDef(i);
+            if (attr.isRequired() && values[i] == null) {
                 if (missingAttributes == null) {
-                    missingAttributes = new HashSet<>(attrs.entrySet().size());
+                    missingAttributes = new HashSet<>(attrs.size());
                 }
 
-                missingAttributes.add(attr.getValue());
+                missingAttributes.add(attr);
             }
         }
 
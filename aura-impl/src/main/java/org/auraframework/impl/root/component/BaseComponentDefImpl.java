@@ -29,8 +29,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.auraframework.Aura;
@@ -67,6 +65,7 @@ import org.auraframework.def.StyleDef;
 import org.auraframework.def.design.DesignDef;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.DefinitionAccessImpl;
+import org.auraframework.impl.javascript.BaseJavascriptClass;
 import org.auraframework.impl.root.AttributeDefRefImpl;
 import org.auraframework.impl.root.RootDefinitionImpl;
 import org.auraframework.impl.root.intf.InterfaceDefImpl;
@@ -151,12 +150,18 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
     private final boolean hasFlavorableChild;
     private final boolean dynamicallyFlavorable;
     private String classCode;
-    private String minifiedClassCode;
+    private BaseJavascriptClass javascriptClass;
 
     private final int hashCode;
     private final boolean minifyEnabled;
 
     private transient Boolean localDeps = null;
+
+    /**
+     * The last locker conversions of the class code and of the minified class code.
+     */
+    private transient volatile LockerCode lockerCode;
+    private transient volatile LockerCode lockerMinifiedCode;
     private transient QuickFixException componentBuildError;
     private Map<String,String> serializedJSON;
     protected final static String SERIALIZED_JSON_NO_FORMATTING_KEY = "no-format";
@@ -212,7 +217,6 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
         this.dynamicallyFlavorable = builder.dynamicallyFlavorable;
         this.expressionRefs = AuraUtil.immutableSet(builder.expressionRefs);
         this.classCode = builder.classCode;
-        this.minifiedClassCode = builder.minifiedClassCode;
 
         this.hashCode = AuraUtil.hashCode(super.hashCode(), events, controllerDescriptor, modelDescriptor,
                         extendsDescriptor, interfaces, methodDefs, providerDescriptor, rendererDescriptor, helperDescriptor,
@@ -242,7 +246,7 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
             .setProviderCode(clientProviderDef == null ? null : clientProviderDef.getCode())
             .setMinify(minifyEnabled)
             .build();
-        minifiedClassCode = classBuilder.getMinifiedCode();
+        javascriptClass = classBuilder;
         classCode = classBuilder.getCode();
     }
 
@@ -256,6 +260,9 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
         if (this.componentBuildError != null) {
             throw this.componentBuildError;
         }
+        if (javascriptClass != null) {
+            javascriptClass.validateMinifiedCode();
+        }
 
         for (AttributeDef att : this.attributeDefs.values()) {
             att.validateDefinition();
@@ -1285,8 +1292,8 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
     @Override
     public String getCode(boolean minify) {
         String js = null;
-        if (minify) {
-            js = minifiedClassCode;
+        if (minify && javascriptClass != null) {
+            js = javascriptClass.getMinifiedCode();
         }
 
         if (js == null) {
@@ -1294,12 +1301,43 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
         }
 
         if (isLockerRequired()) {
-            js = convertToLocker(js);
+            js = getLockerCode(js);
         }
 
         return js;
     }
 
+    /**
+     * A class body along with its locker conversion.
+     */
+    private static final class LockerCode {
+        private final String code;
+        private final String converted;
+
+        private LockerCode(String code, String converted) {
+            this.code = code;
+            this.converted = converted;
+        }
+    }
+
+    /**
+     * Get the locker conversion of one of our class bodies, converting it only the first time it is asked for.
+     */
+    private String getLockerCode(String js) {
+        boolean minified = js != classCode;
+        LockerCode cached = minified ? lockerMinifiedCode : lockerCode;
+        if (cached != null && cached.code == js) {
+            return cached.converted;
+        }
+        cached = new LockerCode(js, convertToLocker(js));
+        if (minified) {
+            lockerMinifiedCode = cached;
+        } else {
+            lockerCode = cached;
+        }
+        return cached.converted;
+    }
+
     /**
      * Return true if the definition is a component that needs to be locked.
      */
@@ -1314,27 +1352,103 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
         return requireLocker;
     }
 
-    private static final Pattern COMPONENT_CLASS_PATTERN = Pattern.compile("^\\$A\\.componentService\\.addComponentClass\\(\"([^\"]*)\",\\s*function\\s*\\(\\s*\\)\\s*\\{\\n*(.*)\\}\\);\\s*$",
-            Pattern.DOTALL | Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final String COMPONENT_CLASS_PREFIX = "$A.componentService.addComponentClass(\"";
 
+    /**
+     * Convert a component class to one that is created by locker.
+     *
+     * The class must have the form {@code $A.componentService.addComponentClass("descriptor", function() {...});},
+     * which is checked with a single scan from each end rather than with a regular expression over the whole body.
+     *
+     * @return the converted class, or null if the class does not have the expected form.
+     */
     public static String convertToLocker(String code) {
 
         if (StringUtils.isBlank(code)) {
             return code;
         }
 
-        Matcher matcher = COMPONENT_CLASS_PATTERN.matcher(code);
+        int start = COMPONENT_CLASS_PREFIX.length();
+        if (!regionMatchesIgnoreCase(code, 0, COMPONENT_CLASS_PREFIX)) {
+            return null;
+        }
+        int quote = code.indexOf('"', start);
+        if (quote < 0) {
+            return null;
+        }
+        String clientDescriptor = code.substring(start, quote);
 
-        if (!matcher.matches()) {
+        int i = quote + 1;
+        if (i >= code.length() || code.charAt(i) != ',') {
+            return null;
+        }
+        i = skipWhitespace(code, i + 1);
+        if (!regionMatchesIgnoreCase(code, i, "function")) {
             return null;
         }
+        i = skipWhitespace(code, i + "function".length());
+        if (i >= code.length() || code.charAt(i) != '(') {
+            return null;
+        }
+        i = skipWhitespace(code, i + 1);
+        if (i >= code.length() || code.charAt(i) != ')') {
+            return null;
+        }
+        i = skipWhitespace(code, i + 1);
+        if (i >= code.length() || code.charAt(i) != '{') {
+            return null;
+        }
+        i++;
+        while (i < code.length() && code.charAt(i) == '\n') {
+            i++;
+        }
 
-        String clientDescriptor = matcher.group(1);
-        String objectVariable = matcher.group(2);
+        int end = code.length();
+        while (end > i && isWhitespace(code.charAt(end - 1))) {
+            end--;
+        }
+        end -= 3;
+        if (end < i || !code.startsWith("});", end)) {
+            return null;
+        }
+        String objectVariable = code.substring(i, end);
 
         return makeLockerizedClass(clientDescriptor, objectVariable);
     }
 
+    /**
+     * The whitespace characters of a regular expression, {@code [ \t\n\x0B\f\r]}.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static int skipWhitespace(String code, int i) {
+        while (i < code.length() && isWhitespace(code.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Compare a region to an ASCII string, ignoring the case of ASCII letters only.
+     */
+    private static boolean regionMatchesIgnoreCase(String code, int offset, String expected) {
+        if (offset + expected.length() > code.length()) {
+            return false;
+        }
+        for (int j = 0; j < expected.length(); j++) {
+            char c = code.charAt(offset + j);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != Character.toLowerCase(expected.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static String makeLockerizedClass(String clientDescriptor, String objectVariable) {
 
         StringBuilder out = new StringBuilder();
@@ -1551,7 +1665,6 @@ public abstract class BaseComponentDefImpl<T extends BaseComponentDef> extends
         private boolean hasFlavorableChild;
         private boolean dynamicallyFlavorable;
         private String classCode;
-        private String minifiedClassCode;
         private boolean minifyEnabled;
 
         @Override
@@ -41,7 +41,7 @@ public class IncludeDefRefImpl extends DefinitionImpl<IncludeDef> implements Inc
     private final String export;
 
     private final String classCode;
-    private final String minifiedClassCode;
+    private final BaseJavascriptClass includeClass;
 
     protected IncludeDefRefImpl(Builder builder) {
         super(builder);
@@ -52,7 +52,7 @@ public class IncludeDefRefImpl extends DefinitionImpl<IncludeDef> implements Inc
 
         this.hashCode = AuraUtil.hashCode(imports, aliases, export);
         this.classCode = builder.classCode;
-        this.minifiedClassCode = builder.minifiedClassCode;
+        this.includeClass = builder.includeClass;
     }
 
     @Override
@@ -83,8 +83,8 @@ public class IncludeDefRefImpl extends DefinitionImpl<IncludeDef> implements Inc
     @Override
     public String getCode(boolean minify) {
         String js = null;
-        if (minify) {
-            js = minifiedClassCode;
+        if (minify && includeClass != null) {
+            js = includeClass.getMinifiedCode();
         }
         if (js == null) {
             js = classCode;
@@ -115,6 +115,9 @@ public class IncludeDefRefImpl extends DefinitionImpl<IncludeDef> implements Inc
         if (export != null && !AuraTextUtil.isValidJsIdentifier(export)) { throw new InvalidDefinitionException(
                 String.format("%s 'export' attribute must be a valid javascript identifier", IncludeDefRefHandler.TAG),
                 getLocation()); }
+        if (includeClass != null) {
+            includeClass.validateMinifiedCode();
+        }
         super.validateDefinition();
     }
 
@@ -156,7 +159,7 @@ public class IncludeDefRefImpl extends DefinitionImpl<IncludeDef> implements Inc
         public String export;
         private IncludeDef includeDef;
         private String classCode;
-        private String minifiedClassCode;
+        private BaseJavascriptClass includeClass;
         private boolean minifyEnabled;
 
         public Builder() {
@@ -190,8 +193,7 @@ public class IncludeDefRefImpl extends DefinitionImpl<IncludeDef> implements Inc
                     // add Javascript source codes to the builder
                     JavascriptIncludeClass.Builder includeClassBuilder = new JavascriptIncludeClass.Builder();
                     includeClassBuilder.setDefinition(this, includeDef);
-                    BaseJavascriptClass includeClass = includeClassBuilder.setMinify(minifyEnabled).build();
-                    minifiedClassCode = includeClass.getMinifiedCode();
+                    includeClass = includeClassBuilder.setMinify(minifyEnabled).build();
                     classCode = includeClass.getCode();
                 } catch (QuickFixException qfe) {
                     setParseError(qfe);
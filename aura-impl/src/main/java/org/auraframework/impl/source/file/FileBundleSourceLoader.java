@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.JarURLConnection;
 import java.net.URLConnection;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
 
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -56,6 +59,11 @@ import com.google.common.collect.ImmutableSet;
  * Retrieves file-based {@link BundleSource}s.
  */
 public class FileBundleSourceLoader implements BundleSourceLoader, InternalNamespaceSourceLoader {
+    /**
+     * Names that can be looked up with a {@link DescriptorFilter}.
+     */
+    private static final Pattern BUNDLE_NAME = Pattern.compile("[a-zA-Z0-9_]+");
+
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final Set<FileBundleSourceBuilder> builders;
     private final List<FileSourceLocation> sourceLocations;
@@ -323,6 +331,94 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
         }
     }
 
+    /**
+     * Update the file entry for the bundle containing a changed file.
+     *
+     * The file must be in a bundle directory (or be one) of a namespace we already know about. Anything else, like
+     * a new namespace or a bundle that would clash with one in another source location, needs a full reset. The
+     * entry is replaced rather than patched, so its source is rebuilt the next time it is asked for.
+     */
+    @Override
+    public String resetBundle(String filePath) {
+        if (filePath == null) {
+            return null;
+        }
+        File file = new File(filePath);
+        for (FileSourceLocation sourceLocation : sourceLocations) {
+            List<String> names = getRelativeNames(sourceLocation.getSourceDirectory(), file);
+            if (names == null) {
+                continue;
+            }
+            if (names.size() < 2 || !isBundleName(names.get(0)) || !isBundleName(names.get(1))) {
+                return null;
+            }
+            String namespace = names.get(0);
+            String name = names.get(1);
+            File bundleDirectory = new File(new File(sourceLocation.getSourceDirectory(), namespace), name);
+            String key = (namespace + ":" + name).toLowerCase();
+
+            rwLock.writeLock().lock();
+            try {
+                if (!namespaces.contains(namespace)) {
+                    return null;
+                }
+                FileEntry prev = fileMap.get(key);
+                boolean ours = prev == null || prev.bundleDirectory.equals(bundleDirectory);
+                if (bundleDirectory.exists()) {
+                    if (!ours && prev.bundleDirectory.exists()) {
+                        return null;
+                    }
+                    fileMap.put(key, new FileEntry(sourceLocation, bundleDirectory, namespace, name));
+                } else if (prev != null && ours) {
+                    fileMap.remove(key);
+                }
+                return key;
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBundleName(String name) {
+        return BUNDLE_NAME.matcher(name).matches();
+    }
+
+    /**
+     * Get the names of the path from a directory to a file, or null if the file is not under the directory.
+     *
+     * The file monitor walks through symbolic links, so both the paths as given and their canonical forms are tried.
+     */
+    private static List<String> getRelativeNames(File directory, File file) {
+        for (Path root : getPaths(directory)) {
+            for (Path path : getPaths(file)) {
+                if (path.startsWith(root)) {
+                    List<String> names = new ArrayList<>();
+                    for (Path name : root.relativize(path)) {
+                        if (!name.toString().isEmpty()) {
+                            names.add(name.toString());
+                        }
+                    }
+                    return names;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<Path> getPaths(File file) {
+        Path absolute = file.toPath().toAbsolutePath().normalize();
+        try {
+            Path canonical = file.getCanonicalFile().toPath();
+            if (!canonical.equals(absolute)) {
+                return ImmutableList.of(absolute, canonical);
+            }
+        } catch (IOException e) {
+            // use the absolute path only
+        }
+        return ImmutableList.of(absolute);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder(getClass().getSimpleName() + 32);
@@ -146,13 +146,16 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
 
     @Override
     public void run() {
+        // set when events have been lost, until the keys already signaled have been drained
+        boolean overflowed = false;
+
         // loop forever, waiting on monitor for watchService, unless isTerminateThread
         for (;;) {
 
             // wait for watchService to become signaled
             WatchKey key;
             try {
-                key = watchService.take();
+                key = overflowed ? watchService.poll() : watchService.take();
                 if (isTerminateThread()) {
                     return;
                 }
@@ -160,6 +163,18 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 return;
             }
 
+            if (key == null) {
+                // Every directory may overflow at once, so rescan only once they have all been seen.
+                overflowed = false;
+                loggingService.info("[FileMonitorImpl] WatchService for aura file changes has overflowed.  Rescanning all sources.");
+                try {
+                    onSourceChanged(SourceListener.SourceMonitorEvent.CHANGED, null);
+                } catch (Exception ex) {
+                    loggingService.info("[FileMonitorImpl] Unable to signal source change due to exception: " + ex.getMessage());
+                }
+                continue;
+            }
+
             Path dir = monitoredKeys.get(key);
             if (dir == null) {
                 loggingService.info("[FileMonitorImpl] did not recognize the requested WatchKey!");
@@ -172,9 +187,8 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 WatchEvent.Kind<?> kind = event.kind();
 
                 if (kind == OVERFLOW) {
-                    // TODO - perhaps notify a special event to clear all caches,
-                    // if file changes overflow the monitor
-                    loggingService.info("[FileMonitorImpl] WatchService for aura file changes has overflowed.  Changes may have been missed.");
+                    // changes have been missed, so the sources will be rescanned from scratch
+                    overflowed = true;
                     continue;
                 }
 
@@ -188,8 +202,16 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                 // isDir is true is file exists and is directory
                 boolean isDir = Files.isDirectory(child, NOFOLLOW_LINKS);
 
-                // signal appropriate handlers
-                if (!isDir) {
+                // signal appropriate handlers, unless the rescan after an overflow will pick up the change
+                if (overflowed) {
+                    if (isDir && kind == ENTRY_CREATE) {
+                        try {
+                            registerAll(child, null);
+                        } catch (IOException x) {
+                            // if we can't monitor it for some reason, it is not an error
+                        }
+                    }
+                } else if (!isDir) {
                     try {
                         if (kind == ENTRY_CREATE) {
                             listener.fileCreated(new FileChangeEvent(child));
@@ -211,6 +233,12 @@ public final class FileMonitorImpl implements FileMonitor, Runnable {
                     } catch (IOException x) {
                         // if we can't monitor it for some reason, it is not an error
                     }
+                    // files may have been written before the directory was watched, so signal the directory too
+                    try {
+                        listener.fileCreated(new FileChangeEvent(child));
+                    } catch (Exception ex) {
+                        loggingService.info("[FileMonitorImpl] Unable to signal source change due to exception: " + ex.getMessage());
+                    }
                 }
             }
 
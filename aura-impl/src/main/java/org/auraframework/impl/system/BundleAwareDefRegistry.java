@@ -71,6 +71,8 @@ public class BundleAwareDefRegistry implements DefRegistry {
     private final boolean cacheable;
     private String name;
     private final long creationTime;
+    private final BundleTargetIndex targetIndex = new BundleTargetIndex();
+    private boolean targetIndexCurrent;
 
     private static class DefHolder {
         public DefHolder(DefDescriptor<BundleDef> descriptor) {
@@ -125,6 +127,7 @@ public class BundleAwareDefRegistry implements DefRegistry {
             namespaces.addAll(sourceLoader.getNamespaces());
         }
         registry.clear();
+        targetIndexCurrent = false;
         if (!constantNamespaces || this.name == null) {
             this.name = getClass().getSimpleName()+defTypes+prefixes+namespaces;
         }
@@ -142,6 +145,38 @@ public class BundleAwareDefRegistry implements DefRegistry {
         }
     }
 
+    /**
+     * Reset the registry after a change to a single file.
+     *
+     * If the source loader can update just the bundle containing the file, only the holder for that bundle is
+     * replaced. Otherwise this is a full reset.
+     */
+    @Override
+    public synchronized void reset(String filePath) {
+        String bundleName = filePath != null ? sourceLoader.resetBundle(filePath) : null;
+        if (bundleName == null) {
+            reset();
+            return;
+        }
+        if (!cacheable) {
+            return;
+        }
+        registry.remove(bundleName);
+        for (DefDescriptor<?> descriptor : sourceLoader.find(new DescriptorFilter("*://" + bundleName))) {
+            @SuppressWarnings("unchecked")
+            DefDescriptor<BundleDef> rootDescriptor = (DefDescriptor<BundleDef>)descriptor;
+            registry.put(descriptor.getDescriptorName().toLowerCase(), new DefHolder(rootDescriptor));
+        }
+        if (targetIndexCurrent) {
+            DefHolder holder = registry.get(bundleName);
+            if (holder != null && BundleTargetIndex.isIndexed(holder.descriptor.getDefType())) {
+                targetIndex.update(bundleName, getSource(holder));
+            } else {
+                targetIndex.remove(bundleName);
+            }
+        }
+    }
+
     private DefHolder getHolder(DefDescriptor<?> descriptor) {
         if (cacheable) {
             synchronized (this) {
@@ -269,20 +304,7 @@ public class BundleAwareDefRegistry implements DefRegistry {
 
     @Override
     public Set<DefDescriptor<?>> findByTags(@Nonnull Set<String> tags) {
-    		Collection<DefHolder> defHolders;
-    		if(cacheable) {
-    			defHolders = registry.values();
-    		} else {
-    			defHolders = Lists.newArrayList();
-            Set<DefDescriptor<?>> descriptors = sourceLoader.find(new DescriptorFilter("*://*:*", Sets.newHashSet(DefType.COMPONENT, DefType.MODULE)));
-            if(descriptors != null) {
-            		descriptors.stream().forEach(descriptor -> { 
-            			@SuppressWarnings("unchecked") 
-            			DefDescriptor<BundleDef> rootDescriptor = (DefDescriptor<BundleDef>) descriptor; 
-            			defHolders.add(new DefHolder(rootDescriptor)); 
-            			});
-            }
-    		}
+        Collection<DefHolder> defHolders = getTargetCandidates(tags);
         defHolders.stream().forEach(h -> { try { getDefWithHolder(h.descriptor, h); } catch (QuickFixException qfe) {}});
         return defHolders.stream().filter(h ->
                 h.def != null
@@ -291,6 +313,49 @@ public class BundleAwareDefRegistry implements DefRegistry {
             .map(h -> h.descriptor).collect(Collectors.toSet());
     }
 
+    /**
+     * Get the holders of the bundles that may have one of the given targets.
+     *
+     * The target index is brought up to date first, which only reads the metadata of bundles that are new or
+     * changed. Only the candidates need to be compiled to check their targets.
+     */
+    private synchronized Collection<DefHolder> getTargetCandidates(Set<String> tags) {
+        Collection<DefHolder> defHolders = Lists.newArrayList();
+        if (cacheable) {
+            if (!targetIndexCurrent) {
+                for (Map.Entry<String, DefHolder> entry : registry.entrySet()) {
+                    DefHolder holder = entry.getValue();
+                    if (BundleTargetIndex.isIndexed(holder.descriptor.getDefType())) {
+                        targetIndex.update(entry.getKey(), getSource(holder));
+                    }
+                }
+                targetIndex.retainAll(registry.keySet());
+                targetIndexCurrent = true;
+            }
+            for (DefDescriptor<BundleDef> descriptor : targetIndex.findCandidates(tags)) {
+                DefHolder holder = registry.get(descriptor.getDescriptorName().toLowerCase());
+                if (holder != null) {
+                    defHolders.add(holder);
+                }
+            }
+        } else {
+            Set<DefDescriptor<?>> descriptors = sourceLoader.find(new DescriptorFilter("*://*:*", Sets.newHashSet(DefType.COMPONENT, DefType.MODULE)));
+            Set<String> keys = new HashSet<>();
+            if (descriptors != null) {
+                for (DefDescriptor<?> descriptor : descriptors) {
+                    String key = descriptor.getDescriptorName().toLowerCase();
+                    keys.add(key);
+                    targetIndex.update(key, sourceLoader.getBundle(descriptor));
+                }
+            }
+            targetIndex.retainAll(keys);
+            for (DefDescriptor<BundleDef> descriptor : targetIndex.findCandidates(tags)) {
+                defHolders.add(new DefHolder(descriptor));
+            }
+        }
+        return defHolders;
+    }
+
     @Override
     public <T extends Definition> boolean exists(DefDescriptor<T> descriptor) {
         return getSource(descriptor) != null;
@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.auraframework.def.BundleDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.module.ModuleDef;
+import org.auraframework.impl.factory.HTMLReader;
+import org.auraframework.impl.factory.XMLParserBase;
+import org.auraframework.system.BundleSource;
+import org.auraframework.system.Source;
+import org.auraframework.system.TextSource;
+import org.auraframework.util.AuraTextUtil;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An index of the targets of the bundles in a registry, read from bundle metadata rather than compiled definitions.
+ *
+ * Components and applications get their targets from the interfaces named in the implements attribute of their
+ * root tag, and modules get them from the target elements of their xml metadata. Only that much of each bundle is
+ * read, and a bundle is only read again when the last modified time of its metadata changes.
+ *
+ * The index answers with candidates rather than matches: a target is indexed by its name alone, lower cased and
+ * without prefix or namespace, so that it can be matched before the namespace aliasing and descriptor parsing done
+ * by the compiler. Bundles with metadata that cannot be read are always candidates. Callers must still check the
+ * targets of the compiled definitions.
+ */
+class BundleTargetIndex {
+    private static final Set<DefType> INDEXED_TYPES = ImmutableSet.of(DefType.APPLICATION, DefType.COMPONENT,
+            DefType.MODULE);
+
+    private static final String ATTRIBUTE_IMPLEMENTS = "implements";
+    private static final String ELEMENT_TARGET = "target";
+
+    private static class Entry {
+        public Entry(DefDescriptor<BundleDef> descriptor, long lastModified, Set<String> targets) {
+            this.descriptor = descriptor;
+            this.lastModified = lastModified;
+            this.targets = targets;
+        }
+        public final DefDescriptor<BundleDef> descriptor;
+        public final long lastModified;
+        /** the target names, or null if the metadata could not be read. */
+        public final Set<String> targets;
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> bundlesByTarget = new HashMap<>();
+    private final Set<String> unreadable = new HashSet<>();
+
+    /**
+     * Can a bundle of this type have targets?
+     */
+    static boolean isIndexed(DefType defType) {
+        return INDEXED_TYPES.contains(defType);
+    }
+
+    /**
+     * Get the name a target is indexed by.
+     *
+     * Both 'markup://ns:name' and 'name' are indexed as 'name'.
+     */
+    static String getTargetName(String target) {
+        String trimmed = target.trim();
+        int start = 0;
+        for (int i = trimmed.length() - 1; i >= 0; i--) {
+            char c = trimmed.charAt(i);
+            if (c == ':' || c == '/' || c == '.') {
+                start = i + 1;
+                break;
+            }
+        }
+        return trimmed.substring(start).toLowerCase();
+    }
+
+    /**
+     * Add or refresh the entry for a bundle.
+     *
+     * The metadata is only read if the bundle is new or the last modified time of its metadata has changed.
+     *
+     * @param key the registry key for the bundle.
+     * @param source the bundle source, or null to remove the bundle.
+     */
+    public void update(String key, BundleSource<?> source) {
+        if (source == null || !isIndexed(source.getDescriptor().getDefType())) {
+            remove(key);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        DefDescriptor<BundleDef> descriptor = (DefDescriptor<BundleDef>)source.getDescriptor();
+        Source<?> metadata = getMetadataSource(descriptor, source);
+        long lastModified = metadata != null ? metadata.getLastModified() : 0;
+        Entry entry = entries.get(key);
+        if (entry != null && lastModified > 0 && entry.lastModified == lastModified
+                && entry.descriptor.equals(descriptor)) {
+            return;
+        }
+        remove(key);
+        entry = new Entry(descriptor, lastModified, readTargets(descriptor, metadata));
+        entries.put(key, entry);
+        if (entry.targets == null) {
+            unreadable.add(key);
+        } else {
+            for (String target : entry.targets) {
+                bundlesByTarget.computeIfAbsent(target, k -> new HashSet<>()).add(key);
+            }
+        }
+    }
+
+    /**
+     * Remove the entry for a bundle.
+     */
+    public void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.targets == null) {
+            unreadable.remove(key);
+            return;
+        }
+        for (String target : entry.targets) {
+            Set<String> keys = bundlesByTarget.get(target);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    bundlesByTarget.remove(target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the entries for every bundle not in the given keys.
+     */
+    public void retainAll(Collection<String> keys) {
+        for (String key : new ArrayList<>(entries.keySet())) {
+            if (!keys.contains(key)) {
+                remove(key);
+            }
+        }
+    }
+
+    /**
+     * Find the bundles that may have one of the given targets.
+     *
+     * @param tags the targets to look for.
+     * @return the descriptors of the candidate bundles.
+     */
+    public Set<DefDescriptor<BundleDef>> findCandidates(Collection<String> tags) {
+        Set<String> keys = new HashSet<>(unreadable);
+        for (String tag : tags) {
+            Set<String> matches = bundlesByTarget.get(getTargetName(tag));
+            if (matches != null) {
+                keys.addAll(matches);
+            }
+        }
+        Set<DefDescriptor<BundleDef>> candidates = new HashSet<>();
+        for (String key : keys) {
+            candidates.add(entries.get(key).descriptor);
+        }
+        return candidates;
+    }
+
+    private static Source<?> getMetadataSource(DefDescriptor<BundleDef> descriptor, BundleSource<?> source) {
+        if (descriptor.getDefType() == DefType.MODULE) {
+            DefDescriptor<ModuleDef> xmlDescriptor = new DefDescriptorImpl<>(ModuleDef.META_PREFIX,
+                    descriptor.getNamespace(), descriptor.getName() + "-" + ModuleDef.META_XML_NAME, ModuleDef.class,
+                    descriptor);
+            return source.getBundledParts().get(xmlDescriptor);
+        }
+        return source.getBundledParts().get(descriptor);
+    }
+
+    /**
+     * Read the target names from the metadata of a bundle.
+     *
+     * @return the names, or null if they could not be read.
+     */
+    private static Set<String> readTargets(DefDescriptor<BundleDef> descriptor, Source<?> metadata) {
+        if (metadata == null) {
+            // A module without xml metadata has no targets, a component without markup does not compile.
+            return descriptor.getDefType() == DefType.MODULE ? Collections.emptySet() : null;
+        }
+        if (!(metadata instanceof TextSource)) {
+            return null;
+        }
+        XMLStreamReader xmlReader = null;
+        try {
+            String contents = ((TextSource<?>)metadata).getContents();
+            if (descriptor.getDefType() == DefType.MODULE) {
+                xmlReader = XMLParserBase.createXMLStreamReader(new StringReader(contents));
+                return readModuleTargets(xmlReader);
+            }
+            Reader reader = new HTMLReader(new StringReader(contents));
+            xmlReader = XMLParserBase.createXMLStreamReader(reader);
+            return readComponentTargets(xmlReader);
+        } catch (XMLStreamException | RuntimeException e) {
+            // Leave it to the compiler to report the problem.
+            return null;
+        } finally {
+            if (xmlReader != null) {
+                try {
+                    xmlReader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private static Set<String> readComponentTargets(XMLStreamReader xmlReader) throws XMLStreamException {
+        while (xmlReader.hasNext()) {
+            if (xmlReader.next() == XMLStreamConstants.START_ELEMENT) {
+                String implementsNames = getAttributeValue(xmlReader, ATTRIBUTE_IMPLEMENTS);
+                if (implementsNames == null) {
+                    return Collections.emptySet();
+                }
+                Set<String> targets = new HashSet<>();
+                for (String implementsName : AuraTextUtil.splitSimple(",", implementsNames)) {
+                    targets.add(getTargetName(implementsName));
+                }
+                return targets;
+            }
+        }
+        return null;
+    }
+
+    private static Set<String> readModuleTargets(XMLStreamReader xmlReader) throws XMLStreamException {
+        Set<String> targets = new HashSet<>();
+        StringBuilder text = null;
+        while (xmlReader.hasNext()) {
+            switch (xmlReader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                text = isTargetElement(xmlReader.getLocalName()) ? new StringBuilder() : null;
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                if (text != null) {
+                    text.append(xmlReader.getText());
+                }
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                if (text != null) {
+                    targets.add(getTargetName(text.toString()));
+                    text = null;
+                }
+                break;
+            }
+        }
+        return targets;
+    }
+
+    private static boolean isTargetElement(String name) {
+        // The metadata is read namespace aware by the compiler, so ignore any element prefix here.
+        return getTargetName(name).equals(ELEMENT_TARGET);
+    }
+
+    /**
+     * Get an attribute value the way the root tag handlers do, falling back to a case insensitive match.
+     */
+    private static String getAttributeValue(XMLStreamReader xmlReader, String name) {
+        String value = xmlReader.getAttributeValue(null, name);
+        if (value == null || value.trim().isEmpty()) {
+            for (int i = 0; i < xmlReader.getAttributeCount(); i++) {
+                if (xmlReader.getAttributeLocalName(i).equalsIgnoreCase(name)) {
+                    return xmlReader.getAttributeValue(i);
+                }
+            }
+        }
+        return value;
+    }
+}
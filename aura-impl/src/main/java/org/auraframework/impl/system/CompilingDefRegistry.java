@@ -25,6 +25,7 @@ import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.service.CompilerService;
+import org.auraframework.system.BundleSourceLoader;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.Source;
 import org.auraframework.system.SourceLoader;
@@ -84,6 +85,26 @@ public class CompilingDefRegistry implements DefRegistry {
         this.name = getClass().getSimpleName()+defTypes+prefixes+namespaces;
     }
 
+    /**
+     * Reset the registry after a change to a single file.
+     *
+     * If the source loader can update just the bundle containing the file, only the holders for that bundle are
+     * replaced. Otherwise this is a full reset.
+     */
+    @Override
+    public void reset(String filePath) {
+        String bundleName = filePath != null && sourceLoader instanceof BundleSourceLoader
+                ? ((BundleSourceLoader)sourceLoader).resetBundle(filePath) : null;
+        if (bundleName == null) {
+            reset();
+            return;
+        }
+        registry.keySet().removeIf(descriptor -> bundleName.equals(BundleSourceLoader.getBundleName(descriptor)));
+        for (DefDescriptor<?> descriptor : sourceLoader.find(new DescriptorFilter("*://" + bundleName))) {
+            registry.put(descriptor, new DefHolder(descriptor));
+        }
+    }
+
 
     @Override
     public <T extends Definition> T getDef(DefDescriptor<T> descriptor) throws QuickFixException {
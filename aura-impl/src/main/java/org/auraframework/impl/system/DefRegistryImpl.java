@@ -31,9 +31,17 @@ public abstract class DefRegistryImpl implements DefRegistry, Serializable {
     private final long creationTime;
 
     public DefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces) {
+        this(defTypes, prefixes, namespaces, System.currentTimeMillis());
+    }
+
+    /**
+     * Create a registry with a known creation time, e.g. one restored from a precompiled file.
+     */
+    protected DefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces,
+            long creationTime) {
         this.defTypes = defTypes;
         this.prefixes = Sets.newHashSet();
-        this.creationTime = System.currentTimeMillis();
+        this.creationTime = creationTime;
         for (String prefix : prefixes) {
             this.prefixes.add(prefix.toLowerCase());
         }
@@ -0,0 +1,439 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.auraframework.def.BundleDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.system.DefRegistry;
+import org.auraframework.throwable.AuraRuntimeException;
+
+/**
+ * An indexed, lazily loaded format for precompiled registries.
+ *
+ * The Java serialized format has to deserialize every definition in every namespace before the first one can be
+ * used. This format instead writes a small index followed by independently serialized definition blobs, so that
+ * the file can be mapped at startup and each definition deserialized only on its first use.
+ *
+ * The layout is:
+ * <pre>
+ *   magic           8 bytes
+ *   header length   int
+ *   header          Java serialized list of registry headers (types, prefixes, namespaces, creation time, and a
+ *                   descriptor to blob index map)
+ *   blob count      int
+ *   blob table      (offset long, length int) per blob, offsets relative to the first blob
+ *   blobs           Java serialized definitions
+ * </pre>
+ * Bundles are written as a single blob, and the definitions bundled within them are indexed to the blob of their
+ * bundle, so a bundle and its parts are only ever deserialized once.
+ */
+public final class IndexedRegistryFile {
+    private static final byte[] MAGIC = { 'A', 'U', 'R', 'A', 'I', 'D', 'X', 1 };
+
+    private IndexedRegistryFile() {
+    }
+
+    /**
+     * The serialized header for a single registry.
+     */
+    private static class RegistryHeader implements Serializable {
+        private static final long serialVersionUID = 4227314718830442371L;
+
+        private final Set<DefType> defTypes;
+        private final Set<String> prefixes;
+        private final Set<String> namespaces;
+        private final long creationTime;
+        private final LinkedHashMap<DefDescriptor<?>, Integer> index;
+
+        RegistryHeader(DefRegistry registry, LinkedHashMap<DefDescriptor<?>, Integer> index) {
+            this.defTypes = registry.getDefTypes();
+            this.prefixes = registry.getPrefixes();
+            this.namespaces = registry.getNamespaces();
+            this.creationTime = registry.getCreationTime();
+            this.index = index;
+        }
+    }
+
+    /**
+     * Write a set of static registries in the indexed format.
+     *
+     * @param registries the registries, which must all be {@link StaticDefRegistryImpl}s.
+     * @param out the stream to write to, which is not closed.
+     * @throws IOException if writing fails.
+     */
+    public static void write(List<DefRegistry> registries, OutputStream out) throws IOException {
+        List<byte[]> blobs = new ArrayList<>();
+        ArrayList<RegistryHeader> headers = new ArrayList<>();
+
+        for (DefRegistry registry : registries) {
+            if (!(registry instanceof StaticDefRegistryImpl)) {
+                throw new IllegalArgumentException("Only static registries can be indexed: " + registry);
+            }
+            Map<DefDescriptor<?>, Definition> defs = ((StaticDefRegistryImpl) registry).getDefs();
+            LinkedHashMap<DefDescriptor<?>, Integer> index = new LinkedHashMap<>();
+            Map<Definition, Integer> written = new IdentityHashMap<>();
+
+            // bundles first, so that their parts can share the bundle blob.
+            for (Definition def : defs.values()) {
+                if (def instanceof BundleDef) {
+                    Integer blob = Integer.valueOf(blobs.size());
+                    blobs.add(serialize(def));
+                    written.put(def, blob);
+                    index.put(def.getDescriptor(), blob);
+
+                    Map<DefDescriptor<?>, Definition> bundled = ((BundleDef) def).getBundledDefs();
+                    if (bundled != null) {
+                        for (Map.Entry<DefDescriptor<?>, Definition> entry : bundled.entrySet()) {
+                            if (defs.get(entry.getKey()) == entry.getValue()) {
+                                written.put(entry.getValue(), blob);
+                                index.put(entry.getKey(), blob);
+                            }
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<DefDescriptor<?>, Definition> entry : defs.entrySet()) {
+                if (!index.containsKey(entry.getKey())) {
+                    Integer blob = written.get(entry.getValue());
+                    if (blob == null) {
+                        blob = Integer.valueOf(blobs.size());
+                        blobs.add(serialize(entry.getValue()));
+                        written.put(entry.getValue(), blob);
+                    }
+                    index.put(entry.getKey(), blob);
+                }
+            }
+            headers.add(new RegistryHeader(registry, index));
+        }
+
+        byte[] header = serialize(headers);
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(MAGIC);
+        data.writeInt(header.length);
+        data.write(header);
+        data.writeInt(blobs.size());
+        long offset = 0;
+        for (byte[] blob : blobs) {
+            data.writeLong(offset);
+            data.writeInt(blob.length);
+            offset += blob.length;
+        }
+        for (byte[] blob : blobs) {
+            data.write(blob);
+        }
+        data.flush();
+    }
+
+    /**
+     * Check whether a resource is in the indexed format.
+     *
+     * @param url the resource.
+     * @return true if it starts with the indexed format marker.
+     * @throws IOException if the resource cannot be read.
+     */
+    public static boolean isIndexed(URL url) throws IOException {
+        try (InputStream in = url.openStream()) {
+            byte[] magic = new byte[MAGIC.length];
+            int read = 0;
+            while (read < magic.length) {
+                int count = in.read(magic, read, magic.length - read);
+                if (count < 0) {
+                    return false;
+                }
+                read += count;
+            }
+            return Arrays.equals(magic, MAGIC);
+        }
+    }
+
+    /**
+     * Read registries from a resource in the indexed format.
+     *
+     * Resources on the file system are memory mapped. Others (e.g. inside a jar) are read onto the heap, but
+     * definitions are still only deserialized on first use.
+     *
+     * @param url the resource.
+     * @return the registries.
+     * @throws IOException if the resource cannot be read.
+     */
+    public static List<DefRegistry> read(URL url) throws IOException {
+        ByteBuffer buffer;
+
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException use) {
+                throw new IOException("Invalid registries location " + url, use);
+            }
+        } else {
+            try (InputStream in = url.openStream()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] chunk = new byte[8192];
+                int count;
+                while ((count = in.read(chunk)) != -1) {
+                    bytes.write(chunk, 0, count);
+                }
+                buffer = ByteBuffer.wrap(bytes.toByteArray());
+            }
+        }
+        return read(buffer);
+    }
+
+    /**
+     * Read registries from a buffer in the indexed format.
+     *
+     * @param buffer the buffer, positioned at the start of the file.
+     * @return the registries.
+     * @throws IOException if the buffer is not in the indexed format.
+     */
+    public static List<DefRegistry> read(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        byte[] magic = new byte[MAGIC.length];
+        in.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an indexed registries file");
+        }
+
+        int headerLength = in.getInt();
+        List<RegistryHeader> headers = deserialize(slice(in, in.position(), headerLength), List.class);
+        in.position(in.position() + headerLength);
+
+        int blobCount = in.getInt();
+        long[] offsets = new long[blobCount];
+        int[] lengths = new int[blobCount];
+        for (int i = 0; i < blobCount; i++) {
+            offsets[i] = in.getLong();
+            lengths[i] = in.getInt();
+        }
+        BlobLoader loader = new BlobLoader(slice(in, in.position(), in.remaining()), offsets, lengths);
+
+        List<DefRegistry> registries = new ArrayList<>(headers.size());
+        for (RegistryHeader header : headers) {
+            registries.add(new StaticDefRegistryImpl(header.defTypes, header.prefixes, header.namespaces,
+                    new LazyDefinitionMap(header.index, loader), header.creationTime));
+        }
+        return registries;
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T deserialize(ByteBuffer buffer, Class<? super T> type) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(buffer))) {
+            Object o = in.readObject();
+            @SuppressWarnings("unchecked")
+            T t = (T) type.cast(o);
+            return t;
+        } catch (ClassNotFoundException cnfe) {
+            throw new IOException(cnfe);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(position);
+        slice.limit(position + length);
+        return slice.slice();
+    }
+
+    /**
+     * Loads and keeps definition blobs, deserializing each at most once in the common case.
+     */
+    private static class BlobLoader {
+        private final ByteBuffer blobs;
+        private final long[] offsets;
+        private final int[] lengths;
+        private final AtomicReferenceArray<Definition> loaded;
+
+        BlobLoader(ByteBuffer blobs, long[] offsets, int[] lengths) {
+            this.blobs = blobs;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.loaded = new AtomicReferenceArray<>(offsets.length);
+        }
+
+        Definition load(int blob) {
+            Definition def = loaded.get(blob);
+            if (def != null) {
+                return def;
+            }
+            try {
+                def = deserialize(slice(blobs, (int) offsets[blob], lengths[blob]), Definition.class);
+            } catch (IOException ioe) {
+                throw new AuraRuntimeException("Unable to read definition from registries file", ioe);
+            }
+            // racing threads may both deserialize, but all callers see the first one stored.
+            if (!loaded.compareAndSet(blob, null, def)) {
+                def = loaded.get(blob);
+            }
+            return def;
+        }
+    }
+
+    /**
+     * A read-only definition map that deserializes definitions on first access.
+     *
+     * Key based operations only touch the index. Iterating over the values or entries loads every definition.
+     */
+    private static class LazyDefinitionMap extends AbstractMap<DefDescriptor<?>, Definition>
+            implements Serializable {
+        private static final long serialVersionUID = -6914925370433637718L;
+
+        private final transient Map<DefDescriptor<?>, Integer> index;
+        private final transient BlobLoader loader;
+
+        LazyDefinitionMap(Map<DefDescriptor<?>, Integer> index, BlobLoader loader) {
+            this.index = index;
+            this.loader = loader;
+        }
+
+        @Override
+        public Definition get(Object key) {
+            Integer blob = index.get(key);
+            if (blob == null) {
+                return null;
+            }
+            Definition def = loader.load(blob.intValue());
+            if (def.getDescriptor().equals(key)) {
+                return def;
+            }
+            if (def instanceof BundleDef) {
+                Map<DefDescriptor<?>, Definition> bundled = ((BundleDef) def).getBundledDefs();
+                if (bundled != null) {
+                    return bundled.get(key);
+                }
+            }
+            // the blob does not hold the definition asked for.
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public Set<DefDescriptor<?>> keySet() {
+            return Collections.unmodifiableSet(index.keySet());
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public Set<Map.Entry<DefDescriptor<?>, Definition>> entrySet() {
+            return new AbstractSet<Map.Entry<DefDescriptor<?>, Definition>>() {
+                @Override
+                public Iterator<Map.Entry<DefDescriptor<?>, Definition>> iterator() {
+                    Iterator<DefDescriptor<?>> keys = index.keySet().iterator();
+                    return new Iterator<Map.Entry<DefDescriptor<?>, Definition>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return keys.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<DefDescriptor<?>, Definition> next() {
+                            DefDescriptor<?> key = keys.next();
+                            return new AbstractMap.SimpleImmutableEntry<DefDescriptor<?>, Definition>(key, get(key));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+            };
+        }
+
+        /**
+         * Serialize as a plain map, loading everything.
+         */
+        private Object writeReplace() throws ObjectStreamException {
+            return new HashMap<>(this);
+        }
+    }
+
+    /**
+     * An input stream over a byte buffer, so that mapped files can be read without copying.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
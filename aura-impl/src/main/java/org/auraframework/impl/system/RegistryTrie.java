@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.Nonnull;
 
@@ -32,7 +34,9 @@ import org.auraframework.def.DescriptorFilter;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.throwable.AuraError;
+import org.auraframework.util.text.GlobMatcher;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -40,12 +44,23 @@ import com.google.common.collect.Sets;
  * A specialized trie-ish structure for storing which registry gurgles which defs
  */
 public class RegistryTrie implements RegistrySet {
+    // bound on memoized filter results, filters with wildcard namespaces could otherwise grow without limit
+    private static final int MAX_FILTER_ENTRIES = 1000;
 
     private final Collection<DefRegistry> allRegistries;
     private final String stringValue;
 
     // a map of map of maps
     private final Map<DefType, Map<String, PrefixNode>> root = new EnumMap<>(DefType.class);
+
+    // registries by type, lower-cased prefix and lower-cased namespace, for matching filters
+    private final Map<DefType, Map<String, Map<String, Set<DefRegistry>>>> typeIndex = new EnumMap<>(DefType.class);
+
+    // the same, ignoring type, for filters that match any type
+    private final Map<String, Map<String, Set<DefRegistry>>> anyTypeIndex = new HashMap<>(8);
+
+    // filter results, keyed by the type, prefix and namespace of the filter
+    private final ConcurrentMap<String, Collection<DefRegistry>> filterRegistries = new ConcurrentHashMap<>();
     
     private void initializeHashes() {
         for (DefRegistry reg : this.allRegistries) {
@@ -64,12 +79,26 @@ public class RegistryTrie implements RegistrySet {
                     }
                     for (String namespace : reg.getNamespaces()) {
                         pn.put(namespace, reg);
+                        addToIndex(this.typeIndex.computeIfAbsent(defType, k -> new HashMap<>(8)), prefix,
+                                namespace, reg);
                     }
                 }
             }
+            for (String p : reg.getPrefixes()) {
+                for (String namespace : reg.getNamespaces()) {
+                    addToIndex(this.anyTypeIndex, p.toLowerCase(), namespace, reg);
+                }
+            }
         }
     }
 
+    private static void addToIndex(Map<String, Map<String, Set<DefRegistry>>> prefixes, String prefix,
+            String namespace, DefRegistry reg) {
+        prefixes.computeIfAbsent(prefix, k -> new HashMap<>(8))
+                .computeIfAbsent(namespace.toLowerCase(), k -> Sets.newIdentityHashSet())
+                .add(reg);
+    }
+
     public RegistryTrie(Collection<DefRegistry> registries) {
         allRegistries = Collections.unmodifiableCollection(registries);
         stringValue = allRegistries.toString();
@@ -89,47 +118,109 @@ public class RegistryTrie implements RegistrySet {
     /**
      * Match a set of registries to a matcher.
      * 
-     * Note that this ignores the type of the registry, and uses only the prefix
-     * and namespace.
+     * Note that this ignores the name in the matcher, and uses only the type, prefix and namespace.
+     * Registries claiming the "*" namespace match any namespace.
+     *
+     * Results are memoized, and since registry sets are themselves cached per RegistrySetKey, a given
+     * filter is only ever resolved once per key.
      */
     @Override
     public Collection<DefRegistry> getRegistries(DescriptorFilter matcher) {
-        Set<DefRegistry> matched = Sets.newHashSet();
+        String key = getFilterKey(matcher);
+        Collection<DefRegistry> matched = this.filterRegistries.get(key);
+        if (matched == null) {
+            matched = findRegistries(matcher);
+            if (this.filterRegistries.size() < MAX_FILTER_ENTRIES) {
+                Collection<DefRegistry> existing = this.filterRegistries.putIfAbsent(key, matched);
+                if (existing != null) {
+                    matched = existing;
+                }
+            }
+        }
+        return matched;
+    }
 
-        for (DefRegistry reg : this.allRegistries) {
-            boolean found = false;
-            
-            List<DefType> matcherDefTypes = matcher.getDefTypes();
-            if (matcherDefTypes == null) {
-                found = true;
-            } else {
-                for (DefType defType : matcherDefTypes) {
-                    if (reg.getDefTypes().contains(defType)) {
-                        found = true;
-                        break;
-                    }
+    private Collection<DefRegistry> findRegistries(DescriptorFilter matcher) {
+        Set<DefRegistry> found = Sets.newIdentityHashSet();
+        List<DefType> matcherDefTypes = matcher.getDefTypes();
+        if (matcherDefTypes == null) {
+            collectByPrefix(this.anyTypeIndex, matcher, found);
+        } else {
+            for (DefType defType : matcherDefTypes) {
+                Map<String, Map<String, Set<DefRegistry>>> prefixes = this.typeIndex.get(defType);
+                if (prefixes != null) {
+                    collectByPrefix(prefixes, matcher, found);
                 }
             }
-            
-            if (found) {
-                found = false;
-                for (String prefix : reg.getPrefixes()) {
-                    if (matcher.matchPrefix(prefix)) {
-                        found = true;
-                        break;
-                    }
+        }
+        if (found.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // keep the registration order so that callers see a stable iteration order
+        ImmutableSet.Builder<DefRegistry> builder = ImmutableSet.builder();
+        for (DefRegistry reg : this.allRegistries) {
+            if (found.contains(reg)) {
+                builder.add(reg);
+            }
+        }
+        return builder.build();
+    }
+
+    private static void collectByPrefix(Map<String, Map<String, Set<DefRegistry>>> prefixes,
+            DescriptorFilter matcher, Set<DefRegistry> found) {
+        GlobMatcher prefixMatch = matcher.getPrefixMatch();
+        if (prefixMatch.isConstant()) {
+            Map<String, Set<DefRegistry>> namespaces = prefixes.get(prefixMatch.toString().toLowerCase());
+            if (namespaces != null) {
+                collectByNamespace(namespaces, matcher, found);
+            }
+        } else {
+            for (Map.Entry<String, Map<String, Set<DefRegistry>>> entry : prefixes.entrySet()) {
+                if (prefixMatch.match(entry.getKey())) {
+                    collectByNamespace(entry.getValue(), matcher, found);
                 }
             }
-            if (found) {
-                for (String namespace : reg.getNamespaces()) {
-                    if ("*".equals(namespace) || matcher.matchNamespace(namespace)) {
-                        matched.add(reg);
-                        break;
-                    }
+        }
+    }
+
+    private static void collectByNamespace(Map<String, Set<DefRegistry>> namespaces, DescriptorFilter matcher,
+            Set<DefRegistry> found) {
+        GlobMatcher namespaceMatch = matcher.getNamespaceMatch();
+        if (namespaceMatch.isAll()) {
+            for (Set<DefRegistry> registries : namespaces.values()) {
+                found.addAll(registries);
+            }
+            return;
+        }
+        Set<DefRegistry> catchAll = namespaces.get("*");
+        if (catchAll != null) {
+            found.addAll(catchAll);
+        }
+        if (namespaceMatch.isConstant()) {
+            Set<DefRegistry> registries = namespaces.get(namespaceMatch.toString().toLowerCase());
+            if (registries != null) {
+                found.addAll(registries);
+            }
+        } else {
+            for (Map.Entry<String, Set<DefRegistry>> entry : namespaces.entrySet()) {
+                if (namespaceMatch.match(entry.getKey())) {
+                    found.addAll(entry.getValue());
                 }
             }
         }
-        return matched;
+    }
+
+    /**
+     * The part of a filter that determines the registries, the name is irrelevant here.
+     */
+    private static String getFilterKey(DescriptorFilter matcher) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(matcher.getPrefixMatch()).append("://").append(matcher.getNamespaceMatch());
+        List<DefType> defTypes = matcher.getDefTypes();
+        if (defTypes != null) {
+            sb.append('|').append(defTypes);
+        }
+        return sb.toString().toLowerCase();
     }
 
     @Override
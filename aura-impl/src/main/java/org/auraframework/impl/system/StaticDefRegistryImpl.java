@@ -66,6 +66,19 @@ public class StaticDefRegistryImpl extends DefRegistryImpl {
         this.name = getClass().getSimpleName() + defTypes + prefixes + namespaces;
     }
 
+    /**
+     * Create a registry restored from a precompiled file.
+     *
+     * @param defs the definitions, which may be a map that loads them on demand.
+     * @param creationTime the time the registry was originally created.
+     */
+    public StaticDefRegistryImpl(Set<DefType> defTypes, Set<String> prefixes, Set<String> namespaces,
+            Map<DefDescriptor<?>, Definition> defs, long creationTime) {
+        super(defTypes, prefixes, namespaces, creationTime);
+        this.defs = defs;
+        this.name = getClass().getSimpleName() + defTypes + prefixes + namespaces;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <D extends Definition> D getDef(DefDescriptor<D> descriptor) {
@@ -52,10 +52,48 @@ import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 import org.auraframework.impl.util.UserAgent.UA;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
-// user-agent parser to provide browser information
+
+/**
+ * user-agent parser to provide browser information
+ *
+ * Instances are immutable once constructed. Use {@link #get(String)} to share parsed results across requests, since
+ * real traffic comes from a fairly small set of distinct user agents.
+ */
 public class BrowserInfo {
 
+    /**
+     * The maximum number of distinct user agents to keep parsed.
+     */
+    private static final int CACHE_SIZE = Integer.getInteger("aura.browserInfoCacheSize", 1000);
+
+    private static final Cache<String, BrowserInfo> cache = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .concurrencyLevel(8)
+            .build();
+
+    private static final BrowserInfo EMPTY = new BrowserInfo("");
+
+    /**
+     * Get the parsed browser information for a user agent, shared with other callers.
+     *
+     * @param userAgentString the user agent, may be null.
+     * @return the browser information, never null.
+     */
+    public static BrowserInfo get(String userAgentString) {
+        if (userAgentString == null || userAgentString.isEmpty()) {
+            return EMPTY;
+        }
+        BrowserInfo info = cache.getIfPresent(userAgentString);
+        if (info == null) {
+            info = new BrowserInfo(userAgentString);
+            cache.put(userAgentString, info);
+        }
+        return info;
+    }
+
     /**
      * Form factors for browser client devices.
      * 
@@ -118,6 +156,8 @@ public class BrowserInfo {
     }
 
     private final String userAgentString;
+    // lower-cased once, all the matching is done against this
+    private final String lowerCaseUserAgent;
     private boolean isTablet;
     private boolean isPhone;
     private boolean isAndroid;
@@ -138,12 +178,14 @@ public class BrowserInfo {
     private boolean isWindowsTablet;
     private boolean isBlackBerry;
     private ViewportFormFactor viewportFormFactor;
+    private FormFactor hardwareFormFactor;
 
     public BrowserInfo(String userAgentString) {
         if (userAgentString == null) {
             userAgentString = "";
         }
         this.userAgentString = BrowserUserAgent.sanitizeString(userAgentString).trim();
+        this.lowerCaseUserAgent = this.userAgentString.toLowerCase();
         parseUserAgent();
     }
 
@@ -218,6 +260,13 @@ public class BrowserInfo {
         return isIE11;
     }
 
+    /**
+     * @return the browser type, as from {@link BrowserUserAgent#parseBrowser(String)}.
+     */
+    public int getBrowserType() {
+        return browserType;
+    }
+
     private void parseUserAgent() {
         // set initial values
         isTablet = false;
@@ -231,6 +280,7 @@ public class BrowserInfo {
         isWindowsTablet = false;
         formFactor = FormFactor.DESKTOP.toString();
         viewportFormFactor = ViewportFormFactor.LARGE;
+        hardwareFormFactor = FormFactor.DESKTOP;
         platformType = 0;
         browserType = 0;
 
@@ -238,8 +288,8 @@ public class BrowserInfo {
             return;
         }
 
-        platformType = BrowserUserAgent.parsePlatform(userAgentString);
-        browserType = BrowserUserAgent.parseBrowser(userAgentString);
+        platformType = BrowserUserAgent.parseLowerCasePlatform(lowerCaseUserAgent);
+        browserType = BrowserUserAgent.parseLowerCaseBrowser(lowerCaseUserAgent);
 
         isAndroid = isPlatformAndroid();
         isIPad = isPlatformIPad();
@@ -255,10 +305,11 @@ public class BrowserInfo {
 
         // Calculate viewportFormFactor 1st.  It may directly override what getHardwareFormFactor() returns
         viewportFormFactor = ViewportFormFactor.fromUserAgent(userAgentString);
-        formFactor = getHardwareFormFactor().toString();
+        hardwareFormFactor = computeHardwareFormFactor();
+        formFactor = hardwareFormFactor.toString();
 
-        isTablet = isTabletClient();
-        isPhone = isSmartPhoneClient();
+        isTablet = hardwareFormFactor == FormFactor.TABLET;
+        isPhone = hardwareFormFactor == FormFactor.PHONE;
         isWindowsPhone = isPlatformWindowsPhone();
         isWindowsTablet = isPlatformWindowsTablet();
         isBlackBerry = isPlatformBlackBerry();
@@ -299,15 +350,14 @@ public class BrowserInfo {
      * @see BrowserInfo#isBrowserMobile() if a quicker test of all supported and many common unsupported clients is
      *      sufficient
      * 
-     * @param userAgent the string to test
+     * @param ua the lower-cased string to test
      * @return true if mobile
      */
-    private static boolean isMobileClient(String userAgent) {
+    private static boolean isMobileClient(String ua) {
         // TODO: see if this can be replaced by Browser.isBrowserMobile(String)
         // It is easier to maintain with no third party dependencies and ~6x
         // faster.
-        if (userAgent != null) {
-            String ua = userAgent.toLowerCase();
+        if (ua != null) {
             // check against the common ones first (mainstream users get faster performance)
             if (BrowserUserAgent.getCommonMobileUserAgentPattern().matcher(ua).matches()) {
                 return true;
@@ -348,7 +398,7 @@ public class BrowserInfo {
                 return true;
             }
             // string check allows for odd browsers
-            return agent.match(userAgentString.toLowerCase());
+            return agent.match(lowerCaseUserAgent);
         }
         return false;
     }
@@ -575,7 +625,7 @@ public class BrowserInfo {
         // TODO: see if this can be replaced by BrowserInfo.isBrowserMobile()
         // It is easier to maintain with no third party dependencies and ~7x
         // faster.
-        return isMobileClient(userAgentString);
+        return isMobileClient(lowerCaseUserAgent);
     }
 
     /**
@@ -609,6 +659,10 @@ public class BrowserInfo {
      * @return a FormFactor value
      */
     public FormFactor getHardwareFormFactor() {
+        return hardwareFormFactor;
+    }
+
+    private FormFactor computeHardwareFormFactor() {
         if (viewportFormFactor!=null) {
             return viewportFormFactor.getFormFactor();
         }
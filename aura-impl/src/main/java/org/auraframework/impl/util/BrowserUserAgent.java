@@ -182,8 +182,15 @@ public class BrowserUserAgent {
         if (userAgent == null) {
             return BROWSER_UNKNOWN;
         }
-        userAgent = userAgent.toLowerCase().trim();
+        return parseLowerCaseBrowser(userAgent.toLowerCase().trim());
+    }
 
+    /**
+     * Parse a user agent that is already lower-cased and trimmed to determine browser.
+     *
+     * @see #parseBrowser(String)
+     */
+    static int parseLowerCaseBrowser(String userAgent) {
         // find the browser family
         UserAgent ua = UserAgent.get(userAgent);
         if (ua == null) {
@@ -225,8 +232,15 @@ public class BrowserUserAgent {
         if (userAgent == null) {
             return PLATFORM_UNKNOWN;
         }
-        String ua = userAgent.toLowerCase().trim();
+        return parseLowerCasePlatform(userAgent.toLowerCase().trim());
+    }
 
+    /**
+     * Parse a user agent that is already lower-cased and trimmed to determine platform.
+     *
+     * @see #parsePlatform(String)
+     */
+    static int parseLowerCasePlatform(String ua) {
         if (ua.contains(BLACKBERRY) || ua.contains(BLACKBERRY10_AND_ABOVE) || ua.contains(UA.PLAYBOOK)) {
             return PLATFORM_RIM;
         }
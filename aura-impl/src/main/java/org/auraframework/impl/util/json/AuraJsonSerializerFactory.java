@@ -17,8 +17,6 @@ package org.auraframework.impl.util.json;
 
 import java.util.Collection;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
@@ -40,10 +38,19 @@ public class AuraJsonSerializerFactory implements JsonSerializerFactory {
 
     private Map<String, JsonSerializer<?>> SERIALIZERS_LOOKUP_MAP;
     private Map<Class<?>, JsonSerializer<?>> SERIALIZERS_INSTANCE_MAP;
-    private final ConcurrentMap<String, JsonSerializer<?>> cache = new ConcurrentHashMap<>();
     private final JsonSerializer<?> NOT_FOUND = new DefaultJsonSerializer();
     private final Object lock = new Object();
 
+    /**
+     * The serializer for each class, resolved the first time an instance of the class is serialized.
+     */
+    private final ClassValue<JsonSerializer<?>> serializers = new ClassValue<JsonSerializer<?>>() {
+        @Override
+        protected JsonSerializer<?> computeValue(Class<?> type) {
+            return findSerializer(type);
+        }
+    };
+
     private LoggingService loggingService;
     
     private Collection<JsonSerializerAdapter> jsonSerializerAdapters;
@@ -68,34 +75,29 @@ public class AuraJsonSerializerFactory implements JsonSerializerFactory {
     @Override
     @SuppressWarnings("unchecked")
     public <T> JsonSerializer<T> getSerializer(T o) {
-        Class<?> c = o.getClass();
-        String className = c.getName();
-        JsonSerializer<T> s = (JsonSerializer<T>) cache.get(className);
-        if (s != null) {
-            return (s != NOT_FOUND)? s : null;
-        }
+        JsonSerializer<T> s = (JsonSerializer<T>) serializers.get(o.getClass());
+        return (s != NOT_FOUND)? s : null;
+    }
 
+    private JsonSerializer<?> findSerializer(Class<?> c) {
         if (SERIALIZERS_INSTANCE_MAP == null) {
             initSerializerMaps();
         }
 
-        s = (JsonSerializer<T>) SERIALIZERS_LOOKUP_MAP.get(className);
+        String className = c.getName();
+        JsonSerializer<?> s = SERIALIZERS_LOOKUP_MAP.get(className);
         if (s != null) {
-            cache.putIfAbsent(className, s);
             return s;
         }
 
         for (Map.Entry<Class<?>, JsonSerializer<?>> e : SERIALIZERS_INSTANCE_MAP.entrySet()) {
             if (e.getKey().isAssignableFrom(c)) {
-                s = (JsonSerializer<T>) e.getValue();
-                cache.putIfAbsent(className, s);
-                return s;
+                return e.getValue();
             }
         }
 
-        cache.putIfAbsent(className, NOT_FOUND);
         loggingService.info("no JsonSerializer found for:" + className);
-        return null;
+        return NOT_FOUND;
     }
 
     /**
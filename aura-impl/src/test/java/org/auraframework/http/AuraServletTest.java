@@ -23,6 +23,7 @@ import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -42,6 +43,8 @@ import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.TypeDef;
+import org.auraframework.def.ValueDef;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.InstanceStack;
@@ -70,6 +73,7 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -292,6 +296,29 @@ public class AuraServletTest extends UnitTestCase {
         assertSame("should get expected exception", expected, actual);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testReadMessageConvertsParamsToDeclaredTypes() throws Exception {
+        String actionName = "myAction";
+        ActionDef myActionDef = getActionDef(actionName);
+        TypeDef intType = Mockito.mock(TypeDef.class);
+        Mockito.doReturn(Integer.valueOf(1)).when(intType).valueOf(Matchers.any());
+        ValueDef param = Mockito.mock(ValueDef.class);
+        Mockito.doReturn("count").when(param).getName();
+        Mockito.doReturn(intType).when(param).getType();
+        Mockito.doReturn(Arrays.asList(param)).when(myActionDef).getParameters();
+        Mockito.doReturn(myActionDef).when(definitionService).getDefinition(actionName, ActionDef.class);
+        Mockito.doReturn(new MockAction()).when(instanceService).getInstance(Matchers.eq(myActionDef), Matchers.anyMap());
+
+        Message message = originalServlet.readMessage("{'actions':[{'descriptor':'"+actionName+"','params':{'count':1,'other':2}}]}");
+
+        assertEquals(1, message.getActions().size());
+        ArgumentCaptor<Map> params = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(instanceService).getInstance(Matchers.eq(myActionDef), params.capture());
+        assertEquals(Integer.valueOf(1), params.getValue().get("count"));
+        assertEquals(new BigDecimal(2), params.getValue().get("other"));
+    }
+
     /**
      * This test verify that we do {@link DefinitionService#updateLoaded(DefDescriptor)} before message read, 
      * when action from client arrives, if the client is running out-dated code, we will throw COOS to force it reload, 
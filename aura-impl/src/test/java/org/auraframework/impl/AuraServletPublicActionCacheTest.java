@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.adapter.LoggingAdapter;
+import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.AuraServlet;
+import org.auraframework.instance.Action;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.LoggingService;
+import org.auraframework.service.ServerService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.Message;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Publicly cacheable GET actions served through {@link AuraServlet} with the in-process cache held by
+ * {@link CachingServiceImpl}.
+ */
+public class AuraServletPublicActionCacheTest {
+    private static final String FRAMEWORK_UID = "fwuid";
+    private static final String PUBLIC_CACHE_KEY = "publicKey";
+    private static final String RESPONSE = "{\"actions\":[]}";
+
+    private AuraServlet auraServlet;
+    private CachingServiceImpl cachingService;
+    private ServerService serverService;
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(Mockito.mock(LoggingAdapter.class));
+        cachingService.initializeCaches();
+
+        AuraContext context = Mockito.mock(AuraContext.class);
+        Mockito.doReturn(Format.JSON).when(context).getFormat();
+        Mockito.doReturn(FRAMEWORK_UID).when(context).getFrameworkUID();
+        Mockito.doReturn(PUBLIC_CACHE_KEY).when(context).getActionPublicCacheKey();
+        Mockito.doReturn(new HashMap<>()).when(context).getGlobalProviders();
+        ContextService contextService = Mockito.mock(ContextService.class);
+        Mockito.doReturn(context).when(contextService).getCurrentContext();
+
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        Mockito.doReturn(true).when(configAdapter).isActionPublicCachingEnabled();
+        Mockito.doReturn(PUBLIC_CACHE_KEY).when(configAdapter).getActionPublicCacheKey();
+        Mockito.doReturn(FRAMEWORK_UID).when(configAdapter).getAuraFrameworkNonce();
+
+        DefDescriptor<?> actionDescriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.doReturn("java://test.Controller/ACTION$getPublic").when(actionDescriptor).getQualifiedName();
+        Action action = Mockito.mock(Action.class);
+        Mockito.doReturn(actionDescriptor).when(action).getDescriptor();
+        Mockito.doReturn(Collections.emptyList()).when(action).getErrors();
+        List<Action> actions = new ArrayList<>();
+        actions.add(action);
+        Message message = new Message(actions);
+
+        ServletUtilAdapter servletUtilAdapter = Mockito.mock(ServletUtilAdapter.class);
+        Mockito.doReturn(true).when(servletUtilAdapter).isPubliclyCacheableAction(message);
+        Mockito.doReturn(60L).when(servletUtilAdapter).getPubliclyCacheableActionExpiration(message);
+
+        serverService = Mockito.mock(ServerService.class);
+        Mockito.doAnswer(invocation -> {
+            runs.incrementAndGet();
+            ((Writer) invocation.getArguments()[2]).write(RESPONSE);
+            return null;
+        }).when(serverService).run(Matchers.same(message), Matchers.same(context), Matchers.any(Writer.class),
+                Matchers.<Map<String, Object>>any());
+
+        auraServlet = Mockito.spy(new AuraServlet());
+        Mockito.doReturn(message).when(auraServlet).readMessage(Matchers.anyString());
+        auraServlet.setServletUtilAdapter(servletUtilAdapter);
+        auraServlet.setContextService(contextService);
+        auraServlet.setConfigAdapter(configAdapter);
+        auraServlet.setLoggingService(Mockito.mock(LoggingService.class));
+        auraServlet.setServerService(serverService);
+        auraServlet.setCachingService(cachingService);
+    }
+
+    private String get() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/aura");
+        request.addParameter("aura.isAction", "true");
+        request.addParameter("message", "{\"actions\":[{\"descriptor\":\"java://test.Controller/ACTION$getPublic\"}]}");
+        request.addParameter("aura.context", "{\"mode\":\"PROD\"}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        auraServlet.doGet(request, response);
+        return response.getContentAsString();
+    }
+
+    @Test
+    public void testRepeatedGetIsServedFromCache() throws Exception {
+        assertEquals(RESPONSE, get());
+        assertEquals(RESPONSE, get());
+
+        assertEquals("The action should only run for the first request", 1, runs.get());
+        assertEquals(1, cachingService.getPublicActionCache().size());
+    }
+
+    @Test
+    public void testConcurrentGetsRunActionOnce() throws Exception {
+        int threadCount = 8;
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            runs.incrementAndGet();
+            running.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            ((Writer) invocation.getArguments()[2]).write(RESPONSE);
+            return null;
+        }).when(serverService).run(Matchers.any(Message.class), Matchers.any(AuraContext.class),
+                Matchers.any(Writer.class), Matchers.<Map<String, Object>>any());
+
+        List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    responses.add(get());
+                } catch (Exception e) {
+                    responses.add(e.toString());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        assertTrue("The action should have started", running.await(10, TimeUnit.SECONDS));
+        // wait for the other requests to block on the load in progress before letting it finish
+        long deadline = System.currentTimeMillis() + 10000;
+        for (Thread thread : threads) {
+            while (thread.getState() == Thread.State.RUNNABLE && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(10000);
+        }
+
+        assertEquals("The action should only run once", 1, runs.get());
+        assertEquals(Collections.nCopies(threadCount, RESPONSE), responses);
+    }
+
+    @Test
+    public void testSourceChangeRemovesCachedResponse() throws Exception {
+        assertEquals(RESPONSE, get());
+        assertEquals(1, cachingService.getPublicActionCache().size());
+
+        cachingService.notifyDependentSourceChange(Collections.emptyList(), SourceMonitorEvent.CHANGED, null);
+
+        assertEquals("The source change should clear the cached response", 0,
+                cachingService.getPublicActionCache().size());
+        assertEquals(RESPONSE, get());
+        assertEquals("The action should run again after the source change", 2, runs.get());
+    }
+}
@@ -17,6 +17,7 @@ package org.auraframework.impl;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.apache.log4j.AppenderSkeleton;
 import org.apache.log4j.Level;
@@ -43,12 +44,14 @@ import org.mockito.Mockito;
 
 import javax.inject.Inject;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Function;
@@ -360,4 +363,135 @@ public class CachingServiceImplTest extends AuraImplTestCase {
                 cachingService.getExistsCache(),
                 key -> true, keys);
     }
+
+    @Test
+    public void testNotifyDependentSourceChange_InvalidatesOnlyDependentsIfFileMapsToBundle() {
+        String name = getAuraTestingUtil().getNonce("changed");
+        DefDescriptor<ComponentDef> changed = definitionService.getDefDescriptor("some:" + name, ComponentDef.class);
+        DefDescriptor<ComponentDef> other = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:other"), ComponentDef.class);
+        Definition changedDef = Mockito.mock(Definition.class);
+        Definition otherDef = Mockito.mock(Definition.class);
+
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        cachingService.initializeCaches();
+
+        Map<DefDescriptor<? extends Definition>, Definition> withChanged = Maps.newHashMap();
+        withChanged.put(changed, changedDef);
+        withChanged.put(other, otherDef);
+        Map<DefDescriptor<? extends Definition>, Definition> withoutChanged = Maps.newHashMap();
+        withoutChanged.put(other, otherDef);
+
+        cachingService.getDepsCache().put("dependent", new DependencyEntry("uid1", withChanged,
+                Collections.emptyList(), true, null));
+        cachingService.getDepsCache().put("independent", new DependencyEntry("uid2", withoutChanged,
+                Collections.emptyList(), true, null));
+        cachingService.getStringsCache().put("uid1@some:app@JS", "dependent");
+        cachingService.getStringsCache().put("uid2@some:app@JS", "independent");
+        cachingService.getDefsCache().put(changed, Optional.of(changedDef));
+        cachingService.getDefsCache().put(other, Optional.of(otherDef));
+
+        String filePath = String.join(File.separator, "components", "some", name, name + ".cmp");
+        cachingService.notifyDependentSourceChange(Collections.emptySet(), SourceMonitorEvent.CHANGED, filePath);
+
+        assertNull(cachingService.getDepsCache().getIfPresent("dependent"));
+        assertNotNull(cachingService.getDepsCache().getIfPresent("independent"));
+        assertNull(cachingService.getStringsCache().getIfPresent("uid1@some:app@JS"));
+        assertNotNull(cachingService.getStringsCache().getIfPresent("uid2@some:app@JS"));
+        assertNull(cachingService.getDefsCache().getIfPresent(changed));
+        assertNotNull(cachingService.getDefsCache().getIfPresent(other));
+        assertEquals(3, cachingService.getLastSourceChangeEvictions());
+    }
+
+    @Test
+    public void testNotifyDependentSourceChange_InvalidatesDefinitionsThatDependOnChangedBundle() {
+        String name = getAuraTestingUtil().getNonce("changed");
+        DefDescriptor<ComponentDef> changed = definitionService.getDefDescriptor("some:" + name, ComponentDef.class);
+        DefDescriptor<ComponentDef> child = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:child"), ComponentDef.class);
+        DefDescriptor<ApplicationDef> app = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:app"), ApplicationDef.class);
+        DefDescriptor<ComponentDef> unrelated = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:unrelated"), ComponentDef.class);
+        Definition changedDef = Mockito.mock(Definition.class);
+        Definition childDef = Mockito.mock(Definition.class);
+        Definition appDef = Mockito.mock(Definition.class);
+        Definition unrelatedDef = Mockito.mock(Definition.class);
+        // the app includes a child that extends the changed component, and another that does not.
+        Mockito.when(childDef.getDependencySet()).thenReturn(Sets.newHashSet(changed));
+        Mockito.when(appDef.getDependencySet()).thenReturn(Sets.newHashSet(child, unrelated));
+
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        cachingService.initializeCaches();
+
+        Map<DefDescriptor<? extends Definition>, Definition> dependencies = Maps.newHashMap();
+        dependencies.put(changed, changedDef);
+        dependencies.put(child, childDef);
+        dependencies.put(app, appDef);
+        dependencies.put(unrelated, unrelatedDef);
+        cachingService.getDepsCache().put("app", new DependencyEntry("uid1", dependencies,
+                Collections.emptyList(), true, null));
+        cachingService.getDefsCache().put(changed, Optional.of(changedDef));
+        cachingService.getDefsCache().put(child, Optional.of(childDef));
+        cachingService.getDefsCache().put(app, Optional.of(appDef));
+        cachingService.getDefsCache().put(unrelated, Optional.of(unrelatedDef));
+
+        String filePath = String.join(File.separator, "components", "some", name, name + ".cmp");
+        cachingService.notifyDependentSourceChange(Collections.emptySet(), SourceMonitorEvent.CHANGED, filePath);
+
+        assertNull(cachingService.getDepsCache().getIfPresent("app"));
+        assertNull(cachingService.getDefsCache().getIfPresent(changed));
+        assertNull(cachingService.getDefsCache().getIfPresent(child));
+        assertNull(cachingService.getDefsCache().getIfPresent(app));
+        assertNotNull(cachingService.getDefsCache().getIfPresent(unrelated));
+        assertEquals(4, cachingService.getLastSourceChangeEvictions());
+    }
+
+    @Test
+    public void testNotifyDependentSourceChange_InvalidatesDependentsOfEvictedDependencies() {
+        String name = getAuraTestingUtil().getNonce("changed");
+        DefDescriptor<ComponentDef> changed = definitionService.getDefDescriptor("some:" + name, ComponentDef.class);
+        DefDescriptor<ApplicationDef> app = definitionService.getDefDescriptor(
+                getAuraTestingUtil().getNonce("some:app"), ApplicationDef.class);
+        Definition changedDef = Mockito.mock(Definition.class);
+        Definition appDef = Mockito.mock(Definition.class);
+        Mockito.when(appDef.getDependencySet()).thenReturn(Sets.newHashSet(changed));
+
+        CachingServiceImpl cachingService = new CachingServiceImpl();
+        cachingService.setLoggingAdapter(loggingAdapter);
+        String previousSize = System.setProperty("aura.cache.depsCacheSize", "1");
+        try {
+            cachingService.initializeCaches();
+        } finally {
+            if (previousSize == null) {
+                System.clearProperty("aura.cache.depsCacheSize");
+            } else {
+                System.setProperty("aura.cache.depsCacheSize", previousSize);
+            }
+        }
+
+        Map<DefDescriptor<? extends Definition>, Definition> dependencies = Maps.newHashMap();
+        dependencies.put(changed, changedDef);
+        dependencies.put(app, appDef);
+        cachingService.getDepsCache().put("app", new DependencyEntry("uid1", dependencies,
+                Collections.emptyList(), true, null));
+        cachingService.getStringsCache().put("uid1@some:app@JS", "dependent");
+        cachingService.getDefsCache().put(changed, Optional.of(changedDef));
+        cachingService.getDefsCache().put(app, Optional.of(appDef));
+
+        // the dependency entry is evicted, but the definitions and strings built from it are still cached
+        cachingService.getDepsCache().put("other", new DependencyEntry("uid2", Maps.newHashMap(),
+                Collections.emptyList(), true, null));
+        assertNull(cachingService.getDepsCache().getIfPresent("app"));
+
+        String filePath = String.join(File.separator, "components", "some", name, name + ".cmp");
+        cachingService.notifyDependentSourceChange(Collections.emptySet(), SourceMonitorEvent.CHANGED, filePath);
+
+        assertNull(cachingService.getStringsCache().getIfPresent("uid1@some:app@JS"));
+        assertNull(cachingService.getDefsCache().getIfPresent(changed));
+        assertNull(cachingService.getDefsCache().getIfPresent(app));
+        assertNotNull(cachingService.getDepsCache().getIfPresent("other"));
+    }
 }
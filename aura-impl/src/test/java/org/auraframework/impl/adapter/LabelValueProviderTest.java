@@ -22,14 +22,20 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.auraframework.adapter.LocalizationAdapter;
 import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.expression.PropertyReferenceImpl;
 import org.auraframework.service.DefinitionService;
 import org.junit.Before;
 import org.junit.Test;
@@ -131,4 +137,44 @@ public class LabelValueProviderTest {
         verify(mockLocalizationAdapter, never()).getLabels(Matchers.<Map<String, Set<String>>> any());
         assertEquals(expected, actual);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLabelsLoadedConcurrentlyAreAllKept() throws Exception {
+        // Arrange
+        int threadCount = 8;
+        int labelCount = 200;
+        when(mockLocalizationAdapter.getLabel(Matchers.anyString(), Matchers.anyString()))
+                .then(invocation -> "value of " + invocation.getArguments()[1]);
+        LabelValueProvider provider = new LabelValueProvider(mockLocalizationAdapter, mockDefinitionService);
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                String section = "section" + (i % 2);
+                int first = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = first; j < labelCount; j += threadCount) {
+                        provider.getValue(new PropertyReferenceImpl(section + ".label" + j, null));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        Map<String, ?> data = provider.getData();
+        int loaded = 0;
+        for (Object labels : data.values()) {
+            loaded += ((Map<String, String>)labels).size();
+        }
+        assertEquals(labelCount, loaded);
+        assertEquals("value of label3", ((Map<String, String>)data.get("section1")).get("label3"));
+    }
 }
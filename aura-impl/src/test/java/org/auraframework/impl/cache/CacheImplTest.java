@@ -140,7 +140,7 @@ public class CacheImplTest {
                 backingCache);
         backingCache.put("someKey", "someValue");
         cache.invalidatePartial(" ");
-        Mockito.verify(backingCache, Mockito.never()).invalidate(
+        Mockito.verify(backingCache, Mockito.never()).invalidateAll(
                 Matchers.anyCollection());
     }
 
@@ -151,7 +151,7 @@ public class CacheImplTest {
                 backingCache);
         backingCache.put("someKey", "someValue");
         cache.invalidatePartial("someKey");
-        Mockito.verify(backingCache, Mockito.times(1)).invalidate(
+        Mockito.verify(backingCache, Mockito.times(1)).invalidateAll(
                 Matchers.argThat(new CollectionContainsAllMatcher<Object>("someKey")));
     }
 
@@ -166,7 +166,7 @@ public class CacheImplTest {
         backingCache.put("someThing", "someValue");
 
         cache.invalidatePartial("some");
-        Mockito.verify(backingCache, Mockito.times(1)).invalidate(
+        Mockito.verify(backingCache, Mockito.times(1)).invalidateAll(
                 Matchers.argThat(new CollectionContainsAllMatcher<Object>("someKey",
                         "someOtherKey", "someThing")));
     }
@@ -178,7 +178,57 @@ public class CacheImplTest {
                 backingCache);
         backingCache.put("someKey", "someValue");
         cache.invalidatePartial("otherKey");
-        Mockito.verify(backingCache, Mockito.never()).invalidate(
+        Mockito.verify(backingCache, Mockito.never()).invalidateAll(
                 Matchers.anyCollection());
     }
+
+    @Test
+    public void testSecondaryStorageRecoversValueDroppedFromHeap() {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setName("secondaryTest")
+                .setUseSecondaryStorage(true)
+                .build();
+        cache.put("someKey", "some\u00e9Value");
+        ((com.google.common.cache.Cache<?, ?>)cache.getPrivateUnderlyingCache()).invalidateAll();
+
+        Assert.assertEquals("some\u00e9Value", cache.getIfPresent("someKey"));
+        Assert.assertEquals(1, cache.getSecondaryStorage().getHitCount());
+        cache.invalidateAll();
+    }
+
+    @Test
+    public void testSecondaryStorageStreamsValueNotOnHeap() throws Exception {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setName("secondaryTest")
+                .setUseSecondaryStorage(true)
+                .build();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            expected.append("\u20ac").append(i);
+        }
+        cache.put("someKey", expected.toString());
+        ((com.google.common.cache.Cache<?, ?>)cache.getPrivateUnderlyingCache()).invalidateAll();
+
+        StringBuilder actual = new StringBuilder();
+        Assert.assertTrue(cache.writeTo("someKey", actual));
+        Assert.assertEquals(expected.toString(), actual.toString());
+        Assert.assertFalse(cache.writeTo("otherKey", actual));
+        cache.invalidateAll();
+    }
+
+    @Test
+    public void testSecondaryStorageInvalidatePartial() {
+        CacheImpl<String, String> cache = new CacheImpl.Builder<String, String>()
+                .setName("secondaryTest")
+                .setUseSecondaryStorage(true)
+                .build();
+        cache.put("someKey", "someValue");
+        cache.put("otherKey", "otherValue");
+        ((com.google.common.cache.Cache<?, ?>)cache.getPrivateUnderlyingCache()).invalidateAll();
+
+        cache.invalidatePartial("some");
+        Assert.assertNull(cache.getIfPresent("someKey"));
+        Assert.assertEquals("otherValue", cache.getIfPresent("otherKey"));
+        cache.invalidateAll();
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.impl.cache.DependencyIndexingCache.IndexedEntry;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.auraframework.system.DependencyEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+public class DependencyIndexingCacheTest {
+
+    private static DependencyIndexingCache getCache(int maximumSize) {
+        return getCache(maximumSize, 100);
+    }
+
+    private static DependencyIndexingCache getCache(int maximumSize, int maximumIndexed) {
+        return new DependencyIndexingCache(new CacheImpl.Builder<String, DependencyEntry>()
+                .setMaximumSize(maximumSize)
+                .setConcurrencyLevel(1)
+                .setSoftValues(false), maximumIndexed);
+    }
+
+    private static List<IndexedEntry> invalidateDependents(DependencyIndexingCache cache,
+            DefDescriptor<?> descriptor) {
+        List<IndexedEntry> invalidated = new ArrayList<>();
+        cache.invalidateDependents(descriptor, invalidated);
+        return invalidated;
+    }
+
+    private static DefDescriptor<ComponentDef> getDescriptor(String name) {
+        return new DefDescriptorImpl<>("markup", "test", name, ComponentDef.class);
+    }
+
+    private static DependencyEntry getEntry(String uid, DefDescriptor<?>... descriptors) {
+        Map<DefDescriptor<? extends Definition>, Definition> dependencies = Maps.newHashMap();
+        for (DefDescriptor<?> descriptor : descriptors) {
+            dependencies.put(descriptor, Mockito.mock(Definition.class));
+        }
+        return new DependencyEntry(uid, dependencies, Collections.emptyList(), true, null);
+    }
+
+    @Test
+    public void testInvalidateDependentsEvictsOnlyEntriesWithDescriptor() {
+        DependencyIndexingCache cache = getCache(10);
+        DefDescriptor<ComponentDef> shared = getDescriptor("shared");
+        DefDescriptor<ComponentDef> other = getDescriptor("other");
+        DependencyEntry dependent = getEntry("uid1", shared, other);
+        cache.put("dependent", dependent);
+        cache.put("independent", getEntry("uid2", other));
+
+        List<IndexedEntry> invalidated = new ArrayList<>();
+        Assert.assertEquals(1, cache.invalidateDependents(shared, invalidated));
+        Assert.assertEquals(1, invalidated.size());
+        Assert.assertEquals(dependent.uid, invalidated.get(0).getUid());
+        Assert.assertNull(cache.getIfPresent("dependent"));
+        Assert.assertNotNull(cache.getIfPresent("independent"));
+        Assert.assertEquals(1, cache.getIndexSize());
+    }
+
+    @Test
+    public void testIndexIsKeptWhenEntriesAreEvictedForSize() {
+        DependencyIndexingCache cache = getCache(1);
+        cache.put("first", getEntry("uid1", getDescriptor("first")));
+        cache.put("second", getEntry("uid2", getDescriptor("second")));
+        Assert.assertNull(cache.getIfPresent("first"));
+        Assert.assertEquals(2, cache.getIndexSize());
+
+        // what was built from the evicted entry may still be cached elsewhere, so it must still be found
+        List<IndexedEntry> invalidated = new ArrayList<>();
+        Assert.assertEquals(0, cache.invalidateDependents(getDescriptor("first"), invalidated));
+        Assert.assertEquals(1, invalidated.size());
+        Assert.assertEquals("uid1", invalidated.get(0).getUid());
+        Assert.assertEquals(1, cache.getIndexSize());
+    }
+
+    @Test
+    public void testDependentsAreFoundThroughReferences() {
+        DependencyIndexingCache cache = getCache(10);
+        DefDescriptor<ComponentDef> changed = getDescriptor("changed");
+        DefDescriptor<ComponentDef> child = getDescriptor("child");
+        DefDescriptor<ComponentDef> parent = getDescriptor("parent");
+        DefDescriptor<ComponentDef> unrelated = getDescriptor("unrelated");
+        DependencyEntry entry = getEntry("uid1", changed, child, parent, unrelated);
+        Mockito.when(entry.dependencyMap.get(child).getDependencySet())
+                .thenReturn(ImmutableSet.<DefDescriptor<?>>of(changed));
+        Mockito.when(entry.dependencyMap.get(parent).getDependencySet())
+                .thenReturn(ImmutableSet.<DefDescriptor<?>>of(child, unrelated));
+        cache.put("parent", entry);
+
+        Set<DefDescriptor<?>> dependents = Sets.newHashSet();
+        for (IndexedEntry invalidated : invalidateDependents(cache, changed)) {
+            invalidated.addDependents(dependents, ImmutableSet.<DefDescriptor<?>>of(changed));
+        }
+        Assert.assertEquals(ImmutableSet.of(child, parent), dependents);
+    }
+
+    @Test
+    public void testIndexIsDroppedWhenTooLargeUntilInvalidateAll() {
+        DependencyIndexingCache cache = getCache(10, 1);
+        cache.put("first", getEntry("uid1", getDescriptor("first")));
+        Assert.assertTrue(cache.isIndexComplete());
+        cache.put("second", getEntry("uid2", getDescriptor("second")));
+        Assert.assertFalse(cache.isIndexComplete());
+        Assert.assertEquals(0, cache.getIndexSize());
+
+        cache.invalidateAll();
+        Assert.assertTrue(cache.isIndexComplete());
+        cache.put("first", getEntry("uid1", getDescriptor("first")));
+        Assert.assertEquals(1, cache.getIndexSize());
+    }
+
+    @Test
+    public void testIndexIsPrunedWhenEntriesAreInvalidated() {
+        DependencyIndexingCache cache = getCache(10);
+        cache.put("first", getEntry("uid1", getDescriptor("first"), getDescriptor("shared")));
+        cache.put("second", getEntry("uid2", getDescriptor("second"), getDescriptor("shared")));
+
+        cache.invalidate("first");
+        Assert.assertEquals(2, cache.getIndexSize());
+        cache.invalidatePartial("sec");
+        Assert.assertEquals(0, cache.getIndexSize());
+    }
+
+    @Test
+    public void testReplacedEntryIsIndexedUnderNewDescriptors() {
+        DependencyIndexingCache cache = getCache(10);
+        cache.put("key", getEntry("uid1", getDescriptor("old")));
+        cache.put("key", getEntry("uid2", getDescriptor("new")));
+
+        Assert.assertEquals(1, cache.getIndexSize());
+        Assert.assertEquals(Collections.emptyList(), invalidateDependents(cache, getDescriptor("old")));
+        Assert.assertEquals(1, invalidateDependents(cache, getDescriptor("new")).size());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.cache;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SecondaryStorageTest {
+
+    private static byte[] bytes(int size, byte value) {
+        byte[] bytes = new byte[size];
+        java.util.Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    @Test
+    public void testGetReturnsStoredBytes() throws Exception {
+        SecondaryStorage<String> storage = new SecondaryStorage<>("test", null, 1024);
+        Assert.assertTrue(storage.put("key", new byte[] { 1, 2, 3 }));
+
+        ByteBuffer buffer = storage.get("key");
+        Assert.assertEquals(3, buffer.remaining());
+        Assert.assertEquals(2, buffer.get(1));
+        Assert.assertNull(storage.get("missing"));
+        Assert.assertEquals(1, storage.getHitCount());
+        Assert.assertEquals(1, storage.getMissCount());
+        storage.invalidateAll();
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBySize() throws Exception {
+        SecondaryStorage<String> storage = new SecondaryStorage<>("test", null, 100);
+        storage.put("first", bytes(40, (byte)1));
+        storage.put("second", bytes(40, (byte)2));
+        storage.get("first");
+        storage.put("third", bytes(40, (byte)3));
+
+        Assert.assertTrue(storage.contains("first"));
+        Assert.assertFalse(storage.contains("second"));
+        Assert.assertTrue(storage.contains("third"));
+        Assert.assertEquals(80, storage.getCurrentBytes());
+        Assert.assertEquals(1, storage.getEvictionCount());
+        storage.invalidateAll();
+    }
+
+    @Test
+    public void testRejectsEntryLargerThanStorage() throws Exception {
+        SecondaryStorage<String> storage = new SecondaryStorage<>("test", null, 10);
+        Assert.assertFalse(storage.put("key", bytes(11, (byte)1)));
+        Assert.assertEquals(0, storage.size());
+    }
+
+    @Test
+    public void testReplaceUpdatesSize() throws Exception {
+        SecondaryStorage<String> storage = new SecondaryStorage<>("test", null, 100);
+        storage.put("key", bytes(40, (byte)1));
+        storage.put("key", bytes(10, (byte)2));
+
+        Assert.assertEquals(10, storage.getCurrentBytes());
+        Assert.assertEquals(2, storage.get("key").get());
+        storage.invalidate("key");
+        Assert.assertEquals(0, storage.getCurrentBytes());
+    }
+
+    @Test
+    public void testFilesAreDeletedWhenEntriesAreRemoved() throws Exception {
+        SecondaryStorage<String> storage = new SecondaryStorage<>("test", null, 100);
+        storage.put("first", bytes(40, (byte)1));
+        storage.put("second", bytes(40, (byte)2));
+        storage.put("third", bytes(40, (byte)3));
+        Assert.assertEquals(2, storage.getDirectory().list().length);
+
+        storage.invalidate("second");
+        Assert.assertEquals(1, storage.getDirectory().list().length);
+        storage.close();
+        Assert.assertFalse(storage.getDirectory().exists());
+    }
+
+    @Test
+    public void testEntryRemovedDuringReadIsReleasedAfterRead() throws Exception {
+        SecondaryStorage<String> storage = new SecondaryStorage<>("test", null, 100);
+        storage.put("key", bytes(40, (byte)1));
+        File directory = storage.getDirectory();
+
+        byte value = storage.read("key", buffer -> {
+            storage.invalidate("key");
+            Assert.assertEquals(1, directory.list().length);
+            return buffer.get(39);
+        });
+        Assert.assertEquals(1, value);
+        Assert.assertEquals(0, directory.list().length);
+        Assert.assertNull(storage.get("key"));
+        storage.close();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css;
+
+import java.util.List;
+
+import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.def.BaseStyleDef;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableList;
+import com.salesforce.omakase.plugin.Plugin;
+
+public class StyleDefWriterTest {
+    private final DefinitionService definitionService = Mockito.mock(DefinitionService.class);
+    private final StyleAdapter styleAdapter = Mockito.mock(StyleAdapter.class);
+    private final AuraContext context = Mockito.mock(AuraContext.class);
+
+    private static BaseStyleDef styleDef(String raw, String code) {
+        BaseStyleDef def = Mockito.mock(BaseStyleDef.class);
+        Mockito.doReturn(raw).when(def).getRawCode();
+        Mockito.doReturn(code).when(def).getCode(Mockito.<List<Plugin>>any());
+        return def;
+    }
+
+    private String write(String styleKey, List<BaseStyleDef> defs) throws Exception {
+        StringBuilder out = new StringBuilder();
+        new StyleDefWriter(definitionService, styleAdapter, context, styleKey).writeStyleDefs(defs, out);
+        return out.toString();
+    }
+
+    @Test
+    public void testRuntimeCodeIsReusedForSameStyleKey() throws Exception {
+        Mockito.doReturn(ImmutableList.of(new DuplicateFontFacePlugin())).when(styleAdapter)
+                .getContextualRuntimePlugins();
+        BaseStyleDef first = styleDef(".THIS {}", ".a{}");
+        BaseStyleDef second = styleDef(".THIS {}", ".b{}");
+        List<BaseStyleDef> defs = ImmutableList.of(first, second);
+
+        Assert.assertEquals(".a{}.b{}", write("key", defs));
+        Assert.assertEquals(".a{}.b{}", write("key", defs));
+        Mockito.verify(first, Mockito.times(1)).getCode(Mockito.<List<Plugin>>any());
+
+        write("other", defs);
+        Mockito.verify(first, Mockito.times(2)).getCode(Mockito.<List<Plugin>>any());
+    }
+
+    @Test
+    public void testFontFaceIsAlwaysProcessed() throws Exception {
+        Mockito.doReturn(ImmutableList.of(new DuplicateFontFacePlugin())).when(styleAdapter)
+                .getContextualRuntimePlugins();
+        BaseStyleDef def = styleDef("@FONT-FACE { font-family: x; }", "@font-face{font-family:x}");
+
+        write("key", ImmutableList.of(def));
+        write("key", ImmutableList.of(def));
+        Mockito.verify(def, Mockito.times(2)).getCode(Mockito.<List<Plugin>>any());
+    }
+
+    @Test
+    public void testUnknownContextualPluginsDisableReuse() throws Exception {
+        Mockito.doReturn(ImmutableList.of(Mockito.mock(Plugin.class))).when(styleAdapter)
+                .getContextualRuntimePlugins();
+        BaseStyleDef def = styleDef(".THIS {}", ".a{}");
+
+        write("key", ImmutableList.of(def));
+        write("key", ImmutableList.of(def));
+        Mockito.verify(def, Mockito.times(2)).getCode(Mockito.<List<Plugin>>any());
+    }
+}
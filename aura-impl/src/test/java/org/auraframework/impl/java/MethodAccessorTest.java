@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+
+public class MethodAccessorTest {
+
+    public static class Bean {
+        public String getName() {
+            return "name";
+        }
+
+        public boolean isEnabled() {
+            return true;
+        }
+
+        public long add(int a, long b) {
+            return a + b;
+        }
+
+        public static String echo(String value) {
+            return value;
+        }
+
+        public void explode() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    @Test
+    public void testGetterIsFoundAndCached() throws Exception {
+        MethodAccessor getter = MethodAccessor.getGetter(Bean.class, "name");
+
+        assertEquals("name", getter.invoke(new Bean()));
+        assertSame(getter, MethodAccessor.getGetter(Bean.class, "name"));
+        assertEquals(Boolean.TRUE, MethodAccessor.getGetter(Bean.class, "enabled").invoke(new Bean()));
+    }
+
+    @Test
+    public void testMissingGetterIsNull() {
+        assertNull(MethodAccessor.getGetter(Bean.class, "missing"));
+        assertNull(MethodAccessor.getGetter(Bean.class, "missing"));
+    }
+
+    @Test
+    public void testArgumentsAreConvertedAsByReflection() throws Exception {
+        MethodAccessor add = new MethodAccessor(Bean.class.getMethod("add", int.class, long.class));
+
+        assertEquals(3L, add.invoke(new Bean(), new Object[] { 1, 2L }));
+        assertEquals(3L, add.invoke(new Bean(), new Object[] { 1, 2 }));
+        try {
+            add.invoke(new Bean(), new Object[] { null, 2L });
+            fail("Expected an IllegalArgumentException for a null primitive");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testStaticMethodIgnoresTarget() throws Exception {
+        MethodAccessor echo = new MethodAccessor(Bean.class.getMethod("echo", String.class));
+
+        assertEquals("value", echo.invoke(null, new Object[] { "value" }));
+    }
+
+    @Test
+    public void testWrongTargetIsRejected() throws Exception {
+        MethodAccessor getter = MethodAccessor.getGetter(Bean.class, "name");
+        try {
+            getter.invoke("not a bean");
+            fail("Expected an IllegalArgumentException for the wrong target");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testExceptionIsWrapped() throws Exception {
+        MethodAccessor explode = new MethodAccessor(Bean.class.getMethod("explode"));
+        try {
+            explode.invoke(new Bean());
+            fail("Expected an InvocationTargetException");
+        } catch (InvocationTargetException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+    }
+}
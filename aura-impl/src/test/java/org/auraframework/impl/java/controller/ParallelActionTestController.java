@@ -22,6 +22,7 @@ import org.auraframework.ds.servicecomponent.Controller;
 import org.auraframework.system.Annotations.AuraEnabled;
 import org.auraframework.system.Annotations.BackgroundAction;
 import org.auraframework.system.Annotations.Key;
+import org.auraframework.system.Annotations.SerialAction;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.util.json.Json;
 import org.auraframework.util.json.JsonSerializable;
@@ -50,6 +51,12 @@ public class ParallelActionTestController implements Controller {
 
 	}
 
+    @AuraEnabled
+    @SerialAction
+    public static void executeSerially() {
+
+    }
+
 	@AuraEnabled
 	public static Record executeInForegroundWithReturn(@Key("i")int i) {
 		return new Record(i);
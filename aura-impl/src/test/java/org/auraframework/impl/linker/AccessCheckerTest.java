@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.linker;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DefinitionAccess;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AccessCheckerTest {
+
+    private static DefDescriptor<?> descriptor(String namespace, String name) {
+        DefDescriptor<?> descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.doReturn("markup").when(descriptor).getPrefix();
+        Mockito.doReturn(namespace).when(descriptor).getNamespace();
+        Mockito.doReturn(name).when(descriptor).getName();
+        Mockito.doReturn(DefType.COMPONENT).when(descriptor).getDefType();
+        return descriptor;
+    }
+
+    private static ComponentDef definition(DefDescriptor<?> descriptor, boolean isPrivate) {
+        DefinitionAccess access = Mockito.mock(DefinitionAccess.class);
+        Mockito.doReturn(true).when(access).requiresAuthentication();
+        Mockito.doReturn(isPrivate).when(access).isPrivate();
+        ComponentDef def = Mockito.mock(ComponentDef.class);
+        Mockito.doReturn(access).when(def).getAccess();
+        Mockito.doReturn(descriptor).when(def).getDescriptor();
+        return def;
+    }
+
+    @Test
+    public void testSameNamespaceIsAllowed() {
+        AccessChecker checker = new AccessChecker(Mockito.mock(ConfigAdapter.class));
+        ComponentDef def = definition(descriptor("ns", "target"), false);
+
+        Assert.assertTrue(checker.checkAccess(descriptor("ns", "caller"), def));
+        Assert.assertNull(checker.getAccessMessage(descriptor("ns", "caller"), def));
+    }
+
+    @Test
+    public void testOtherNamespaceIsDeniedWithMessage() {
+        AccessChecker checker = new AccessChecker(Mockito.mock(ConfigAdapter.class));
+        ComponentDef def = definition(descriptor("ns", "target"), false);
+
+        Assert.assertFalse(checker.checkAccess(descriptor("other", "caller"), def));
+        String message = checker.getAccessMessage(descriptor("other", "caller"), def);
+        Assert.assertNotNull(message);
+        Assert.assertTrue(message, message.startsWith("Access to component 'ns:target'"));
+        Assert.assertTrue(message, message.contains("from namespace 'other'"));
+    }
+
+    @Test
+    public void testPrivateIsDeniedFromSameNamespace() {
+        AccessChecker checker = new AccessChecker(Mockito.mock(ConfigAdapter.class));
+        DefDescriptor<?> target = descriptor("ns", "target");
+        ComponentDef def = definition(target, true);
+
+        Assert.assertFalse(checker.checkAccess(descriptor("ns", "caller"), def));
+        Assert.assertTrue(checker.checkAccess(target, def));
+    }
+
+    @Test
+    public void testDefinitionIsClassifiedOnce() {
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        AccessChecker checker = new AccessChecker(configAdapter);
+        ComponentDef def = definition(descriptor("ns", "target"), false);
+
+        for (int i = 0; i < 10; i++) {
+            checker.checkAccess(descriptor("ns", "caller"), def);
+            checker.checkAccess(descriptor("other", "caller"), def);
+        }
+
+        Mockito.verify(def, Mockito.times(1)).getAccess();
+    }
+
+    @Test
+    public void testUnsecuredNamespaceChangeIsSeenForClassifiedDefinition() {
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        AccessChecker checker = new AccessChecker(configAdapter);
+        ComponentDef def = definition(descriptor("ns", "target"), false);
+        Assert.assertFalse(checker.checkAccess(descriptor("other", "caller"), def));
+
+        Mockito.doReturn(true).when(configAdapter).isUnsecuredNamespace("ns");
+        Assert.assertTrue(checker.checkAccess(descriptor("other", "caller"), def));
+
+        Mockito.doReturn(false).when(configAdapter).isUnsecuredNamespace("ns");
+        Assert.assertFalse(checker.checkAccess(descriptor("other", "caller"), def));
+    }
+}
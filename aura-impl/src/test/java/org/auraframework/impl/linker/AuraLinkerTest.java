@@ -72,7 +72,7 @@ public class AuraLinkerTest {
         MockDefDescriptor desc1 = new MockDefDescriptor("markup", "b", "b");
         MockDefDescriptor desc2 = new MockDefDescriptor("markup", "b", "B");
 
-        AuraLinker linker = new AuraLinker(desc1, null, null, null, null, null, null, registries, null, null);
+        AuraLinker linker = new AuraLinker(desc1, null, null, null, null, null, registries, null, null);
         LinkingDefinition<Definition> ld1 = linker.getLinkingDef(desc1);
         LinkingDefinition<Definition> ld2 = linker.getLinkingDef(desc2);
         Assert.assertSame("Definitions should be the same", ld1, ld2);
@@ -86,7 +86,7 @@ public class AuraLinkerTest {
         MockDefDescriptor desc2 = new MockDefDescriptor("markup", "a", "b");
         MockDefinition def2 = new MockDefinition(desc1);
 
-        AuraLinker linker = new AuraLinker(desc1, null, null, null, null, null, null, registries, null, null);
+        AuraLinker linker = new AuraLinker(desc1, null, null, null, null, null, registries, null, null);
 
         LinkingDefinition<Definition> ld = linker.getLinkingDef(desc1);
         ld.def = def1;
@@ -112,7 +112,7 @@ public class AuraLinkerTest {
         MockDefDescriptor desc2 = new MockDefDescriptor("markup", "a", "b");
         MockDefinition def2 = new MockDefinition(desc1);
 
-        AuraLinker linker = new AuraLinker(desc1, null, null, null, null, null, null, registries, null, null);
+        AuraLinker linker = new AuraLinker(desc1, null, null, null, null, null, registries, null, null);
 
         LinkingDefinition<Definition> ld = linker.getLinkingDef(desc1);
         ld.def = def1;
@@ -389,7 +389,7 @@ public class AuraLinkerTest {
         @SuppressWarnings("unchecked")
         Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache = Mockito.mock(Cache.class);
         return new AuraLinker(root.getDescriptor(), defsCache,
-                loggingService, configAdapter, accessChecker, localStore, null, registries, null, null);
+                loggingService, configAdapter, accessChecker, localStore, registries, null, null);
     }
 
     // This is here to allow tests to be run easily, it does a random set of dependencies and
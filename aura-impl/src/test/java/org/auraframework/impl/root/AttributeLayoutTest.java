@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.auraframework.def.AttributeDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.impl.system.DefDescriptorImpl;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class AttributeLayoutTest {
+
+    private static DefDescriptor<AttributeDef> descriptor(String name) {
+        return new DefDescriptorImpl<>(null, null, name, AttributeDef.class);
+    }
+
+    private static ComponentDef definition(String... names) throws Exception {
+        Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = new LinkedHashMap<>();
+        for (String name : names) {
+            attributeDefs.put(descriptor(name), Mockito.mock(AttributeDef.class));
+        }
+        ComponentDef def = Mockito.mock(ComponentDef.class);
+        Mockito.doReturn(attributeDefs).when(def).getAttributeDefs();
+        return def;
+    }
+
+    @Test
+    public void testSlotsFollowDefinitionOrder() throws Exception {
+        ComponentDef def = definition("body", "label", "value");
+        AttributeLayout layout = AttributeLayout.get(def);
+
+        Assert.assertEquals(3, layout.size());
+        Assert.assertEquals(0, layout.indexOf(descriptor("body")));
+        Assert.assertEquals(2, layout.indexOf(descriptor("value")));
+        Assert.assertEquals("label", layout.getDescriptor(1).getName());
+        Assert.assertSame(def.getAttributeDefs().get(descriptor("label")), layout.getAttributeDef(1));
+        Assert.assertEquals(-1, layout.indexOf(descriptor("missing")));
+        Assert.assertNull(layout.getAttributeDef(descriptor("missing")));
+    }
+
+    @Test
+    public void testNameLookupIgnoresCase() throws Exception {
+        AttributeLayout layout = AttributeLayout.get(definition("body", "label"));
+
+        Assert.assertEquals(1, layout.indexOf("label"));
+        Assert.assertEquals(1, layout.indexOf("LABEL"));
+        Assert.assertEquals(-1, layout.indexOf("missing"));
+    }
+
+    @Test
+    public void testLayoutIsComputedOncePerDefinition() throws Exception {
+        ComponentDef def = definition("body");
+
+        AttributeLayout layout = AttributeLayout.get(def);
+        Assert.assertSame(layout, AttributeLayout.get(def));
+        Mockito.verify(def, Mockito.times(1)).getAttributeDefs();
+        Assert.assertNotSame(layout, AttributeLayout.get(definition("body")));
+    }
+
+    @Test
+    public void testLayoutIsRebuiltWhenSuperDefinitionChanges() throws Exception {
+        DefDescriptor<ComponentDef> superDescriptor = new DefDescriptorImpl<>("markup", "test", "super",
+                ComponentDef.class);
+        ComponentDef superDef = definition("body");
+        ComponentDef child = Mockito.mock(ComponentDef.class);
+        Mockito.doReturn(superDescriptor).when(child).getExtendsDescriptor();
+        DefinitionService definitionService = Mockito.mock(DefinitionService.class);
+        Mockito.doReturn(superDef).when(definitionService).getDefinition(superDescriptor);
+        ContextService contextService = Mockito.mock(ContextService.class);
+        Mockito.doReturn(Mockito.mock(AuraContext.class)).when(contextService).getCurrentContext();
+        // the inherited attributes are resolved when asked for, like the real definitions do.
+        Mockito.doAnswer(invocation -> {
+            Map<DefDescriptor<AttributeDef>, AttributeDef> attributeDefs = new LinkedHashMap<>(
+                    definitionService.getDefinition(superDescriptor).getAttributeDefs());
+            attributeDefs.put(descriptor("value"), Mockito.mock(AttributeDef.class));
+            return attributeDefs;
+        }).when(child).getAttributeDefs();
+
+        AttributeLayout layout = AttributeLayout.get(child, definitionService, contextService);
+        Assert.assertEquals(2, layout.size());
+        Assert.assertSame(layout, AttributeLayout.get(child, definitionService, contextService));
+
+        // the super component changes, but the child definition instance is still the same.
+        Mockito.doReturn(definition("body", "label")).when(definitionService).getDefinition(superDescriptor);
+        Mockito.doReturn(Mockito.mock(AuraContext.class)).when(contextService).getCurrentContext();
+
+        AttributeLayout rebuilt = AttributeLayout.get(child, definitionService, contextService);
+        Assert.assertNotSame(layout, rebuilt);
+        Assert.assertEquals(3, rebuilt.size());
+        Assert.assertTrue(rebuilt.indexOf("label") >= 0);
+        Assert.assertSame(rebuilt, AttributeLayout.get(child, definitionService, contextService));
+    }
+
+    /**
+     * Requests running at the same time each have their own context, and must not undo each other's checks.
+     */
+    @Test
+    public void testParentsAreCheckedOncePerContextWhenContextsInterleave() throws Exception {
+        DefDescriptor<ComponentDef> superDescriptor = new DefDescriptorImpl<>("markup", "test", "super",
+                ComponentDef.class);
+        ComponentDef superDef = definition("body");
+        ComponentDef child = definition("body", "value");
+        Mockito.doReturn(superDescriptor).when(child).getExtendsDescriptor();
+        DefinitionService definitionService = Mockito.mock(DefinitionService.class);
+        Mockito.doReturn(superDef).when(definitionService).getDefinition(superDescriptor);
+        ContextService contextService = Mockito.mock(ContextService.class);
+        AuraContext first = Mockito.mock(AuraContext.class);
+        AuraContext second = Mockito.mock(AuraContext.class);
+
+        Mockito.doReturn(first).when(contextService).getCurrentContext();
+        AttributeLayout layout = AttributeLayout.get(child, definitionService, contextService);
+        Assert.assertSame(layout, AttributeLayout.get(child, definitionService, contextService));
+        Mockito.doReturn(second).when(contextService).getCurrentContext();
+        Assert.assertSame(layout, AttributeLayout.get(child, definitionService, contextService));
+        // one lookup to build the layout, and one check in each context
+        Mockito.verify(definitionService, Mockito.times(3)).getDefinition(superDescriptor);
+
+        Mockito.doReturn(first).when(contextService).getCurrentContext();
+        Assert.assertSame(layout, AttributeLayout.get(child, definitionService, contextService));
+        Mockito.doReturn(second).when(contextService).getCurrentContext();
+        Assert.assertSame(layout, AttributeLayout.get(child, definitionService, contextService));
+        Mockito.verify(definitionService, Mockito.times(3)).getDefinition(superDescriptor);
+    }
+}
@@ -18,6 +18,10 @@ package org.auraframework.impl.root.component;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -35,6 +39,7 @@ import org.auraframework.impl.root.component.JavascriptComponentClass;
 import org.auraframework.impl.util.AuraTestingUtil;
 import org.auraframework.service.CompilerService;
 import org.auraframework.system.Source;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -271,6 +276,100 @@ public class JavascriptComponentClassTest extends AuraImplTestCase {
         }
     }
 
+    /**
+     * Code that parses but fails the full compile builds, and the failure is reported when the class is validated.
+     * The failure is remembered, including on a serialized copy, and reported again without compiling again.
+     */
+    @Test
+    public void testValidateMinifiedCodeReportsCompileErrorsAfterBuild() throws Exception {
+        BaseJavascriptClass javascriptClass = buildClassFailingFullCompile();
+        String expectedMsg = String.format("JS Processing Error: %s", descriptor.getQualifiedName());
+
+        InvalidDefinitionException failure = null;
+        try {
+            javascriptClass.validateMinifiedCode();
+            fail("Expecting an InvalidDefinitionException.");
+        } catch (InvalidDefinitionException e) {
+            this.assertExceptionMessageContains(e, InvalidDefinitionException.class, expectedMsg);
+            failure = e;
+        }
+        try {
+            javascriptClass.getMinifiedCode();
+            fail("Expecting an AuraRuntimeException.");
+        } catch (AuraRuntimeException e) {
+            assertSame("The remembered failure should be reported", failure, e.getCause());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(javascriptClass);
+        }
+        BaseJavascriptClass copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (BaseJavascriptClass) in.readObject();
+        }
+        assertEquals(javascriptClass.getCode(), copy.getCode());
+        InvalidDefinitionException copyFailure = null;
+        try {
+            copy.validateMinifiedCode();
+            fail("Expecting an InvalidDefinitionException from the copy.");
+        } catch (InvalidDefinitionException e) {
+            this.assertExceptionMessageContains(e, InvalidDefinitionException.class, expectedMsg);
+            copyFailure = e;
+        }
+        try {
+            copy.validateMinifiedCode();
+            fail("Expecting an InvalidDefinitionException from the copy.");
+        } catch (InvalidDefinitionException e) {
+            assertSame("The copy should report the failure it was written with", copyFailure, e);
+        }
+    }
+
+    /**
+     * A class built while a batch is open is checked when the batch finishes rather than when it is validated.
+     */
+    @Test
+    public void testFinishBatchReportsCompileErrors() throws Exception {
+        BaseJavascriptClass javascriptClass;
+        BaseJavascriptClass.startBatch();
+        try {
+            javascriptClass = buildClassFailingFullCompile();
+            javascriptClass.validateMinifiedCode();
+        } catch (Throwable t) {
+            BaseJavascriptClass.finishBatch();
+            throw t;
+        }
+
+        InvalidDefinitionException failure = null;
+        try {
+            BaseJavascriptClass.finishBatch();
+            fail("Expecting an InvalidDefinitionException.");
+        } catch (InvalidDefinitionException e) {
+            String expectedMsg = String.format("JS Processing Error: %s", descriptor.getQualifiedName());
+            this.assertExceptionMessageContains(e, InvalidDefinitionException.class, expectedMsg);
+            failure = e;
+        }
+        try {
+            javascriptClass.validateMinifiedCode();
+            fail("Expecting an InvalidDefinitionException.");
+        } catch (InvalidDefinitionException e) {
+            assertSame("The failure from the batch should be remembered", failure, e);
+        }
+    }
+
+    private BaseJavascriptClass buildClassFailingFullCompile() throws Exception {
+        String helperCode =
+                "{\n" +
+                "    function1: function(a) { a == 1; }\n" +
+                "}\n";
+        return new JavascriptComponentClass.Builder()
+                .setDescriptor(descriptor)
+                .setExtendsDescriptor(rootDescriptor)
+                .setHelperCode(helperCode)
+                .setMinify(true)
+                .build();
+    }
+
     @Test
     public void testBuildNotValidateJSCodeWhenBuiderWithFalseMinify() throws Exception {
         String helperCode =
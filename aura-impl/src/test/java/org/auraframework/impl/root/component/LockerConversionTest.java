@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.root.component;
+
+import org.auraframework.util.AuraTextUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LockerConversionTest {
+
+    private static String lockerized(String descriptor, String body) {
+        return "$A.componentService.addComponentClass(\"" + descriptor + "\",function() {\n"
+                + "  var def = $A.componentService.getDef(\"" + descriptor + "\");"
+                + "  return $A.lockerService.createForDef(\n\"" + AuraTextUtil.escapeForJavascriptString(body)
+                + "\", def);\n});\n";
+    }
+
+    @Test
+    public void testConvertsComponentClass() {
+        String body = "return {\"meta\":{\"name\":\"test$cmp\"}};\n";
+        Assert.assertEquals(lockerized("markup://test:cmp", body), BaseComponentDefImpl.convertToLocker(
+                "$A.componentService.addComponentClass(\"markup://test:cmp\",function() {\n\n" + body + "});\n"));
+        Assert.assertEquals(lockerized("markup://test:cmp", body), BaseComponentDefImpl.convertToLocker(
+                "$a.COMPONENTSERVICE.addComponentClass(\"markup://test:cmp\", \tFunction ( ) {" + body + "});  \n"));
+    }
+
+    @Test
+    public void testBodyEndsAtLastClose() {
+        String body = "helper: function() { return function() {}; }});\n";
+        Assert.assertEquals(lockerized("markup://test:cmp", body), BaseComponentDefImpl.convertToLocker(
+                "$A.componentService.addComponentClass(\"markup://test:cmp\", function() {" + body + "});"));
+    }
+
+    @Test
+    public void testUnexpectedFormIsNotConverted() {
+        Assert.assertNull(BaseComponentDefImpl.convertToLocker("var x = 1;"));
+        Assert.assertNull(BaseComponentDefImpl.convertToLocker(
+                "$A.componentService.addComponentClass(\"markup://test:cmp\" , function() {});"));
+        Assert.assertNull(BaseComponentDefImpl.convertToLocker(
+                "$A.componentService.addComponentClass(\"markup://test:cmp\", function(cmp) {});"));
+        Assert.assertNull(BaseComponentDefImpl.convertToLocker(
+                "$A.componentService.addComponentClass(\"markup://test:cmp\", function() {});x"));
+        Assert.assertNull(BaseComponentDefImpl.convertToLocker("$A.componentService.addComponentClass(\"markup"));
+        Assert.assertEquals(" ", BaseComponentDefImpl.convertToLocker(" "));
+        Assert.assertNull(BaseComponentDefImpl.convertToLocker(null));
+    }
+
+    @Test
+    public void testConvertsLargeComponentClass() {
+        StringBuilder body = new StringBuilder();
+        while (body.length() < 1 << 20) {
+            body.append("    helper: { run: function(cmp) { var x = \"});\"; return x; } },\n");
+        }
+        Assert.assertEquals(lockerized("markup://test:big", body.toString()), BaseComponentDefImpl.convertToLocker(
+                "$A.componentService.addComponentClass(\"markup://test:big\", function() {\n" + body + "});\n"));
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.cache.Cache;
@@ -38,8 +39,10 @@ import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.DefinitionServiceImpl;
+import org.auraframework.impl.cache.CacheImpl;
 import org.auraframework.impl.context.AuraContextImpl;
 import org.auraframework.impl.controller.AuraGlobalControllerDefRegistry;
+import org.auraframework.impl.system.CompilingDefRegistry;
 import org.auraframework.impl.util.mock.MockDefinition;
 import org.auraframework.impl.util.mock.MockRegistrySet;
 import org.auraframework.instance.AuraValueProviderType;
@@ -58,6 +61,7 @@ import org.auraframework.system.DefRegistry;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.system.Source;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.junit.Assert;
 import org.junit.Before;
@@ -867,4 +871,110 @@ public class DefinitionServiceImplUnitTest {
         Assert.assertEquals(2, arguments.size());
         Assert.assertFalse("Local stores should be different", arguments.get(0).equals(arguments.get(1)));
     }
+
+    /**
+     * Set up a compiling registry with one component in each of the given namespaces.
+     *
+     * Each definition records the registries of the context it is validated in.
+     */
+    private MockRegistrySet setupWarmingRegistries(Set<RegistrySet> validatedIn, String... namespaces)
+            throws Exception {
+        MockRegistrySet warmingRegistries = new MockRegistrySet();
+        DefRegistry registry = Mockito.mock(CompilingDefRegistry.class);
+        List<DefDescriptor<?>> descriptors = new ArrayList<>();
+        for (String namespace : namespaces) {
+            @SuppressWarnings("unchecked")
+            DefDescriptor<Definition> descriptor = Mockito.mock(DefDescriptor.class);
+            Mockito.when(descriptor.getDefType()).thenReturn(DefType.COMPONENT);
+            Mockito.when(descriptor.getPrefix()).thenReturn("markup");
+            Mockito.when(descriptor.getNamespace()).thenReturn(namespace);
+            Mockito.when(descriptor.getName()).thenReturn("cmp");
+            Mockito.when(descriptor.getQualifiedName()).thenReturn("markup://"+namespace+":cmp");
+            Definition definition = Mockito.spy(new MockDefinition(descriptor));
+            Mockito.doAnswer(invocation -> {
+                validatedIn.add(contextService.getCurrentContext().getRegistries());
+                return invocation.callRealMethod();
+            }).when(definition).validateDefinition();
+            warmingRegistries.setupRegistryFor(descriptor, registry, definition);
+            descriptors.add(descriptor);
+        }
+        Mockito.when(registry.getNamespaces()).thenReturn(Sets.newHashSet(namespaces));
+        Mockito.when(registry.find(Matchers.any())).thenAnswer(invocation -> {
+            DescriptorFilter filter = (DescriptorFilter) invocation.getArguments()[0];
+            Set<DefDescriptor<?>> found = new HashSet<>();
+            for (DefDescriptor<?> descriptor : descriptors) {
+                if (filter.matchNamespace(descriptor.getNamespace()) && filter.matchType(descriptor.getDefType())) {
+                    found.add(descriptor);
+                }
+            }
+            return found;
+        });
+        Mockito.when(configAdapter.isCacheable(Matchers.any(), Matchers.any())).thenReturn(true);
+        return warmingRegistries;
+    }
+
+    private Set<DefDescriptor<?>> warmCaches(int threadCount, Set<RegistrySet> validatedIn) throws Exception {
+        return warmCaches(threadCount, validatedIn, registries -> {});
+    }
+
+    private Set<DefDescriptor<?>> warmCaches(int threadCount, Set<RegistrySet> validatedIn,
+            Consumer<RegistrySet> setup) throws Exception {
+        DefinitionService definitionService = createDefinitionServiceWithMocks();
+        Cache<DefDescriptor<?>, Optional<? extends Definition>> cache =
+                new CacheImpl.Builder<DefDescriptor<?>, Optional<? extends Definition>>().setName("defs").build();
+        Mockito.doReturn(cache).when(cachingService).getDefsCache();
+        RegistrySet warmingRegistries = setupWarmingRegistries(validatedIn, "ns1", "ns2", "ns3", "ns4");
+        setup.accept(warmingRegistries);
+
+        AuraContext context = new AuraContextImpl(Mode.PROD, warmingRegistries, null, Format.JSON,
+                Authentication.AUTHENTICATED, null, Collections.emptyMap(), configAdapter, definitionService, null);
+        ThreadLocal<AuraContext> current = new ThreadLocal<>();
+        Mockito.when(contextService.getCurrentContext()).thenAnswer(
+                invocation -> current.get() != null ? current.get() : context);
+        Mockito.when(contextService.startContext(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
+                Matchers.any())).thenAnswer(invocation -> {
+                    // workers start out on the default registries, like a real context service.
+                    AuraContext fork = new AuraContextImpl(Mode.PROD, new MockRegistrySet(), null, Format.JSON,
+                            Authentication.AUTHENTICATED, null, Collections.emptyMap(), configAdapter,
+                            definitionService, null);
+                    current.set(fork);
+                    return fork;
+                });
+        Mockito.doAnswer(invocation -> {
+            current.remove();
+            return null;
+        }).when(contextService).endContext();
+
+        definitionService.warmCaches(threadCount);
+        Assert.assertEquals(Collections.singleton(warmingRegistries), validatedIn);
+        return new HashSet<>(cache.getKeySet());
+    }
+
+    @Test
+    public void testWarmCachesInParallelMatchesSerialWarming() throws Exception {
+        Set<DefDescriptor<?>> serial = warmCaches(1, Sets.newConcurrentHashSet());
+        Assert.assertEquals(4, serial.size());
+
+        Set<DefDescriptor<?>> parallel = warmCaches(3, Sets.newConcurrentHashSet());
+        Assert.assertEquals(serial.size(), parallel.size());
+        for (DefDescriptor<?> descriptor : serial) {
+            Assert.assertTrue("Missing " + descriptor, parallel.stream()
+                    .anyMatch(warmed -> warmed.getQualifiedName().equals(descriptor.getQualifiedName())));
+        }
+    }
+
+    @Test
+    public void testWarmCachesInParallelReportsWorkerFailures() throws Exception {
+        RuntimeException failure = new RuntimeException("find failed");
+        try {
+            warmCaches(3, Sets.newConcurrentHashSet(), registries -> {
+                for (DefRegistry registry : registries.getAllRegistries()) {
+                    Mockito.doThrow(failure).when(registry).find(Matchers.any());
+                }
+            });
+            Assert.fail("Expected the worker failure to be reported");
+        } catch (AuraRuntimeException expected) {
+            Assert.assertSame(failure, expected.getCause());
+        }
+    }
 }
@@ -834,4 +834,76 @@ public class FileBundleSourceLoaderTest {
         descriptors = loader.find(new DescriptorFilter("markup://test:*"));
         assertEquals(1, descriptors.size());
     }
+
+    @Test
+    public void testResetBundle_WithFileAdditions() throws Exception {
+        List<FileSourceLocation> sources = new ArrayList<>();
+        sources.add(getComponentLocation());
+
+        File components = sources.get(0).getSourceDirectory();
+        makeFile(components, "test", "component1", ".cmp", "<aura:component/>");
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(sources, Sets.newHashSet(new ComponentDefFileBundleBuilder()));
+        assertEquals(1, loader.find(new DescriptorFilter("markup://test:*")).size());
+
+        File added = makeFile(components, "test", "component2", ".cmp", "<aura:component/>");
+        assertEquals("test:component2", loader.resetBundle(added.getPath()));
+
+        Set<DefDescriptor<?>> descriptors = loader.find(new DescriptorFilter("markup://test:*"));
+        assertEquals(2, descriptors.size());
+    }
+
+    @Test
+    public void testResetBundle_WithFileDeletions() throws Exception {
+        List<FileSourceLocation> sources = new ArrayList<>();
+        sources.add(getComponentLocation());
+
+        File components = sources.get(0).getSourceDirectory();
+        makeFile(components, "test", "component1", ".cmp", "<aura:component/>");
+        File fileToDelete = makeFile(components, "test", "component2", ".cmp", "<aura:component/>");
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(sources, Sets.newHashSet(new ComponentDefFileBundleBuilder()));
+        assertEquals(2, loader.find(new DescriptorFilter("markup://test:*")).size());
+
+        fileToDelete.delete();
+        fileToDelete.getParentFile().delete();
+        assertEquals("test:component2", loader.resetBundle(fileToDelete.getPath()));
+
+        Set<DefDescriptor<?>> descriptors = loader.find(new DescriptorFilter("markup://test:*"));
+        assertEquals(1, descriptors.size());
+    }
+
+    @Test
+    public void testResetBundle_WithFileChanges() throws Exception {
+        List<FileSourceLocation> sources = new ArrayList<>();
+        sources.add(getComponentLocation());
+
+        File components = sources.get(0).getSourceDirectory();
+        makeFile(components, "test", "component", ".cmp", "<aura:component>a</aura:component>");
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(sources, Sets.newHashSet(new ComponentDefFileBundleBuilder()));
+        DefDescriptor<?> descriptor = new DefDescriptorImpl<>("markup", "test", "component", ComponentDef.class);
+        BundleSource<?> before = loader.getBundle(descriptor);
+
+        File added = makeFile(components, "test", "component", ".auradoc", "<aura:documentation/>");
+        assertEquals("test:component", loader.resetBundle(added.getPath()));
+
+        BundleSource<?> after = loader.getBundle(descriptor);
+        assertTrue("bundle source should be rebuilt", before != after);
+        assertEquals(before.getBundledParts().size() + 1, after.getBundledParts().size());
+    }
+
+    @Test
+    public void testResetBundle_OutsideKnownBundles_ReturnsNull() throws Exception {
+        List<FileSourceLocation> sources = new ArrayList<>();
+        sources.add(getComponentLocation());
+
+        File components = sources.get(0).getSourceDirectory();
+        makeFile(components, "test", "component", ".cmp", "<aura:component/>");
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(sources, Sets.newHashSet(new ComponentDefFileBundleBuilder()));
+
+        File newNamespace = makeFile(components, "newNamespace", "component", ".cmp", "<aura:component/>");
+        assertNull(loader.resetBundle(newNamespace.getPath()));
+        assertNull(loader.resetBundle(new File(components, "test").getPath()));
+        assertNull(loader.resetBundle(new File(IOUtil.newTempDir(getClass().getSimpleName()), "test/component/component.cmp").getPath()));
+        assertNull(loader.resetBundle(null));
+        assertEquals(1, loader.find(new DescriptorFilter("markup://*:*")).size());
+    }
 }
@@ -15,19 +15,33 @@
  */
 package org.auraframework.impl.source.file;
 
+import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.LoggingService;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
+import org.auraframework.util.FileChangeEvent;
 import org.auraframework.util.FileListener;
 import org.auraframework.util.IOUtil;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.*;
+import org.powermock.reflect.Whitebox;
 
 import test.org.auraframework.impl.adapter.MockConfigAdapterImpl;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * This class tests the FileMonitorImpl class... but it cheats, it relies on the base classes that do a bunch of spring setup for us.
@@ -99,4 +113,81 @@ public class FileMonitorTest extends AuraImplTestCase {
 
         Mockito.verify(listenerMock, Mockito.never()).fileChanged(Matchers.anyObject());
     }
+
+    @Test
+    public void testOverflowDrainsSignaledKeysBeforeSingleRescan() throws Exception {
+        Path dir = Paths.get(IOUtil.newTempDir("testOverflowDrainsSignaledKeysBeforeSingleRescan"));
+        FileListener listenerMock = Mockito.mock(FileListener.class);
+        CachingService cachingServiceMock = Mockito.mock(CachingService.class);
+        WatchService watchServiceMock = Mockito.mock(WatchService.class);
+        WatchKey firstOverflow = mockWatchKey(StandardWatchEventKinds.OVERFLOW, null);
+        WatchKey secondOverflow = mockWatchKey(StandardWatchEventKinds.OVERFLOW, null);
+        WatchKey modified = mockWatchKey(StandardWatchEventKinds.ENTRY_MODIFY, Paths.get("sample.txt"));
+
+        FileMonitorImpl monitor = new FileMonitorImpl(listenerMock);
+        Whitebox.setInternalState(monitor, "cachingService", cachingServiceMock);
+        Whitebox.setInternalState(monitor, "loggingService", Mockito.mock(LoggingService.class));
+        Whitebox.setInternalState(monitor, "watchService", watchServiceMock);
+        Map<WatchKey, Path> monitoredKeys = Whitebox.getInternalState(monitor, "monitoredKeys");
+        monitoredKeys.put(firstOverflow, dir);
+        monitoredKeys.put(secondOverflow, dir);
+        monitoredKeys.put(modified, dir);
+
+        Mockito.when(watchServiceMock.take()).thenReturn(firstOverflow).thenThrow(new InterruptedException());
+        Mockito.when(watchServiceMock.poll()).thenReturn(secondOverflow, modified, null);
+
+        monitor.run();
+
+        // the keys already signaled are drained without blocking, then sources are rescanned once
+        InOrder inOrder = Mockito.inOrder(watchServiceMock, cachingServiceMock);
+        inOrder.verify(watchServiceMock).take();
+        inOrder.verify(watchServiceMock, Mockito.times(3)).poll();
+        inOrder.verify(cachingServiceMock).notifyDependentSourceChange(Matchers.any(),
+                Matchers.eq(SourceMonitorEvent.CHANGED), (String) Matchers.isNull());
+        inOrder.verify(watchServiceMock).take();
+        Mockito.verifyNoMoreInteractions(cachingServiceMock);
+
+        // the modification is covered by the rescan, so it is not signaled on its own
+        Mockito.verifyZeroInteractions(listenerMock);
+        Mockito.verify(modified).reset();
+    }
+
+    @Test
+    public void testCreatedDirectoryIsSignaled() throws Exception {
+        Path dir = Paths.get(IOUtil.newTempDir("testCreatedDirectoryIsSignaled"));
+        FileListener listenerMock = Mockito.mock(FileListener.class);
+
+        ConfigAdapter configAdapterMock = Mockito.mock(ConfigAdapter.class);
+        Mockito.when(configAdapterMock.isFileMonitorEnabled()).thenReturn(true);
+
+        FileMonitorImpl monitor = new FileMonitorImpl(listenerMock);
+        Whitebox.setInternalState(monitor, "configAdapter", configAdapterMock);
+        Whitebox.setInternalState(monitor, "loggingService", Mockito.mock(LoggingService.class));
+        monitor.addDirectory(dir.toString(), null);
+        Thread thread = Whitebox.getInternalState(monitor, "watchServiceThread");
+        try {
+            // files written before the new directory is watched are only picked up through the directory signal
+            getAuraTestingUtil().makeFile(dir.toFile(), "created", ".txt", "sample file");
+
+            ArgumentCaptor<FileChangeEvent> events = ArgumentCaptor.forClass(FileChangeEvent.class);
+            Mockito.verify(listenerMock, Mockito.timeout(10000).atLeastOnce()).fileCreated(events.capture());
+            assertTrue("Expected a signal for the created directory",
+                    events.getAllValues().stream().map(FileChangeEvent::getPath).collect(Collectors.toList())
+                            .contains(dir.resolve("created")));
+        } finally {
+            thread.interrupt();
+            thread.join(10000);
+            ((WatchService) Whitebox.getInternalState(monitor, "watchService")).close();
+        }
+    }
+
+    private static WatchKey mockWatchKey(WatchEvent.Kind<?> kind, Path context) {
+        WatchEvent<?> event = Mockito.mock(WatchEvent.class);
+        Mockito.doReturn(kind).when(event).kind();
+        Mockito.doReturn(context).when(event).context();
+        WatchKey key = Mockito.mock(WatchKey.class);
+        Mockito.doReturn(Collections.singletonList(event)).when(key).pollEvents();
+        Mockito.when(key.reset()).thenReturn(true);
+        return key;
+    }
 }
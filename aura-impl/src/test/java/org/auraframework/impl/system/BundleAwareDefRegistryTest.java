@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.def.BundleDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.service.CompilerService;
+import org.auraframework.system.BundleSource;
+import org.auraframework.system.CompileOptions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+public class BundleAwareDefRegistryTest {
+    private FakeBundleSourceLoader sourceLoader;
+    private CompilerService compilerService;
+
+    /** The targets of the compiled definitions, by bundle name. */
+    private final Map<String, Set<String>> targets = Maps.newHashMap();
+
+    @Before
+    public void setUp() throws Exception {
+        sourceLoader = new FakeBundleSourceLoader();
+        compilerService = Mockito.mock(CompilerService.class);
+        Mockito.when(compilerService.compile(Matchers.<DefDescriptor<BundleDef>>any(),
+                Matchers.<BundleSource<BundleDef>>any(), Matchers.any(CompileOptions.class))).then(invocation -> {
+                    DefDescriptor<?> descriptor = (DefDescriptor<?>)invocation.getArguments()[0];
+                    ComponentDef def = Mockito.mock(ComponentDef.class);
+                    Mockito.when(def.getTargets()).thenReturn(targets.get(descriptor.getDescriptorName()));
+                    return def;
+                });
+    }
+
+    private String putComponent(String bundleName, String target) {
+        targets.put(bundleName, ImmutableSet.of(target));
+        return sourceLoader.putComponent(bundleName, target);
+    }
+
+    private BundleAwareDefRegistry getRegistry() {
+        return new BundleAwareDefRegistry(sourceLoader, ImmutableSet.of("markup"), EnumSet.of(DefType.COMPONENT),
+                compilerService, true);
+    }
+
+    private static DefDescriptor<ComponentDef> component(String name) {
+        return new DefDescriptorImpl<>("markup", "test", name, ComponentDef.class);
+    }
+
+    @Test
+    public void testModifiedBundleIsReplacedWithoutFullReset() throws Exception {
+        putComponent("test:first", "test:ifc");
+        String path = putComponent("test:second", "test:other");
+        BundleAwareDefRegistry registry = getRegistry();
+        ComponentDef first = registry.getDef(component("first"));
+        ComponentDef second = registry.getDef(component("second"));
+
+        putComponent("test:second", "test:ifc");
+        registry.reset(path);
+
+        assertEquals(1, sourceLoader.resets);
+        assertEquals(1, sourceLoader.bundleResets);
+        assertTrue("Unchanged bundle should keep its definition", first == registry.getDef(component("first")));
+        assertFalse("Changed bundle should be compiled again", second == registry.getDef(component("second")));
+    }
+
+    @Test
+    public void testAddedAndDeletedBundles() throws Exception {
+        putComponent("test:first", "test:ifc");
+        BundleAwareDefRegistry registry = getRegistry();
+
+        registry.reset(putComponent("test:added", "test:ifc"));
+        assertNotNull(registry.getDef(component("added")));
+        assertEquals(ImmutableSet.of(component("first"), component("added")),
+                registry.find(new DescriptorFilter("markup://test:*", DefType.COMPONENT)));
+
+        registry.reset(sourceLoader.remove("test:first"));
+        assertNull(registry.getDef(component("first")));
+        assertFalse(registry.exists(component("first")));
+        assertEquals(ImmutableSet.of(component("added")),
+                registry.find(new DescriptorFilter("markup://test:*", DefType.COMPONENT)));
+        assertEquals(1, sourceLoader.resets);
+    }
+
+    @Test
+    public void testSingleBundleResetUpdatesTargetIndex() throws Exception {
+        putComponent("test:first", "test:ifc");
+        String second = putComponent("test:second", "test:other");
+        String third = putComponent("test:third", "test:ifc");
+        BundleAwareDefRegistry registry = getRegistry();
+        assertEquals(ImmutableSet.of(component("first"), component("third")),
+                registry.findByTags(ImmutableSet.of("test:ifc")));
+
+        // a changed target, a deleted bundle and an added bundle are all seen by the next search
+        putComponent("test:second", "test:ifc");
+        registry.reset(second);
+        registry.reset(sourceLoader.remove("test:third"));
+        registry.reset(putComponent("test:fourth", "test:ifc"));
+
+        assertEquals(ImmutableSet.of(component("first"), component("second"), component("fourth")),
+                registry.findByTags(ImmutableSet.of("test:ifc")));
+        assertEquals(ImmutableSet.of(), registry.findByTags(ImmutableSet.of("test:other")));
+        assertEquals(1, sourceLoader.resets);
+        // only the changed bundles are compiled again
+        Mockito.verify(compilerService, Mockito.times(1)).compile(Matchers.eq(component("first")),
+                Matchers.any(), Matchers.any());
+        Mockito.verify(compilerService, Mockito.times(1)).compile(Matchers.eq(component("second")),
+                Matchers.any(), Matchers.any());
+    }
+
+    @Test
+    public void testUnknownPathIsFullReset() throws Exception {
+        putComponent("test:first", "test:ifc");
+        BundleAwareDefRegistry registry = getRegistry();
+        ComponentDef first = registry.getDef(component("first"));
+
+        registry.reset("unknown");
+        assertEquals(2, sourceLoader.resets);
+        assertFalse("Definitions should be compiled again", first == registry.getDef(component("first")));
+
+        registry.reset(null);
+        assertEquals(3, sourceLoader.resets);
+        assertEquals(0, sourceLoader.bundleResets);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.auraframework.def.BundleDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.module.ModuleDef;
+import org.auraframework.impl.source.BundleSourceImpl;
+import org.auraframework.impl.source.StringSource;
+import org.auraframework.system.BundleSource;
+import org.auraframework.system.Parser.Format;
+import org.auraframework.system.Source;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+public class BundleTargetIndexTest {
+    private static class CountingSource<D extends BundleDef> extends StringSource<D> {
+        private final long lastModified;
+        private int reads;
+
+        public CountingSource(DefDescriptor<D> descriptor, String contents, long lastModified) {
+            super(descriptor, contents, descriptor.getQualifiedName(), Format.XML);
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getContents() {
+            reads++;
+            return super.getContents();
+        }
+
+        @Override
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private static <D extends BundleDef> BundleSource<D> bundle(DefDescriptor<D> descriptor, Source<?>... parts) {
+        Map<DefDescriptor<?>, Source<?>> bundleParts = Maps.newHashMap();
+        for (Source<?> part : parts) {
+            bundleParts.put(part.getDescriptor(), part);
+        }
+        return new BundleSourceImpl<>(descriptor, bundleParts);
+    }
+
+    private static DefDescriptor<ComponentDef> component(String name) {
+        return new DefDescriptorImpl<>("markup", "test", name, ComponentDef.class);
+    }
+
+    private static CountingSource<ComponentDef> markup(DefDescriptor<ComponentDef> descriptor, String implementsNames,
+            long lastModified) {
+        return new CountingSource<>(descriptor,
+                String.format("<aura:component implements=\"%s\">&nbsp;</aura:component>", implementsNames),
+                lastModified);
+    }
+
+    @Test
+    public void testComponentTargetsFromImplements() {
+        BundleTargetIndex index = new BundleTargetIndex();
+        DefDescriptor<ComponentDef> cmp = component("cmp");
+        index.update("test:cmp", bundle(cmp, markup(cmp, "force:appHostable, c:local", 1)));
+
+        assertEquals(ImmutableSet.of(cmp), index.findCandidates(ImmutableSet.of("force:appHostable")));
+        assertEquals(ImmutableSet.of(cmp), index.findCandidates(ImmutableSet.of("markup://force:APPHOSTABLE")));
+        assertEquals(ImmutableSet.of(cmp), index.findCandidates(ImmutableSet.of("test:local")));
+        assertEquals(ImmutableSet.of(), index.findCandidates(ImmutableSet.of("force:other")));
+    }
+
+    @Test
+    public void testModuleTargetsFromMetadata() {
+        BundleTargetIndex index = new BundleTargetIndex();
+        DefDescriptor<ModuleDef> module = new DefDescriptorImpl<>("markup", "test", "module", ModuleDef.class);
+        DefDescriptor<ModuleDef> meta = new DefDescriptorImpl<>(ModuleDef.META_PREFIX, "test",
+                "module-" + ModuleDef.META_XML_NAME, ModuleDef.class, module);
+        index.update("test:module", bundle(module, new CountingSource<>(meta,
+                "<LightningComponentBundle xmlns=\"http://soap.sforce.com/2006/04/metadata\">"
+                + "<targets><target> lightning__AppPage </target></targets></LightningComponentBundle>", 1)));
+        DefDescriptor<ModuleDef> bare = new DefDescriptorImpl<>("markup", "test", "bare", ModuleDef.class);
+        index.update("test:bare", bundle(bare));
+
+        assertEquals(ImmutableSet.of(module), index.findCandidates(ImmutableSet.of("lightning__AppPage")));
+        assertEquals(ImmutableSet.of(), index.findCandidates(ImmutableSet.of("lightning__RecordPage")));
+    }
+
+    @Test
+    public void testUnchangedBundleIsNotReadAgain() {
+        BundleTargetIndex index = new BundleTargetIndex();
+        DefDescriptor<ComponentDef> cmp = component("cmp");
+        CountingSource<ComponentDef> source = markup(cmp, "test:first", 1);
+        index.update("test:cmp", bundle(cmp, source));
+        index.update("test:cmp", bundle(cmp, source));
+        assertEquals(1, source.reads);
+
+        index.update("test:cmp", bundle(cmp, markup(cmp, "test:second", 2)));
+        assertEquals(ImmutableSet.of(), index.findCandidates(ImmutableSet.of("test:first")));
+        assertEquals(ImmutableSet.of(cmp), index.findCandidates(ImmutableSet.of("test:second")));
+    }
+
+    @Test
+    public void testRemovedBundlesAreNotCandidates() {
+        BundleTargetIndex index = new BundleTargetIndex();
+        DefDescriptor<ComponentDef> first = component("first");
+        DefDescriptor<ComponentDef> second = component("second");
+        index.update("test:first", bundle(first, markup(first, "test:ifc", 1)));
+        index.update("test:second", bundle(second, markup(second, "test:ifc", 1)));
+        assertEquals(ImmutableSet.of(first, second), index.findCandidates(ImmutableSet.of("test:ifc")));
+
+        index.update("test:first", null);
+        assertEquals(ImmutableSet.of(second), index.findCandidates(ImmutableSet.of("test:ifc")));
+
+        index.retainAll(ImmutableSet.of("test:first"));
+        assertEquals(ImmutableSet.of(), index.findCandidates(ImmutableSet.of("test:ifc")));
+    }
+
+    @Test
+    public void testUnreadableBundleIsAlwaysCandidate() {
+        BundleTargetIndex index = new BundleTargetIndex();
+        DefDescriptor<ComponentDef> broken = component("broken");
+        index.update("test:broken", bundle(broken, new CountingSource<>(broken, "not xml", 1)));
+        DefDescriptor<ComponentDef> empty = component("empty");
+        index.update("test:empty", bundle(empty));
+
+        assertEquals(ImmutableSet.of(broken, empty), index.findCandidates(ImmutableSet.of("test:anything")));
+    }
+}
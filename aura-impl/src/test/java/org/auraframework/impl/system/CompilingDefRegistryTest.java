@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.service.CompilerService;
+import org.auraframework.system.SourceLoader;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableSet;
+
+public class CompilingDefRegistryTest {
+    private FakeBundleSourceLoader sourceLoader;
+    private CompilerService compilerService;
+
+    @Before
+    public void setUp() throws Exception {
+        sourceLoader = new FakeBundleSourceLoader();
+        compilerService = Mockito.mock(CompilerService.class);
+        Mockito.when(compilerService.compile(Matchers.any(SourceLoader.class),
+                Matchers.<DefDescriptor<ComponentDef>>any())).then(invocation -> Mockito.mock(ComponentDef.class));
+    }
+
+    private CompilingDefRegistry getRegistry() {
+        return new CompilingDefRegistry(sourceLoader, ImmutableSet.of("markup"), EnumSet.of(DefType.COMPONENT),
+                compilerService);
+    }
+
+    private static DefDescriptor<ComponentDef> component(String name) {
+        return new DefDescriptorImpl<>("markup", "test", name, ComponentDef.class);
+    }
+
+    @Test
+    public void testModifiedBundleIsReplacedWithoutFullReset() throws Exception {
+        sourceLoader.putComponent("test:first", "test:ifc");
+        String path = sourceLoader.putComponent("test:second", "test:ifc");
+        CompilingDefRegistry registry = getRegistry();
+        ComponentDef first = registry.getDef(component("first"));
+        ComponentDef second = registry.getDef(component("second"));
+
+        sourceLoader.putComponent("test:second", "test:other");
+        registry.reset(path);
+
+        assertEquals(1, sourceLoader.resets);
+        assertEquals(1, sourceLoader.bundleResets);
+        assertTrue("Unchanged bundle should keep its definition", first == registry.getDef(component("first")));
+        assertFalse("Changed bundle should be compiled again", second == registry.getDef(component("second")));
+    }
+
+    @Test
+    public void testAddedAndDeletedBundles() throws Exception {
+        sourceLoader.putComponent("test:first", "test:ifc");
+        CompilingDefRegistry registry = getRegistry();
+
+        registry.reset(sourceLoader.putComponent("test:added", "test:ifc"));
+        assertNotNull(registry.getDef(component("added")));
+        assertEquals(ImmutableSet.of(component("first"), component("added")),
+                registry.find(new DescriptorFilter("markup://test:*")));
+
+        registry.reset(sourceLoader.remove("test:first"));
+        assertNull(registry.getDef(component("first")));
+        assertFalse(registry.exists(component("first")));
+        assertEquals(ImmutableSet.of(component("added")), registry.find(new DescriptorFilter("markup://test:*")));
+        assertEquals(1, sourceLoader.resets);
+    }
+
+    @Test
+    public void testUnknownPathIsFullReset() throws Exception {
+        sourceLoader.putComponent("test:first", "test:ifc");
+        CompilingDefRegistry registry = getRegistry();
+        ComponentDef first = registry.getDef(component("first"));
+
+        registry.reset("unknown");
+        assertEquals(2, sourceLoader.resets);
+        assertFalse("Definitions should be compiled again", first == registry.getDef(component("first")));
+
+        registry.reset(null);
+        assertEquals(3, sourceLoader.resets);
+        assertEquals(0, sourceLoader.bundleResets);
+    }
+
+    @Test
+    public void testLoaderWithoutBundlesIsFullReset() throws Exception {
+        SourceLoader plainLoader = Mockito.mock(SourceLoader.class);
+        CompilingDefRegistry registry = new CompilingDefRegistry(plainLoader, ImmutableSet.of("markup"),
+                EnumSet.of(DefType.COMPONENT), compilerService);
+
+        registry.reset(FakeBundleSourceLoader.getPath("test:first"));
+        Mockito.verify(plainLoader, Mockito.times(2)).reset();
+    }
+}
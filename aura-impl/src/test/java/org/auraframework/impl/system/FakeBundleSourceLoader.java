@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.system;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnull;
+
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.source.BundleSourceImpl;
+import org.auraframework.impl.source.StringSource;
+import org.auraframework.system.BundleSource;
+import org.auraframework.system.BundleSourceLoader;
+import org.auraframework.system.Parser.Format;
+import org.auraframework.system.Source;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * An in memory bundle source loader, with component bundles laid out as namespace/name/name.cmp.
+ *
+ * Changes made with {@link #putComponent(String, String)} and {@link #remove(String)} are seen immediately, as if
+ * the loader had been reset. The resets requested by registries are counted.
+ */
+class FakeBundleSourceLoader implements BundleSourceLoader {
+    private final Map<String, BundleSource<?>> bundles = new TreeMap<>();
+    private long lastModified = 0;
+    int resets = 0;
+    int bundleResets = 0;
+
+    /**
+     * Add or replace a component bundle with the given implements attribute.
+     *
+     * @return the path of the markup file in the bundle.
+     */
+    String putComponent(String bundleName, String implementsNames) {
+        String[] parts = bundleName.split(":");
+        DefDescriptor<ComponentDef> descriptor = new DefDescriptorImpl<>("markup", parts[0], parts[1],
+                ComponentDef.class);
+        long modified = ++lastModified;
+        Source<ComponentDef> markup = new StringSource<ComponentDef>(descriptor,
+                String.format("<aura:component implements=\"%s\"/>", implementsNames), bundleName, Format.XML) {
+            @Override
+            public long getLastModified() {
+                return modified;
+            }
+        };
+        bundles.put(bundleName, new BundleSourceImpl<>(descriptor, ImmutableMap.of(descriptor, markup)));
+        return getPath(bundleName);
+    }
+
+    /**
+     * Remove a bundle.
+     *
+     * @return the path of the markup file that was in the bundle.
+     */
+    String remove(String bundleName) {
+        bundles.remove(bundleName);
+        return getPath(bundleName);
+    }
+
+    static String getPath(String bundleName) {
+        String[] parts = bundleName.split(":");
+        return Paths.get(parts[0], parts[1], parts[1] + ".cmp").toString();
+    }
+
+    @Override
+    public BundleSource<?> getBundle(DefDescriptor<?> descriptor) {
+        return bundles.get(BundleSourceLoader.getBundleName(descriptor));
+    }
+
+    @Override
+    public String resetBundle(String filePath) {
+        Path bundle = Paths.get(filePath).getParent();
+        if (bundle == null || bundle.getParent() == null) {
+            return null;
+        }
+        bundleResets++;
+        return (bundle.getParent().getFileName() + ":" + bundle.getFileName()).toLowerCase();
+    }
+
+    @Override
+    public Set<String> getNamespaces() {
+        Set<String> namespaces = new HashSet<>();
+        for (BundleSource<?> bundle : bundles.values()) {
+            namespaces.add(bundle.getDescriptor().getNamespace());
+        }
+        return namespaces;
+    }
+
+    @Override
+    public Set<DefType> getDefTypes() {
+        return EnumSet.of(DefType.COMPONENT);
+    }
+
+    @Override
+    public <D extends Definition> Source<D> getSource(@Nonnull DefDescriptor<D> descriptor) {
+        BundleSource<?> bundle = getBundle(descriptor);
+        if (bundle == null) {
+            return null;
+        }
+        if (bundle.getDescriptor().equals(descriptor)) {
+            @SuppressWarnings("unchecked")
+            Source<D> source = (Source<D>)bundle;
+            return source;
+        }
+        @SuppressWarnings("unchecked")
+        Source<D> part = (Source<D>)bundle.getBundledParts().get(descriptor);
+        return part;
+    }
+
+    @Override
+    public Set<DefDescriptor<?>> find(@Nonnull DescriptorFilter dm) {
+        Set<DefDescriptor<?>> matches = new HashSet<>();
+        for (BundleSource<?> bundle : bundles.values()) {
+            if (dm.matchDescriptor(bundle.getDescriptor())) {
+                matches.add(bundle.getDescriptor());
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public void reset() {
+        resets++;
+    }
+}
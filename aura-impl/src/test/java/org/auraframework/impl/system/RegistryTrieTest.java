@@ -18,7 +18,9 @@ package org.auraframework.impl.system;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -533,6 +535,31 @@ public class RegistryTrieTest {
         assertEquals(true, actual.contains(reg2));
     }
 
+    @Test
+    public void testGetRegistriesMatchWildcardPrefixAndDefType() {
+        MockRegistry reg1 = new MockRegistry().setNamespaces("testNamespace").setPrefixes("markup");
+        MockRegistry reg2 = new MockRegistry().setNamespaces("*").setPrefixes("js").setDefTypes(DefType.CONTROLLER);
+        MockRegistry reg3 = new MockRegistry().setNamespaces("testNamespace").setPrefixes("java")
+                .setDefTypes(DefType.CONTROLLER);
+        RegistryTrie trie = new RegistryTrie(Lists.newArrayList(reg1, reg2, reg3));
+
+        DescriptorFilter matcher = new DescriptorFilter("j*://test*:*", DefType.CONTROLLER);
+        Collection<DefRegistry> actual = trie.getRegistries(matcher);
+        assertEquals(Lists.newArrayList(reg2, reg3), Lists.newArrayList(actual));
+    }
+
+    @Test
+    public void testGetRegistriesIsMemoizedIgnoringName() {
+        MockRegistry reg1 = new MockRegistry().setNamespaces("testNamespace");
+        MockRegistry reg2 = new MockRegistry().setNamespaces("otherNamespace");
+        RegistryTrie trie = new RegistryTrie(Lists.newArrayList(reg1, reg2));
+
+        Collection<DefRegistry> first = trie.getRegistries(new DescriptorFilter("testNamespace:first"));
+        Collection<DefRegistry> second = trie.getRegistries(new DescriptorFilter("TESTNAMESPACE:second"));
+        assertSame(first, second);
+        assertNotSame(first, trie.getRegistries(new DescriptorFilter("otherNamespace:first")));
+    }
+
     @Test
     public void testToString() {
         MockRegistry reg1 = new MockRegistry().setNamespaces("testNamespace").setPrefixes("markup");
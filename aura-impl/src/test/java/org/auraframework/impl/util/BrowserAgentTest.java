@@ -16,6 +16,7 @@
 package org.auraframework.impl.util;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.BufferedReader;
@@ -94,6 +95,11 @@ public class BrowserAgentTest {
         assertThat("Form factor", computed.getFormFactor(), is(expected.formFactor));
 
         assertThat("Is Browser 'Compat'", new BrowserCompatibilityServiceImpl().isCompatible(expected.userAgent), is(expected.isCompat));
+
+        BrowserInfo shared = BrowserInfo.get(expected.userAgent);
+        assertThat("Shared instance", BrowserInfo.get(expected.userAgent), sameInstance(shared));
+        assertThat("Shared form factor", shared.getFormFactor(), is(expected.formFactor));
+        assertThat("Shared browser type", shared.getBrowserType(), is(computed.getBrowserType()));
     }
 
     private static BrowserTestInfo readExpectedBrowserInfo(String line) {
@@ -16,7 +16,6 @@
 package org.auraframework.impl.util.json;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.adapter.JsonSerializerAdapter;
 import org.auraframework.impl.AuraImplTestCase;
@@ -115,29 +114,51 @@ public class AuraJsonSerializerFactoryTest extends AuraImplTestCase {
         factory.setLoggingService(loggingService);
         factory.setJsonSerializerAdapters(Lists.newArrayList(jsonSerializerAdapter));
 
-        assertEquals("Should get the provided lookup serializer", serializer, factory.getSerializer(object));
+        assertSame("Should get the provided lookup serializer", serializer, factory.getSerializer(object));
 
-        ConcurrentMap<String, JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
-        assertEquals("Serializer should be cached", serializer, cache.get(object.getClass().getName()));
+        // a serializer resolved again would now be found in the new map.
+        Map<String,JsonSerializer<?>> replaced = Maps.newHashMap();
+        replaced.put(object.getClass().getName(), Mockito.mock(JsonSerializer.class));
+        AuraPrivateAccessor.set(factory, "SERIALIZERS_LOOKUP_MAP", replaced);
+        assertSame("Serializer should be cached", serializer, factory.getSerializer(object));
     }
 
     @Test
     public void testInstanceOfSerializerIsCached() throws Exception {
-        Map<String,JsonSerializer<?>> map = Maps.newHashMap();
+        Map<Class<?>,JsonSerializer<?>> map = Maps.newHashMap();
         JsonSerializer<?> serializer = Mockito.mock(JsonSerializer.class);
         String object = "object";
-        map.put(object.getClass().getName(), serializer);
-        Mockito.when(jsonSerializerAdapter.lookupSerializers()).thenReturn(map);
-        Mockito.when(jsonSerializerAdapter.instanceofSerializers()).thenReturn(Maps.newHashMap());
+        map.put(Object.class, serializer);
+        Mockito.when(jsonSerializerAdapter.instanceofSerializers()).thenReturn(map);
+        Mockito.when(jsonSerializerAdapter.lookupSerializers()).thenReturn(Maps.newHashMap());
 
         AuraJsonSerializerFactory factory = new AuraJsonSerializerFactory();
         factory.setLoggingService(loggingService);
         factory.setJsonSerializerAdapters(Lists.newArrayList(jsonSerializerAdapter));
 
-        assertEquals("Should get the provided lookup serializer", serializer, factory.getSerializer(object));
+        assertSame("Should get the provided instanceof serializer", serializer, factory.getSerializer(object));
+
+        // a serializer resolved again would now not be found.
+        AuraPrivateAccessor.set(factory, "SERIALIZERS_INSTANCE_MAP", Maps.newHashMap());
+        assertSame("Serializer should be cached", serializer, factory.getSerializer(object));
+        Mockito.verify(loggingService, Mockito.never()).info(Mockito.anyString());
+    }
+
+    @Test
+    public void testSubclassGetsInstanceSerializer() {
+        Map<Class<?>,JsonSerializer<?>> map = Maps.newHashMap();
+        JsonSerializer<?> serializer = Mockito.mock(JsonSerializer.class);
+        map.put(Number.class, serializer);
+        Mockito.when(jsonSerializerAdapter.instanceofSerializers()).thenReturn(map);
+        Mockito.when(jsonSerializerAdapter.lookupSerializers()).thenReturn(Maps.newHashMap());
+
+        AuraJsonSerializerFactory factory = new AuraJsonSerializerFactory();
+        factory.setLoggingService(loggingService);
+        factory.setJsonSerializerAdapters(Lists.newArrayList(jsonSerializerAdapter));
 
-        ConcurrentMap<String, JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
-        assertEquals("Serializer should be cached", serializer, cache.get(object.getClass().getName()));
+        assertEquals("Should get the instanceof serializer", serializer, factory.getSerializer(1));
+        assertEquals("Should get the instanceof serializer", serializer, factory.getSerializer(1L));
+        assertEquals("Should get null", null, factory.getSerializer("object"));
     }
 
     @Test
@@ -155,7 +176,11 @@ public class AuraJsonSerializerFactoryTest extends AuraImplTestCase {
 
         assertEquals("Should get null", null, factory.getSerializer(object));
 
-        ConcurrentMap<String, JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
-        assertNotNull("Serializer (null) should be cached", cache.get(object.getClass().getName()));
+        // a serializer resolved again would now be found in the new map.
+        Map<String,JsonSerializer<?>> replaced = Maps.newHashMap();
+        replaced.put(object.getClass().getName(), Mockito.mock(JsonSerializer.class));
+        AuraPrivateAccessor.set(factory, "SERIALIZERS_LOOKUP_MAP", replaced);
+        assertEquals("Should still get null", null, factory.getSerializer(object));
+        Mockito.verify(loggingService, Mockito.times(1)).info(Mockito.anyString());
     }
 }
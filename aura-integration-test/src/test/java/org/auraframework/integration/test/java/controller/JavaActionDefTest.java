@@ -51,6 +51,32 @@ public class JavaActionDefTest extends AuraImplTestCase {
         assertTrue("ActionDef should be background when class has Background annotation", actual);
     }
 
+    /**
+     * Verify Java action without serial annotation is not serial
+     */
+    @Test
+    public void testJavaActionDefIsNotSerialByDefault() throws Exception {
+        String controllerName = "java://org.auraframework.impl.java.controller.ParallelActionTestController";
+        String actionName = "executeInForeground";
+        ActionDef actionDef = getJavaActionDef(controllerName, actionName);
+
+        boolean actual = ((JavaActionDef) actionDef).isSerial();
+        assertFalse("JavaActionDef should NOT be serial by default", actual);
+    }
+
+    /**
+     * Verify Java action with serial annotation is serial
+     */
+    @Test
+    public void testJavaActionDefIsSerialWithAnnotation() throws Exception {
+        String controllerName = "java://org.auraframework.impl.java.controller.ParallelActionTestController";
+        String actionName = "executeSerially";
+        ActionDef actionDef = getJavaActionDef(controllerName, actionName);
+
+        boolean actual = ((JavaActionDef) actionDef).isSerial();
+        assertTrue("ActionDef should be serial when method has SerialAction annotation", actual);
+    }
+
     @Test
     public void testJavaActionDefWithMethodHasNoParams() throws Exception{
         String controllerName = "java://org.auraframework.components.test.java.controller.TestController";
@@ -27,6 +27,7 @@ import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.Matchers.stringContainsInOrder;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -43,6 +44,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -52,17 +59,20 @@ import javax.inject.Inject;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.TypeDef;
 import org.auraframework.def.ValueDef;
+import org.auraframework.impl.ServerServiceImpl;
 import org.auraframework.instance.AbstractActionImpl;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.ActionDelegate;
 import org.auraframework.instance.Component;
 import org.auraframework.integration.test.util.IntegrationTestCase;
+import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.ServerService;
 import org.auraframework.service.ServerService.HYDRATION_TYPE;
@@ -85,6 +95,7 @@ import org.auraframework.util.test.annotation.UnAdaptableTest;
 import org.auraframework.validation.ReferenceValidationContext;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.powermock.reflect.Whitebox;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -283,6 +294,40 @@ public class ServerServiceImplTest extends IntegrationTestCase {
         }
     }
 
+    /**
+     * An action that can run in parallel, and remembers the thread and context it ran on.
+     */
+    private static class ParallelAction extends EmptyAction {
+        private final ContextService contextService;
+        private final long delay;
+        private String threadName;
+        private AuraContext context;
+
+        public ParallelAction(String name, long delay, ContextService contextService,
+                DefinitionService definitionService, ConfigAdapter configAdapter) {
+            super(null, name, definitionService, configAdapter);
+            this.contextService = contextService;
+            this.delay = delay;
+        }
+
+        @Override
+        public boolean isParallelizable() {
+            return true;
+        }
+
+        @Override
+        public void run() throws AuraExecutionException {
+            try {
+                Thread.sleep(this.delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.threadName = Thread.currentThread().getName();
+            this.context = this.contextService.getCurrentContext();
+            super.run();
+        }
+    }
+
     private static class ShareCmpAction extends ActionDelegate {
 
         private final Map<String, Object> componentAttributes;
@@ -431,6 +476,37 @@ public class ServerServiceImplTest extends IntegrationTestCase {
         }
     }
 
+    /**
+     * Parallelizable actions run on the action pool, each with its own context, and the earlier actions finish
+     * last. The response must still have them in request order.
+     */
+    @ThreadHostileTest("Replaces the action pool")
+    @Test
+    public void testParallelActionsAreWrittenInOrder() throws Exception {
+        AuraContext context = contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+        ExecutorService pool = Executors.newFixedThreadPool(3, runnable -> new Thread(runnable, "test-action"));
+        Object actionExecutor = Whitebox.getInternalState(serverService, "actionExecutor");
+        Whitebox.setInternalState(serverService, "actionExecutor", pool);
+        try (StringWriter sw = new StringWriter()) {
+            ParallelAction a = new ParallelAction("first action", 300, contextService, definitionService, configAdapter);
+            ParallelAction b = new ParallelAction("second action", 150, contextService, definitionService, configAdapter);
+            ParallelAction c = new ParallelAction("third action", 0, contextService, definitionService, configAdapter);
+            Message message = new Message(Lists.newArrayList(a, b, c));
+            serverService.run(message, context, sw, null);
+
+            for (ParallelAction action : ImmutableList.of(a, b, c)) {
+                assertThat(action.threadName, equalTo("test-action"));
+                assertThat(action.context, notNullValue());
+                assertThat(action.context, not(sameInstance(context)));
+            }
+            validateEmptyActionSerialization(sw.toString(), null,
+                    Arrays.asList("first action", "second action", "third action"));
+        } finally {
+            Whitebox.setInternalState(serverService, "actionExecutor", actionExecutor);
+            pool.shutdown();
+        }
+    }
+
     /**
      * This test is for W-2063110 Running the same action twice in a list since we output right after the run, we can
      * reuse the action. the second run will over-write the previous run's returnValue(unless we change the run()), but
@@ -625,6 +701,103 @@ public class ServerServiceImplTest extends IntegrationTestCase {
         }
     }
 
+    /**
+     * Verify that an app.js assembled from cached component fragments reuses them, and matches the one that
+     * rendered them.
+     */
+    @ThreadHostileTest("Modifies the cached component fragments")
+    @Test
+    public void testWriteDefinitionsFromCachedFragments() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = definitionService
+                .getDefDescriptor("appCache:withpreload", ApplicationDef.class);
+        AuraContext context = contextService
+                .startContext(Mode.DEV, Format.JS, Authentication.AUTHENTICATED, appDesc);
+        final String uid = definitionService.getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+        Set<DefDescriptor<?>> dependencies = definitionService.getDependencies(uid);
+        // dependency set uids that have not been used yet, so neither build is served from the app.js cache
+        String run = Long.toString(System.nanoTime());
+
+        String firstOutput;
+        try (StringWriter output = new StringWriter()) {
+            serverService.writeDefinitions(dependencies, output, false, -1, HYDRATION_TYPE.all, true, "first" + run);
+            firstOutput = output.toString();
+        }
+
+        // mark the cached fragments of the app, so that the second build shows whether it used them
+        Map<BaseComponentDef, ? extends Map<String, String>> fragments =
+                Whitebox.getInternalState(ServerServiceImpl.class, "componentFragments");
+        Map<String, String> appFragments = fragments.get(definitionService.getDefinition(appDesc));
+        assertThat("Expected the app fragment to be cached", appFragments, notNullValue());
+        Map<String, String> originals = new HashMap<>(appFragments);
+        final String marker = "/*cached fragment*/";
+        String secondOutput;
+        try {
+            for (Map.Entry<String, String> entry : originals.entrySet()) {
+                appFragments.put(entry.getKey(), marker + entry.getValue());
+            }
+            try (StringWriter output = new StringWriter()) {
+                serverService.writeDefinitions(dependencies, output, false, -1, HYDRATION_TYPE.all, true, "second" + run);
+                secondOutput = output.toString();
+            }
+        } finally {
+            appFragments.putAll(originals);
+        }
+        assertThat("Expected the app fragment to be reused", secondOutput, containsString(marker));
+        assertThat("Expected the same app.js from cached fragments", secondOutput.replace(marker, ""),
+                equalTo(firstOutput));
+    }
+
+    /**
+     * Verify that component fragments rendered on the definition pool are written in dependency order.
+     */
+    @ThreadHostileTest("Replaces the definition pool")
+    @Test
+    public void testWriteDefinitionsOnDefinitionPool() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = definitionService
+                .getDefDescriptor("appCache:withpreload", ApplicationDef.class);
+        AuraContext context = contextService
+                .startContext(Mode.DEV, Format.JS, Authentication.AUTHENTICATED, appDesc);
+        final String uid = definitionService.getUid(null, appDesc);
+        context.addLoaded(appDesc, uid);
+        Set<DefDescriptor<?>> dependencies = definitionService.getDependencies(uid);
+        String run = Long.toString(System.nanoTime());
+        Map<?, ?> fragments = Whitebox.getInternalState(ServerServiceImpl.class, "componentFragments");
+
+        fragments.clear();
+        String serialOutput;
+        try (StringWriter output = new StringWriter()) {
+            serverService.writeDefinitions(dependencies, output, false, -1, HYDRATION_TYPE.all, true, "serial" + run);
+            serialOutput = output.toString();
+        }
+
+        AtomicInteger tasks = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(3, 3, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>()) {
+            @Override
+            protected void beforeExecute(Thread t, Runnable r) {
+                tasks.incrementAndGet();
+            }
+        };
+        Object definitionExecutor = Whitebox.getInternalState(serverService, "definitionExecutor");
+        Object definitionThreadCount = Whitebox.getInternalState(serverService, "definitionThreadCount");
+        Whitebox.setInternalState(serverService, "definitionExecutor", pool);
+        Whitebox.setInternalState(serverService, "definitionThreadCount", Integer.valueOf(3));
+        fragments.clear();
+        String parallelOutput;
+        try (StringWriter output = new StringWriter()) {
+            serverService.writeDefinitions(dependencies, output, false, -1, HYDRATION_TYPE.all, true, "parallel" + run);
+            parallelOutput = output.toString();
+        } finally {
+            Whitebox.setInternalState(serverService, "definitionExecutor", definitionExecutor);
+            Whitebox.setInternalState(serverService, "definitionThreadCount", definitionThreadCount);
+            pool.shutdown();
+        }
+        assertThat("Expected fragments to be rendered on the pool", Integer.valueOf(tasks.get()),
+                Matchers.greaterThan(Integer.valueOf(1)));
+        assertThat("Expected the same app.js from the pool", parallelOutput, equalTo(serialOutput));
+    }
+
     /**
      * Verify that toggling whether LockerService is enabled or not returns a different result from writeDefinitions
      */
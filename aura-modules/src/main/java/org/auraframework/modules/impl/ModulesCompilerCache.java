@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.modules.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.auraframework.def.module.ModuleDef.CodeType;
+import org.auraframework.modules.ModulesCompilerData;
+import org.auraframework.modules.ModulesCompilerData.WireDecoration;
+import org.auraframework.util.FileLruStore;
+import org.lwc.CompilerReport;
+import org.lwc.LwcCompiler;
+import org.lwc.OutputConfig;
+import org.lwc.bundle.BundleType;
+import org.lwc.classmember.ClassMember;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * A persistent cache of module compilation results.
+ *
+ * Results are stored one per file in a {@link FileLruStore}, keyed by a hash of everything that goes into the
+ * compilation, so they survive restarts and are shared between processes using the same directory.
+ *
+ * This class is thread safe.
+ */
+public class ModulesCompilerCache {
+    /**
+     * The default bound on the bytes stored, settable with aura.modules.compilerCacheSize.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 256L * 1024 * 1024;
+
+    /** Bump when the stored format or the key changes, to ignore older results. */
+    private static final String CACHE_VERSION = "1";
+
+    private static final String SUFFIX = ".ser";
+
+    /**
+     * What we store, since the compiler data itself is not serializable.
+     */
+    private static final class StoredData implements Serializable {
+        private static final long serialVersionUID = -1866216003318254520L;
+
+        private final Map<CodeType, String> codes;
+        private final Set<String> bundleDependencies;
+        private final Set<String> labels;
+        private final Set<ClassMember> publicProperties;
+        private final Set<ClassMember> publicMethods;
+        private final Set<ClassMember> publicSlots;
+        private final Set<WireDecoration> wireDecorations;
+        private final CompilerReport compilerReport;
+
+        private StoredData(ModulesCompilerData data) {
+            this.codes = data.codes;
+            this.bundleDependencies = data.bundleDependencies;
+            this.labels = data.labels;
+            this.publicProperties = data.publicProperties;
+            this.publicMethods = data.publicMethods;
+            this.publicSlots = data.publicSlots;
+            this.wireDecorations = data.wireDecorations;
+            this.compilerReport = data.compilerReport;
+        }
+
+        private ModulesCompilerData toData() {
+            return new ModulesCompilerData(codes, bundleDependencies, labels, publicProperties, publicMethods,
+                    publicSlots, wireDecorations, compilerReport);
+        }
+    }
+
+    private static final String compilerVersion = FileLruStore.getFingerprint(LwcCompiler.class);
+
+    private final FileLruStore store;
+
+    /**
+     * Create a cache over a directory, picking up any results already stored there.
+     *
+     * @param directory the directory to store results in, created if needed.
+     * @param maximumBytes the maximum number of bytes to store before evicting.
+     * @throws IOException if the directory cannot be created.
+     */
+    public ModulesCompilerCache(File directory, long maximumBytes) throws IOException {
+        this.store = new FileLruStore(directory, SUFFIX, maximumBytes);
+    }
+
+    /**
+     * Compute the key for a compilation.
+     *
+     * Sources are keyed relative to the bundle, so the same bundle compiled from another location maps to the
+     * same result.
+     */
+    public static String getKey(String entry, Map<String, String> sources, BundleType bundleType,
+            Map<String, String> namespaceMapping, List<OutputConfig> configs) {
+        int slash = entry.lastIndexOf('/');
+        String bundlePath = slash >= 0 ? entry.substring(0, slash + 1) : "";
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        putString(hasher, CACHE_VERSION);
+        putString(hasher, compilerVersion);
+        putString(hasher, entry.substring(lastSegmentStart(bundlePath)));
+        putString(hasher, String.valueOf(bundleType));
+        for (Map.Entry<String, String> source : new TreeMap<>(sources).entrySet()) {
+            String name = source.getKey();
+            putString(hasher, name.startsWith(bundlePath) ? name.substring(bundlePath.length()) : name);
+            putString(hasher, source.getValue());
+        }
+        for (Map.Entry<String, String> mapping : new TreeMap<>(namespaceMapping).entrySet()) {
+            putString(hasher, mapping.getKey());
+            putString(hasher, mapping.getValue());
+        }
+        for (OutputConfig config : configs) {
+            putString(hasher, config.toJSON().toString());
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Get a stored result.
+     *
+     * @param key the key from {@link #getKey}.
+     * @return the result, or null if there is none.
+     * @throws IOException if the stored result could not be read, in which case it is dropped.
+     */
+    public ModulesCompilerData get(String key) throws IOException {
+        byte[] bytes = store.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ((StoredData) in.readObject()).toData();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            store.invalidate(key);
+            throw new IOException("Unable to read module compiler cache entry " + store.getFile(key), e);
+        }
+    }
+
+    /**
+     * Store a result.
+     *
+     * @param key the key from {@link #getKey}.
+     * @param data the compiler output.
+     * @throws IOException if the result could not be written, e.g. it is not serializable.
+     */
+    public void put(String key, ModulesCompilerData data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new StoredData(data));
+        }
+        store.put(key, bytes.toByteArray());
+    }
+
+    public void invalidate(String key) {
+        store.invalidate(key);
+    }
+
+    public long getCurrentBytes() {
+        return store.getCurrentBytes();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long getHitCount() {
+        return store.getHitCount();
+    }
+
+    public long getMissCount() {
+        return store.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return store.getEvictionCount();
+    }
+
+    private static int lastSegmentStart(String bundlePath) {
+        // namespace/name/ from .../namespace/name/
+        int end = bundlePath.length() - 1;
+        int count = 0;
+        for (int i = end - 1; i >= 0; i--) {
+            if (bundlePath.charAt(i) == '/' && ++count == 2) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        hasher.putInt(value.length());
+        hasher.putString(value, StandardCharsets.UTF_8);
+    }
+}
@@ -26,6 +26,8 @@ import org.lwc.OutputConfig;
 import org.lwc.bundle.BundleType;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +38,8 @@ public class ModulesCompilerServiceImpl implements ModulesCompilerService {
 
     private ModulesCompiler compiler;
     private NodeLambdaFactory nodeServiceFactory;
+    private ModulesCompilerCache cache;
+    private boolean cacheCreated;
 
     protected LoggingService loggingService;
     protected ConfigAdapter configAdapter;
@@ -93,11 +97,34 @@ public class ModulesCompilerServiceImpl implements ModulesCompilerService {
         compiler = getCompiler();
 
         long startNanos = System.nanoTime();
-        ModulesCompilerData data = compiler.compile(entry, sources, bundleType, namespaceMapping, configs);
+        ModulesCompilerCache compilerCache = getCache();
+        String cacheKey = null;
+        ModulesCompilerData data = null;
+        String cacheStatus = "off";
+        if (compilerCache != null) {
+            cacheKey = ModulesCompilerCache.getKey(entry, sources, bundleType, namespaceMapping, configs);
+            try {
+                data = compilerCache.get(cacheKey);
+            } catch (IOException ioe) {
+                loggingService.warn("ModulesCompilerServiceImpl: unable to read cached compilation " + entry, ioe);
+            }
+            cacheStatus = data != null ? "hit" : "miss";
+        }
+        if (data == null) {
+            data = compiler.compile(entry, sources, bundleType, namespaceMapping, configs);
+            if (cacheKey != null) {
+                try {
+                    compilerCache.put(cacheKey, data);
+                } catch (IOException ioe) {
+                    loggingService.warn("ModulesCompilerServiceImpl: unable to cache compilation " + entry, ioe);
+                }
+            }
+        }
         long elapsedMillis = (System.nanoTime() - startNanos) / 1000000;
 
         // Keep the log bc it is consumed in Splunk.
-        String logLine = getCompilationLogLine(entry, sources, bundleType, configs, elapsedMillis, nodeServiceFactory);
+        String logLine = getCompilationLogLine(entry, sources, bundleType, configs, elapsedMillis, nodeServiceFactory)
+                + ", cache=" + cacheStatus;
         loggingService.info(logLine);
 
         return data;
@@ -111,6 +138,33 @@ public class ModulesCompilerServiceImpl implements ModulesCompilerService {
         return compiler;
     }
 
+    /**
+     * Get the persistent compilation cache, created on first use.
+     *
+     * The cache lives in aura.modules.compilerCacheDir, defaulting to a directory under the temp dir, and holds up
+     * to aura.modules.compilerCacheSize bytes. A size of zero disables it.
+     *
+     * @return the cache, or null if it is disabled or could not be created.
+     */
+    protected synchronized ModulesCompilerCache getCache() {
+        if (!cacheCreated) {
+            cacheCreated = true;
+            long maximumBytes = Long.getLong("aura.modules.compilerCacheSize", ModulesCompilerCache.DEFAULT_MAXIMUM_BYTES);
+            if (maximumBytes > 0) {
+                String directory = System.getProperty("aura.modules.compilerCacheDir");
+                if (directory == null || directory.isEmpty()) {
+                    directory = new File(System.getProperty("java.io.tmpdir"), "aura-modules-cache").getPath();
+                }
+                try {
+                    cache = new ModulesCompilerCache(new File(directory), maximumBytes);
+                } catch (IOException ioe) {
+                    loggingService.warn("ModulesCompilerServiceImpl: unable to create compilation cache, compiling without it", ioe);
+                }
+            }
+        }
+        return cache;
+    }
+
     static String getCompilationLogLine(String entry, Map<String, String> sources, BundleType bundleType, List<OutputConfig> configs,
                                            long elapsedMs, NodeLambdaFactory nodeServiceFactory) {
         long sizeByte = 0;
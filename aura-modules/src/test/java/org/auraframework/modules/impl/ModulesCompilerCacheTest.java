@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.modules.impl;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.def.module.ModuleDef.CodeType;
+import org.auraframework.modules.ModulesCompilerData;
+import org.auraframework.util.IOUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.lwc.OutputConfig;
+import org.lwc.bundle.BundleType;
+
+import com.google.common.collect.ImmutableSet;
+
+public class ModulesCompilerCacheTest {
+
+    private static final List<OutputConfig> CONFIGS = Collections.singletonList(
+            ModulesCompilerUtil.createDevOutputConfig(BundleType.internal));
+
+    private static ModulesCompilerData data(String code) {
+        Map<CodeType, String> codes = new EnumMap<>(CodeType.class);
+        codes.put(CodeType.DEV, code);
+        return new ModulesCompilerData(codes, ImmutableSet.of("lwc"), Collections.emptySet(), Collections.emptySet(),
+                Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+    }
+
+    private static String key(String bundlePath, String source) {
+        Map<String, String> sources = new HashMap<>();
+        sources.put(bundlePath + "/test.js", source);
+        return ModulesCompilerCache.getKey(bundlePath + "/test.js", sources, BundleType.internal,
+                Collections.emptyMap(), CONFIGS);
+    }
+
+    @Test
+    public void testKeyIgnoresBundleLocation() {
+        Assert.assertEquals(key("/one/modules/ns/test", "var a;"), key("/two/modules/ns/test", "var a;"));
+        Assert.assertNotEquals(key("/one/modules/ns/test", "var a;"), key("/one/modules/ns/test", "var b;"));
+        Assert.assertNotEquals(key("/one/modules/ns/test", "var a;"), key("/one/modules/other/test", "var a;"));
+    }
+
+    @Test
+    public void testResultsPersistAcrossInstances() throws Exception {
+        File directory = new File(IOUtil.newTempDir("modulescache"));
+        String key = key("/modules/ns/test", "var a;");
+
+        ModulesCompilerCache cache = new ModulesCompilerCache(directory, 1024 * 1024);
+        Assert.assertNull(cache.get(key));
+        cache.put(key, data("compiled"));
+
+        ModulesCompilerData loaded = new ModulesCompilerCache(directory, 1024 * 1024).get(key);
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals("compiled", loaded.codes.get(CodeType.DEV));
+        Assert.assertEquals(ImmutableSet.of("lwc"), loaded.bundleDependencies);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        File directory = new File(IOUtil.newTempDir("modulescache"));
+        ModulesCompilerCache sizing = new ModulesCompilerCache(new File(IOUtil.newTempDir("modulescache")), 1024 * 1024);
+        sizing.put("sizing", data("compiled"));
+        long entryBytes = sizing.getCurrentBytes();
+
+        ModulesCompilerCache cache = new ModulesCompilerCache(directory, entryBytes * 2);
+        String first = key("/modules/ns/test", "var a;");
+        String second = key("/modules/ns/test", "var b;");
+        String third = key("/modules/ns/test", "var c;");
+        cache.put(first, data("compiled"));
+        cache.put(second, data("compiled"));
+        Assert.assertNotNull(cache.get(first));
+        cache.put(third, data("compiled"));
+
+        Assert.assertNotNull(cache.get(first));
+        Assert.assertNull(cache.get(second));
+        Assert.assertNotNull(cache.get(third));
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertFalse(new File(directory, second + ".ser").exists());
+    }
+}
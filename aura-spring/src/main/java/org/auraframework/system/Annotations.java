@@ -50,6 +50,19 @@ public interface Annotations {
     @interface CabooseAction {
     }
 
+    /**
+     * Marks a method that must not run concurrently with other actions in the same request.
+     *
+     * When parallel action execution is enabled, this should be used by actions that depend on state
+     * other than their parameters, such as actions that create component instances.
+     *
+     * The AuraEnabled annotation is still required to use this method as a server action.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface SerialAction {
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.METHOD)
     @interface AuraEnabled {
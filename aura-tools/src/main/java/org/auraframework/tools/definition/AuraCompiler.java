@@ -176,7 +176,8 @@ public abstract class AuraCompiler {
             ConfigAdapter configAdapter = applicationContext.getBean(ConfigAdapter.class);
             initDeprecated(applicationContext);
             new RegistrySerializer(registryService, configAdapter, sourceDirs, outputDir,
-                    ns.toArray(new String[ns.size()]), cll).setExecutorThreadCount(12).execute();
+                    ns.toArray(new String[ns.size()]), cll).setExecutorThreadCount(12)
+                    .setIndexed(Boolean.getBoolean("aura.registries.indexed")).execute();
         } catch (RegistrySerializerException rse) {
             cll.error(rse.getMessage(), rse.getCause());
             System.exit(1);
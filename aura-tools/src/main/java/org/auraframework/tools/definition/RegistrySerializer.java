@@ -47,6 +47,7 @@ import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.impl.source.file.FileSourceLocationImpl;
+import org.auraframework.impl.system.IndexedRegistryFile;
 import org.auraframework.impl.system.StaticDefRegistryImpl;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.RegistryService;
@@ -199,6 +200,11 @@ public class RegistrySerializer {
 
     private int executorThreadCount = 0;
 
+    /**
+     * indexed: write the indexed, lazily loadable format rather than a single serialized list.
+     */
+    private boolean indexed = false;
+
     private ExecutorService executor;
 
     /**
@@ -273,6 +279,16 @@ public class RegistrySerializer {
             return;
         }
 
+        if (indexed) {
+            try {
+                IndexedRegistryFile.write(regs, out);
+            } catch (IOException ioe) {
+                logger.error("Unable to write out file", ioe);
+                errors.add(ioe);
+            }
+            return;
+        }
+
         try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
             objectOut.writeObject(regs);
         } catch (IOException ioe) {
@@ -546,4 +562,21 @@ public class RegistrySerializer {
         return this;
     }
 
+    /**
+     * @return whether the indexed format is written
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Write the indexed format, in which each definition is deserialized only on first use.
+     *
+     * @param indexed whether to write the indexed format
+     */
+    public RegistrySerializer setIndexed(boolean indexed) {
+        this.indexed = indexed;
+        return this;
+    }
+
 }
@@ -17,13 +17,22 @@ package org.auraframework.tools.definition;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.net.URL;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DescriptorFilter;
+import org.auraframework.impl.system.IndexedRegistryFile;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.RegistryService;
+import org.auraframework.system.DefRegistry;
 import org.auraframework.tools.definition.RegistrySerializer.RegistrySerializerException;
 import org.auraframework.tools.definition.RegistrySerializer.RegistrySerializerLogger;
 import org.auraframework.util.IOUtil;
@@ -177,6 +186,90 @@ public class RegistrySerializerTest extends UnitTestCase {
         assertEquals("Error logs should be empty", 0, logger.getErrorLogEntries().size());
     }
 
+    /**
+     * Compare the indexed format to the Java serialized format.
+     *
+     * This checks that both formats hold the same definitions, that a definition read from the index matches the
+     * serialized one, and that the indexed format loads faster and retains less heap, since it only reads the index
+     * until a definition is asked for.
+     */
+    @Test
+    public void testIndexedFormatComparedToSerialized() throws Exception {
+        TestLogger logger = new TestLogger();
+        File compPath = new File(IOUtil.newTempDir(getClass().getSimpleName() + "_compare"));
+        File namespace = new File(compPath, "compare");
+        for (int i = 0; i < 200; i++) {
+            makeFile(namespace, "cmp" + i, ".cmp", "<aura:component><aura:attribute name='a' type='String'/>"
+                    + "<div>{!v.a}</div></aura:component>");
+        }
+        File serializedDir = Files.createTempDir();
+        File indexedDir = Files.createTempDir();
+
+        new RegistrySerializer(registryService, configAdapter, ImmutableList.of(compPath), serializedDir,
+                new String[0], logger).execute();
+        new RegistrySerializer(registryService, configAdapter, ImmutableList.of(compPath), indexedDir,
+                new String[0], logger).setIndexed(true).execute();
+        assertEquals("Error logs should be empty", 0, logger.getErrorLogEntries().size());
+
+        URL serializedUrl = new File(serializedDir, ".registries").toURI().toURL();
+        URL indexedUrl = new File(indexedDir, ".registries").toURI().toURL();
+        assertFalse(IndexedRegistryFile.isIndexed(serializedUrl));
+        assertTrue(IndexedRegistryFile.isIndexed(indexedUrl));
+
+        // best of a few loads, so that class loading and JIT warm up are not counted
+        long serializedTime = Long.MAX_VALUE;
+        long indexedTime = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            readSerialized(serializedUrl);
+            serializedTime = Math.min(serializedTime, System.nanoTime() - start);
+            start = System.nanoTime();
+            IndexedRegistryFile.read(indexedUrl);
+            indexedTime = Math.min(indexedTime, System.nanoTime() - start);
+        }
+
+        long heapBefore = usedHeap();
+        List<DefRegistry> serialized = readSerialized(serializedUrl);
+        long serializedHeap = usedHeap() - heapBefore;
+        heapBefore = usedHeap();
+        List<DefRegistry> indexed = IndexedRegistryFile.read(indexedUrl);
+        long indexedHeap = usedHeap() - heapBefore;
+
+        assertTrue(String.format("Indexed registries should load faster: serialized %d us, indexed %d us",
+                TimeUnit.NANOSECONDS.toMicros(serializedTime), TimeUnit.NANOSECONDS.toMicros(indexedTime)),
+                indexedTime < serializedTime);
+        assertTrue(String.format("Indexed registries should retain less heap: serialized %d KB, indexed %d KB",
+                serializedHeap / 1024, indexedHeap / 1024),
+                indexedHeap < serializedHeap);
+
+        assertEquals(serialized.size(), indexed.size());
+        DescriptorFilter filter = new DescriptorFilter("markup://compare:*");
+        Set<DefDescriptor<?>> serializedDescriptors = serialized.get(0).find(filter);
+        Set<DefDescriptor<?>> indexedDescriptors = indexed.get(0).find(filter);
+        assertEquals(serializedDescriptors, indexedDescriptors);
+
+        DefDescriptor<?> first = indexedDescriptors.iterator().next();
+        Definition def = indexed.get(0).getDef(first);
+        assertNotNull(def);
+        assertEquals(first, def.getDescriptor());
+        assertEquals(serialized.get(0).getDef(first).getOwnHash(), def.getOwnHash());
+    }
+
+    private static List<DefRegistry> readSerialized(URL url) throws Exception {
+        try (ObjectInputStream ois = new ObjectInputStream(url.openStream())) {
+            @SuppressWarnings("unchecked")
+            List<DefRegistry> read = (List<DefRegistry>) ois.readObject();
+            return read;
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
     public enum LoggerLevel { ERROR, WARN, INFO, DEBUG};
 
     private static class TestLoggerEntry {
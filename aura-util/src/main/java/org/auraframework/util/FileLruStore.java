@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A persistent store of bytes, one file per key in a local directory.
+ *
+ * Entries survive restarts and are shared between processes using the same directory. The store is bounded by the
+ * total number of bytes stored, evicting the least recently used entries first. File modification times are used
+ * to carry the recency across restarts. Keys must be usable as file names, e.g. a hex hash.
+ *
+ * This class is thread safe.
+ */
+public class FileLruStore {
+    private final File directory;
+    private final String suffix;
+    private final long maximumBytes;
+
+    /** Access ordered map of key to stored size, so that iteration starts at the least recently used entry. */
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Create a store over a directory, picking up any entries already stored there.
+     *
+     * @param directory the directory to store entries in, created if needed.
+     * @param suffix the file name suffix for entries, so that other files in the directory are ignored.
+     * @param maximumBytes the maximum number of bytes to store before evicting.
+     * @throws IOException if the directory cannot be created.
+     */
+    public FileLruStore(File directory, String suffix, long maximumBytes) throws IOException {
+        this.directory = directory;
+        this.suffix = suffix;
+        this.maximumBytes = maximumBytes;
+        directory.mkdirs();
+        if (!directory.isDirectory()) {
+            throw new IOException("Unable to create cache directory " + directory);
+        }
+
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(suffix));
+        if (files != null) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            List<File> removed = new ArrayList<>();
+            synchronized (this) {
+                for (File file : files) {
+                    String key = file.getName().substring(0, file.getName().length() - suffix.length());
+                    entries.put(key, file.length());
+                    currentBytes += file.length();
+                }
+                evict(null, removed);
+            }
+            delete(removed);
+        }
+    }
+
+    /**
+     * Get the bytes stored for a key.
+     *
+     * @param key the key.
+     * @return the bytes, or null if there are none.
+     * @throws IOException if the entry could not be read, in which case it is dropped.
+     */
+    public byte[] get(String key) throws IOException {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                missCount.incrementAndGet();
+                return null;
+            }
+        }
+        File file = getFile(key);
+        try {
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            file.setLastModified(System.currentTimeMillis());
+            hitCount.incrementAndGet();
+            return bytes;
+        } catch (IOException ioe) {
+            invalidate(key);
+            missCount.incrementAndGet();
+            throw new IOException("Unable to read cache entry " + file, ioe);
+        }
+    }
+
+    /**
+     * Store the bytes for a key, replacing any previous entry.
+     *
+     * The bytes are written to a temporary file and moved into place, so that readers in other processes never see
+     * a partial entry.
+     *
+     * @param key the key.
+     * @param bytes the bytes.
+     * @return true if the bytes were stored, false if they are larger than the store.
+     * @throws IOException if the entry could not be written.
+     */
+    public boolean put(String key, byte[] bytes) throws IOException {
+        if (bytes.length > maximumBytes) {
+            return false;
+        }
+        File file = getFile(key);
+        File temp = File.createTempFile(key, ".tmp", directory);
+        try {
+            Files.write(temp.toPath(), bytes);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temp.delete();
+        }
+
+        List<File> removed = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entries.put(key, (long) bytes.length);
+            if (previous != null) {
+                currentBytes -= previous;
+            }
+            currentBytes += bytes.length;
+            evict(key, removed);
+        }
+        delete(removed);
+        return true;
+    }
+
+    public void invalidate(String key) {
+        synchronized (this) {
+            Long previous = entries.remove(key);
+            if (previous != null) {
+                currentBytes -= previous;
+            }
+        }
+        getFile(key).delete();
+    }
+
+    public File getFile(String key) {
+        return new File(directory, key + suffix);
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Identify the jar or directory a class is loaded from, so that keys can include the version of the tool that
+     * produced an entry, and entries are not reused across upgrades.
+     *
+     * @param toolClass a class from the tool.
+     * @return a string that changes when the tool changes.
+     */
+    public static String getFingerprint(Class<?> toolClass) {
+        try {
+            URL location = toolClass.getProtectionDomain().getCodeSource().getLocation();
+            File file = new File(location.toURI());
+            return location + ":" + file.length() + ":" + file.lastModified();
+        } catch (Exception | LinkageError e) {
+            return String.valueOf(toolClass.getPackage().getImplementationVersion());
+        }
+    }
+
+    /**
+     * Evict least recently used entries until we are under the bound, keeping the given key.
+     * Must be called while holding the lock.
+     */
+    private void evict(String keep, List<File> removed) {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maximumBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            currentBytes -= eldest.getValue();
+            removed.add(getFile(eldest.getKey()));
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private static void delete(List<File> removed) {
+        for (File file : removed) {
+            file.delete();
+        }
+    }
+}
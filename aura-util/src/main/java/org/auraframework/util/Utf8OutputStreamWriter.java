@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link java.io.OutputStreamWriter} replacement that always writes UTF-8. Characters are encoded straight into a
+ * byte buffer, without going through a {@link java.nio.charset.CharsetEncoder} and its char buffer, and the bytes
+ * are written to the wrapped {@link OutputStream} whenever the buffer fills up, or on {@link #flush()}.<br>
+ * <br>
+ * The byte buffer is borrowed from a per-thread pool when the writer is created and handed back when it is closed,
+ * so a thread that streams one response after another reuses the same buffer. A writer that is never closed simply
+ * leaves its buffer to the garbage collector. The writer must only be used by the thread that created it.<br>
+ * <br>
+ * The bytes written are the same as {@code new OutputStreamWriter(out, UTF_8)} would write: surrogate pairs are
+ * encoded as 4-byte sequences, even when split across calls, and unpaired surrogates are written as '?'.
+ */
+@NotThreadSafe
+public class Utf8OutputStreamWriter extends Writer {
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Room for the longest sequence that one character can produce, a '?' and a 3 byte character. */
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private static final ThreadLocal<byte[]> pool = new ThreadLocal<>();
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int count;
+
+    /** A high surrogate waiting for the rest of its pair, or 0. */
+    private char highSurrogate;
+
+    public Utf8OutputStreamWriter(OutputStream out) {
+        this.out = out;
+        this.buffer = pool.get();
+        if (buffer != null) {
+            // Anything else created on this thread while we are open gets its own buffer.
+            pool.remove();
+        } else {
+            buffer = new byte[BUFFER_SIZE];
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        if (count > buffer.length - MAX_BYTES_PER_CHAR) {
+            flushBuffer();
+        }
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        for (int i = off, end = off + len; i < end; i++) {
+            if (count > buffer.length - MAX_BYTES_PER_CHAR) {
+                flushBuffer();
+            }
+            encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        write((CharSequence) str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        write(csq, 0, csq.length());
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        write(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    private void write(CharSequence csq, int start, int end) throws IOException {
+        ensureOpen();
+        for (int i = start; i < end; i++) {
+            if (count > buffer.length - MAX_BYTES_PER_CHAR) {
+                flushBuffer();
+            }
+            encode(csq.charAt(i));
+        }
+    }
+
+    /**
+     * Encode one character into the buffer, which must have room for {@link #MAX_BYTES_PER_CHAR} bytes.
+     */
+    private void encode(char c) {
+        byte[] b = buffer;
+        if (highSurrogate != 0) {
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(highSurrogate, c);
+                highSurrogate = 0;
+                b[count++] = (byte) (0xF0 | (codePoint >> 18));
+                b[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                b[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                b[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            highSurrogate = 0;
+            b[count++] = '?';
+        }
+        if (c < 0x80) {
+            b[count++] = (byte) c;
+        } else if (c < 0x800) {
+            b[count++] = (byte) (0xC0 | (c >> 6));
+            b[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            b[count++] = '?';
+        } else {
+            b[count++] = (byte) (0xE0 | (c >> 12));
+            b[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            b[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Write out the buffered bytes and flush the stream. A high surrogate at the very end is kept, waiting for the
+     * rest of its pair.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Write out the buffered bytes, close the stream, and return the buffer to the pool.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                buffer[count++] = '?';
+            }
+            flushBuffer();
+            out.close();
+        } finally {
+            pool.set(buffer);
+            buffer = null;
+        }
+    }
+}
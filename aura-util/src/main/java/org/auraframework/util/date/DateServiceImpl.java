@@ -30,14 +30,28 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 // TODO: Moving this to LocalizationServiceImpl
 public class DateServiceImpl implements DateService {
 
+    private static final int CONVERTER_CACHE_SIZE = Integer.getInteger("aura.date.converterCacheSize", 1000);
+
+    private final Cache<ConverterKey, DateConverter> styleConverters = CacheBuilder.newBuilder()
+            .maximumSize(CONVERTER_CACHE_SIZE).build();
+    private final Cache<ConverterKey, DateConverter> patternConverters = CacheBuilder.newBuilder()
+            .maximumSize(CONVERTER_CACHE_SIZE).build();
+
     private static DateService INSTANCE = new DateServiceImpl();
 
     public static DateService get() {
@@ -136,19 +150,21 @@ public class DateServiceImpl implements DateService {
         FormatStyle dateFormat = date.getFormatStyle();
         FormatStyle timeFormat = time.getFormatStyle();
 
-        DateTimeFormatter formatter;
-
         if (dateFormat == null && timeFormat == null) {
             throw new IllegalArgumentException("Both date style and time style cannot be none");
-        } else if (dateFormat == null) {
-            formatter = DateTimeFormatter.ofLocalizedTime(timeFormat);
-        } else if (timeFormat == null) {
-            formatter = DateTimeFormatter.ofLocalizedDate(dateFormat);
-        } else {
-            formatter = DateTimeFormatter.ofLocalizedDateTime(dateFormat, timeFormat);
         }
 
-        return new DateServiceConverter(formatter.withLocale(locale));
+        return getConverter(styleConverters, new ConverterKey(locale, date, time), () -> {
+            DateTimeFormatter formatter;
+            if (dateFormat == null) {
+                formatter = DateTimeFormatter.ofLocalizedTime(timeFormat);
+            } else if (timeFormat == null) {
+                formatter = DateTimeFormatter.ofLocalizedDate(dateFormat);
+            } else {
+                formatter = DateTimeFormatter.ofLocalizedDateTime(dateFormat, timeFormat);
+            }
+            return new DateServiceConverter(formatter.withLocale(locale));
+        });
     }
 
     /**
@@ -178,7 +194,52 @@ public class DateServiceImpl implements DateService {
         if (pattern == null) {
             throw new IllegalArgumentException("Pattern must be provided");
         }
-        return new DateServiceConverter(DateTimeFormatter.ofPattern(pattern, locale));
+        return getConverter(patternConverters, new ConverterKey(locale, pattern, null),
+                () -> new DateServiceConverter(DateTimeFormatter.ofPattern(pattern, locale)));
+    }
+
+    /**
+     * Get a converter from a cache, creating it if needed. Converters are immutable, so they can be shared.
+     */
+    private static DateConverter getConverter(Cache<ConverterKey, DateConverter> cache, ConverterKey key,
+            Callable<DateConverter> factory) {
+        try {
+            return cache.get(key, factory);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // e.g. an IllegalArgumentException for a bad pattern
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Locale plus styles or pattern.
+     */
+    private static final class ConverterKey {
+        private final Locale locale;
+        private final Object first;
+        private final Object second;
+
+        private ConverterKey(Locale locale, Object first, Object second) {
+            this.locale = locale;
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(locale, first, second);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof ConverterKey) {
+                ConverterKey other = (ConverterKey) obj;
+                return locale.equals(other.locale) && Objects.equals(first, other.first)
+                        && Objects.equals(second, other.second);
+            }
+            return false;
+        }
     }
 
     @Override
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,6 +52,7 @@ import com.google.javascript.jscomp.SourceFile;
 import com.google.javascript.jscomp.SourceMap;
 import com.google.javascript.jscomp.VariableRenamingPolicy;
 import com.google.javascript.jscomp.WarningsGuard;
+import com.google.javascript.rhino.InputId;
 
 /**
  * Util for compressing and writing javascript.
@@ -167,6 +169,11 @@ public enum JavascriptWriter {
             IOUtil.copyStream(sourceFileReader, compressedFileWriter);
             return Collections.emptyList();
         }
+
+        @Override
+        public Map<String, String> compressAll(Map<String, String> sources) {
+            return new HashMap<>(sources);
+        }
     };
 
     public static final JavascriptWriter DEFAULT = CLOSURE_SIMPLE;
@@ -262,18 +269,78 @@ public enum JavascriptWriter {
         return compress(input, out, null, filename, null);
     }
 
+    /**
+     * Check the syntax of the source without compressing it.
+     *
+     * This only parses the source, without externs or optimization passes, so it is much cheaper than a
+     * compression. Anything reported here would also be reported by compressing the source.
+     *
+     * @param in Javascript source.
+     * @param filename Name used for error reporting, etc...
+     * @return the errors and warnings found.
+     */
+    public static List<JavascriptProcessingError> checkSyntax(String in, String filename) {
+        return CLOSURE_WHITESPACE_ONLY.compress(Collections.<SourceFile>emptyList(), SourceFile.fromCode(filename, in),
+                new StringWriter(), null, filename, null);
+    }
+
+    /**
+     * Compress many sources in a single compiler session.
+     *
+     * The sources are compiled together, sharing the cost of setting up the compiler and parsing the externs, and
+     * the output is split back out per source. Sources must not depend on each other's top level declarations.
+     *
+     * @param sources the Javascript sources, by file name.
+     * @return the compressed sources by file name, or null if any source had errors or warnings, in which case
+     *         they should be compressed individually for reporting.
+     */
+    public Map<String, String> compressAll(Map<String, String> sources) {
+        List<SourceFile> inputs = new ArrayList<>(sources.size());
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            inputs.add(SourceFile.fromCode(source.getKey(), source.getValue()));
+        }
+
+        CompilerOptions options = createOptions();
+        try {
+            Compiler compiler = new Compiler();
+            setClosureOptions(options);
+            setCustomPasses(options, compiler);
+            compiler.setErrorManager(new CustomErrorManager(ErrorFormat.MULTILINE.toFormatter(compiler, false)));
+            compiler.compile(externs, inputs, options);
+            if (compiler.getErrors().length > 0 || compiler.getWarnings().length > 0) {
+                return null;
+            }
+
+            Map<String, String> compressed = new HashMap<>();
+            for (SourceFile input : inputs) {
+                String source = compiler.toSource(compiler.getInput(new InputId(input.getName())).getAstRoot(compiler));
+                if (isSelfScoping()) {
+                    StringWriter out = new StringWriter();
+                    wrapWithIIC(out, source);
+                    source = out.toString();
+                }
+                compressed.put(input.getName(), source);
+            }
+            return compressed;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Does the actual compression work.
      */
     private List<JavascriptProcessingError> compress(SourceFile in, Writer out, Writer sourceMapWriter,
             String filename, Map<String, String> sourceMapLocationMapping) {
+        return compress(externs, in, out, sourceMapWriter, filename, sourceMapLocationMapping);
+    }
+
+    private List<JavascriptProcessingError> compress(List<SourceFile> externFiles, SourceFile in, Writer out,
+            Writer sourceMapWriter, String filename, Map<String, String> sourceMapLocationMapping) {
 
         List<JavascriptProcessingError> msgs = new ArrayList<>();
 
-        CompilerOptions options = new CompilerOptions();
-        options.setCheckGlobalThisLevel(CheckLevel.OFF);
-        options.setLanguageIn(LanguageMode.ECMASCRIPT5);
-        options.setLanguageOut(LanguageMode.ECMASCRIPT5);
+        CompilerOptions options = createOptions();
 
         if (sourceMapWriter != null) {
             options.sourceMapFormat = SourceMap.Format.V3;
@@ -290,10 +357,6 @@ public enum JavascriptWriter {
         }
 
 
-        // Disable reporting non-standard jsdoc comments as warnings. Should have been able to do:
-        // options.setWarningLevel(DiagnosticGroups.NON_STANDARD_JSDOC, CheckLevel.OFF);
-        options.addWarningsGuard(NON_STANDARD_JSDOC_GUARD);
-
         try {
             Compiler compiler = new Compiler();
             setClosureOptions(options);
@@ -303,7 +366,7 @@ public enum JavascriptWriter {
             // it makes more sense for the line and char number with the code snippet.
             CustomErrorManager manager = new CustomErrorManager(ErrorFormat.MULTILINE.toFormatter(compiler, false));
             compiler.setErrorManager(manager);
-            Result result = compiler.compile(externs, Arrays.asList(in), options);
+            Result result = compiler.compile(externFiles, Arrays.asList(in), options);
             String source = compiler.toSource();
 
             if (isSelfScoping()) {
@@ -342,6 +405,18 @@ public enum JavascriptWriter {
 
 
 
+    private static CompilerOptions createOptions() {
+        CompilerOptions options = new CompilerOptions();
+        options.setCheckGlobalThisLevel(CheckLevel.OFF);
+        options.setLanguageIn(LanguageMode.ECMASCRIPT5);
+        options.setLanguageOut(LanguageMode.ECMASCRIPT5);
+
+        // Disable reporting non-standard jsdoc comments as warnings. Should have been able to do:
+        // options.setWarningLevel(DiagnosticGroups.NON_STANDARD_JSDOC, CheckLevel.OFF);
+        options.addWarningsGuard(NON_STANDARD_JSDOC_GUARD);
+        return options;
+    }
+
 	// Diagnostic type appears to be inconsistent with DiagnosticGroups.NON_STANDARD_JSDOC -
     // https://code.google.com/p/closure-compiler/issues/detail?id=1156
     private static final WarningsGuard NON_STANDARD_JSDOC_GUARD = new WarningsGuard() {
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.javascript;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.auraframework.util.FileLruStore;
+
+import com.google.common.hash.Hashing;
+import com.google.javascript.jscomp.Compiler;
+
+/**
+ * A persistent cache of minified javascript, keyed by a hash of the source.
+ *
+ * Minified code is stored one per file in a {@link FileLruStore}, so it survives restarts and is shared between
+ * processes using the same directory. Only successful minifications should be stored, so that a hit also means the
+ * source is known to be valid. Keys include the Closure compiler in use, so upgrading it ignores older results.
+ *
+ * This class is thread safe.
+ */
+public class MinifiedCodeCache {
+    /**
+     * The default bound on the bytes stored, settable with aura.javascript.minifiedCacheSize.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    /** Bump when the minification options change, to ignore older results. */
+    private static final String CACHE_VERSION = "1";
+
+    private static final String SUFFIX = ".js";
+
+    private static final String compilerVersion = FileLruStore.getFingerprint(Compiler.class);
+
+    private static volatile MinifiedCodeCache instance;
+    private static volatile boolean instanceCreated;
+
+    private final FileLruStore store;
+
+    /**
+     * Get the shared cache, created on first use.
+     *
+     * The cache lives in aura.javascript.minifiedCacheDir, defaulting to a directory under the temp dir, and holds
+     * up to aura.javascript.minifiedCacheSize bytes. A size of zero disables it.
+     *
+     * @return the cache, or null if it is disabled or could not be created.
+     */
+    public static MinifiedCodeCache getInstance() {
+        if (instanceCreated) {
+            return instance;
+        }
+        synchronized (MinifiedCodeCache.class) {
+            if (!instanceCreated) {
+                long maximumBytes = Long.getLong("aura.javascript.minifiedCacheSize", DEFAULT_MAXIMUM_BYTES);
+                if (maximumBytes > 0) {
+                    String directory = System.getProperty("aura.javascript.minifiedCacheDir");
+                    if (directory == null || directory.isEmpty()) {
+                        directory = new File(System.getProperty("java.io.tmpdir"), "aura-minified-cache").getPath();
+                    }
+                    try {
+                        instance = new MinifiedCodeCache(new File(directory), maximumBytes);
+                    } catch (IOException ioe) {
+                        // minify without the cache
+                    }
+                }
+                instanceCreated = true;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Create a cache over a directory, picking up any code already stored there.
+     *
+     * @param directory the directory to store code in, created if needed.
+     * @param maximumBytes the maximum number of bytes to store before evicting.
+     * @throws IOException if the directory cannot be created.
+     */
+    public MinifiedCodeCache(File directory, long maximumBytes) throws IOException {
+        this.store = new FileLruStore(directory, SUFFIX, maximumBytes);
+    }
+
+    /**
+     * Get the minified code for a source.
+     *
+     * @param writer the writer used to minify.
+     * @param code the source.
+     * @return the minified code, or null if there is none.
+     */
+    public String get(JavascriptWriter writer, String code) {
+        try {
+            byte[] bytes = store.get(getKey(writer, code));
+            return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+        } catch (IOException ioe) {
+            // the entry is dropped, and we just minify again.
+            return null;
+        }
+    }
+
+    /**
+     * Store the minified code for a source.
+     *
+     * @param writer the writer used to minify.
+     * @param code the source.
+     * @param minified the minified code.
+     */
+    public void put(JavascriptWriter writer, String code, String minified) {
+        try {
+            store.put(getKey(writer, code), minified.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ioe) {
+            // Not fatal, we just minify again next time.
+        }
+    }
+
+    public long getCurrentBytes() {
+        return store.getCurrentBytes();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long getHitCount() {
+        return store.getHitCount();
+    }
+
+    public long getMissCount() {
+        return store.getMissCount();
+    }
+
+    private static String getKey(JavascriptWriter writer, String code) {
+        return Hashing.sha256().newHasher()
+                .putString(CACHE_VERSION, StandardCharsets.UTF_8)
+                .putInt(compilerVersion.length())
+                .putString(compilerVersion, StandardCharsets.UTF_8)
+                .putString(writer.name(), StandardCharsets.UTF_8)
+                .putInt(code.length())
+                .putString(code, StandardCharsets.UTF_8)
+                .hash().toString();
+    }
+}
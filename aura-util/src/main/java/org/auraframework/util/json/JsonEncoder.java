@@ -18,7 +18,6 @@ package org.auraframework.util.json;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
@@ -35,11 +34,9 @@ import java.util.TimeZone;
 
 import javax.annotation.Nonnull;
 
-import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.UncloseableOutputStream;
-import org.json.JSONObject;
+import org.auraframework.util.Utf8OutputStreamWriter;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.io.CountingOutputStream;
@@ -130,8 +127,9 @@ public class JsonEncoder implements Json {
         
         // the "main" Appendable that is always written to
         private final Appendable all;
-        // the optional/capturing Appendable that is non-empty only if capturing is in progress
-        private Deque<StringBuilder> captured = new ArrayDeque<>();
+        // the optional/capturing Appendable that is non-empty only if capturing is in progress,
+        // created on first use as most encoders never capture
+        private Deque<StringBuilder> captured;
         
         CapturableAppendable(Appendable out) {
             this.all = out;
@@ -140,7 +138,7 @@ public class JsonEncoder implements Json {
         @Override
         public Appendable append(CharSequence csq) throws IOException {
             all.append(csq);
-            if (!captured.isEmpty()) {
+            if (captured != null && !captured.isEmpty()) {
                 captured.getFirst().append(csq);
             }
             return this;
@@ -149,7 +147,7 @@ public class JsonEncoder implements Json {
         @Override
         public Appendable append(CharSequence csq, int start, int end) throws IOException {
             all.append(csq, start, end);
-            if (!captured.isEmpty()) {
+            if (captured != null && !captured.isEmpty()) {
                 captured.getFirst().append(csq, start, end);
             }
             return this;
@@ -158,7 +156,7 @@ public class JsonEncoder implements Json {
         @Override
         public Appendable append(char c) throws IOException {
             all.append(c);
-            if (!captured.isEmpty()) {
+            if (captured != null && !captured.isEmpty()) {
                 captured.getFirst().append(c);
             }
             return this;
@@ -168,6 +166,9 @@ public class JsonEncoder implements Json {
          * Initializes the capturing buffer
          */
         void startCapturing() {
+            if (captured == null) {
+                captured = new ArrayDeque<>();
+            }
             captured.addFirst(new StringBuilder());
         }
         
@@ -178,7 +179,7 @@ public class JsonEncoder implements Json {
          */
         String stopCapturing() {
             String result = null;
-            if (!captured.isEmpty()) {
+            if (captured != null && !captured.isEmpty()) {
                 result = captured.removeFirst().toString();
                 if (!captured.isEmpty()) {
                     captured.getFirst().append(result);
@@ -192,6 +193,8 @@ public class JsonEncoder implements Json {
     private final Appendable out;
     private final CapturableAppendable cacheableOut;
     private final ArrayDeque<IndentEntry> indentStack = new ArrayDeque<>();
+    /** Reused by {@link #writeString(Object)} to quote each string. */
+    private final StringBuilder quoted = new StringBuilder();
     private final DataOutputStream binaryOutput;
     private CountingOutputStream currentBinaryStream;
     private long currentBinaryStreamLength;
@@ -383,7 +386,7 @@ public class JsonEncoder implements Json {
         if (out == null) {
             throw new IllegalArgumentException("out must not be null");
         }
-        final Writer writer = new OutputStreamWriter(out, Charsets.UTF_8);
+        final Writer writer = new Utf8OutputStreamWriter(out);
         return new JsonEncoder(writer, out, context);
     }
 
@@ -599,7 +602,68 @@ public class JsonEncoder implements Json {
             return;
         }
 
-        cacheableOut.append(JSONObject.quote(AuraTextUtil.escapeForJSONString(toString)));
+        quoted.setLength(0);
+        quote(toString, quoted);
+        cacheableOut.append(quoted);
+    }
+
+    /**
+     * Quote a string as {@code JSONObject.quote(AuraTextUtil.escapeForJSONString(value))} would, in one pass and
+     * without building either intermediate string.
+     *
+     * The result is still appended as a single sequence, as some appendables escape what they are given.
+     */
+    private static void quote(String value, StringBuilder sb) {
+        sb.append('"');
+        // The previous character quoted, after escapeForJSONString, for the '</' check in JSONObject.quote.
+        char previous = 0;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '\u0000':
+                // dropped by escapeForJSONString
+                continue;
+            case '\u2028':
+                // a newline after escapeForJSONString
+                sb.append("\\n");
+                c = '\n';
+                break;
+            case '\\':
+            case '"':
+                sb.append('\\').append(c);
+                break;
+            case '/':
+                if (previous == '<') {
+                    sb.append('\\');
+                }
+                sb.append(c);
+                break;
+            case '\b':
+                sb.append("\\b");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\f':
+                sb.append("\\f");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            default:
+                if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                    String hex = Integer.toHexString(c);
+                    sb.append("\\u").append("0000", 0, 4 - hex.length()).append(hex);
+                } else {
+                    sb.append(c);
+                }
+            }
+            previous = c;
+        }
+        sb.append('"');
     }
 
     /**
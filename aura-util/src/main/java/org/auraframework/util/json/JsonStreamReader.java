@@ -42,7 +42,6 @@ import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
@@ -94,7 +93,7 @@ import com.google.common.collect.Maps;
  * default json->java mappings:<br>
  * json object(map) ==> java.util.HashMap<String, Object><br>
  * json String ==> java.lang.String<br>
- * json Number ==> java.math.BigDecimal<br>
+ * json Number ==> java.math.BigDecimal (see {@link #setPrimitiveNumbersEnabled(boolean)})<br>
  * json boolean ==> boolean<br>
  * json null ==> null<br>
  * json array ==> java.util.ArrayList&lt;Object&gt;<br>
@@ -113,6 +112,17 @@ public class JsonStreamReader implements Closeable {
     // Allowing any amount of bytes would allow someone to compromise our servers.
     // 4mb seems to be industry standard here.
     private static final int MAX_LENGTH = 4194304;
+    private static final int BUFFER_SIZE = 4096;
+
+    // The last characters read stay in the window when it is refilled, so that they can be unread.
+    private static final int PUSHBACK = 2;
+    private static final int KEY_CACHE_SIZE = 64;
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+
+    // Powers of ten that are exact as doubles.
+    private static final double MAX_EXACT_INTEGER = 9007199254740992.0;
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
     private static JsonHandlerProvider defaultProvider = new JsonHandlerProviderImpl();
     private static Map<Character, Character> escapes = Maps.newHashMapWithExpectedSize(13);
     static {
@@ -129,7 +139,16 @@ public class JsonStreamReader implements Closeable {
         escapes.put('v', '\u000B');
     }
 
-    private final PushbackReader reader;
+    private final Reader reader;
+
+    // The window of characters read from the reader, chars before position have been read.
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+
+    // Shared by strings, literals and numbers, which never nest.
+    private final StringBuilder scratch = new StringBuilder();
+    private String[] keyCache;
 
     private JsonConstant currentToken;
     private Object current;
@@ -143,16 +162,18 @@ public class JsonStreamReader implements Closeable {
     private final DataInputStream binaryInput;
     private boolean recursiveRead = true;
     private boolean lengthLimitsEnabled = true;
+    private boolean primitiveNumbers = false;
 
     public JsonStreamReader(Reader reader, JsonHandlerProvider provider) {
-        this(reader, null, provider);
+        this(reader, null, provider, BUFFER_SIZE);
     }
 
-    private JsonStreamReader(Reader reader, InputStream binaryInput, JsonHandlerProvider provider) {
+    private JsonStreamReader(Reader reader, InputStream binaryInput, JsonHandlerProvider provider, int bufferSize) {
         if (reader == null) {
             throw new JsonParseException("Reader cannot be null");
         }
-        this.reader = new PushbackReader(reader, 2);
+        this.reader = reader;
+        this.buffer = new char[PUSHBACK + Math.max(1, Math.min(bufferSize, BUFFER_SIZE))];
         this.binaryInput = binaryInput == null ? null
                 : (binaryInput instanceof DataInputStream ? (DataInputStream) binaryInput : new DataInputStream(
                         binaryInput));
@@ -160,7 +181,7 @@ public class JsonStreamReader implements Closeable {
     }
 
     public JsonStreamReader(String string, JsonHandlerProvider provider) {
-        this(createStringReader(string), null, provider);
+        this(createStringReader(string), null, provider, string.length());
     }
 
     /**
@@ -201,7 +222,7 @@ public class JsonStreamReader implements Closeable {
      * @param binaryInput The raw InputStream to read from
      */
     public JsonStreamReader(InputStream binaryInput) {
-        this(new Utf8InputStreamReader(binaryInput), binaryInput, null);
+        this(new Utf8InputStreamReader(binaryInput), binaryInput, null, 1);
         this.recursiveRead = false;
     }
 
@@ -225,7 +246,7 @@ public class JsonStreamReader implements Closeable {
     }
 
     public JsonStreamReader(Reader reader) {
-        this(reader, null, null);
+        this(reader, null, null, BUFFER_SIZE);
     }
 
     public JsonStreamReader(String string) {
@@ -310,6 +331,12 @@ public class JsonStreamReader implements Closeable {
 
     public BigDecimal getNumber() {
         assertCurrentToken(NUMBER);
+        if (current instanceof Long) {
+            return BigDecimal.valueOf((Long) current);
+        }
+        if (current instanceof Double && !((Double) current).isNaN() && !((Double) current).isInfinite()) {
+            return BigDecimal.valueOf((Double) current);
+        }
         return (BigDecimal) current;
     }
 
@@ -435,7 +462,7 @@ public class JsonStreamReader implements Closeable {
         case LITERAL_START:
             unreadChar(c);
             if (hint == STRING || Character.isJavaIdentifierStart(c)) {
-                String result = readLiteralString();
+                String result = readLiteralString(hint == STRING);
                 token = null;
                 // FIXME: we should probably check for more key words here.
                 if (result.equals("true")) {
@@ -481,7 +508,7 @@ public class JsonStreamReader implements Closeable {
             break;
         case QUOTE_SINGLE:
         case QUOTE_DOUBLE:
-            current = readString(token, false);
+            current = readString(token, false, hint == STRING);
             token = STRING;
             break;
         case BINARY_STREAM: {
@@ -557,6 +584,27 @@ public class JsonStreamReader implements Closeable {
         this.recursiveRead = recursiveRead;
     }
 
+    /**
+     * Returns whether numbers are read as Long or Double values when that loses nothing.<br>
+     * <br>
+     * When this is true, integers of up to 18 digits are read as Long, and
+     * decimals of up to 15 significant digits with a small exponent are read as
+     * Double. Other numbers are read as BigDecimal, as they are when this is
+     * false, which is the default.
+     */
+    public boolean isPrimitiveNumbersEnabled() {
+        return this.primitiveNumbers;
+    }
+
+    /**
+     * Enables reading numbers as Long or Double values when that loses nothing.
+     * See {@link #isPrimitiveNumbersEnabled()}. Handlers then get those values
+     * instead of BigDecimal ones, so only enable this if they can take them.
+     */
+    public void setPrimitiveNumbersEnabled(boolean primitiveNumbers) {
+        this.primitiveNumbers = primitiveNumbers;
+    }
+
     private void readWhitespaceAndComments() throws IOException, JsonEndOfStreamException {
         char c;
         do {
@@ -693,14 +741,24 @@ public class JsonStreamReader implements Closeable {
         return token;
     }
 
-    private String readString(JsonConstant delim, boolean keepEscapers) throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Read a quoted string, after the opening quote.
+     *
+     * @param key true if this is the key of an object entry, which is likely to repeat.
+     */
+    private String readString(JsonConstant delim, boolean keepEscapers, boolean key) throws IOException, JsonEndOfStreamException {
+        StringBuilder sb = scratch;
+        sb.setLength(0);
+        char quote = delim.getToken();
         boolean isEscaped = false;
         markPosition(1);
         try {
             while (true) {
+                if (!isEscaped) {
+                    readRun(sb, quote);
+                }
                 char c = readChar();
-                if (c == delim.getToken()) {
+                if (c == quote) {
                     if (!isEscaped) {
                         // We consume the delimiter and call it a day.
                         break;
@@ -724,7 +782,59 @@ public class JsonStreamReader implements Closeable {
         } catch (JsonEndOfStreamException e) {
             throw new JsonStreamParseException("Unterminated string", sb.toString(), getLineNum(), getColNum());
         }
-        return sb.toString();
+        return key ? toKey(sb) : sb.toString();
+    }
+
+    /**
+     * Copy the characters in the window up to the next quote, backslash or newline, as if they had been read one at
+     * a time.
+     */
+    private void readRun(StringBuilder sb, char quote) {
+        char[] buf = buffer;
+        int start = position;
+        int end = start;
+        while (end < limit) {
+            char c = buf[end];
+            if (c == quote || c == '\\' || c == '\n') {
+                break;
+            }
+            end++;
+        }
+        int count = end - start;
+        if (count > 0) {
+            sb.append(buf, start, count);
+            position = end;
+            charNum += count;
+            colNum += count;
+            if (charNum > MAX_LENGTH && lengthLimitsEnabled) {
+                throw new JsonStreamParseException("Input too long.");
+            }
+        }
+    }
+
+    /**
+     * Get an object key, reusing the String from an earlier entry with the same key.
+     */
+    private String toKey(StringBuilder sb) {
+        int length = sb.length();
+        if (length > MAX_CACHED_KEY_LENGTH) {
+            return sb.toString();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + sb.charAt(i);
+        }
+        if (keyCache == null) {
+            keyCache = new String[KEY_CACHE_SIZE];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        String cached = keyCache[slot];
+        if (cached != null && cached.hashCode() == hash && cached.contentEquals(sb)) {
+            return cached;
+        }
+        String key = sb.toString();
+        keyCache[slot] = key;
+        return key;
     }
 
     /**
@@ -848,7 +958,7 @@ public class JsonStreamReader implements Closeable {
             case QUOTE_DOUBLE:
             case QUOTE_SINGLE:
                 sb.append(c);
-                sb.append(readString(token, true));
+                sb.append(readString(token, true, false));
                 break;
             case COMMENT_DELIM:
                 char delim = readChar();
@@ -866,7 +976,8 @@ public class JsonStreamReader implements Closeable {
     }
 
     private Number readNumber() throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = scratch;
+        sb.setLength(0);
         while (hasNext()) {
             char c = readChar();
             JsonConstant token = JsonConstant.valueOf(c);
@@ -877,23 +988,125 @@ public class JsonStreamReader implements Closeable {
                 sb.append(c);
             }
         }
-        BigDecimal ret;
+        if (contentEquals(sb, 0, "NaN")) {
+            return Double.NaN;
+        }
+        boolean negative = sb.charAt(0) == '-';
+        if (contentEquals(sb, negative ? 1 : 0, "Infinity")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        if (primitiveNumbers) {
+            Number ret = readPrimitiveNumber(sb);
+            if (ret != null) {
+                return ret;
+            }
+        }
+        String s = sb.toString();
         try {
-            String s = sb.toString();
-            if (s.equals("NaN")) {
-                return Double.NaN;
+            return new BigDecimal(s);
+        } catch (NumberFormatException e) {
+            throw new JsonStreamParseException("Could not parse a number", s, getLineNum(), getColNum(), e);
+        }
+    }
+
+    private static boolean contentEquals(CharSequence sb, int offset, String value) {
+        if (sb.length() - offset != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (sb.charAt(offset + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read a number as a Long if it is an integer of up to 18 digits, or as a Double if it has up to 15 significant
+     * digits, a power of ten of at most 22 either way, and is below 2^53 when it is whole. Such a double is exactly
+     * the double nearest to the number, and the number can be had back from it.
+     *
+     * @return the number, or null if it should be read as a BigDecimal.
+     */
+    private static Number readPrimitiveNumber(CharSequence sb) {
+        int length = sb.length();
+        int i = 0;
+        char c = sb.charAt(0);
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            i++;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        int digits = 0;
+        boolean integral = true;
+        for (; i < length; i++) {
+            c = sb.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa != 0 || c != '0') {
+                    if (++significant > 18) {
+                        return null;
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (!integral) {
+                    scale--;
+                }
+            } else if (c == '.' && integral) {
+                integral = false;
             } else {
-                boolean negative = s.charAt(0) == '-';
-                if ("Infinity".equals(negative ? s.substring(1) : s)) {
-                    return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                break;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+
+        if (i < length) {
+            if (c != 'e' && c != 'E') {
+                return null;
+            }
+            integral = false;
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (sb.charAt(i) == '-' || sb.charAt(i) == '+')) {
+                negativeExponent = sb.charAt(i) == '-';
+                i++;
+            }
+            if (i == length || length - i > 3) {
+                return null;
+            }
+            int exponent = 0;
+            for (; i < length; i++) {
+                c = sb.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
                 }
+                exponent = exponent * 10 + (c - '0');
             }
-            ret = new BigDecimal(sb.toString());
+            scale += negativeExponent ? -exponent : exponent;
+        }
 
-        } catch (NumberFormatException e) {
-            throw new JsonStreamParseException("Could not parse a number", sb.toString(), getLineNum(), getColNum(), e);
+        if (integral) {
+            return negative ? -mantissa : mantissa;
+        }
+        if (significant > 15 || scale > 22 || scale < -22) {
+            return null;
         }
-        return ret;
+        double value;
+        if (scale >= 0) {
+            value = mantissa * POWERS_OF_TEN[scale];
+            if (value >= MAX_EXACT_INTEGER) {
+                // Past 2^53 the double would not be the number itself.
+                return null;
+            }
+        } else {
+            value = mantissa / POWERS_OF_TEN[-scale];
+        }
+        return negative ? -value : value;
     }
 
     /**
@@ -903,8 +1116,9 @@ public class JsonStreamReader implements Closeable {
      * @return
      * @throws IOException
      */
-    private String readLiteralString() throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+    private String readLiteralString(boolean key) throws IOException, JsonEndOfStreamException {
+        StringBuilder sb = scratch;
+        sb.setLength(0);
         try {
             while (true) {
                 char c = readChar();
@@ -920,13 +1134,11 @@ public class JsonStreamReader implements Closeable {
         } catch (JsonEndOfStreamException eof) {
             // ignore, just return what we have.
         }
-        return sb.toString();
+        return key ? toKey(sb) : sb.toString();
     }
 
     private char readChar() throws IOException, JsonEndOfStreamException {
-        int i = reader.read();
-
-        if (i == -1) {
+        if (position == limit && !fill()) {
             throw new JsonEndOfStreamException("End of stream unexpectedly reached.");
         }
 
@@ -941,7 +1153,7 @@ public class JsonStreamReader implements Closeable {
             throw new JsonStreamParseException("Input too long.");
         }
 
-        char c = (char) i;
+        char c = buffer[position++];
 
         if (c == '\n') {
             prevColNum = colNum;
@@ -954,8 +1166,40 @@ public class JsonStreamReader implements Closeable {
         return c;
     }
 
-    private void unreadChar(char c) throws IOException {
-        reader.unread(c);
+    /**
+     * Read more characters into the window, keeping the last ones read so they can still be unread.
+     *
+     * @return false at the end of the stream.
+     */
+    private boolean fill() throws IOException {
+        int keep = Math.min(limit, PUSHBACK);
+        System.arraycopy(buffer, limit - keep, buffer, 0, keep);
+        position = keep;
+        limit = keep;
+        int count;
+        if (binaryInput != null) {
+            // Never read past the json, binary data after a backtick is read from the stream directly.
+            int c = reader.read();
+            if (c == -1) {
+                return false;
+            }
+            buffer[limit] = (char) c;
+            count = 1;
+        } else {
+            count = reader.read(buffer, limit, buffer.length - limit);
+            if (count <= 0) {
+                return false;
+            }
+        }
+        limit += count;
+        return true;
+    }
+
+    /**
+     * Step back over the last character read, which must be c.
+     */
+    private void unreadChar(char c) {
+        position--;
         charNum--;
         if (c == '\n') {
             colNum = prevColNum;
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.junit.Test;
+
+public class FileLruStoreTest {
+
+    @Test
+    public void testEntriesPersistAcrossInstances() throws Exception {
+        File directory = new File(IOUtil.newTempDir("filelru"));
+
+        FileLruStore store = new FileLruStore(directory, ".bin", 1024);
+        assertNull(store.get("key"));
+        store.put("key", new byte[] { 1, 2, 3 });
+
+        FileLruStore reopened = new FileLruStore(directory, ".bin", 1024);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, reopened.get("key"));
+        assertEquals(3, reopened.getCurrentBytes());
+        assertEquals(1, reopened.getHitCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        File directory = new File(IOUtil.newTempDir("filelru"));
+        FileLruStore store = new FileLruStore(directory, ".bin", 20);
+
+        store.put("first", new byte[8]);
+        store.put("second", new byte[8]);
+        store.get("first");
+        store.put("third", new byte[8]);
+
+        assertNull(store.get("second"));
+        assertFalse(store.getFile("second").exists());
+        assertEquals(16, store.getCurrentBytes());
+        assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void testEntryLargerThanStoreIsNotStored() throws Exception {
+        FileLruStore store = new FileLruStore(new File(IOUtil.newTempDir("filelru")), ".bin", 4);
+
+        assertFalse(store.put("key", new byte[5]));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testFingerprintDiffersBetweenJars() {
+        assertNotEquals(FileLruStore.getFingerprint(FileLruStore.class), FileLruStore.getFingerprint(Test.class));
+    }
+}
@@ -360,6 +360,26 @@ public class DateServiceTest extends UnitTestCase {
         goldFileText("Test:testGetPatternConverter_locale_pattern\n" + sb.toString());
     }
 
+    @Test
+    public void testConvertersAreShared() {
+        DateService service = DateServiceImpl.get();
+        assertSame(service.getDateTimeStyleConverter(Locale.FRANCE, DateFormat.SHORT, DateFormat.LONG),
+                service.getDateTimeStyleConverter(Locale.FRANCE, DateFormat.SHORT, DateFormat.LONG));
+        assertNotSame(service.getDateTimeStyleConverter(Locale.FRANCE, DateFormat.SHORT, DateFormat.LONG),
+                service.getDateTimeStyleConverter(Locale.GERMANY, DateFormat.SHORT, DateFormat.LONG));
+        assertSame(service.getPatternConverter(Locale.US, "yyyy/MM/dd"),
+                service.getPatternConverter(Locale.US, "yyyy/MM/dd"));
+
+        // a bad pattern is still reported each time it is asked for
+        for (int i = 0; i < 2; i++) {
+            try {
+                service.getPatternConverter(Locale.US, "yyyy{");
+                fail("Expected an IllegalArgumentException for a bad pattern");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
     @Test
     public void testGetStyle() {
         String[] styles = { "full", "long", "medium", "short" };
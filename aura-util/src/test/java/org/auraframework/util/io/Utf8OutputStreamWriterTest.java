@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.auraframework.util.Utf8OutputStreamWriter;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Test cases for the Utf8OutputStreamWriter
+ */
+public class Utf8OutputStreamWriterTest {
+
+    private static byte[] expected(String value) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(baos, Charsets.UTF_8)) {
+            writer.write(value);
+        }
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testMatchesOutputStreamWriter() throws Exception {
+        String[] values = { "abc123_+/`", "\u00eb\u07ff\u0800\u5206\uffff", "\ud83d\ude00", "\ud83d",
+                "\ude00x", "\ud83d\ud83d\ude00" };
+        for (String value : values) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+                writer.write(value);
+            }
+            assertArrayEquals(value, expected(value), baos.toByteArray());
+        }
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+            writer.append('\ud83d');
+            writer.flush();
+            assertEquals(0, baos.size());
+            writer.append("\ude00");
+        }
+        assertArrayEquals(expected("\ud83d\ude00"), baos.toByteArray());
+    }
+
+    @Test
+    public void testWritesMoreThanOneBuffer() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("a\u00eb\u5206\ud83d\ude00");
+        }
+        String value = sb.toString();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+            writer.write(value.toCharArray());
+        }
+        assertArrayEquals(expected(value), baos.toByteArray());
+
+        // The second writer on this thread gets the pooled buffer, which must not carry anything over.
+        baos = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+            writer.append(value, 1, 4);
+        }
+        assertArrayEquals(expected(value.substring(1, 4)), baos.toByteArray());
+    }
+
+    @Test
+    public void testWriteAfterClose() throws Exception {
+        Writer writer = new Utf8OutputStreamWriter(new ByteArrayOutputStream());
+        writer.close();
+        writer.close();
+        try {
+            writer.write("x");
+            fail("Expected an IOException writing to a closed writer");
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -16,10 +16,14 @@
 package org.auraframework.util.javascript;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.StringWriter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 
@@ -149,4 +153,44 @@ public class JavascriptWriterTest {
         String expected =  "var a = new RegExp(\"\\\\u002A/\");\n";
         assertEquals(expected, writer.toString());
     }
+
+    @Test
+    public void testCheckSyntaxReportsParseErrors() throws Exception {
+        List<JavascriptProcessingError> errors = JavascriptWriter.checkSyntax("var foo={k:}", "filename");
+
+        assertFalse("Expected a parse error", errors.isEmpty());
+        assertTrue(errors.get(0).toString(), errors.get(0).toString().startsWith("JS Processing Error: filename"));
+    }
+
+    @Test
+    public void testCheckSyntaxAcceptsValidCode() throws Exception {
+        List<JavascriptProcessingError> errors = JavascriptWriter.checkSyntax(
+                "$A.componentService.addComponentClass('a', function() { return {k: 1}; });", "filename");
+
+        assertTrue("Found compilation erros: " + errors, errors.isEmpty());
+    }
+
+    @Test
+    public void testCompressAllMatchesIndividualCompress() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("first", "function first() { var longName = 1; return longName + 1; }");
+        sources.put("second", "var second = function(argument) { return argument * 2; };");
+
+        Map<String, String> compressed = JavascriptWriter.CLOSURE_SIMPLE.compressAll(sources);
+
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            StringWriter writer = new StringWriter();
+            JavascriptWriter.CLOSURE_SIMPLE.compress(source.getValue(), writer, source.getKey());
+            assertEquals(writer.toString().trim(), compressed.get(source.getKey()).trim());
+        }
+    }
+
+    @Test
+    public void testCompressAllReturnsNullOnErrors() throws Exception {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("good", "var good = 1;");
+        sources.put("bad", "var bad = {k:};");
+
+        assertNull(JavascriptWriter.CLOSURE_SIMPLE.compressAll(sources));
+    }
 }
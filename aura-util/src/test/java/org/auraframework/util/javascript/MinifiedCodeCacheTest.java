@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.javascript;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.auraframework.util.IOUtil;
+import org.junit.Test;
+
+public class MinifiedCodeCacheTest {
+
+    @Test
+    public void testCodePersistsAcrossInstances() throws Exception {
+        File directory = new File(IOUtil.newTempDir("minified"));
+
+        MinifiedCodeCache cache = new MinifiedCodeCache(directory, 1024);
+        assertNull(cache.get(JavascriptWriter.CLOSURE_SIMPLE, "var a = 1;"));
+        cache.put(JavascriptWriter.CLOSURE_SIMPLE, "var a = 1;", "var a=1;");
+
+        MinifiedCodeCache reopened = new MinifiedCodeCache(directory, 1024);
+        assertEquals("var a=1;", reopened.get(JavascriptWriter.CLOSURE_SIMPLE, "var a = 1;"));
+        assertNull(reopened.get(JavascriptWriter.CLOSURE_WHITESPACE_ONLY, "var a = 1;"));
+        assertNull(reopened.get(JavascriptWriter.CLOSURE_SIMPLE, "var a = 2;"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        MinifiedCodeCache cache = new MinifiedCodeCache(new File(IOUtil.newTempDir("minified")), 20);
+
+        cache.put(JavascriptWriter.CLOSURE_SIMPLE, "var a = 1;", "var a=1;");
+        cache.put(JavascriptWriter.CLOSURE_SIMPLE, "var b = 1;", "var b=1;");
+        assertEquals("var a=1;", cache.get(JavascriptWriter.CLOSURE_SIMPLE, "var a = 1;"));
+        cache.put(JavascriptWriter.CLOSURE_SIMPLE, "var c = 1;", "var c=1;");
+
+        assertEquals("var a=1;", cache.get(JavascriptWriter.CLOSURE_SIMPLE, "var a = 1;"));
+        assertNull(cache.get(JavascriptWriter.CLOSURE_SIMPLE, "var b = 1;"));
+        assertEquals("var c=1;", cache.get(JavascriptWriter.CLOSURE_SIMPLE, "var c = 1;"));
+        assertEquals(16, cache.getCurrentBytes());
+    }
+}
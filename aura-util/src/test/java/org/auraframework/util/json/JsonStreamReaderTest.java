@@ -21,6 +21,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -765,6 +766,73 @@ public class JsonStreamReaderTest {
         assertEquals(1.2, ((BigDecimal) parseAndRetrieve("+1.2")).doubleValue(), DEFAULT_DELTA);
     }
 
+    /**
+     * Tests that numbers are read as Long or Double only when that loses nothing
+     */
+    @Test
+    public void testReadPrimitiveNumbers() throws IOException {
+        jsonStreamReader = new JsonStreamReader(
+                "[1, -42, 123456789012345678, 1234567890123456789, 0.1, -123.456, 1.5E3, 1e-22, 1.2E23, "
+                + "900719925474100e2, 3.14159265358979323846, NaN, -Infinity]");
+        jsonStreamReader.setPrimitiveNumbersEnabled(true);
+        jsonStreamReader.next();
+        List<Object> numbers = jsonStreamReader.getList();
+
+        assertEquals(Long.valueOf(1), numbers.get(0));
+        assertEquals(Long.valueOf(-42), numbers.get(1));
+        assertEquals(Long.valueOf(123456789012345678L), numbers.get(2));
+        assertEquals(new BigDecimal("1234567890123456789"), numbers.get(3));
+        assertEquals(Double.valueOf(0.1), numbers.get(4));
+        assertEquals(Double.valueOf(-123.456), numbers.get(5));
+        assertEquals(Double.valueOf(1500), numbers.get(6));
+        assertEquals(Double.valueOf(1e-22), numbers.get(7));
+        assertEquals(new BigDecimal("1.2E23"), numbers.get(8));
+        assertEquals(new BigDecimal("900719925474100e2"), numbers.get(9));
+        assertEquals(new BigDecimal("3.14159265358979323846"), numbers.get(10));
+        assertEquals(Double.NaN, numbers.get(11));
+        assertEquals(Double.NEGATIVE_INFINITY, numbers.get(12));
+
+        jsonStreamReader = new JsonStreamReader("7");
+        jsonStreamReader.setPrimitiveNumbersEnabled(true);
+        jsonStreamReader.next();
+        assertEquals(new BigDecimal(7), jsonStreamReader.getNumber());
+    }
+
+    /**
+     * Tests that repeated object keys are read into the same String
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRepeatedKeysAreShared() throws IOException {
+        List<Object> list = (List<Object>) parseAndRetrieve("[{\"name\":1, id:2}, {\"name\":3, id:4}]");
+        Map<String, Object> first = (Map<String, Object>) list.get(0);
+        Map<String, Object> second = (Map<String, Object>) list.get(1);
+        assertTrue(first.keySet().iterator().next() == second.keySet().iterator().next());
+        assertEquals(Arrays.asList("name", "id"), new ArrayList<>(second.keySet()));
+    }
+
+    /**
+     * Tests strings that span many reads from the underlying reader
+     */
+    @Test
+    public void testReadLongStrings() throws IOException {
+        StringBuilder value = new StringBuilder();
+        StringBuilder json = new StringBuilder("\n[\"");
+        for (int i = 0; i < 5000; i++) {
+            value.append("abc\"é/");
+            json.append("abc\\\"\\u00e9\\/");
+        }
+        json.append("\", 1]");
+
+        jsonStreamReader = new JsonStreamReader(new StringReader(json.toString()));
+        jsonStreamReader.next();
+        List<Object> list = jsonStreamReader.getList();
+        assertEquals(value.toString(), list.get(0));
+        assertEquals(new BigDecimal(1), list.get(1));
+        assertEquals(json.length(), jsonStreamReader.getCharNum());
+        assertEquals(2, jsonStreamReader.getLineNum());
+    }
+
     /**
      * Test to cover JsonStreamReader.readObject(),
      * JsonStreamReader.readArray(), and JsonStreamReader.getHandlerProvider()
@@ -17,9 +17,11 @@ package org.auraframework.util.json;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
+import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.AuraTextUtil.JSONEscapedFunctionStringBuilder;
 import org.auraframework.util.Utf8InputStreamReader;
 import org.auraframework.util.test.util.UnitTestCase;
+import org.json.JSONObject;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
@@ -340,6 +342,33 @@ public class JsonTest extends UnitTestCase {
                 json.getAppendable().toString());
     }
 
+    @Test
+    public void testWriteStringMatchesEscapedQuote() throws IOException {
+        String[] values = { "", "plain", "\\\"'", "</script>", "<\u0000/", "a\u0000\u2028\u2029b",
+                "\b\t\n\f\r\u0001\u001f", "\u007f\u0080\u009f\u00a0\u00e9", "\u1fff\u2000\u20ac\u20ff\u2100",
+                "\ud83d\ude00\ud83d" };
+        for (String value : values) {
+            JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
+            json.writeString(value);
+            assertEquals(JSONObject.quote(AuraTextUtil.escapeForJSONString(value)), json.getAppendable().toString());
+        }
+
+        JsonEncoder json = new JsonEncoder(new JSONEscapedFunctionStringBuilder(new StringBuilder()), false);
+        json.writeString("*\u0000/");
+        assertEquals("\"\\u002A/\"", json.getAppendable().toString());
+    }
+
+    @Test
+    public void testJsonStreamWritesUtf8() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonEncoder json = JsonEncoder.createJsonStream(baos, false, false);
+        json.writeArrayBegin();
+        json.writeArrayEntry("\u00eb\u5206\ud83d\ude00");
+        json.writeArrayEnd();
+        json.close();
+        assertEquals("[\"\u00eb\u5206\ud83d\ude00\"]", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
     @Test
     public void testWriteArrayEntry() throws IOException {
         JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
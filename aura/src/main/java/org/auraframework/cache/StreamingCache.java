@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.cache;
+
+import java.io.IOException;
+
+/**
+ * A cache that can write a cached value directly to an output, without materializing it on the heap.
+ *
+ * This is intended for caches of large strings that may be held outside of the heap.
+ */
+public interface StreamingCache<K> {
+
+    /**
+     * Write the value for a key to the output.
+     *
+     * @param key the key to look up.
+     * @param out the output to which the value is appended.
+     * @return true if the value was present and written, false if nothing was written.
+     * @throws IOException if the output fails.
+     */
+    boolean writeTo(K key, Appendable out) throws IOException;
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.ValueDef;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonHandler.JsonValidationException;
+import org.auraframework.util.json.JsonHandlerProvider;
+import org.auraframework.util.json.JsonHandlerProviderImpl;
+import org.auraframework.util.json.JsonObjectHandler;
+
+/**
+ * Handlers to read an action message as it is parsed.
+ *
+ * Each entry in the top level 'actions' array is read into an {@link ActionEntry} rather than a map. The action
+ * definition is looked up as soon as the descriptor is read, and scalar parameters that follow it are converted to
+ * the declared parameter types as they are read, instead of being kept as generic strings and BigDecimals.
+ *
+ * Errors from the lookup are kept until the entry is turned into an action, so that they are reported in the same
+ * order as they would be for a fully parsed message.
+ */
+class ActionMessageHandlerProvider extends JsonHandlerProviderImpl {
+    private final DefinitionService definitionService;
+
+    ActionMessageHandlerProvider(DefinitionService definitionService) {
+        this.definitionService = definitionService;
+    }
+
+    @Override
+    public JsonHandlerProvider getObjectEntryHandlerProvider(String key) {
+        if ("actions".equals(key)) {
+            return new ActionListHandlerProvider();
+        }
+        return null;
+    }
+
+    /**
+     * An action as read from the message.
+     */
+    static class ActionEntry extends JsonObjectHandler {
+        private ActionDef def;
+        private QuickFixException qfe;
+        private RuntimeException re;
+
+        private final DefinitionService definitionService;
+
+        private ActionEntry(DefinitionService definitionService) {
+            this.definitionService = definitionService;
+        }
+
+        @Override
+        public void put(String key, Object value) throws JsonValidationException {
+            super.put(key, value);
+            if ("descriptor".equals(key)) {
+                def = null;
+                qfe = null;
+                re = null;
+                if (value instanceof String) {
+                    try {
+                        def = definitionService.getDefinition((String) value, ActionDef.class);
+                    } catch (QuickFixException e) {
+                        qfe = e;
+                    } catch (RuntimeException e) {
+                        re = e;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get a raw value from the action.
+         */
+        @SuppressWarnings("unchecked")
+        Object get(String key) {
+            return ((Map<String, Object>) super.getValue()).get(key);
+        }
+
+        /**
+         * Get the definition for the descriptor, rethrowing any error from looking it up.
+         */
+        ActionDef getDefinition() throws QuickFixException {
+            if (qfe != null) {
+                throw qfe;
+            }
+            if (re != null) {
+                throw re;
+            }
+            return def;
+        }
+
+        /**
+         * Convert a parameter to its declared type if we know it, leaving anything we cannot convert for the action
+         * to report.
+         */
+        private Object convert(String name, Object value) {
+            if (def == null || !(value instanceof String || value instanceof BigDecimal || value instanceof Boolean)) {
+                return value;
+            }
+            try {
+                for (ValueDef valueDef : def.getParameters()) {
+                    if (name.equals(valueDef.getName())) {
+                        return valueDef.getType().valueOf(value);
+                    }
+                }
+            } catch (Exception e) {
+                // Let the action deal with it when it runs.
+            }
+            return value;
+        }
+
+        @Override
+        public Object getValue() {
+            return this;
+        }
+    }
+
+    private class ActionListHandlerProvider extends JsonHandlerProviderImpl {
+        @Override
+        public JsonHandlerProvider getArrayEntryHandlerProvider() {
+            return new ActionHandlerProvider();
+        }
+    }
+
+    private class ActionHandlerProvider extends JsonHandlerProviderImpl {
+        private ActionEntry current;
+
+        @Override
+        public JsonHandlerProvider getObjectEntryHandlerProvider(String key) {
+            if ("params".equals(key) && current != null) {
+                return new ParamsHandlerProvider(current);
+            }
+            return null;
+        }
+
+        @Override
+        public JsonObjectHandler getObjectHandler() {
+            current = new ActionEntry(definitionService);
+            return current;
+        }
+    }
+
+    private static class ParamsHandlerProvider extends JsonHandlerProviderImpl {
+        private final ActionEntry action;
+
+        private ParamsHandlerProvider(ActionEntry action) {
+            this.action = action;
+        }
+
+        @Override
+        public JsonObjectHandler getObjectHandler() {
+            return new JsonObjectHandler() {
+                @Override
+                public void put(String key, Object value) throws JsonValidationException {
+                    super.put(key, action.convert(key, value));
+                }
+            };
+        }
+    }
+}
@@ -49,6 +49,8 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
     private ConfigAdapter configAdapter;
 
     private MimetypesFileTypeMap mimeTypesMap = new MimetypesFileTypeMap();
+
+    private StaticResourceCache resourceCache = new StaticResourceCache();
     
     @SuppressWarnings("boxing")
     @Override
@@ -78,6 +80,7 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
         configAdapter.regenerateAuraJS();
         // framework uid is combination of aura js and resources uid
         String currentUid = configAdapter.getAuraFrameworkNonce();
+        resourceCache.setNonce(currentUid);
         // match entire path once, looking for root, optional nonce, and
         // rest-of-path
         Matcher matcher = RESOURCES_PATTERN.matcher(path);
@@ -137,6 +140,22 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
         }
 
         boolean isProduction = configAdapter.isProduction();
+        // handle any MIME content type, using only file name (not contents)
+        String mimeType = getMimeType(path);
+
+        //
+        // Resources under the current nonce are immutable, so serve them from memory if we can.
+        //
+        String cacheKey = format + file + (isProduction ? ":prod" : "");
+        if (matchedUid) {
+            StaticResourceCache.Entry cached = resourceCache.get(nonceUid, cacheKey);
+            if (cached != null) {
+                setResponseHeaders(response, cached.getMimeType(), haveUid, matchedUid);
+                cached.getContent().write(request, response);
+                return;
+            }
+        }
+
         StaticResource staticResource = new FileStaticResource(file, format, nonceUid, isProduction, resourceLoader);
 
         //
@@ -167,46 +186,58 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
                 return;
             }
 
-            // handle any MIME content type, using only file name (not contents)
-            String mimeType = mimeTypesMap.getContentType(path);
+            setResponseHeaders(response, mimeType, haveUid, matchedUid);
 
-            if (mimeType.equals("application/octet-stream") || mimeType.equals(JAVASCRIPT_CONTENT_TYPE)) /* unidentified */{
-                mimeType = JAVASCRIPT_CONTENT_TYPE;
-            }
-            response.setContentType(mimeType);
-            if (mimeType.startsWith("text/")) {
-                response.setCharacterEncoding(AuraBaseServlet.UTF_ENCODING);
+            if (matchedUid) {
+                resourceCache.put(nonceUid, cacheKey, mimeType, in).getContent().write(request, response);
+                return;
             }
 
             response.setBufferSize(10240);// 10kb
 
-            boolean js = JAVASCRIPT_CONTENT_TYPE.equals(mimeType);
-            if ((haveUid && !matchedUid) || (!haveUid && js)) {
-                //
-                // If we had a mismatched UID or we had none, and are requesting js (legacy) we set a short
-                // cache response.
-                //
-                servletUtilAdapter.setNoCache(response);
-            } else if (matchedUid || js) {
-                //
-                // If we have a known good state, we send a long expire. Warning, this means that resources other
-                // than js may have to impact the MD5, which could make it cycle more than we would like.
-                //
-                // TODO: if we want to have things not included in the fw uid use the fw-uid nonce,
-                // we need to adjust to drop the matchedUid.
-                //
-                servletUtilAdapter.setLongCache(response);
-            } else {
-                //
-                // By default we use short expire. (1 day)
-                //
-                servletUtilAdapter.setShortCache(response);
-            }
-
             IOUtil.copyStream(in, response.getOutputStream());
         }
     }
 
+    private String getMimeType(String path) {
+        String mimeType = mimeTypesMap.getContentType(path);
+
+        if (mimeType.equals("application/octet-stream") || mimeType.equals(JAVASCRIPT_CONTENT_TYPE)) /* unidentified */{
+            mimeType = JAVASCRIPT_CONTENT_TYPE;
+        }
+        return mimeType;
+    }
+
+    private void setResponseHeaders(HttpServletResponse response, String mimeType, boolean haveUid, boolean matchedUid) {
+        response.setContentType(mimeType);
+        if (mimeType.startsWith("text/")) {
+            response.setCharacterEncoding(AuraBaseServlet.UTF_ENCODING);
+        }
+
+        boolean js = JAVASCRIPT_CONTENT_TYPE.equals(mimeType);
+        if ((haveUid && !matchedUid) || (!haveUid && js)) {
+            //
+            // If we had a mismatched UID or we had none, and are requesting js (legacy) we set a short
+            // cache response.
+            //
+            servletUtilAdapter.setNoCache(response);
+        } else if (matchedUid || js) {
+            //
+            // If we have a known good state, we send a long expire. Warning, this means that resources other
+            // than js may have to impact the MD5, which could make it cycle more than we would like.
+            //
+            // TODO: if we want to have things not included in the fw uid use the fw-uid nonce,
+            // we need to adjust to drop the matchedUid.
+            //
+            servletUtilAdapter.setLongCache(response);
+        } else {
+            //
+            // By default we use short expire. (1 day)
+            //
+            servletUtilAdapter.setShortCache(response);
+        }
+    }
+
     @Inject
     public void setConfigAdapter(ConfigAdapter configAdapter) {
         this.configAdapter = configAdapter;
@@ -17,9 +17,7 @@ package org.auraframework.http;
 
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.StringReader;
 import java.io.StringWriter;
-import java.io.Writer;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -27,6 +25,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 import javax.inject.Inject;
 import javax.servlet.ServletConfig;
@@ -44,6 +43,7 @@ import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.http.ActionMessageHandlerProvider.ActionEntry;
 import org.auraframework.http.RequestParam.BooleanParam;
 import org.auraframework.http.RequestParam.EnumParam;
 import org.auraframework.http.RequestParam.InvalidParamException;
@@ -51,6 +51,7 @@ import org.auraframework.http.RequestParam.MissingParamException;
 import org.auraframework.http.RequestParam.StringParam;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.AuraValueProviderType;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.InstanceService;
@@ -67,9 +68,12 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.SystemErrorException;
 import org.auraframework.throwable.quickfix.QuickFixException;
-import org.auraframework.util.json.JsonReader;
+import org.auraframework.util.json.JsonStreamReader;
 import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
 /**
  * The servlet for initialization and actions in Aura.
  *
@@ -134,6 +138,7 @@ public class AuraServlet extends AuraBaseServlet {
     private final static StringParam formatAdapterParam = new StringParam(AURA_PREFIX + "formatAdapter", 0, false);
     private final static StringParam messageParam = new StringParam("message", 0, false);
     private final static StringParam nocacheParam = new StringParam("nocache", 0, false);
+    private final static StringParam contextParam = new StringParam(AURA_PREFIX + "context", 0, false);
 
     private ExceptionAdapter exceptionAdapter;
     private ContextService contextService;
@@ -143,6 +148,7 @@ public class AuraServlet extends AuraBaseServlet {
     private LoggingService loggingService;
     private ServerService serverService;
     private InstanceService instanceService;
+    private CachingService cachingService;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
@@ -216,6 +222,9 @@ public class AuraServlet extends AuraBaseServlet {
     /**
      * Translate a string into a message.
      *
+     * The message is read as a stream, looking up each action definition as soon as its descriptor is read, and
+     * converting parameters to their declared types as they are read.
+     *
      * @param input the input from the customer (unsanitized) to read into a message.
      * @return a message, or null.
      * @throws QuickFixException if there is an error instantiating the action (not action not found).
@@ -226,33 +235,37 @@ public class AuraServlet extends AuraBaseServlet {
             return null;
         }
         // this throws a json parse exception if it can't read.
-        final Map<String, List<Map<String, ?>>> message;
+        final Map<String, List<?>> message;
+        final JsonStreamReader reader = new JsonStreamReader(input, new ActionMessageHandlerProvider(definitionService));
         try {
-            message = (Map<String, List<Map<String, ?>>>) new JsonReader().read(new StringReader(input));
+            reader.next();
+            message = (Map<String, List<?>>) reader.getValue();
         } catch(final ClassCastException cce) {
             throw new AuraRequestInputException(cce, input, "Data in a request must be a map of name-value pairs in JSON format");
+        } catch (final IOException ioe) {
+            throw new JsonParseException(ioe);
         }
 
         if (message == null) {
             return null;
         }
-        List<Map<String, ?>> actions = message.get("actions");
+        List<?> actions = message.get("actions");
         final List<Action> actionList;
         if (actions != null) {
             actionList = new ArrayList<>();
             for (final Object actionObject : actions) {
-                final Map<String, ?> actionMap;
+                final ActionEntry actionEntry;
                 try {
-                    actionMap = (Map<String, ?>)actionObject;
+                    actionEntry = (ActionEntry)actionObject;
                 } catch(final ClassCastException cce) {
                     throw new AuraRequestInputException(cce, String.valueOf(actionObject), "Action must be in an object format.");
                 }
-                if (actionMap != null) {
+                if (actionEntry != null) {
                     final String qualifiedName;
                     try {
-                        qualifiedName = (String)actionMap.get("descriptor");
+                        qualifiedName = (String)actionEntry.get("descriptor");
                     } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("descriptor")), "Action descriptor must be in a valid component format.");
+                        throw new AuraRequestInputException(cce, String.valueOf(actionEntry.get("descriptor")), "Action descriptor must be in a valid component format.");
                     }
                     if (qualifiedName == null) {
                         // this should never happen, we should not get an empty descriptor.
@@ -261,7 +274,8 @@ public class AuraServlet extends AuraBaseServlet {
                     }
                     ActionDef def;
                     try {
-                        def = definitionService.getDefinition(qualifiedName, ActionDef.class);
+                        // looked up while reading, this rethrows any failure.
+                        def = actionEntry.getDefinition();
                     } catch (final QuickFixException qfe) {
                         // If this fails, it means either we have incompatible versions, or the client
                         // has been compromised, or the data is just messed up. In that case just drop
@@ -271,8 +285,7 @@ public class AuraServlet extends AuraBaseServlet {
                         throw new AuraRequestInputException(are, qualifiedName, "Action descriptor must be in a valid component format.");
                     }
                     Action instance;
-                    // FIXME: ints are getting translated into BigDecimals here.
-                    final Map<String, Object> params = (Map<String, Object>) actionMap.get("params");
+                    final Map<String, Object> params = (Map<String, Object>) actionEntry.get("params");
                     
                     // instanceService.getInstance can throw a QFE. Don't ignore this. In this case, we have
                     // a broken server. It should never really happen in production, but it will likely occur
@@ -280,15 +293,15 @@ public class AuraServlet extends AuraBaseServlet {
                     // out. Note that this is the _only_ place we can throw a QFE.
                     instance = (Action) instanceService.getInstance(def, params);
                     try {
-                        instance.setId((String) actionMap.get("id"));
+                        instance.setId((String) actionEntry.get("id"));
                     } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("id")), "Action id must be in a String format.");
+                        throw new AuraRequestInputException(cce, String.valueOf(actionEntry.get("id")), "Action id must be in a String format.");
                     }
                     final String cd;
                     try {
-                        cd = (String) actionMap.get("callingDescriptor");
+                        cd = (String) actionEntry.get("callingDescriptor");
                     } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("callingDescriptor")), "Action callingDescriptor must be in a String format.");
+                        throw new AuraRequestInputException(cce, String.valueOf(actionEntry.get("callingDescriptor")), "Action callingDescriptor must be in a String format.");
                     }
                     if (cd != null && !"UNKNOWN".equals(cd)) {
                         final DefDescriptor<? extends BaseComponentDef> callingDescriptor;
@@ -301,15 +314,15 @@ public class AuraServlet extends AuraBaseServlet {
                     }
                     final String v;
                     try {
-                        v = (String) actionMap.get("version");
+                        v = (String) actionEntry.get("version");
                     } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("version")), "Action version must be in a String format.");
+                        throw new AuraRequestInputException(cce, String.valueOf(actionEntry.get("version")), "Action version must be in a String format.");
                     }
                     if (v != null) {
                         instance.setCallerVersion(v);
                     }
     
-                    if (actionMap.get("storable") != null) {
+                    if (actionEntry.get("storable") != null) {
                         instance.setStorable();
                     }
     
@@ -553,6 +566,25 @@ public class AuraServlet extends AuraBaseServlet {
 
             response.setContentType(servletUtilAdapter.getContentType(Format.JSON));
 
+            //
+            // Publicly cacheable responses are the same for everyone, so serve them from memory before doing any
+            // of the work to parse and run the actions.
+            //
+            final PublicActionCache publicActionCache =
+                    cachingService != null ? cachingService.getPublicActionCache() : null;
+            String publicCacheKey = isGet && publicActionCache != null
+                    ? getPublicActionCacheKey(request, context) : null;
+            if (publicCacheKey != null) {
+                PublicActionCache.Entry cached = publicActionCache.getIfPresent(publicCacheKey);
+                if (cached != null) {
+                    servletUtilAdapter.setCSPHeaders(context.getApplicationDescriptor(), request, response);
+                    servletUtilAdapter.setCacheTimeout(response, cached.getRemainingMillis(), false);
+                    written = true;
+                    response.getWriter().write(cached.getBody());
+                    return;
+                }
+            }
+
             //
             // First, parse the message. But do some fancy footwork around QuickFixExceptions. If we
             // have trouble instantiating our actions, we want to fail _after_ we check for COOSE.
@@ -645,7 +677,6 @@ public class AuraServlet extends AuraBaseServlet {
 
             @SuppressWarnings("resource")
     	        PrintWriter servletOut = response.getWriter();
-            final Writer out;
             boolean publiclyCacheable = isGet && context.getActionPublicCacheKey() != null
                     && context.getActionPublicCacheKey().equals(configAdapter.getActionPublicCacheKey());
             if (publiclyCacheable) {
@@ -654,28 +685,32 @@ public class AuraServlet extends AuraBaseServlet {
                 // AND there are no errors. So we need to use a string buffer for the action output first
                 // so that we can then check the action status and set any cache headers before writing
                 // the response body.
-                out = new StringWriter();
-
-                // Remove the Browser GVP as we don't want browser-specific in the cache.
-                context.getGlobalProviders().remove(AuraValueProviderType.BROWSER.getPrefix());
-            } else {
-                out = servletOut;
-                written = true;
-            }
-
-            serverService.run(message, context, out, attributes);
+                final Message publicMessage = message;
+                final Map<String, Object> publicAttributes = attributes;
+                PublicActionCache.Entry entry;
+                if (publicCacheKey != null) {
+                    try {
+                        entry = publicActionCache.get(publicCacheKey,
+                                () -> runPubliclyCacheable(publicMessage, context, publicAttributes));
+                    } catch (ExecutionException | UncheckedExecutionException ee) {
+                        Throwables.throwIfInstanceOf(ee.getCause(), Exception.class);
+                        throw Throwables.propagate(ee.getCause());
+                    }
+                } else {
+                    entry = runPubliclyCacheable(message, context, attributes);
+                }
 
-            if (publiclyCacheable) {
                 // Set cache headers if no errors
-                if (message.getActions().get(0).getErrors() == null
-                        || message.getActions().get(0).getErrors().size() == 0) {
-                    servletUtilAdapter.setCacheTimeout(response,
-                            servletUtilAdapter.getPubliclyCacheableActionExpiration(message) * 1000, false);
+                if (entry.isCacheable()) {
+                    servletUtilAdapter.setCacheTimeout(response, entry.getRemainingMillis(), false);
                 }
 
                 // Write the response body after we are done writing cache headers
                 written = true;
-                servletOut.write(out.toString());
+                servletOut.write(entry.getBody());
+            } else {
+                written = true;
+                serverService.run(message, context, servletOut, attributes);
             }
         } catch (final InvalidParamException | MissingParamException | JsonParseException ipe) {
             servletUtilAdapter.handleServletException(new SystemErrorException(ipe), false, context, request, response, false);
@@ -686,6 +721,54 @@ public class AuraServlet extends AuraBaseServlet {
         }
     }
 
+    /**
+     * Run a publicly cacheable message into a buffer.
+     *
+     * @return the response, which is only cacheable if the action had no errors.
+     */
+    private PublicActionCache.Entry runPubliclyCacheable(Message message, AuraContext context,
+            Map<String, Object> attributes) throws IOException, QuickFixException {
+        StringWriter out = new StringWriter();
+
+        // Remove the Browser GVP as we don't want browser-specific in the cache.
+        context.getGlobalProviders().remove(AuraValueProviderType.BROWSER.getPrefix());
+
+        serverService.run(message, context, out, attributes);
+
+        long expiration = 0;
+        if (message.getActions().get(0).getErrors() == null
+                || message.getActions().get(0).getErrors().size() == 0) {
+            expiration = servletUtilAdapter.getPubliclyCacheableActionExpiration(message) * 1000L;
+        }
+        return new PublicActionCache.Entry(out.toString(), expiration);
+    }
+
+    /**
+     * Get the key for a publicly cacheable response.
+     *
+     * This only checks what is already known from the context, so the message may still turn out to not be
+     * publicly cacheable, in which case nothing will be cached under the key.
+     *
+     * @return the key, or null if the response cannot be publicly cached.
+     */
+    private String getPublicActionCacheKey(HttpServletRequest request, AuraContext context) {
+        String actionPublicCacheKey = context.getActionPublicCacheKey();
+        if (!configAdapter.isActionPublicCachingEnabled() || actionPublicCacheKey == null
+                || !actionPublicCacheKey.equals(configAdapter.getActionPublicCacheKey())
+                || !configAdapter.getAuraFrameworkNonce().equals(context.getFrameworkUID())) {
+            return null;
+        }
+        String message = messageParam.get(request);
+        if (message == null) {
+            return null;
+        }
+        return new StringBuilder(actionPublicCacheKey).append('|')
+                .append(context.getFrameworkUID()).append('|')
+                .append(context.getRequestedLocales()).append('|')
+                .append(contextParam.get(request)).append('|')
+                .append(message).toString();
+    }
+
     /**
      * @see javax.servlet.http.HttpServlet#doPost(javax.servlet.http.HttpServletRequest,
      *      javax.servlet.http.HttpServletResponse)
@@ -758,4 +841,9 @@ public class AuraServlet extends AuraBaseServlet {
     public void setInstanceService(InstanceService instanceService) {
         this.instanceService = instanceService;
     }
+
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.HttpHeaders;
+import org.auraframework.util.text.Hash;
+
+/**
+ * A response body that has been encoded once, to be served many times.
+ *
+ * This holds the bytes of the body, along with gzip and deflate variants and a strong ETag for each, so that serving
+ * it requires neither character encoding nor compression per request. Each content-coding is a different
+ * representation, so the ETags of the compressed variants carry the coding as a suffix. Content that is already
+ * compressed, such as images and fonts, may be held without the compressed variants.
+ */
+public class EncodedContent {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private final byte[] bytes;
+    private final byte[] gzipBytes;
+    private final byte[] deflateBytes;
+    private final String hash;
+
+    private EncodedContent(byte[] bytes, byte[] gzipBytes, byte[] deflateBytes, String hash) {
+        this.bytes = bytes;
+        this.gzipBytes = gzipBytes;
+        this.deflateBytes = deflateBytes;
+        this.hash = hash;
+    }
+
+    /**
+     * Encode a response body.
+     *
+     * @param content the body.
+     * @param version a string that uniquely identifies this version of the body, e.g. a key including a UID.
+     * @return the encoded content.
+     * @throws IOException if compression fails.
+     */
+    public static EncodedContent encode(String content, String version) throws IOException {
+        return encode(content.getBytes(StandardCharsets.UTF_8), version, true);
+    }
+
+    /**
+     * Encode a response body that is already in bytes.
+     *
+     * @param bytes the body.
+     * @param version a string that uniquely identifies this version of the body.
+     * @param compress whether to build compressed variants, false for content that is already compressed.
+     * @return the encoded content.
+     * @throws IOException if compression fails.
+     */
+    public static EncodedContent encode(byte[] bytes, String version, boolean compress) throws IOException {
+        byte[] gzipBytes = null;
+        byte[] deflateBytes = null;
+
+        if (compress) {
+            ByteArrayOutputStream gzip = new ByteArrayOutputStream(bytes.length / 4);
+            try (OutputStream out = new GZIPOutputStream(gzip)) {
+                out.write(bytes);
+            }
+            ByteArrayOutputStream deflate = new ByteArrayOutputStream(bytes.length / 4);
+            try (OutputStream out = new DeflaterOutputStream(deflate)) {
+                out.write(bytes);
+            }
+            gzipBytes = gzip.toByteArray();
+            deflateBytes = deflate.toByteArray();
+        }
+
+        String hash = new Hash.StringBuilder().addString(version).build().toString();
+        return new EncodedContent(bytes, gzipBytes, deflateBytes, hash);
+    }
+
+    /**
+     * @return the total number of bytes held, across all encodings.
+     */
+    public int getSize() {
+        return bytes.length + (gzipBytes != null ? gzipBytes.length : 0)
+                + (deflateBytes != null ? deflateBytes.length : 0);
+    }
+
+    /**
+     * @return the ETag of the identity encoding.
+     */
+    public String getETag() {
+        return getETag(null);
+    }
+
+    /**
+     * Get the ETag for a content encoding.
+     *
+     * @param encoding the content encoding, null for the identity encoding.
+     */
+    public String getETag(String encoding) {
+        String coding = getEncoding(encoding);
+        // note per rfc7232 etags are a opaque quoted string
+        return '"' + hash + (coding != null ? "-" + coding : "") + '"';
+    }
+
+    /**
+     * Get the bytes for a content encoding.
+     *
+     * @param encoding the content encoding, null for the identity encoding.
+     */
+    public byte[] getBytes(String encoding) {
+        String coding = getEncoding(encoding);
+        if (GZIP.equals(coding)) {
+            return gzipBytes;
+        }
+        if (DEFLATE.equals(coding)) {
+            return deflateBytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the encoding that is held for a requested encoding, or null for the identity encoding.
+     */
+    private String getEncoding(String encoding) {
+        if (GZIP.equals(encoding) && gzipBytes != null) {
+            return GZIP;
+        }
+        if (DEFLATE.equals(encoding) && deflateBytes != null) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    /**
+     * Write the content to a response.
+     *
+     * This picks the best encoding accepted by the client, answers an If-None-Match that matches the ETag of that
+     * encoding with a 304, and otherwise writes the cached bytes directly to the output stream. The caller is
+     * responsible for the content type and cache headers.
+     *
+     * @param request the request, for conditional and encoding headers.
+     * @param response the response, which must not have had its writer fetched.
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String encoding = getEncoding(chooseEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING)));
+        String etag = getETag(encoding);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (gzipBytes != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = getBytes(encoding);
+        if (encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Choose the content encoding from an Accept-Encoding header, preferring gzip over deflate.
+     *
+     * @return the encoding, or null for the identity encoding.
+     */
+    static String chooseEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase();
+            if (!isAcceptable(params)) {
+                continue;
+            }
+            if (coding.equals(GZIP) || coding.equals("x-gzip") || coding.equals("*")) {
+                gzip = true;
+            } else if (coding.equals(DEFLATE)) {
+                deflate = true;
+            }
+        }
+        if (gzip) {
+            return GZIP;
+        }
+        if (deflate) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    private static boolean isAcceptable(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) > 0;
+                } catch (NumberFormatException nfe) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * An in-process cache of responses to publicly cacheable actions.
+ *
+ * Each response is kept for the public caching expiration of its action, and the cache is bounded by the total
+ * size of the responses held. Concurrent misses for the same key wait on a single load, so the action is only run
+ * once. The cache is held by the {@link org.auraframework.service.CachingService}, which clears it when source
+ * changes.
+ */
+public class PublicActionCache {
+    /**
+     * The default bound on the characters held by the cache, settable with aura.actions.publicCacheSize.
+     */
+    public static final long DEFAULT_MAXIMUM_CHARS = 8L * 1024 * 1024;
+
+    /**
+     * A cached response.
+     */
+    public static class Entry {
+        private final String body;
+        private final long expiresAt;
+
+        /**
+         * @param body the response body.
+         * @param expirationMillis how long the response may be cached for, zero or less if it must not be.
+         */
+        public Entry(String body, long expirationMillis) {
+            this.body = body;
+            this.expiresAt = expirationMillis > 0 ? System.currentTimeMillis() + expirationMillis : 0;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isCacheable() {
+            return expiresAt > 0;
+        }
+
+        /**
+         * @return the time left before the entry expires, so that downstream caches expire with us.
+         */
+        public long getRemainingMillis() {
+            return Math.max(0, expiresAt - System.currentTimeMillis());
+        }
+
+        boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public PublicActionCache() {
+        this(Long.getLong("aura.actions.publicCacheSize", DEFAULT_MAXIMUM_CHARS));
+    }
+
+    public PublicActionCache(long maximumChars) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumChars)
+                .weigher((String key, Entry entry) -> key.length() + entry.getBody().length())
+                .build();
+    }
+
+    /**
+     * Get a response that has not yet expired.
+     *
+     * @param key the response key.
+     * @return the entry, or null if there is none.
+     */
+    public Entry getIfPresent(String key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.isExpired()) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Get a response, loading it if necessary.
+     *
+     * Entries that the loader marks as not cacheable are handed to any callers waiting on the same load, and
+     * then dropped.
+     *
+     * @param key the response key.
+     * @param loader the loader to produce the response.
+     * @return the entry.
+     * @throws ExecutionException if the loader failed.
+     */
+    public Entry get(String key, Callable<Entry> loader) throws ExecutionException {
+        Entry entry = getIfPresent(key);
+        if (entry != null) {
+            return entry;
+        }
+        entry = cache.get(key, loader);
+        if (!entry.isCacheable()) {
+            cache.asMap().remove(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return the number of responses cached.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.auraframework.util.IOUtil;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A cache of framework static resources, valid for a single framework nonce.
+ *
+ * Resources served under the current nonce are immutable, so once read from the classpath they can be held in
+ * memory, along with their compressed variants. The whole cache is dropped when the nonce changes, and it is
+ * bounded by the total number of bytes held.
+ */
+public class StaticResourceCache {
+    /**
+     * The default bound on the bytes held by the cache, settable with aura.framework.resourceCacheSize.
+     */
+    public static final long DEFAULT_MAXIMUM_BYTES = 32L * 1024 * 1024;
+
+    /**
+     * A cached resource.
+     */
+    public static class Entry {
+        private final String mimeType;
+        private final EncodedContent content;
+
+        public Entry(String mimeType, EncodedContent content) {
+            this.mimeType = mimeType;
+            this.content = content;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public EncodedContent getContent() {
+            return content;
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+
+    private volatile String nonce;
+
+    public StaticResourceCache() {
+        this(Long.getLong("aura.framework.resourceCacheSize", DEFAULT_MAXIMUM_BYTES));
+    }
+
+    public StaticResourceCache(long maximumBytes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String key, Entry entry) -> entry.getContent().getSize())
+                .build();
+    }
+
+    /**
+     * Set the current framework nonce, dropping all entries if it has changed.
+     *
+     * @param currentNonce the nonce returned by the config adapter.
+     */
+    public void setNonce(String currentNonce) {
+        if (currentNonce == null ? nonce == null : currentNonce.equals(nonce)) {
+            return;
+        }
+        synchronized (this) {
+            if (currentNonce == null ? nonce != null : !currentNonce.equals(nonce)) {
+                // Publish the new nonce before clearing, so that a racing put either sees it and drops its own
+                // entry, or has its entry cleared here.
+                nonce = currentNonce;
+                cache.invalidateAll();
+            }
+        }
+    }
+
+    /**
+     * Get a resource.
+     *
+     * @param nonceUid the nonce the resource was requested under.
+     * @param key the resource key.
+     * @return the entry, or null if it is not cached for that nonce.
+     */
+    public Entry get(String nonceUid, String key) {
+        if (nonceUid == null || !nonceUid.equals(nonce)) {
+            return null;
+        }
+        return cache.getIfPresent(getCacheKey(nonceUid, key));
+    }
+
+    /**
+     * Read a resource and cache it.
+     *
+     * Nothing is cached if the nonce has changed since the resource was requested, since the stream may then hold
+     * newer content than the nonce describes.
+     *
+     * @param nonceUid the nonce the resource was requested under.
+     * @param key the resource key.
+     * @param mimeType the mime type of the resource.
+     * @param in the stream to read the resource from, which is not closed.
+     * @return the entry.
+     * @throws IOException if the stream could not be read.
+     */
+    public Entry put(String nonceUid, String key, String mimeType, InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        IOUtil.copyStream(in, bytes);
+
+        boolean compress = mimeType.startsWith("text/") || mimeType.endsWith("javascript")
+                || mimeType.endsWith("json") || mimeType.endsWith("xml");
+        Entry entry = new Entry(mimeType, EncodedContent.encode(bytes.toByteArray(), nonceUid + key, compress));
+        if (nonceUid != null && nonceUid.equals(nonce)) {
+            String cacheKey = getCacheKey(nonceUid, key);
+            cache.put(cacheKey, entry);
+            if (!nonceUid.equals(nonce)) {
+                cache.invalidate(cacheKey);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * @return the number of resources cached.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Entries are keyed by nonce as well, so that an entry put while the nonce changes is never served for the
+     * new nonce.
+     */
+    private static String getCacheKey(String nonceUid, String key) {
+        return nonceUid + '|' + key;
+    }
+}
@@ -24,6 +24,7 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.EncodedContent;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 
@@ -42,6 +43,11 @@ public class AppCss extends AuraResourceImpl {
         }
 
         try {
+            EncodedContent encoded = serverService.getEncodedAppCss(dependencies);
+            if (encoded != null) {
+                encoded.write(request, response);
+                return;
+            }
             serverService.writeAppCss(dependencies, response.getWriter());
         } catch (Throwable t) {
             servletUtilAdapter.handleServletException(t, false, context, request, response, false);
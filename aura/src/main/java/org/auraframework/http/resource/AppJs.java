@@ -27,6 +27,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.auraframework.adapter.AppJsUtilAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.EncodedContent;
 import org.auraframework.service.ServerService.HYDRATION_TYPE;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
@@ -51,6 +52,13 @@ public class AppJs extends AuraResourceImpl {
         }
 
         try {
+            EncodedContent encoded = serverService.getEncodedDefinitions(dependencies, isSplitEnabled,
+                    isSplitEnabled ? 1 : -1, HYDRATION_TYPE.all, AppJsUtilAdapter.APPJS_PREREQ, getSuffix(isSplitEnabled));
+            if (encoded != null) {
+                encoded.write(request, response);
+                return;
+            }
+
             @SuppressWarnings("resource")
             PrintWriter writer = response.getWriter();
             writer.append(AppJsUtilAdapter.APPJS_PREREQ);
@@ -72,6 +80,17 @@ public class AppJs extends AuraResourceImpl {
         }
     }
 
+    /**
+     * The text written after the definitions, which must match what {@link #write} appends.
+     */
+    private String getSuffix(boolean isSplitEnabled) {
+        if (isSplitEnabled) {
+            return AppJsUtilAdapter.APPJS_APPEND + AppJsUtilAdapter.APPJS_READY + AppJsUtilAdapter.EXECUTE_APPDEFSREADY;
+        }
+        return AppJsUtilAdapter.APPJS_APPEND + AppJsUtilAdapter.APPCOREJS_READY + AppJsUtilAdapter.APPJS_READY
+                + AppJsUtilAdapter.EXECUTE_APPDEFSREADY;
+    }
+
     @Inject
     public void setAppJsUtilAdapter(AppJsUtilAdapter appJsUtilAdapter) {
         this.appJsUtilAdapter = appJsUtilAdapter;
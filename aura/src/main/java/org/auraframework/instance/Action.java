@@ -135,6 +135,18 @@ public interface Action extends Instance<ActionDef> {
 
     boolean isStorable();
 
+    /**
+     * Can this action run concurrently with other actions in the same request?
+     *
+     * Parallelizable actions run on a context forked from the request context, which only carries back client
+     * events and loaded definitions. Their setup and cleanup may also run on different threads.
+     *
+     * @return true if the action may run in parallel, false by default.
+     */
+    default boolean isParallelizable() {
+        return false;
+    }
+
     void setStorable();
 
     boolean isOfflineAction();
@@ -24,6 +24,8 @@ import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
+import org.auraframework.http.EncodedContent;
+import org.auraframework.http.PublicActionCache;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.system.SourceListener;
@@ -66,6 +68,25 @@ public interface CachingService {
         return null; // FIXME remove default method...
     }
 
+    /**
+     * Gets the cache for pre-encoded response bodies, e.g., app.js and app.css.
+     * <p>
+     * Keys follow the same uid-prefixed form as the strings caches. Returning null disables pre-encoded responses.
+     */
+    default Cache<String, EncodedContent> getEncodedContentCache() {
+        return null;
+    }
+
+    /**
+     * Gets the in-process cache of publicly cacheable action responses.
+     * <p>
+     * A response may depend on any definition, so the cache is cleared on every source change. Returning null
+     * disables the in-process cache.
+     */
+    default PublicActionCache getPublicActionCache() {
+        return null;
+    }
+
     Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache();
 
     Cache<String, DependencyEntry> getDepsCache();
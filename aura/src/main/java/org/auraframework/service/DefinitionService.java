@@ -337,6 +337,15 @@ public interface DefinitionService {
      */
     void warmCaches();
 
+    /**
+     * make sure all of our registries are built, splitting the namespaces across a pool of threads.
+     *
+     * @param threadCount the number of threads to use, one or less warms on the current thread.
+     * @throws org.auraframework.throwable.AuraRuntimeException if any of the threads failed, with the first failure
+     *         as the cause.
+     */
+    void warmCaches(int threadCount);
+
     public interface ResolverContext {
         RegistrySet getRegistrySet();
     }
@@ -23,6 +23,7 @@ import java.util.Set;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.SVGDef;
+import org.auraframework.http.EncodedContent;
 import org.auraframework.instance.Component;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.Message;
@@ -74,6 +75,16 @@ public interface ServerService {
      */
     void writeAppCss(Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException;
 
+    /**
+     * get the CSS for the preloads + app, pre-encoded for the response.
+     *
+     * @return the encoded content, or null if it cannot be cached, in which case {@link #writeAppCss} should be used.
+     * @throws QuickFixException if the definitions could not be compiled.
+     */
+    default EncodedContent getEncodedAppCss(Set<DefDescriptor<?>> dependencies) throws IOException, QuickFixException {
+        return null;
+    }
+
     <T extends BaseComponentDef> Component writeTemplate(AuraContext context, T value, Map<String, Object> componentAttributes, Appendable out) throws IOException, QuickFixException;
 
     /**
@@ -105,6 +116,19 @@ public interface ServerService {
     void writeDefinitions(Set<DefDescriptor<?>> dependencies, Writer out, boolean hasParts, int partIndex,
             HYDRATION_TYPE hydrationType, boolean preloading, String dependencySetUid) throws IOException, QuickFixException;
 
+    /**
+     * get the complete set of definitions in JS, wrapped in a prefix and suffix, pre-encoded for the response.
+     *
+     * The prefix and suffix must be constant for a given set of arguments, as they are not part of the cache key.
+     *
+     * @return the encoded content, or null if it cannot be cached, in which case {@link #writeDefinitions} should be
+     *         used.
+     */
+    default EncodedContent getEncodedDefinitions(Set<DefDescriptor<?>> dependencies, boolean hasParts, int partIndex,
+            HYDRATION_TYPE hydrationType, String prefix, String suffix) throws IOException, QuickFixException {
+        return null;
+    }
+
     String serializeInitializers(AuraContext context) throws IOException;
 
     String serializeContext(AuraContext context) throws QuickFixException, IOException;
@@ -723,7 +723,10 @@ public interface AuraContext {
 
     /**
      * Get the access check cache.
+     *
+     * @deprecated access decisions are no longer cached per request.
      */
+    @Deprecated
     Map<String, String> getAccessCheckCache();
 
     /**
@@ -128,7 +128,9 @@ public interface AuraLocalStore {
      * accessee to an error string. If the error string is null, access is granted.
      *
      * @return a map for access checks..
+     * @deprecated access decisions are no longer cached per request.
      */
+    @Deprecated
     @Nonnull
     Map<String, String> getAccessCheckCache();
 }
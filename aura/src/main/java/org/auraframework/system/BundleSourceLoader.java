@@ -28,6 +28,20 @@ public interface BundleSourceLoader extends SourceLoader {
      */
     BundleSource<?> getBundle(DefDescriptor<?> descriptor);
 
+    /**
+     * Update a single bundle after a change to one of its files.
+     *
+     * This lets a loader avoid rescanning all of its namespaces when one file changes. Loaders that cannot tell
+     * which bundle a file belongs to leave it to the caller to do a full reset.
+     *
+     * @param filePath the path of the file that was created, changed or deleted.
+     * @return the bundle name (namespace:name, lower case) of the updated bundle, or null if the loader did not
+     *         update anything and needs a full reset.
+     */
+    default String resetBundle(String filePath) {
+        return null;
+    }
+
     /**
      * Get a bundle name from a descriptor.
      */
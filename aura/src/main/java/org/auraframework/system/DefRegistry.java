@@ -125,6 +125,17 @@ public interface DefRegistry extends Serializable {
      */
     void reset();
 
+    /**
+     * reset the registry after a change to a single file.
+     *
+     * Registries that can work out what the file affects may update only that, the default is a full reset.
+     *
+     * @param filePath the path of the file that changed, or null if anything may have changed.
+     */
+    default void reset(String filePath) {
+        reset();
+    }
+
     /**
      * Return true if registry cannot change after creation.
      *
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.http.HttpHeaders;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class EncodedContentTest {
+    private static final String CONTENT = "Aura.appJsReady=true;é";
+
+    @Test
+    public void testChooseEncodingPrefersGzip() {
+        Assert.assertEquals("gzip", EncodedContent.chooseEncoding("deflate, gzip"));
+        Assert.assertEquals("gzip", EncodedContent.chooseEncoding("*"));
+        Assert.assertEquals("deflate", EncodedContent.chooseEncoding("gzip;q=0, deflate"));
+        Assert.assertNull(EncodedContent.chooseEncoding("identity"));
+        Assert.assertNull(EncodedContent.chooseEncoding(null));
+    }
+
+    @Test
+    public void testETagDependsOnVersion() throws Exception {
+        EncodedContent first = EncodedContent.encode(CONTENT, "uid1");
+        EncodedContent same = EncodedContent.encode(CONTENT, "uid1");
+        EncodedContent second = EncodedContent.encode(CONTENT, "uid2");
+
+        Assert.assertEquals(first.getETag(), same.getETag());
+        Assert.assertNotEquals(first.getETag(), second.getETag());
+        Assert.assertTrue(first.getETag().startsWith("\"") && first.getETag().endsWith("\""));
+    }
+
+    @Test
+    public void testETagDependsOnEncoding() throws Exception {
+        EncodedContent encoded = EncodedContent.encode(CONTENT, "uid");
+
+        String identity = encoded.getETag(null);
+        String gzip = encoded.getETag(EncodedContent.GZIP);
+        String deflate = encoded.getETag(EncodedContent.DEFLATE);
+        Assert.assertEquals(identity, encoded.getETag());
+        Assert.assertNotEquals(identity, gzip);
+        Assert.assertNotEquals(identity, deflate);
+        Assert.assertNotEquals(gzip, deflate);
+        Assert.assertTrue(gzip.startsWith("\"") && gzip.endsWith("-gzip\""));
+    }
+
+    @Test
+    public void testETagWithoutCompressedVariantsIsIdentity() throws Exception {
+        EncodedContent encoded = EncodedContent.encode(CONTENT.getBytes(StandardCharsets.UTF_8), "uid", false);
+
+        Assert.assertEquals(encoded.getETag(null), encoded.getETag(EncodedContent.GZIP));
+    }
+
+    @Test
+    public void testWriteGzip() throws Exception {
+        EncodedContent encoded = EncodedContent.encode(CONTENT, "uid");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        encoded.write(request, response);
+
+        Assert.assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(encoded.getETag(EncodedContent.GZIP), response.getHeader(HttpHeaders.ETAG));
+        Assert.assertEquals(CONTENT, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void testWriteIdentity() throws Exception {
+        EncodedContent encoded = EncodedContent.encode(CONTENT, "uid");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        encoded.write(request, response);
+
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(encoded.getETag(), response.getHeader(HttpHeaders.ETAG));
+        Assert.assertEquals(CONTENT, new String(response.getContentAsByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteNotModified() throws Exception {
+        EncodedContent encoded = EncodedContent.encode(CONTENT, "uid");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, encoded.getETag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        encoded.write(request, response);
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    /**
+     * A validator for one content-coding must not validate another, or a cache could serve the wrong bytes.
+     */
+    @Test
+    public void testWriteNotModifiedOnlyForSameEncoding() throws Exception {
+        EncodedContent encoded = EncodedContent.encode(CONTENT, "uid");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, encoded.getETag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        encoded.write(request, response);
+
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertEquals(CONTENT, gunzip(response.getContentAsByteArray()));
+
+        request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, encoded.getETag(EncodedContent.GZIP));
+        response = new MockHttpServletResponse();
+
+        encoded.write(request, response);
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
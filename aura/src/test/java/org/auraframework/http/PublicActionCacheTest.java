@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PublicActionCacheTest {
+
+    @Test
+    public void testGetLoadsOnce() throws Exception {
+        PublicActionCache cache = new PublicActionCache(1024);
+        AtomicInteger loads = new AtomicInteger();
+
+        PublicActionCache.Entry first = cache.get("key", () -> {
+            loads.incrementAndGet();
+            return new PublicActionCache.Entry("{}", 60000);
+        });
+        PublicActionCache.Entry second = cache.get("key", () -> {
+            loads.incrementAndGet();
+            return new PublicActionCache.Entry("{}", 60000);
+        });
+
+        Assert.assertSame(first, second);
+        Assert.assertSame(first, cache.getIfPresent("key"));
+        Assert.assertEquals(1, loads.get());
+        Assert.assertTrue(first.getRemainingMillis() > 0);
+    }
+
+    @Test
+    public void testNonCacheableEntryIsDropped() throws Exception {
+        PublicActionCache cache = new PublicActionCache(1024);
+
+        PublicActionCache.Entry entry = cache.get("key", () -> new PublicActionCache.Entry("{\"error\":1}", 0));
+
+        Assert.assertFalse(entry.isCacheable());
+        Assert.assertEquals("{\"error\":1}", entry.getBody());
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testExpiredEntryIsNotReturned() throws Exception {
+        PublicActionCache cache = new PublicActionCache(1024);
+        cache.get("key", () -> new PublicActionCache.Entry("{}", 1));
+
+        Thread.sleep(5);
+
+        Assert.assertNull(cache.getIfPresent("key"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoaderFailureIsPropagated() {
+        PublicActionCache cache = new PublicActionCache(1024);
+        IllegalStateException failure = new IllegalStateException();
+
+        try {
+            cache.get("key", () -> {
+                throw failure;
+            });
+            Assert.fail("Expected the loader failure");
+        } catch (ExecutionException | RuntimeException e) {
+            Assert.assertSame(failure, e.getCause());
+        }
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCacheIsBoundedByChars() throws Exception {
+        PublicActionCache cache = new PublicActionCache(10);
+
+        cache.get("key", () -> new PublicActionCache.Entry("01234567890123456789", 60000));
+
+        Assert.assertEquals(0, cache.size());
+    }
+}
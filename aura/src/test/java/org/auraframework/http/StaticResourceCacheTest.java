@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StaticResourceCacheTest {
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testGetReturnsCachedEntryForCurrentNonce() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024);
+        cache.setNonce("nonce1");
+
+        StaticResourceCache.Entry put = cache.put("nonce1", "/aura/javascript/aura.js", "text/javascript",
+                stream("var a;"));
+
+        Assert.assertSame(put, cache.get("nonce1", "/aura/javascript/aura.js"));
+        Assert.assertNull(cache.get("nonce2", "/aura/javascript/aura.js"));
+        Assert.assertEquals("var a;", new String(put.getContent().getBytes(null), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNonceChangeDropsEntries() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024);
+        cache.setNonce("nonce1");
+        cache.put("nonce1", "/aura/javascript/aura.js", "text/javascript", stream("var a;"));
+
+        cache.setNonce("nonce2");
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("nonce2", "/aura/javascript/aura.js"));
+    }
+
+    @Test
+    public void testPutForStaleNonceIsNotCached() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024);
+        cache.setNonce("nonce2");
+
+        StaticResourceCache.Entry entry = cache.put("nonce1", "/aura/javascript/aura.js", "text/javascript",
+                stream("var a;"));
+
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEntryIsOnlyServedForItsNonce() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024);
+        cache.setNonce("nonce1");
+        cache.put("nonce1", "/aura/javascript/aura.js", "text/javascript", stream("var a;"));
+        cache.setNonce("nonce2");
+        StaticResourceCache.Entry current = cache.put("nonce2", "/aura/javascript/aura.js", "text/javascript",
+                stream("var b;"));
+
+        Assert.assertSame(current, cache.get("nonce2", "/aura/javascript/aura.js"));
+        Assert.assertNull(cache.get("nonce1", "/aura/javascript/aura.js"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    /**
+     * A nonce change while a resource is being read must not leave the resource cached.
+     */
+    @Test
+    public void testNonceChangeDuringPutIsNotCached() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024);
+        cache.setNonce("nonce1");
+        ByteArrayInputStream in = new ByteArrayInputStream("var a;".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                cache.setNonce("nonce2");
+                return super.read(b, off, len);
+            }
+        };
+
+        cache.put("nonce1", "/aura/javascript/aura.js", "text/javascript", in);
+
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("nonce2", "/aura/javascript/aura.js"));
+    }
+
+    @Test
+    public void testBinaryContentIsNotCompressed() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(1024 * 1024);
+        cache.setNonce("nonce1");
+
+        StaticResourceCache.Entry entry = cache.put("nonce1", "/aura/resources/img.png", "image/png",
+                stream("png"));
+
+        Assert.assertSame(entry.getContent().getBytes(null), entry.getContent().getBytes(EncodedContent.GZIP));
+    }
+
+    @Test
+    public void testCacheIsBoundedByBytes() throws Exception {
+        StaticResourceCache cache = new StaticResourceCache(100);
+        cache.setNonce("nonce1");
+
+        StringBuilder big = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            big.append((char) ('a' + (i * 7) % 26));
+        }
+        cache.put("nonce1", "/aura/resources/big.png", "image/png", stream(big.toString()));
+
+        Assert.assertEquals(0, cache.size());
+    }
+}